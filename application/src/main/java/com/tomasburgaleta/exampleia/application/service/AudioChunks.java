@@ -0,0 +1,166 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.util.List;
+
+/**
+ * Gathering view over audio extracted from an {@link AudioStreamingService}.
+ * The bytes stay in the buffer's segments; nothing is concatenated until a caller asks for an array.
+ * Closing the view returns the segments to their pool, so it must not be used afterwards,
+ * unless the segments were handed over to an {@link AudioPayload} with {@link #toAudioPayload()}.
+ */
+public class AudioChunks implements AutoCloseable {
+
+    private final List<byte[]> segments;
+    private final int[] lengths;
+    private final long size;
+    private final AudioSegmentPool pool;
+    private boolean closed;
+    private boolean detached;
+
+    AudioChunks(List<byte[]> segments, int[] lengths, long size, AudioSegmentPool pool) {
+        this.segments = segments;
+        this.lengths = lengths;
+        this.size = size;
+        this.pool = pool;
+    }
+
+    /**
+     * @return The total number of audio bytes in this view
+     */
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns read-only little-endian views over every non-empty segment, in order
+     *
+     * @return The buffers making up the audio
+     * @throws IllegalStateException if the view has been closed
+     */
+    public ByteBuffer[] buffers() {
+        ensureOpen();
+        int count = 0;
+        for (int length : lengths) {
+            if (length > 0) {
+                count++;
+            }
+        }
+
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        int index = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            if (lengths[i] > 0) {
+                buffers[index++] = ByteBuffer.wrap(segments.get(i), 0, lengths[i]).slice()
+                        .asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        return buffers;
+    }
+
+    /**
+     * Writes all segments to the channel with gathering writes
+     *
+     * @param channel The destination channel
+     * @return The number of bytes written
+     * @throws IOException if writing fails
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        ByteBuffer[] buffers = buffers();
+        long written = 0;
+        while (written < size) {
+            written += channel.write(buffers);
+        }
+        return written;
+    }
+
+    /**
+     * Writes all segments to the stream without concatenating them
+     *
+     * @param out The destination stream
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ensureOpen();
+        for (int i = 0; i < lengths.length; i++) {
+            out.write(segments.get(i), 0, lengths[i]);
+        }
+    }
+
+    /**
+     * Copies the audio into a single array.
+     * Only use this at boundaries that require a contiguous array.
+     *
+     * @return A new array holding all audio bytes
+     * @throws IllegalStateException if the view has been closed or holds more than 2 GB
+     */
+    public byte[] toByteArray() {
+        ensureOpen();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Audio is too large for a single array: " + size + " bytes");
+        }
+
+        byte[] data = new byte[(int) size];
+        int offset = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            System.arraycopy(segments.get(i), 0, data, offset, lengths[i]);
+            offset += lengths[i];
+        }
+        return data;
+    }
+
+    /**
+     * Hands the segments over to a composite payload without copying them.
+     * The segments then belong to the payload and are not returned to the pool when this view is closed.
+     *
+     * @return A payload reading the segments one after another
+     * @throws IllegalStateException if the view has been closed or holds more than 2 GB
+     */
+    public AudioPayload toAudioPayload() {
+        ensureOpen();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Audio is too large for a single payload: " + size + " bytes");
+        }
+
+        AudioPayload[] parts = new AudioPayload[lengths.length];
+        for (int i = 0; i < lengths.length; i++) {
+            parts[i] = AudioPayload.wrap(segments.get(i), 0, lengths[i]);
+        }
+        detached = true;
+        return AudioPayload.concat(parts);
+    }
+
+    /**
+     * Returns the segments to the pool. Calling this more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        if (detached) {
+            return;
+        }
+        for (byte[] segment : segments) {
+            pool.release(segment);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Audio chunks have already been released");
+        }
+    }
+}
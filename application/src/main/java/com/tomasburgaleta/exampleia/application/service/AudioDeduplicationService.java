@@ -0,0 +1,323 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index of uploaded audio by content, so that a client re-sending the same audio after a retry
+ * or page reload shares the stored audio and reuses its transcription instead of paying for them again.
+ * Only the audio and the results are shared: every upload is stored as a recording of its own.
+ * The content key is a SHA-256 digest of the audio format and PCM samples, fed part by part from the
+ * payload buffers without copying them. A cryptographic digest is used because results are shared
+ * between clients: a key that could be forced to collide would leak another upload's transcription.
+ * The service also remembers the key of every recording it registers, so a stored recording is
+ * hashed once when it is ingested rather than again on every transcription.
+ * All indexes keep the most recently used entries up to a fixed count. Instances are thread-safe.
+ */
+public class AudioDeduplicationService {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int FORMAT_SIZE = Long.BYTES + Short.BYTES + Short.BYTES;
+
+    private final Object lock = new Object();
+    private final Map<String, String> recordings;
+    private final Map<String, String> recordingKeys;
+    private final Map<String, TranscriptionResult> transcriptions;
+    private long recordingHits;
+    private long recordingMisses;
+    private long transcriptionHits;
+    private long transcriptionMisses;
+    private long deduplicatedBytes;
+
+    /**
+     * @param maxEntries The number of recordings and of transcriptions remembered
+     * @throws IllegalArgumentException if maxEntries is not positive
+     */
+    public AudioDeduplicationService(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.recordings = lruMap(maxEntries);
+        this.recordingKeys = lruMap(maxEntries);
+        this.transcriptions = lruMap(maxEntries);
+    }
+
+    /**
+     * Returns the content key of audio: a digest of its format and PCM samples
+     *
+     * @param audioBean The audio to identify
+     * @return The key as a lowercase hex string
+     * @throws IllegalArgumentException if the audio bean has no audio data
+     */
+    public String contentKey(AudioBean audioBean) {
+        Objects.requireNonNull(audioBean, "AudioBean cannot be null");
+        if (!audioBean.hasAudioData()) {
+            throw new IllegalArgumentException("AudioBean must contain audio data");
+        }
+
+        return digest(audioBean);
+    }
+
+    /**
+     * Returns the content key of a stored recording: the key it was registered with, or its digest
+     * if it was never registered or has been forgotten since
+     *
+     * @param recording The stored recording
+     * @return The key as a lowercase hex string
+     * @throws IllegalArgumentException if the recording has no audio data
+     */
+    public String recordingKey(AudioBean recording) {
+        Objects.requireNonNull(recording, "AudioBean cannot be null");
+        String key;
+        synchronized (lock) {
+            key = recordingKeys.get(recording.getId());
+        }
+        return key != null ? key : contentKey(recording);
+    }
+
+    private static String digest(AudioBean audioBean) {
+        MessageDigest digest = newDigest();
+        digest.update(ByteBuffer.allocate(FORMAT_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+            .putLong(audioBean.getSamplesPerSecond())
+            .putShort(audioBean.getBitsPerSample())
+            .putShort(audioBean.getChannels())
+            .flip());
+        AudioPayload payload = audioBean.getAudioPayload();
+        for (int i = 0; i < payload.bufferCount(); i++) {
+            digest.update(payload.buffer(i));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Looks up the recording stored for a content key, counting a hit or a miss
+     *
+     * @param key The content key
+     * @param audioSize The size of the audio being uploaded, counted as deduplicated on a hit
+     * @return The id of the most recent recording registered with the audio, or null if none was
+     */
+    public String findRecording(String key, long audioSize) {
+        Objects.requireNonNull(key, "Content key cannot be null");
+        synchronized (lock) {
+            String id = recordings.get(key);
+            if (id == null) {
+                recordingMisses++;
+            } else {
+                recordingHits++;
+                deduplicatedBytes += audioSize;
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Remembers the recording that holds the audio of a content key, and the key of the recording
+     */
+    public void registerRecording(String key, String recordingId) {
+        Objects.requireNonNull(key, "Content key cannot be null");
+        Objects.requireNonNull(recordingId, "Recording ID cannot be null");
+        synchronized (lock) {
+            recordings.put(key, recordingId);
+            recordingKeys.put(recordingId, key);
+        }
+    }
+
+    /**
+     * Forgets a recording found to be no longer stored, so the next upload of its audio stores it again.
+     * A hit already counted for it is turned into a miss.
+     */
+    public void forgetRecording(String key, long audioSize) {
+        Objects.requireNonNull(key, "Content key cannot be null");
+        synchronized (lock) {
+            if (recordings.remove(key) != null) {
+                recordingHits--;
+                recordingMisses++;
+                deduplicatedBytes -= audioSize;
+            }
+        }
+    }
+
+    /**
+     * Looks up the transcription of a content key, counting a hit or a miss
+     *
+     * @param key The content key
+     * @param audioSize The size of the audio to transcribe, counted as deduplicated on a hit
+     * @return The transcription, or null if the audio has not been transcribed
+     */
+    public TranscriptionResult findTranscription(String key, long audioSize) {
+        Objects.requireNonNull(key, "Content key cannot be null");
+        synchronized (lock) {
+            TranscriptionResult result = transcriptions.get(key);
+            if (result == null) {
+                transcriptionMisses++;
+            } else {
+                transcriptionHits++;
+                deduplicatedBytes += audioSize;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Remembers the transcription and AI results held by a transcribed audio bean
+     */
+    public void registerTranscription(String key, AudioBean transcribed) {
+        Objects.requireNonNull(key, "Content key cannot be null");
+        Objects.requireNonNull(transcribed, "AudioBean cannot be null");
+        TranscriptionResult result = new TranscriptionResult(transcribed.getTranscribedText(),
+            transcribed.getDetectedLanguage(), transcribed.getAiResponse(), transcribed.getTranscribedOffsetMap());
+        synchronized (lock) {
+            transcriptions.put(key, result);
+        }
+    }
+
+    /**
+     * @return A consistent snapshot of the deduplication counters
+     */
+    public Stats getStats() {
+        synchronized (lock) {
+            return new Stats(recordingHits, recordingMisses, transcriptionHits, transcriptionMisses,
+                deduplicatedBytes, recordings.size(), transcriptions.size());
+        }
+    }
+
+    private static <V> Map<String, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Results of a previous transcription of the same audio
+     *
+     * @param transcribedText The transcribed text
+     * @param detectedLanguage The detected language, or null
+     * @param aiResponse The AI response to the text, or null if none was requested
+     * @param transcribedOffsetMap The map from the audio sent to the provider back to the original,
+     *     or null if it was sent whole
+     */
+    public record TranscriptionResult(String transcribedText, String detectedLanguage, String aiResponse,
+                                      SampleOffsetMap transcribedOffsetMap) {
+
+        /**
+         * Copies the results onto an audio bean
+         */
+        public void applyTo(AudioBean audioBean) {
+            audioBean.setTranscribedText(transcribedText);
+            audioBean.setDetectedLanguage(detectedLanguage);
+            audioBean.setTranscribedOffsetMap(transcribedOffsetMap);
+            if (aiResponse != null) {
+                audioBean.setAiResponse(aiResponse);
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the deduplication counters
+     */
+    public static final class Stats {
+        private final long recordingHits;
+        private final long recordingMisses;
+        private final long transcriptionHits;
+        private final long transcriptionMisses;
+        private final long deduplicatedBytes;
+        private final int recordingCount;
+        private final int transcriptionCount;
+
+        private Stats(long recordingHits, long recordingMisses, long transcriptionHits, long transcriptionMisses,
+                      long deduplicatedBytes, int recordingCount, int transcriptionCount) {
+            this.recordingHits = recordingHits;
+            this.recordingMisses = recordingMisses;
+            this.transcriptionHits = transcriptionHits;
+            this.transcriptionMisses = transcriptionMisses;
+            this.deduplicatedBytes = deduplicatedBytes;
+            this.recordingCount = recordingCount;
+            this.transcriptionCount = transcriptionCount;
+        }
+
+        public long getRecordingHits() {
+            return recordingHits;
+        }
+
+        public long getRecordingMisses() {
+            return recordingMisses;
+        }
+
+        /**
+         * @return The share of recording uploads that reused a stored recording, or 0 before any upload
+         */
+        public double getRecordingHitRate() {
+            return hitRate(recordingHits, recordingMisses);
+        }
+
+        public long getTranscriptionHits() {
+            return transcriptionHits;
+        }
+
+        public long getTranscriptionMisses() {
+            return transcriptionMisses;
+        }
+
+        /**
+         * @return The share of transcriptions served without calling the provider, or 0 before any transcription
+         */
+        public double getTranscriptionHitRate() {
+            return hitRate(transcriptionHits, transcriptionMisses);
+        }
+
+        /**
+         * @return The audio bytes that were neither stored again nor sent to the provider again
+         */
+        public long getDeduplicatedBytes() {
+            return deduplicatedBytes;
+        }
+
+        public int getRecordingCount() {
+            return recordingCount;
+        }
+
+        public int getTranscriptionCount() {
+            return transcriptionCount;
+        }
+
+        private static double hitRate(long hits, long misses) {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "recordingHits=" + recordingHits +
+                    ", recordingMisses=" + recordingMisses +
+                    ", transcriptionHits=" + transcriptionHits +
+                    ", transcriptionMisses=" + transcriptionMisses +
+                    ", deduplicatedBytes=" + deduplicatedBytes +
+                    ", recordingCount=" + recordingCount +
+                    ", transcriptionCount=" + transcriptionCount +
+                    '}';
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.tomasburgaleta.exampleia.application.service;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileReaderPort;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Application service for audio file reading operations
@@ -18,18 +20,35 @@ public class AudioFileReaderService {
     }
     
     /**
-     * Reads a WAV file from the given file path and returns it as a byte array
+     * Reads a WAV file from the given file path and returns its PCM data
      * 
      * @param filePath The path to the WAV file to read
-     * @return The audio file content as byte array
+     * @return The PCM data of the file as a read-only payload
      * @throws AudioFileException if the file path is null/empty or file reading fails
      * @throws IllegalArgumentException if the file path is null or empty
      */
-    public byte[] readWavFile(String filePath) throws AudioFileException {
+    public AudioPayload readWavFile(String filePath) throws AudioFileException {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("File path cannot be null or empty");
         }
         
         return audioFileReaderPort.readWavFile(filePath);
     }
+    
+    /**
+     * Reads a WAV file without blocking the caller, so disk reads can overlap other work
+     * such as provider calls
+     * 
+     * @param filePath The path to the WAV file to read
+     * @return A future completed with the PCM data of the file, or completed exceptionally
+     *     with an AudioFileException if file reading fails
+     * @throws IllegalArgumentException if the file path is null or empty
+     */
+    public CompletableFuture<AudioPayload> readWavFileAsync(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        
+        return audioFileReaderPort.readWavFileAsync(filePath);
+    }
 }
\ No newline at end of file
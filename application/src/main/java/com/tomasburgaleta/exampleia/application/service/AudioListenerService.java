@@ -1,6 +1,8 @@
 package com.tomasburgaleta.exampleia.application.service;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 
@@ -13,26 +15,103 @@ import java.util.Objects;
 public class AudioListenerService {
     
     private final AudioListenerPort audioListenerPort;
+    private final SpeechAudioPreprocessor preprocessor;
+    private final AudioDeduplicationService deduplicationService;
     
     public AudioListenerService(AudioListenerPort audioListenerPort) {
+        this(audioListenerPort, SpeechAudioPreprocessor.passThrough());
+    }
+    
+    public AudioListenerService(AudioListenerPort audioListenerPort, SpeechAudioPreprocessor preprocessor) {
+        this(audioListenerPort, preprocessor, null);
+    }
+    
+    /**
+     * @param deduplicationService Reuses the transcription of audio already transcribed; may be null to always transcribe
+     */
+    public AudioListenerService(AudioListenerPort audioListenerPort, SpeechAudioPreprocessor preprocessor,
+                                AudioDeduplicationService deduplicationService) {
         this.audioListenerPort = Objects.requireNonNull(audioListenerPort, "AudioListenerPort cannot be null");
+        this.preprocessor = Objects.requireNonNull(preprocessor, "SpeechAudioPreprocessor cannot be null");
+        this.deduplicationService = deduplicationService;
     }
     
     /**
-     * Processes audio contained in the MIObject and updates it with transcribed text
+     * Processes audio contained in the MIObject and updates it with transcribed text.
+     * PCM audio is converted to the provider's format first; the MIObject keeps its original audio.
+     * Audio with the same content as an earlier transcription gets its results without calling the provider.
      * 
      * @param audioBean The object containing audio data to process
-     * @return The original audio data as byte array
+     * @return The original audio payload
+     * @throws AudioProcessingException if the audio cannot be processed
+     * @throws IllegalArgumentException if the MIObject is null or has no audio data
+     */
+    public AudioPayload listenAudio(AudioBean audioBean) throws AudioProcessingException {
+        return listenAudio(audioBean, false);
+    }
+    
+    /**
+     * Processes raw PCM audio, such as the audio of a streaming session, and updates it with
+     * transcribed text. The PCM is converted to the provider's format first and framed as WAV
+     * afterwards, so a WAV header is never resampled or downmixed as if it were samples.
+     * 
+     * @param audioBean The object containing the PCM data and its format
+     * @return The original audio payload
      * @throws AudioProcessingException if the audio cannot be processed
      * @throws IllegalArgumentException if the MIObject is null or has no audio data
      */
-    public byte[] listenAudio(AudioBean audioBean) throws AudioProcessingException {
+    public AudioPayload listenPcm(AudioBean audioBean) throws AudioProcessingException {
+        return listenAudio(audioBean, true);
+    }
+    
+    private AudioPayload listenAudio(AudioBean audioBean, boolean frameAsWav) throws AudioProcessingException {
         Objects.requireNonNull(audioBean, "MIObject cannot be null");
         
-        if (audioBean.getAudioData() == null || audioBean.getAudioData().length == 0) {
+        if (!audioBean.hasAudioData()) {
             throw new IllegalArgumentException("MIObject must contain audio data");
         }
         
-        return audioListenerPort.listenAudio(audioBean);
+        if (deduplicationService == null) {
+            return listen(audioBean, frameAsWav);
+        }
+        
+        String key = deduplicationService.contentKey(audioBean);
+        AudioDeduplicationService.TranscriptionResult cached =
+            deduplicationService.findTranscription(key, audioBean.getAudioDataSize());
+        if (cached != null) {
+            cached.applyTo(audioBean);
+            return audioBean.getAudioPayload();
+        }
+        
+        AudioPayload result = listen(audioBean, frameAsWav);
+        deduplicationService.registerTranscription(key, audioBean);
+        return result;
+    }
+    
+    private AudioPayload listen(AudioBean audioBean, boolean frameAsWav) throws AudioProcessingException {
+        AudioBean prepared = preprocessor.prepare(audioBean);
+        if (frameAsWav) {
+            prepared = frame(prepared);
+        }
+        if (prepared == audioBean) {
+            return audioListenerPort.listenAudio(audioBean);
+        }
+        
+        audioListenerPort.listenAudio(prepared);
+        audioBean.setTranscribedText(prepared.getTranscribedText());
+        audioBean.setDetectedLanguage(prepared.getDetectedLanguage());
+        return audioBean.getAudioPayload();
+    }
+    
+    /**
+     * Frames PCM as WAV, sharing the PCM bytes
+     */
+    private static AudioBean frame(AudioBean pcmAudioBean) {
+        AudioBean wavAudioBean = new AudioBean(pcmAudioBean.getId(), WavFramer.frame(pcmAudioBean.getAudioPayload(),
+            pcmAudioBean.getSamplesPerSecond(), pcmAudioBean.getBitsPerSample(), pcmAudioBean.getChannels()));
+        wavAudioBean.setSamplesPerSecond(pcmAudioBean.getSamplesPerSecond());
+        wavAudioBean.setBitsPerSample(pcmAudioBean.getBitsPerSample());
+        wavAudioBean.setChannels(pcmAudioBean.getChannels());
+        return wavAudioBean;
     }
-}
\ No newline at end of file
+}
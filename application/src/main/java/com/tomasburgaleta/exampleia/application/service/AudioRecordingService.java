@@ -1,13 +1,15 @@
 package com.tomasburgaleta.exampleia.application.service;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
 import com.tomasburgaleta.exampleia.domain.port.AiServicePort;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+import com.tomasburgaleta.exampleia.domain.port.RecordingLease;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -21,15 +23,31 @@ public class AudioRecordingService {
     private final AudioListenerPort audioListenerPort;
     private final SilenceDetectionService silenceDetectionService;
     private final AiServicePort aiServicePort;
+    private final SpeechAudioPreprocessor preprocessor;
+    private final AudioDeduplicationService deduplicationService;
+    private final SilenceCompactor silenceCompactor;
     
+    /**
+     * @param silenceDetectionService Detects silent uploads; may be null to treat all audio as speech
+     * @param aiServicePort Answers transcriptions; may be null to skip the AI response
+     * @param preprocessor Resamples and downmixes audio for the provider; may be null to send it as is
+     * @param deduplicationService Reuses stored recordings and transcriptions of identical audio; may be null to disable
+     * @param silenceCompactor Removes silence from the audio sent for transcription; may be null to send it whole
+     */
     public AudioRecordingService(AudioRecordingPort audioRecordingPort, 
                                 AudioListenerPort audioListenerPort,
                                 SilenceDetectionService silenceDetectionService,
-                                AiServicePort aiServicePort) {
+                                AiServicePort aiServicePort,
+                                SpeechAudioPreprocessor preprocessor,
+                                AudioDeduplicationService deduplicationService,
+                                SilenceCompactor silenceCompactor) {
         this.audioRecordingPort = Objects.requireNonNull(audioRecordingPort, "AudioRecordingPort cannot be null");
         this.audioListenerPort = Objects.requireNonNull(audioListenerPort, "AudioListenerPort cannot be null");
         this.silenceDetectionService = silenceDetectionService;
         this.aiServicePort = aiServicePort;
+        this.preprocessor = preprocessor != null ? preprocessor : SpeechAudioPreprocessor.passThrough();
+        this.deduplicationService = deduplicationService;
+        this.silenceCompactor = silenceCompactor;
     }
     
     /**
@@ -45,7 +63,26 @@ public class AudioRecordingService {
     public AudioBean startRecording(byte[] pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
         Objects.requireNonNull(pcmData, "PCM data cannot be null");
         
-        if (pcmData.length == 0) {
+        return startRecording(AudioPayload.wrap(pcmData), samplesPerSecond, bitsPerSample, channels);
+    }
+    
+    /**
+     * Starts a new recording session and stores the given payload without copying it.
+     * If the same audio is still stored from an earlier upload, the new recording shares that audio
+     * instead. It still gets its own ID, so stopping or transcribing either recording never affects
+     * the other; stores keeping the beans they are given hold the audio once, until both are cleared.
+     * 
+     * @param pcmData The PCM audio payload
+     * @param samplesPerSecond The sample rate (e.g., 44100)
+     * @param bitsPerSample The bit depth (e.g., 16)
+     * @param channels The number of channels (e.g., 1 for mono, 2 for stereo)
+     * @return The AudioBean containing the stored recording with metadata
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public AudioBean startRecording(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        Objects.requireNonNull(pcmData, "PCM data cannot be null");
+        
+        if (pcmData.isEmpty()) {
             throw new IllegalArgumentException("PCM data cannot be empty");
         }
         
@@ -70,8 +107,37 @@ public class AudioRecordingService {
         audioBean.setBitsPerSample(bitsPerSample);
         audioBean.setChannels(channels);
         
+        if (deduplicationService == null) {
+            return audioRecordingPort.storeRecording(audioBean);
+        }
+        
+        // Share the audio of an identical upload while it is still stored
+        String key = deduplicationService.contentKey(audioBean);
+        String existingId = deduplicationService.findRecording(key, pcmData.size());
+        AudioBean stored = null;
+        if (existingId != null) {
+            try (RecordingLease lease = audioRecordingPort.openRecording(existingId)) {
+                if (lease != null) {
+                    AudioBean shared = new AudioBean(id, lease.getRecording().getAudioPayload());
+                    shared.setSamplesPerSecond(samplesPerSecond);
+                    shared.setBitsPerSample(bitsPerSample);
+                    shared.setChannels(channels);
+                    // Stores that copy the audio do so before the lease is closed
+                    stored = audioRecordingPort.storeRecording(shared);
+                }
+            }
+            if (stored == null) {
+                deduplicationService.forgetRecording(key, pcmData.size());
+            }
+        }
+        
         // Store in memory
-        return audioRecordingPort.storeRecording(audioBean);
+        if (stored == null) {
+            stored = audioRecordingPort.storeRecording(audioBean);
+        }
+        // The index points at the newest recording of the audio, the likeliest to still be stored
+        deduplicationService.registerRecording(key, stored.getId());
+        return stored;
     }
     
     /**
@@ -91,6 +157,24 @@ public class AudioRecordingService {
         return silenceDetectionService.isSilent(pcmData, samplesPerSecond, bitsPerSample, channels);
     }
     
+    /**
+     * Checks if the provided audio payload contains silence.
+     * The payload is handed to the detector as is, without copying it.
+     * 
+     * @param pcmData The PCM audio payload to check
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return true if silence is detected, false otherwise
+     */
+    public boolean detectSilence(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        if (silenceDetectionService == null) {
+            return false; // If no silence detection service, assume not silent
+        }
+        
+        return silenceDetectionService.isSilent(pcmData, samplesPerSecond, bitsPerSample, channels);
+    }
+    
     /**
      * Retrieves a stored recording by its ID
      * 
@@ -123,10 +207,14 @@ public class AudioRecordingService {
     
     /**
      * Transcribes audio stored in memory by its ID
-     * Converts PCM data to WAV format and processes it for transcription
+     * Cuts leading, trailing and long interior silence, converts PCM data to the provider's sample
+     * rate and channels, frames it as WAV and processes it for transcription. The stored recording
+     * keeps all its audio, and gets the results and the map from the compacted audio back to it.
+     * Audio transcribed before reuses the earlier results.
      * 
      * @param id The unique identifier of the recording to transcribe
-     * @return The audio bean with transcription result
+     * @return The audio bean with transcription result; its audio was read under a lease that is
+     *     closed by now, so read the audio again through {@link #getRecording(String)}
      * @throws IllegalArgumentException if id is null or empty or recording not found
      * @throws AudioProcessingException if transcription fails
      */
@@ -135,38 +223,71 @@ public class AudioRecordingService {
             throw new IllegalArgumentException("Recording ID cannot be null or empty");
         }
         
-        // Get the recording from memory
-        AudioBean audioBean = audioRecordingPort.getRecording(id);
-        
-        if (audioBean == null) {
-            throw new IllegalArgumentException("Recording not found with ID: " + id);
+        // Lease the recording, so its audio is read in place and stays valid while it is transcribed
+        try (RecordingLease lease = audioRecordingPort.openRecording(id)) {
+            if (lease == null) {
+                throw new IllegalArgumentException("Recording not found with ID: " + id);
+            }
+            return transcribe(lease.getRecording());
+        }
+    }
+    
+    private AudioBean transcribe(AudioBean audioBean) throws AudioProcessingException {
+        String key = null;
+        AudioDeduplicationService.TranscriptionResult cached = null;
+        if (deduplicationService != null) {
+            key = deduplicationService.recordingKey(audioBean);
+            cached = deduplicationService.findTranscription(key, audioBean.getAudioDataSize());
         }
         
-        // Convert PCM data to WAV format
-        byte[] wavData = convertPcmToWav(
-            audioBean.getAudioData(),
-            audioBean.getSamplesPerSecond(),
-            audioBean.getBitsPerSample(),
-            audioBean.getChannels()
-        );
-        
-        // Create a new AudioBean with WAV data for transcription
-        AudioBean wavAudioBean = new AudioBean(audioBean.getId(), wavData);
-        wavAudioBean.setSamplesPerSecond(audioBean.getSamplesPerSecond());
-        wavAudioBean.setBitsPerSample(audioBean.getBitsPerSample());
-        wavAudioBean.setChannels(audioBean.getChannels());
-        
-        // Process audio for transcription
-        audioListenerPort.listenAudio(wavAudioBean);
-        
-        // Update the original audio bean with transcription
-        audioBean.setTranscribedText(wavAudioBean.getTranscribedText());
+        if (cached != null) {
+            cached.applyTo(audioBean);
+        } else {
+            // Cut the silence, sharing the kept bytes; the stored recording is left untouched
+            AudioBean speechAudioBean = audioBean;
+            SampleOffsetMap offsetMap = silenceCompactor != null ? silenceCompactor.plan(audioBean) : null;
+            if (offsetMap != null) {
+                speechAudioBean = SilenceCompactor.cut(audioBean, offsetMap);
+            }
+            
+            // Resample and downmix for the provider
+            AudioBean pcmAudioBean = preprocessor.prepare(speechAudioBean);
+            
+            // Frame the PCM data as WAV, sharing the PCM bytes
+            AudioPayload wavData = WavFramer.frame(
+                pcmAudioBean.getAudioPayload(),
+                pcmAudioBean.getSamplesPerSecond(),
+                pcmAudioBean.getBitsPerSample(),
+                pcmAudioBean.getChannels()
+            );
+            
+            // Create a new AudioBean with WAV data for transcription
+            AudioBean wavAudioBean = new AudioBean(audioBean.getId(), wavData);
+            wavAudioBean.setSamplesPerSecond(pcmAudioBean.getSamplesPerSecond());
+            wavAudioBean.setBitsPerSample(pcmAudioBean.getBitsPerSample());
+            wavAudioBean.setChannels(pcmAudioBean.getChannels());
+            
+            // Process audio for transcription
+            audioListenerPort.listenAudio(wavAudioBean);
+            
+            // Update the original audio bean with transcription
+            audioBean.setTranscribedText(wavAudioBean.getTranscribedText());
+            audioBean.setTranscribedOffsetMap(offsetMap);
+            if (key != null) {
+                deduplicationService.registerTranscription(key, audioBean);
+            }
+        }
+        audioRecordingPort.updateTranscription(audioBean);
         
-        // Send transcribed text to AI and get response if transcription is not empty
-        if (aiServicePort != null && audioBean.hasTranscribedText()) {
+        // Send transcribed text to AI and get response if transcription is not empty and not reused
+        if (aiServicePort != null && audioBean.hasTranscribedText() && (cached == null || cached.aiResponse() == null)) {
             try {
                 String aiResponse = aiServicePort.sendPrompt(audioBean.getTranscribedText());
                 audioBean.setAiResponse(aiResponse);
+                if (key != null) {
+                    deduplicationService.registerTranscription(key, audioBean);
+                }
+                audioRecordingPort.updateTranscription(audioBean);
             } catch (AudioProcessingException e) {
                 // Log but don't fail the transcription if AI fails
                 // The transcription result is still valid
@@ -176,43 +297,4 @@ public class AudioRecordingService {
         
         return audioBean;
     }
-    
-    /**
-     * Converts raw PCM audio data to WAV format by adding WAV header
-     * 
-     * @param pcmData Raw PCM audio data
-     * @param sampleRate Sample rate in Hz
-     * @param bitsPerSample Bits per sample (8, 16, 24, etc.)
-     * @param channels Number of audio channels
-     * @return Complete WAV file as byte array
-     */
-    private byte[] convertPcmToWav(byte[] pcmData, long sampleRate, short bitsPerSample, short channels) {
-        int pcmDataSize = pcmData.length;
-        int wavHeaderSize = 44;
-        
-        ByteBuffer buffer = ByteBuffer.allocate(wavHeaderSize + pcmDataSize);
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
-        
-        // RIFF header
-        buffer.put("RIFF".getBytes());
-        buffer.putInt(36 + pcmDataSize); // File size - 8
-        buffer.put("WAVE".getBytes());
-        
-        // fmt chunk
-        buffer.put("fmt ".getBytes());
-        buffer.putInt(16); // fmt chunk size (PCM)
-        buffer.putShort((short) 1); // Audio format (1 = PCM)
-        buffer.putShort(channels);
-        buffer.putInt((int) sampleRate);
-        buffer.putInt((int) (sampleRate * channels * bitsPerSample / 8)); // Byte rate
-        buffer.putShort((short) (channels * bitsPerSample / 8)); // Block align
-        buffer.putShort(bitsPerSample);
-        
-        // data chunk
-        buffer.put("data".getBytes());
-        buffer.putInt(pcmDataSize);
-        buffer.put(pcmData);
-        
-        return buffer.array();
-    }
 }
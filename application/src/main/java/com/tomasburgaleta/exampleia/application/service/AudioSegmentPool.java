@@ -0,0 +1,86 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, lock-free pool of fixed-size byte segments used by the streaming buffers.
+ * Segments released after an extraction are reused by later appends instead of being
+ * reallocated, which keeps long dictation sessions from churning the young generation.
+ */
+public class AudioSegmentPool {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+    private static final int DEFAULT_MAX_POOLED_SEGMENTS = 256;
+
+    private static final AudioSegmentPool SHARED = new AudioSegmentPool(DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_POOLED_SEGMENTS);
+
+    private final int segmentSize;
+    private final int maxPooledSegments;
+    private final ConcurrentLinkedQueue<byte[]> segments = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    public AudioSegmentPool(int segmentSize, int maxPooledSegments) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+
+        if (maxPooledSegments < 0) {
+            throw new IllegalArgumentException("Max pooled segments cannot be negative");
+        }
+
+        this.segmentSize = segmentSize;
+        this.maxPooledSegments = maxPooledSegments;
+    }
+
+    /**
+     * @return The pool shared by streaming buffers created without an explicit pool
+     */
+    public static AudioSegmentPool shared() {
+        return SHARED;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Takes a segment from the pool, allocating a new one if the pool is empty
+     *
+     * @return A segment of {@link #getSegmentSize()} bytes
+     */
+    public byte[] acquire() {
+        byte[] segment = segments.poll();
+        if (segment == null) {
+            return new byte[segmentSize];
+        }
+
+        pooledCount.decrementAndGet();
+        return segment;
+    }
+
+    /**
+     * Returns a segment to the pool. Segments of a different size, or beyond the pool bound, are dropped.
+     *
+     * @param segment The segment to recycle
+     */
+    public void release(byte[] segment) {
+        if (segment == null || segment.length != segmentSize) {
+            return;
+        }
+
+        if (pooledCount.incrementAndGet() > maxPooledSegments) {
+            pooledCount.decrementAndGet();
+            return;
+        }
+
+        segments.offer(segment);
+    }
+
+    /**
+     * @return The number of idle segments currently held by the pool
+     */
+    public int getPooledSegmentCount() {
+        return pooledCount.get();
+    }
+}
@@ -1,84 +1,240 @@
 package com.tomasburgaleta.exampleia.application.service;
 
-import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Application service for streaming audio operations with thread-safe byte accumulation.
- * This service manages a buffer for incoming audio data that can be safely appended
- * and extracted without concurrent access issues.
+ * Incoming chunks are copied into a linked list of pooled segments. A producer claims space in the
+ * current segment with a single atomic fetch-and-add and never takes a lock; only when a segment is
+ * full does it link the next one with a compare-and-set. Each chunk is kept contiguous inside one
+ * segment, so concurrent producers never interleave inside a chunk.
+ * Extraction detaches the filled segments and hands them out as a gathering {@link AudioChunks}
+ * view; closing that view returns the segments to the {@link AudioSegmentPool}.
  */
 public class AudioStreamingService {
-    
-    private final ByteArrayOutputStream audioBuffer;
-    private final Object lock = new Object();
-    
+
+    private final AudioSegmentPool segmentPool;
+    private final AtomicReference<Segment> tail;
+    private final AtomicLong size = new AtomicLong();
+    private final Object extractLock = new Object();
+    private Segment head;
+
     public AudioStreamingService() {
-        this.audioBuffer = new ByteArrayOutputStream();
+        this(AudioSegmentPool.shared());
+    }
+
+    public AudioStreamingService(AudioSegmentPool segmentPool) {
+        this.segmentPool = Objects.requireNonNull(segmentPool, "Segment pool cannot be null");
+        this.head = newSegment(0);
+        this.tail = new AtomicReference<>(head);
     }
-    
+
     /**
      * Adds audio bytes to the buffer in a thread-safe manner.
-     * This method appends the provided bytes to the end of the existing buffer.
-     * 
+     * This method appends the provided bytes to the end of the existing buffer without blocking
+     * other producers or the extracting thread.
+     *
      * @param audioChunk The audio data chunk to append
-     * @throws IllegalArgumentException if audioChunk is null or empty
+     * @throws NullPointerException if audioChunk is null
+     * @throws IllegalArgumentException if audioChunk is empty
      */
-    public synchronized void addAudioBytes(byte[] audioChunk) {
+    public void addAudioBytes(byte[] audioChunk) {
         Objects.requireNonNull(audioChunk, "Audio chunk cannot be null");
-        
+
         if (audioChunk.length == 0) {
             throw new IllegalArgumentException("Audio chunk cannot be empty");
         }
-        
-        synchronized (lock) {
-            audioBuffer.write(audioChunk, 0, audioChunk.length);
+
+        append(ByteBuffer.wrap(audioChunk));
+    }
+
+    /**
+     * Adds the remaining bytes of a buffer, such as a network frame, copying them straight into
+     * the segment without an intermediate array. The position of the buffer is not changed.
+     *
+     * @param audioChunk The audio data chunk to append
+     * @throws NullPointerException if audioChunk is null
+     * @throws IllegalArgumentException if audioChunk has no remaining bytes
+     */
+    public void addAudioBytes(ByteBuffer audioChunk) {
+        Objects.requireNonNull(audioChunk, "Audio chunk cannot be null");
+
+        if (!audioChunk.hasRemaining()) {
+            throw new IllegalArgumentException("Audio chunk cannot be empty");
+        }
+
+        append(audioChunk);
+    }
+
+    private void append(ByteBuffer audioChunk) {
+        int length = audioChunk.remaining();
+        size.addAndGet(length);
+
+        Segment segment = tail.get();
+        while (true) {
+            int capacity = segment.data.length;
+            int position = segment.reserved.get() < capacity ? segment.reserved.getAndAdd(length) : capacity;
+
+            if ((long) position + length <= capacity) {
+                audioChunk.get(audioChunk.position(), segment.data, position, length);
+                segment.committed.addAndGet(length);
+                return;
+            }
+
+            if (position < capacity) {
+                // This reservation crossed the end of the segment: it closes the segment
+                segment.seal(position);
+            }
+            segment = advance(segment, length);
+        }
+    }
+
+    /**
+     * Extracts all accumulated audio as a gathering view and clears the buffer.
+     * Chunks appended while the extraction runs are kept for the next extraction.
+     * The caller must close the returned view to recycle its segments.
+     *
+     * @return The accumulated audio, segment by segment
+     */
+    public AudioChunks extractAudioChunks() {
+        synchronized (extractLock) {
+            Segment last = tail.get();
+            if (head == last && last.reserved.get() == 0) {
+                return new AudioChunks(List.of(), new int[0], 0, segmentPool);
+            }
+
+            if (last.reserved.get() < last.data.length) {
+                int position = last.reserved.getAndAdd(last.data.length + 1);
+                if (position < last.data.length) {
+                    last.seal(position);
+                }
+            }
+            Segment newHead = advance(last, 0);
+
+            List<byte[]> segments = new ArrayList<>();
+            List<Integer> lengths = new ArrayList<>();
+            long total = 0;
+            for (Segment segment = head; ; segment = segment.next.get()) {
+                int length = segment.awaitLength();
+                segments.add(segment.data);
+                lengths.add(length);
+                total += length;
+                if (segment == last) {
+                    break;
+                }
+            }
+
+            head = newHead;
+            size.addAndGet(-total);
+            return new AudioChunks(segments, lengths.stream().mapToInt(Integer::intValue).toArray(), total, segmentPool);
         }
     }
-    
+
     /**
-     * Extracts all accumulated audio bytes and clears the buffer in a thread-safe manner.
-     * This method retrieves all data currently in the buffer and then empties it.
-     * The add and extract operations are mutually exclusive.
-     * 
+     * Extracts all accumulated audio bytes into a single array and clears the buffer.
+     * Prefer {@link #extractAudioChunks()} when the consumer can work with the segments directly.
+     *
      * @return A byte array containing all accumulated audio data
      */
-    public synchronized byte[] extractAndClearAudioBytes() {
-        synchronized (lock) {
-            byte[] data = audioBuffer.toByteArray();
-            audioBuffer.reset();
-            return data;
+    public byte[] extractAndClearAudioBytes() {
+        try (AudioChunks chunks = extractAudioChunks()) {
+            return chunks.toByteArray();
         }
     }
-    
+
     /**
      * Gets the current size of the audio buffer without extracting or modifying it.
-     * 
+     *
      * @return The number of bytes currently in the buffer
      */
-    public synchronized int getBufferSize() {
-        synchronized (lock) {
-            return audioBuffer.size();
-        }
+    public int getBufferSize() {
+        return (int) Math.min(size.get(), Integer.MAX_VALUE);
     }
-    
+
     /**
      * Checks if the buffer is empty.
-     * 
+     *
      * @return true if the buffer contains no data, false otherwise
      */
-    public synchronized boolean isEmpty() {
-        synchronized (lock) {
-            return audioBuffer.size() == 0;
-        }
+    public boolean isEmpty() {
+        return size.get() == 0;
     }
-    
+
     /**
      * Clears all data from the buffer without returning it.
      */
-    public synchronized void clear() {
-        synchronized (lock) {
-            audioBuffer.reset();
+    public void clear() {
+        extractAudioChunks().close();
+    }
+
+    /**
+     * Returns the segment following a full one, linking a new segment if none exists yet,
+     * and moves the tail past the full segment
+     */
+    private Segment advance(Segment full, int minCapacity) {
+        Segment next = full.next.get();
+        if (next == null) {
+            Segment candidate = newSegment(minCapacity);
+            if (full.next.compareAndSet(null, candidate)) {
+                next = candidate;
+            } else {
+                segmentPool.release(candidate.data);
+                next = full.next.get();
+            }
+        }
+
+        tail.compareAndSet(full, next);
+        return next;
+    }
+
+    private Segment newSegment(int minCapacity) {
+        byte[] data = minCapacity > segmentPool.getSegmentSize() ? new byte[minCapacity] : segmentPool.acquire();
+        return new Segment(data);
+    }
+
+    /**
+     * Fixed-capacity block of the buffer.
+     * {@code reserved} counts the bytes claimed by producers, {@code committed} the bytes actually
+     * written. A sealed segment always ends with {@code committed == capacity}: the unused tail
+     * after the reservation that crossed the end is committed as padding and excluded via {@code limit}.
+     */
+    private static final class Segment {
+        private final byte[] data;
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final AtomicInteger committed = new AtomicInteger();
+        private final AtomicReference<Segment> next = new AtomicReference<>();
+        private volatile int limit = -1;
+
+        private Segment(byte[] data) {
+            this.data = data;
+        }
+
+        private void seal(int position) {
+            limit = position;
+            committed.addAndGet(data.length - position);
+        }
+
+        /**
+         * Waits for in-flight copies into this detached segment and returns its audio length
+         */
+        private int awaitLength() {
+            int spins = 0;
+            while (committed.get() < data.length) {
+                if (++spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+
+            int sealedAt = limit;
+            return sealedAt >= 0 ? sealedAt : data.length;
         }
     }
 }
@@ -0,0 +1,68 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A batch ingestion submitted to run in the background, looked up by its ID while it runs and after it ends
+ */
+public class BatchIngestionJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final CompletableFuture<BatchIngestionReport> result;
+
+    BatchIngestionJob(String id, CompletableFuture<BatchIngestionReport> result) {
+        this.id = Objects.requireNonNull(id, "ID cannot be null");
+        this.result = Objects.requireNonNull(result, "Result cannot be null");
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        if (!result.isDone()) {
+            return Status.RUNNING;
+        }
+        return result.isCompletedExceptionally() ? Status.FAILED : Status.COMPLETED;
+    }
+
+    /**
+     * @return The report of the batch, or null until it has completed
+     */
+    public BatchIngestionReport getReport() {
+        return getStatus() == Status.COMPLETED ? result.join() : null;
+    }
+
+    /**
+     * @return The reason the batch failed as a whole, or null if it did not
+     */
+    public String getError() {
+        if (getStatus() != Status.FAILED) {
+            return null;
+        }
+        try {
+            result.join();
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    /**
+     * @return A future completed with the report of the batch
+     */
+    public CompletableFuture<BatchIngestionReport> getResult() {
+        return result.copy();
+    }
+}
@@ -0,0 +1,114 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a batch ingestion: the result of every file and the throughput of the batch
+ */
+public class BatchIngestionReport {
+
+    private final List<FileResult> results;
+    private final long elapsedNanos;
+
+    BatchIngestionReport(List<FileResult> results, long elapsedNanos) {
+        this.results = List.copyOf(results);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The result of every file, in the order they were given
+     */
+    public List<FileResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return The results of the files that failed
+     */
+    public List<FileResult> getFailures() {
+        return results.stream().filter(result -> !result.isSuccess()).toList();
+    }
+
+    public int getFileCount() {
+        return results.size();
+    }
+
+    public int getSucceededCount() {
+        return getFileCount() - getFailedCount();
+    }
+
+    public int getFailedCount() {
+        return (int) results.stream().filter(result -> !result.isSuccess()).count();
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return The total duration of the audio ingested successfully, in seconds
+     */
+    public double getAudioSeconds() {
+        return results.stream().mapToLong(FileResult::audioMillis).sum() / 1000.0;
+    }
+
+    /**
+     * @return The number of files processed per second, failed ones included
+     */
+    public double getFilesPerSecond() {
+        return perSecond(getFileCount());
+    }
+
+    /**
+     * @return The seconds of audio ingested per second of wall-clock time
+     */
+    public double getAudioSecondsPerSecond() {
+        return perSecond(getAudioSeconds());
+    }
+
+    private double perSecond(double amount) {
+        return elapsedNanos == 0 ? 0 : amount * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchIngestionReport{" +
+                "files=" + getFileCount() +
+                ", succeeded=" + getSucceededCount() +
+                ", failed=" + getFailedCount() +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", filesPerSecond=" + String.format("%.2f", getFilesPerSecond()) +
+                ", audioSecondsPerSecond=" + String.format("%.2f", getAudioSecondsPerSecond()) +
+                '}';
+    }
+
+    /**
+     * Result of one file of a batch
+     *
+     * @param file The path of the file
+     * @param audioMillis The duration of its audio, or 0 if it failed
+     * @param transcribedText The transcription, which may be null
+     * @param error The reason it failed, or null if it succeeded
+     */
+    public record FileResult(Path file, long audioMillis, String transcribedText, String error) {
+
+        public FileResult {
+            Objects.requireNonNull(file, "File cannot be null");
+        }
+
+        static FileResult success(Path file, long audioMillis, String transcribedText) {
+            return new FileResult(file, audioMillis, transcribedText, null);
+        }
+
+        static FileResult failure(Path file, String error) {
+            return new FileResult(file, 0, null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Application service for ingesting batches of WAV files, such as overnight backfills.
+ * Each file is streamed from disk, validated and transcribed on a pool bounded by the
+ * configured concurrency, so at most that many files are read or held in memory at once.
+ * A file that fails is recorded in the report and does not stop the batch.
+ * Directories, manifests and the files they list must lie under the configured base directory;
+ * without one, directory and manifest batches are disabled. Batches can be submitted to run in
+ * the background one at a time and followed through their {@link BatchIngestionJob}.
+ */
+public class BatchIngestionService implements AutoCloseable {
+
+    private static final String WAV_EXTENSION = ".wav";
+    private static final String MANIFEST_COMMENT = "#";
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final WavByteProcessingService wavByteProcessingService;
+    private final AudioListenerService audioListenerService;
+    private final int concurrency;
+    private final Path baseDirectory;
+    private final ExecutorService jobRunner = newJobRunner();
+    private final Map<String, BatchIngestionJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BatchIngestionJob> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+
+    /**
+     * @param wavByteProcessingService The service parsing each WAV file
+     * @param audioListenerService The service transcribing each file
+     * @param concurrency The maximum number of files read and transcribed at the same time
+     * @param baseDirectory The directory batches may read from, or null to disable directory and manifest batches
+     */
+    public BatchIngestionService(WavByteProcessingService wavByteProcessingService,
+                                 AudioListenerService audioListenerService,
+                                 int concurrency,
+                                 Path baseDirectory) {
+        this.wavByteProcessingService = Objects.requireNonNull(wavByteProcessingService, "WavByteProcessingService cannot be null");
+        this.audioListenerService = Objects.requireNonNull(audioListenerService, "AudioListenerService cannot be null");
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        this.concurrency = concurrency;
+        this.baseDirectory = baseDirectory != null ? baseDirectory.toAbsolutePath().normalize() : null;
+    }
+
+    /**
+     * @return Whether a base directory is configured, so that directory and manifest batches can run
+     */
+    public boolean isEnabled() {
+        return baseDirectory != null;
+    }
+
+    /**
+     * Starts ingesting a directory tree in the background
+     *
+     * @param directory The root of the tree, relative to the base directory or absolute inside it
+     * @return The job running the batch
+     * @throws IllegalArgumentException if the directory is outside the base directory or does not exist
+     * @throws IllegalStateException if no base directory is configured or another batch is running
+     */
+    public BatchIngestionJob submitDirectory(Path directory) {
+        Path root = inBaseDirectory(directory);
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Directory does not exist: " + directory);
+        }
+        return submit(() -> ingestDirectory(root));
+    }
+
+    /**
+     * Starts ingesting the files listed in a manifest in the background
+     *
+     * @param manifest The manifest file, relative to the base directory or absolute inside it
+     * @return The job running the batch
+     * @throws IllegalArgumentException if the manifest is outside the base directory or is not a file
+     * @throws IllegalStateException if no base directory is configured or another batch is running
+     */
+    public BatchIngestionJob submitManifest(Path manifest) {
+        Path file = inBaseDirectory(manifest);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Manifest does not exist: " + manifest);
+        }
+        return submit(() -> ingestManifest(file));
+    }
+
+    /**
+     * @param id The ID of a job
+     * @return The job, or null if it is unknown or was dropped to make room for newer ones
+     */
+    public BatchIngestionJob getJob(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    /**
+     * Stops the background batch, if any; files still being transcribed are interrupted
+     */
+    @Override
+    public void close() {
+        jobRunner.shutdownNow();
+    }
+
+    /**
+     * Ingests every .wav file under a directory tree, in path order
+     *
+     * @param directory The root of the tree to walk, relative to the base directory or absolute inside it
+     * @return The report of the batch
+     * @throws IOException if the tree cannot be walked
+     * @throws IllegalArgumentException if the directory is null, outside the base directory or not a directory
+     * @throws IllegalStateException if no base directory is configured
+     */
+    public BatchIngestionReport ingestDirectory(Path directory) throws IOException {
+        Path root = inBaseDirectory(directory);
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Directory does not exist: " + directory);
+        }
+
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths
+                .filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(WAV_EXTENSION))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        return ingest(files);
+    }
+
+    /**
+     * Ingests the files listed in a manifest, one path per line.
+     * Blank lines and lines starting with '#' are skipped; relative paths are resolved
+     * against the directory of the manifest. Listed files outside the base directory are
+     * reported as failed without being read.
+     *
+     * @param manifest The manifest file, relative to the base directory or absolute inside it
+     * @return The report of the batch
+     * @throws IOException if the manifest cannot be read
+     * @throws IllegalArgumentException if the manifest is null or outside the base directory
+     * @throws IllegalStateException if no base directory is configured
+     */
+    public BatchIngestionReport ingestManifest(Path manifest) throws IOException {
+        Path file = inBaseDirectory(manifest);
+        Path manifestDirectory = file.getParent();
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String entry = line.trim();
+            if (!entry.isEmpty() && !entry.startsWith(MANIFEST_COMMENT)) {
+                files.add(manifestDirectory.resolve(entry).normalize());
+            }
+        }
+        return ingest(files);
+    }
+
+    /**
+     * Ingests the given files, reporting them in the given order
+     *
+     * @param files The WAV files to read and transcribe
+     * @return The report of the batch
+     * @throws IllegalArgumentException if the list is null
+     */
+    public BatchIngestionReport ingest(List<Path> files) {
+        if (files == null) {
+            throw new IllegalArgumentException("Files cannot be null");
+        }
+
+        long start = System.nanoTime();
+        if (files.isEmpty()) {
+            return new BatchIngestionReport(List.of(), System.nanoTime() - start);
+        }
+
+        ExecutorService workers = newWorkerPool(Math.min(concurrency, files.size()));
+        try {
+            List<Callable<BatchIngestionReport.FileResult>> tasks = new ArrayList<>(files.size());
+            for (Path file : files) {
+                tasks.add(() -> ingestFile(file));
+            }
+
+            List<BatchIngestionReport.FileResult> results = new ArrayList<>(files.size());
+            for (Future<BatchIngestionReport.FileResult> result : workers.invokeAll(tasks)) {
+                results.add(result.get());
+            }
+            return new BatchIngestionReport(results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch ingestion was interrupted", e);
+        } catch (ExecutionException e) {
+            // ingestFile records every failure, so this is an error such as OutOfMemoryError
+            throw new IllegalStateException("Batch ingestion failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private BatchIngestionReport.FileResult ingestFile(Path file) {
+        if (baseDirectory != null && !isInBaseDirectory(file)) {
+            return BatchIngestionReport.FileResult.failure(file, "Path is outside the batch base directory");
+        }
+        try (InputStream wavStream = Files.newInputStream(file)) {
+            AudioBean audioBean = wavByteProcessingService.processWavStream(wavStream, file.toString());
+            audioListenerService.listenAudio(audioBean);
+            return BatchIngestionReport.FileResult.success(file, audioBean.getDurationMillis(), audioBean.getTranscribedText());
+        } catch (IOException | AudioProcessingException | RuntimeException e) {
+            return BatchIngestionReport.FileResult.failure(file, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private BatchIngestionJob submit(Batch batch) {
+        synchronized (jobs) {
+            if (jobs.values().stream().anyMatch(job -> job.getStatus() == BatchIngestionJob.Status.RUNNING)) {
+                throw new IllegalStateException("Another batch is already running");
+            }
+            BatchIngestionJob job = new BatchIngestionJob(UUID.randomUUID().toString(), CompletableFuture.supplyAsync(() -> {
+                try {
+                    return batch.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, jobRunner));
+            jobs.put(job.getId(), job);
+            return job;
+        }
+    }
+
+    /**
+     * Resolves a path against the base directory and checks that it stays inside it
+     */
+    private Path inBaseDirectory(Path path) {
+        if (baseDirectory == null) {
+            throw new IllegalStateException("Batch ingestion is disabled, no base directory is configured");
+        }
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        Path resolved = baseDirectory.resolve(path).normalize();
+        if (!isInBaseDirectory(resolved)) {
+            throw new IllegalArgumentException("Path is outside the batch base directory: " + path);
+        }
+        return resolved;
+    }
+
+    /**
+     * Checks the normalized path and, for a path that exists, where its symbolic links lead
+     */
+    private boolean isInBaseDirectory(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(baseDirectory)) {
+            return false;
+        }
+        try {
+            return !Files.exists(normalized) || normalized.toRealPath().startsWith(baseDirectory.toRealPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newJobRunner() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-ingestion-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newWorkerPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-ingestion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Batch {
+        BatchIngestionReport run() throws IOException;
+    }
+}
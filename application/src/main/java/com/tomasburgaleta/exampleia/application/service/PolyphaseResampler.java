@@ -0,0 +1,242 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Polyphase resampler for 16-bit little-endian PCM, with optional downmix to mono.
+ * The rate change is reduced to a ratio L/M and the anti-aliasing filter, a Kaiser-windowed sinc
+ * cut off just below the lower Nyquist frequency, is precomputed as one row of taps per phase.
+ * Each output sample is then a single dot product of a row with the input around its position,
+ * so only the output rate is ever computed, never the L-times upsampled signal.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class PolyphaseResampler {
+
+    private static final int ZERO_CROSSINGS = 16; // Sinc lobes kept on each side, at the cutoff frequency
+    private static final int MAX_PHASES = 1024; // Ratios with more phases are rounded to the nearest one
+    private static final double ROLLOFF = 0.95; // Cutoff as a fraction of the lower Nyquist frequency
+    private static final double KAISER_BETA = 8.6; // About 80 dB of stop-band attenuation
+    private static final int MAX_OUTPUT_SIZE = Integer.MAX_VALUE - 8;
+
+    private final long inputRate;
+    private final long outputRate;
+    private final long upFactor;
+    private final long downFactor;
+    private final int halfWidth;
+    private final float[][] coefficients;
+
+    /**
+     * @param inputRate The sample rate of the input
+     * @param outputRate The sample rate of the output
+     * @throws IllegalArgumentException if a rate is not positive
+     */
+    public PolyphaseResampler(long inputRate, long outputRate) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            throw new IllegalArgumentException("Sample rates must be positive: " + inputRate + " -> " + outputRate);
+        }
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+        long gcd = gcd(inputRate, outputRate);
+        this.upFactor = outputRate / gcd;
+        this.downFactor = inputRate / gcd;
+
+        double cutoff = Math.min(1.0, (double) upFactor / downFactor) * ROLLOFF;
+        this.halfWidth = (int) Math.ceil(ZERO_CROSSINGS / cutoff);
+        int phases = (int) Math.min(upFactor, MAX_PHASES);
+        this.coefficients = new float[phases][];
+        for (int phase = 0; phase < phases; phase++) {
+            coefficients[phase] = phaseTaps((double) phase / phases, cutoff);
+        }
+    }
+
+    public long getInputRate() {
+        return inputRate;
+    }
+
+    public long getOutputRate() {
+        return outputRate;
+    }
+
+    /**
+     * Resamples interleaved 16-bit PCM
+     *
+     * @param pcm The PCM audio; a trailing partial frame is ignored
+     * @param channels The number of interleaved channels
+     * @param downmix Whether to average the channels into a single one
+     * @return A new payload with the resampled audio
+     * @throws IllegalArgumentException if the channel count is not positive or the output would exceed 2 GB
+     */
+    public AudioPayload resample(AudioPayload pcm, int channels, boolean downmix) {
+        Objects.requireNonNull(pcm, "PCM data cannot be null");
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channels must be positive: " + channels);
+        }
+
+        SampleReader in = new SampleReader(pcm);
+        long frames = pcm.size() / (channels * 2L);
+        int outChannels = downmix ? 1 : channels;
+        long outFrames = frames * upFactor / downFactor;
+        long outSize = outFrames * outChannels * 2;
+        if (outSize > MAX_OUTPUT_SIZE) {
+            throw new IllegalArgumentException("Resampled audio exceeds 2 GB: " + outSize + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) outSize).order(ByteOrder.LITTLE_ENDIAN);
+        if (upFactor == downFactor) {
+            for (long frame = 0; frame < frames; frame++) {
+                for (int c = 0; c < outChannels; c++) {
+                    out.putShort(toShort(sample(in, frame, c, channels, downmix)));
+                }
+            }
+            return AudioPayload.wrap(out.array());
+        }
+
+        int taps = 2 * halfWidth;
+        for (long n = 0; n < outFrames; n++) {
+            // Position of the output sample in the input, in units of 1/L input samples
+            long position = n * downFactor;
+            long base = position / upFactor;
+            float[] h = coefficients[(int) (position % upFactor * coefficients.length / upFactor)];
+            long first = base - halfWidth + 1;
+            int from = (int) Math.max(0, -first);
+            int to = (int) Math.min(taps, frames - first);
+            for (int c = 0; c < outChannels; c++) {
+                double sum = 0;
+                for (int k = from; k < to; k++) {
+                    sum += h[k] * sample(in, first + k, c, channels, downmix);
+                }
+                out.putShort(toShort(sum));
+            }
+        }
+        return AudioPayload.wrap(out.array());
+    }
+
+    /**
+     * Taps for an output sample lying a fraction of a sample past an input sample, normalized to unit gain
+     */
+    private float[] phaseTaps(double fraction, double cutoff) {
+        float[] taps = new float[2 * halfWidth];
+        double sum = 0;
+        double[] values = new double[taps.length];
+        for (int k = 0; k < taps.length; k++) {
+            double distance = fraction + halfWidth - 1 - k;
+            values[k] = cutoff * sinc(cutoff * distance) * kaiser(distance / halfWidth);
+            sum += values[k];
+        }
+        for (int k = 0; k < taps.length; k++) {
+            taps[k] = (float) (values[k] / sum);
+        }
+        return taps;
+    }
+
+    private static double sample(SampleReader in, long frame, int channel, int channels, boolean downmix) {
+        long offset = frame * channels * 2;
+        if (!downmix) {
+            return in.getShort(offset + channel * 2);
+        }
+        int sum = 0;
+        for (int c = 0; c < channels; c++) {
+            sum += in.getShort(offset + c * 2);
+        }
+        return (double) sum / channels;
+    }
+
+    /**
+     * Reads 16-bit little-endian samples in place from the buffers of a payload, so composite payloads
+     * are not copied into one buffer first and the parts of a lazy payload are read as the filter
+     * reaches them. The filter only reads around its current position, so each
+     * lookup starts from the buffer of the previous one; a sample split between two buffers is put
+     * together from its bytes.
+     */
+    private static final class SampleReader {
+
+        private final AudioPayload pcm;
+        private final long[] starts;
+        private int current;
+        private ByteBuffer currentPart;
+        // The filter window straddles two buffers at their boundary, so the one before is kept as well
+        private int previous = -1;
+        private ByteBuffer previousPart;
+
+        SampleReader(AudioPayload pcm) {
+            this.pcm = pcm;
+            this.starts = new long[pcm.bufferCount() + 1];
+            for (int i = 0; i < pcm.bufferCount(); i++) {
+                starts[i + 1] = starts[i] + pcm.bufferLength(i);
+            }
+            this.currentPart = pcm.buffer(0);
+        }
+
+        short getShort(long offset) {
+            ByteBuffer part = locate(offset);
+            int index = (int) (offset - starts[current]);
+            if (index + 1 < part.limit()) {
+                return part.getShort(index);
+            }
+            int low = part.get(index) & 0xFF;
+            return (short) (low | locate(offset + 1).get(0) << 8);
+        }
+
+        private ByteBuffer locate(long offset) {
+            int index = current;
+            while (offset < starts[index]) {
+                index--;
+            }
+            while (offset >= starts[index + 1]) {
+                index++;
+            }
+            if (index != current) {
+                ByteBuffer part = index == previous ? previousPart : pcm.buffer(index);
+                previous = current;
+                previousPart = currentPart;
+                current = index;
+                currentPart = part;
+            }
+            return currentPart;
+        }
+    }
+
+    private static short toShort(double sample) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample)));
+    }
+
+    private static double sinc(double x) {
+        return x == 0 ? 1 : Math.sin(Math.PI * x) / (Math.PI * x);
+    }
+
+    /**
+     * Kaiser window at a position in [-1, 1]
+     */
+    private static double kaiser(double x) {
+        if (Math.abs(x) > 1) {
+            return 0;
+        }
+        return besselI0(KAISER_BETA * Math.sqrt(1 - x * x)) / besselI0(KAISER_BETA);
+    }
+
+    /**
+     * Zeroth-order modified Bessel function of the first kind, by its power series
+     */
+    private static double besselI0(double x) {
+        double sum = 1;
+        double term = 1;
+        for (int k = 1; k < 50 && term > 1e-12 * sum; k++) {
+            term *= (x / (2 * k)) * (x / (2 * k));
+            sum += term;
+        }
+        return sum;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
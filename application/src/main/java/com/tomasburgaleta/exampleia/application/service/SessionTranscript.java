@@ -0,0 +1,23 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import java.util.Objects;
+
+/**
+ * Transcription of a stopped streaming session
+ *
+ * @param sessionId The ID of the session
+ * @param transcribedText The text of all its utterances in speech order, empty if nothing was recognized
+ * @param audioSize The number of PCM bytes transcribed when the session stopped
+ * @param utterances The number of utterances ended by endpointing during the session
+ */
+public record SessionTranscript(String sessionId, String transcribedText, long audioSize, int utterances) {
+
+    public SessionTranscript {
+        Objects.requireNonNull(sessionId, "Session ID cannot be null");
+        transcribedText = transcribedText != null ? transcribedText : "";
+    }
+
+    public boolean hasTranscription() {
+        return !transcribedText.isEmpty();
+    }
+}
@@ -0,0 +1,118 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Pipeline stage removing silence from PCM audio before it is uploaded to a speech provider.
+ * The speech segments found by voice activity detection are kept; leading and trailing silence
+ * is cut and pauses longer than the configured maximum are shortened to it, half of the pause
+ * kept after the speech before it and half before the speech after it. Dictation is often 30-50%
+ * silence, which paid providers bill like speech.
+ * The kept spans are sliced from the original payload without copying, and described by a
+ * {@link SampleOffsetMap} so that times in the compacted audio can be mapped back.
+ */
+public class SilenceCompactor {
+
+    private final VoiceActivityDetectorPort voiceActivityDetectorPort;
+    private final long maxPauseMillis;
+
+    /**
+     * @param voiceActivityDetectorPort The detector locating the speech
+     * @param maxPauseMillis The longest pause left between two speech segments
+     * @throws IllegalArgumentException if the maximum pause is negative
+     */
+    public SilenceCompactor(VoiceActivityDetectorPort voiceActivityDetectorPort, long maxPauseMillis) {
+        this.voiceActivityDetectorPort = Objects.requireNonNull(voiceActivityDetectorPort, "VoiceActivityDetectorPort cannot be null");
+        if (maxPauseMillis < 0) {
+            throw new IllegalArgumentException("Max pause cannot be negative: " + maxPauseMillis);
+        }
+        this.maxPauseMillis = maxPauseMillis;
+    }
+
+    public long getMaxPauseMillis() {
+        return maxPauseMillis;
+    }
+
+    /**
+     * Decides which parts of the audio to keep
+     *
+     * @param audioBean The PCM audio with its format
+     * @return The spans to keep, or null if the audio should be sent whole: it holds no speech
+     *     (the provider then decides), its format cannot be analyzed, or nothing would be removed
+     */
+    public SampleOffsetMap plan(AudioBean audioBean) {
+        Objects.requireNonNull(audioBean, "AudioBean cannot be null");
+
+        int frameSize = audioBean.getBitsPerSample() / 8 * audioBean.getChannels();
+        if (!audioBean.hasAudioData() || audioBean.getSamplesPerSecond() <= 0 || frameSize <= 0) {
+            return null;
+        }
+
+        List<SpeechSegment> segments;
+        try {
+            segments = voiceActivityDetectorPort.detectSpeech(audioBean.getAudioPayload(), audioBean.getSamplesPerSecond(),
+                audioBean.getBitsPerSample(), audioBean.getChannels());
+        } catch (IllegalArgumentException e) {
+            // A format the detector does not support is sent as it is
+            return null;
+        }
+        if (segments.isEmpty()) {
+            return null;
+        }
+
+        long totalFrames = audioBean.getAudioDataSize() / frameSize;
+        long maxPause = maxPauseMillis * audioBean.getSamplesPerSecond() / 1000;
+        long keptAfter = maxPause / 2;
+        long keptBefore = maxPause - keptAfter;
+
+        List<long[]> spans = new ArrayList<>();
+        long start = segments.get(0).startSample();
+        long end = segments.get(0).endSample();
+        for (SpeechSegment segment : segments.subList(1, segments.size())) {
+            if (segment.startSample() - end > maxPause) {
+                spans.add(new long[]{start, Math.min(end + keptAfter, totalFrames)});
+                start = segment.startSample() - keptBefore;
+            }
+            end = Math.max(end, segment.endSample());
+        }
+        spans.add(new long[]{start, Math.min(end, totalFrames)});
+        spans.removeIf(span -> span[1] <= span[0]);
+
+        if (spans.isEmpty() || spans.size() == 1 && spans.get(0)[0] == 0 && spans.get(0)[1] == totalFrames) {
+            return null;
+        }
+        return new SampleOffsetMap(spans, totalFrames);
+    }
+
+    /**
+     * Cuts the kept spans out of the audio without copying its bytes
+     *
+     * @param audioBean The PCM audio the map was planned for
+     * @param offsetMap The spans to keep
+     * @return A bean with the same ID and format holding only the kept spans
+     */
+    public static AudioBean cut(AudioBean audioBean, SampleOffsetMap offsetMap) {
+        Objects.requireNonNull(audioBean, "AudioBean cannot be null");
+        Objects.requireNonNull(offsetMap, "SampleOffsetMap cannot be null");
+
+        int frameSize = audioBean.getBitsPerSample() / 8 * audioBean.getChannels();
+        AudioPayload[] kept = new AudioPayload[offsetMap.getSpanCount()];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = audioBean.getAudioPayload().slice(offsetMap.getOriginalStart(i) * frameSize, offsetMap.getLength(i) * frameSize);
+        }
+
+        AudioBean compacted = new AudioBean(audioBean.getId(), AudioPayload.concat(kept));
+        compacted.setSamplesPerSecond(audioBean.getSamplesPerSecond());
+        compacted.setBitsPerSample(audioBean.getBitsPerSample());
+        compacted.setChannels(audioBean.getChannels());
+        return compacted;
+    }
+}
@@ -1,7 +1,12 @@
 package com.tomasburgaleta.exampleia.application.service;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
 import com.tomasburgaleta.exampleia.domain.port.SilenceDetectorPort;
+import com.tomasburgaleta.exampleia.domain.port.SilenceTracker;
+import com.tomasburgaleta.exampleia.domain.port.StreamingSilenceDetectorPort;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
@@ -10,9 +15,21 @@ import java.util.Objects;
 public class SilenceDetectionService {
     
     private final SilenceDetectorPort silenceDetectorPort;
+    private final StreamingSilenceDetectorPort streamingSilenceDetectorPort;
     
     public SilenceDetectionService(SilenceDetectorPort silenceDetectorPort) {
+        this(silenceDetectorPort, null);
+    }
+    
+    /**
+     * @param silenceDetectorPort The detector for self-contained audio
+     * @param streamingSilenceDetectorPort The detector for streaming sessions, or null if chunks
+     *     are only analyzed one by one
+     */
+    public SilenceDetectionService(SilenceDetectorPort silenceDetectorPort,
+                                   StreamingSilenceDetectorPort streamingSilenceDetectorPort) {
         this.silenceDetectorPort = Objects.requireNonNull(silenceDetectorPort, "SilenceDetectorPort cannot be null");
+        this.streamingSilenceDetectorPort = streamingSilenceDetectorPort;
     }
     
     /**
@@ -33,4 +50,82 @@ public class SilenceDetectionService {
         
         return silenceDetectorPort.detectSilence(pcmData, samplesPerSecond, bitsPerSample, channels);
     }
+    
+    /**
+     * Detects if the given audio contains silence, handing the payload to the detector without
+     * copying it
+     * 
+     * @param pcmData The PCM audio data
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth  
+     * @param channels The number of channels
+     * @return true if silence is detected, false otherwise
+     */
+    public boolean isSilent(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        Objects.requireNonNull(pcmData, "PCM data cannot be null");
+        
+        if (pcmData.isEmpty()) {
+            return true; // Empty audio is considered silent
+        }
+        
+        return silenceDetectorPort.detectSilence(pcmData, samplesPerSecond, bitsPerSample, channels);
+    }
+    
+    /**
+     * Analyzes the next chunk of a streaming session, carrying the detection state over from its
+     * previous chunks so the decisions do not depend on where the chunks were cut.
+     * Without a streaming detector the chunk is analyzed on its own, as a single frame.
+     *
+     * @param session The session the chunk belongs to
+     * @param pcmChunk The next PCM bytes of the session
+     * @return The speech/silence decisions for the frames completed by the chunk
+     */
+    public SpeechActivity trackChunk(StreamingSession session, byte[] pcmChunk) {
+        Objects.requireNonNull(session, "StreamingSession cannot be null");
+        Objects.requireNonNull(pcmChunk, "PCM data cannot be null");
+        
+        if (streamingSilenceDetectorPort == null) {
+            return analyzeAlone(session, pcmChunk);
+        }
+        
+        return tracker(session).accept(pcmChunk);
+    }
+    
+    /**
+     * Analyzes the remaining bytes of a buffer, such as a network frame, as the next chunk of a
+     * streaming session. A streaming detector reads them in place; the position of the buffer is
+     * not changed.
+     *
+     * @param session The session the chunk belongs to
+     * @param pcmChunk The next PCM bytes of the session
+     * @return The speech/silence decisions for the frames completed by the chunk
+     */
+    public SpeechActivity trackChunk(StreamingSession session, ByteBuffer pcmChunk) {
+        Objects.requireNonNull(session, "StreamingSession cannot be null");
+        Objects.requireNonNull(pcmChunk, "PCM data cannot be null");
+        
+        if (streamingSilenceDetectorPort == null) {
+            byte[] pcmData = new byte[pcmChunk.remaining()];
+            pcmChunk.get(pcmChunk.position(), pcmData);
+            return analyzeAlone(session, pcmData);
+        }
+        
+        return tracker(session).accept(pcmChunk);
+    }
+    
+    private SilenceTracker tracker(StreamingSession session) {
+        return session.silenceTracker(() -> streamingSilenceDetectorPort.openTracker(
+            session.getSamplesPerSecond(), session.getBitsPerSample(), session.getChannels()));
+    }
+    
+    /**
+     * Analyzes a chunk on its own, as a single frame
+     */
+    private SpeechActivity analyzeAlone(StreamingSession session, byte[] pcmChunk) {
+        boolean silent = isSilent(pcmChunk, session.getSamplesPerSecond(), session.getBitsPerSample(), session.getChannels());
+        int frameSize = Math.max(1, session.getBitsPerSample() / 8 * session.getChannels());
+        int frameSamples = Math.max(1, pcmChunk.length / frameSize);
+        return new SpeechActivity(0, new boolean[]{!silent}, frameSamples, session.getSamplesPerSecond(),
+            !silent, silent ? 1 : 0);
+    }
 }
@@ -0,0 +1,90 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pipeline stage converting audio to the format a speech provider needs before it is uploaded.
+ * Speech recognition only needs 16 kHz mono, so 44.1/48 kHz stereo audio from the browser is
+ * downmixed and resampled, cutting upload size and provider latency by up to 6x.
+ * Only 16-bit PCM is converted. Audio at or below the target rate is not resampled, since
+ * upsampling would add bytes without adding information.
+ */
+public class SpeechAudioPreprocessor {
+
+    /**
+     * Target value meaning the property is left as is
+     */
+    public static final int KEEP = 0;
+
+    private static final short SUPPORTED_BITS_PER_SAMPLE = 16;
+
+    private final long targetSampleRate;
+    private final int targetChannels;
+    private final Map<Long, PolyphaseResampler> resamplers = new ConcurrentHashMap<>();
+
+    /**
+     * @param targetSampleRate The highest sample rate to send, or {@link #KEEP}
+     * @param targetChannels 1 to downmix to mono, or {@link #KEEP}
+     * @throws IllegalArgumentException if a target is not supported
+     */
+    public SpeechAudioPreprocessor(long targetSampleRate, int targetChannels) {
+        if (targetSampleRate < 0) {
+            throw new IllegalArgumentException("Target sample rate cannot be negative: " + targetSampleRate);
+        }
+        if (targetChannels != KEEP && targetChannels != 1) {
+            throw new IllegalArgumentException("Audio can only be downmixed to mono, got " + targetChannels + " channels");
+        }
+        this.targetSampleRate = targetSampleRate;
+        this.targetChannels = targetChannels;
+    }
+
+    /**
+     * @return A stage that hands audio over unchanged
+     */
+    public static SpeechAudioPreprocessor passThrough() {
+        return new SpeechAudioPreprocessor(KEEP, KEEP);
+    }
+
+    public long getTargetSampleRate() {
+        return targetSampleRate;
+    }
+
+    public int getTargetChannels() {
+        return targetChannels;
+    }
+
+    /**
+     * Converts the audio to the target format
+     *
+     * @param audioBean The audio to convert; it is not modified
+     * @return A new bean with the same id holding the converted PCM, or the given bean if it
+     *     needs no conversion
+     */
+    public AudioBean prepare(AudioBean audioBean) {
+        Objects.requireNonNull(audioBean, "AudioBean cannot be null");
+        if (!audioBean.hasAudioData() || audioBean.getBitsPerSample() != SUPPORTED_BITS_PER_SAMPLE
+                || audioBean.getChannels() <= 0 || audioBean.getSamplesPerSecond() <= 0) {
+            return audioBean;
+        }
+
+        long sampleRate = audioBean.getSamplesPerSecond();
+        boolean downmix = targetChannels == 1 && audioBean.getChannels() > 1;
+        boolean resample = targetSampleRate != KEEP && sampleRate > targetSampleRate;
+        if (!downmix && !resample) {
+            return audioBean;
+        }
+
+        long outputRate = resample ? targetSampleRate : sampleRate;
+        PolyphaseResampler resampler = resamplers.computeIfAbsent(sampleRate, rate -> new PolyphaseResampler(rate, outputRate));
+        AudioBean converted = new AudioBean(audioBean.getId(),
+            resampler.resample(audioBean.getAudioPayload(), audioBean.getChannels(), downmix));
+        converted.setSamplesPerSecond(outputRate);
+        converted.setBitsPerSample(audioBean.getBitsPerSample());
+        converted.setChannels(downmix ? 1 : audioBean.getChannels());
+        return converted;
+    }
+}
@@ -0,0 +1,213 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application service ending the utterances of streaming sessions on the server.
+ * Once a session has heard speech and the silence after it lasts the configured time, the audio
+ * buffered so far is closed as an utterance and dispatched for transcription at once, while the
+ * session keeps accepting audio. The transcriptions are appended to the session's text in the
+ * order of the speech, whatever order the provider answers in.
+ * Closing the service stops the pool it created; an executor given to it is left running.
+ */
+public class StreamingEndpointingService implements AutoCloseable {
+
+    public static final long DEFAULT_AWAIT_TIMEOUT_MILLIS = 60_000;
+
+    private final AudioListenerService audioListenerService;
+    private final long endSilenceMillis;
+    private final Executor dispatcher;
+    private final long awaitTimeoutMillis;
+    private final ExecutorService ownedPool;
+
+    /**
+     * @param audioListenerService The service transcribing each utterance
+     * @param endSilenceMillis How long the silence after speech must last to end an utterance;
+     *     0 disables endpointing, so utterances only end when the session stops
+     * @param concurrency The maximum number of utterances transcribed at the same time
+     */
+    public StreamingEndpointingService(AudioListenerService audioListenerService, long endSilenceMillis, int concurrency) {
+        this(audioListenerService, endSilenceMillis, concurrency, DEFAULT_AWAIT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param audioListenerService The service transcribing each utterance
+     * @param endSilenceMillis How long the silence after speech must last to end an utterance;
+     *     0 disables endpointing, so utterances only end when the session stops
+     * @param concurrency The maximum number of utterances transcribed at the same time
+     * @param awaitTimeoutMillis How long stopping a session waits for its utterances to be transcribed
+     */
+    public StreamingEndpointingService(AudioListenerService audioListenerService, long endSilenceMillis, int concurrency,
+                                       long awaitTimeoutMillis) {
+        this(audioListenerService, endSilenceMillis, newDispatcherPool(concurrency), awaitTimeoutMillis, true);
+    }
+
+    /**
+     * @param audioListenerService The service transcribing each utterance
+     * @param endSilenceMillis How long the silence after speech must last to end an utterance;
+     *     0 disables endpointing, so utterances only end when the session stops
+     * @param dispatcher Runs the transcriptions; it is not shut down by {@link #close()}
+     */
+    public StreamingEndpointingService(AudioListenerService audioListenerService, long endSilenceMillis, Executor dispatcher) {
+        this(audioListenerService, endSilenceMillis, dispatcher, DEFAULT_AWAIT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param audioListenerService The service transcribing each utterance
+     * @param endSilenceMillis How long the silence after speech must last to end an utterance;
+     *     0 disables endpointing, so utterances only end when the session stops
+     * @param dispatcher Runs the transcriptions; it is not shut down by {@link #close()}
+     * @param awaitTimeoutMillis How long stopping a session waits for its utterances to be transcribed
+     */
+    public StreamingEndpointingService(AudioListenerService audioListenerService, long endSilenceMillis, Executor dispatcher,
+                                       long awaitTimeoutMillis) {
+        this(audioListenerService, endSilenceMillis, dispatcher, awaitTimeoutMillis, false);
+    }
+
+    private StreamingEndpointingService(AudioListenerService audioListenerService, long endSilenceMillis, Executor dispatcher,
+                                        long awaitTimeoutMillis, boolean ownsDispatcher) {
+        this.audioListenerService = Objects.requireNonNull(audioListenerService, "AudioListenerService cannot be null");
+        if (endSilenceMillis < 0) {
+            throw new IllegalArgumentException("End silence cannot be negative");
+        }
+        if (awaitTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Await timeout must be positive");
+        }
+        this.endSilenceMillis = endSilenceMillis;
+        this.dispatcher = Objects.requireNonNull(dispatcher, "Dispatcher cannot be null");
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.ownedPool = ownsDispatcher ? (ExecutorService) dispatcher : null;
+    }
+
+    public boolean isEnabled() {
+        return endSilenceMillis > 0;
+    }
+
+    /**
+     * Feeds the speech decisions of a chunk already added to the session, and ends the current
+     * utterance when they close it
+     *
+     * @param session The session the chunk belongs to
+     * @param activity The decisions of the session's silence tracker for the chunk
+     * @return The utterance just ended and dispatched, or null while the utterance goes on
+     */
+    public Utterance endpoint(StreamingSession session, SpeechActivity activity) {
+        Objects.requireNonNull(session, "StreamingSession cannot be null");
+        Objects.requireNonNull(activity, "SpeechActivity cannot be null");
+
+        if (!isEnabled()) {
+            return null;
+        }
+
+        boolean endOfSpeech = !activity.isSpeaking() && activity.getTrailingSilenceMillis() >= endSilenceMillis;
+        StreamingSession.EndedUtterance ended = session.endUtterance(activity.hasSpeech() || activity.isSpeaking(), endOfSpeech);
+        if (ended == null) {
+            return null;
+        }
+
+        int index = ended.index();
+        long audioSize;
+        CompletableFuture<AudioBean> transcription;
+        AudioBean audioBean;
+        try (ended) {
+            audioSize = ended.audio().size();
+            audioBean = new AudioBean(session.getId() + "-" + index, ended.audio().toAudioPayload());
+            audioBean.setSamplesPerSecond(session.getSamplesPerSecond());
+            audioBean.setBitsPerSample(session.getBitsPerSample());
+            audioBean.setChannels(session.getChannels());
+            transcription = CompletableFuture.supplyAsync(() -> transcribe(audioBean), dispatcher);
+        } catch (RuntimeException e) {
+            // Later utterances must not wait for a text that will never come
+            ended.text().completeExceptionally(e);
+            throw e;
+        }
+
+        transcription.whenComplete((transcribed, error) -> {
+            if (error != null) {
+                ended.text().completeExceptionally(error);
+            } else {
+                ended.text().complete(transcribed.getTranscribedText());
+            }
+        });
+        return new Utterance(index, audioSize, audioBean.getDurationMillis(), transcription);
+    }
+
+    /**
+     * Waits until every utterance ended so far has its text in the session's transcription
+     *
+     * @param session The session to wait for
+     * @return The number of utterances ended so far
+     * @throws AudioProcessingException if the utterances are not transcribed within the await timeout
+     */
+    public int awaitUtterances(StreamingSession session) throws AudioProcessingException {
+        Objects.requireNonNull(session, "StreamingSession cannot be null");
+
+        try {
+            session.utteranceTranscriptions().get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AudioProcessingException("Utterance transcriptions did not finish within " + awaitTimeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for utterance transcriptions", e);
+        } catch (ExecutionException e) {
+            // Failed transcriptions add no text, so the chain itself never fails
+            throw new IllegalStateException("Utterance transcriptions failed", e.getCause());
+        }
+        return session.getUtteranceCount();
+    }
+
+    /**
+     * @param session The session to check
+     * @return Whether the audio buffered since the last utterance ended holds speech; always true
+     *     for a session with no utterance ended, whose audio has not been analyzed for endpointing
+     */
+    public boolean hasPendingSpeech(StreamingSession session) {
+        Objects.requireNonNull(session, "StreamingSession cannot be null");
+        return session.getUtteranceCount() == 0 || session.hasOpenUtterance();
+    }
+
+    private AudioBean transcribe(AudioBean audioBean) {
+        try {
+            audioListenerService.listenPcm(audioBean);
+            return audioBean;
+        } catch (AudioProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Stops the dispatcher pool created by this service; utterances still being transcribed are interrupted
+     */
+    @Override
+    public void close() {
+        if (ownedPool != null) {
+            ownedPool.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newDispatcherPool(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "utterance-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
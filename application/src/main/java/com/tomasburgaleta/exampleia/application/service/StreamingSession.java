@@ -0,0 +1,216 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.port.SilenceTracker;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A single real-time streaming session.
+ * Each session owns its audio format and its own audio buffer, so concurrent sessions never share state.
+ */
+public class StreamingSession {
+
+    private final String id;
+    private final long samplesPerSecond;
+    private final short bitsPerSample;
+    private final short channels;
+    private final AudioStreamingService audioBuffer;
+    private volatile long lastActivityTimestamp;
+    private volatile String latestTranscription = "";
+    private SilenceTracker silenceTracker;
+    private boolean utteranceOpen;
+    private int utteranceCount;
+    private CompletableFuture<Void> utteranceTranscriptions = CompletableFuture.completedFuture(null);
+
+    public StreamingSession(String id, long samplesPerSecond, short bitsPerSample, short channels) {
+        this.id = Objects.requireNonNull(id, "Session ID cannot be null");
+        this.samplesPerSecond = samplesPerSecond;
+        this.bitsPerSample = bitsPerSample;
+        this.channels = channels;
+        this.audioBuffer = new AudioStreamingService();
+        this.lastActivityTimestamp = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    public short getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    public short getChannels() {
+        return channels;
+    }
+
+    /**
+     * Appends an audio chunk to this session's buffer and refreshes its activity timestamp
+     *
+     * @param audioChunk The PCM chunk to append
+     * @throws IllegalArgumentException if audioChunk is empty
+     */
+    public void addAudioChunk(byte[] audioChunk) {
+        audioBuffer.addAudioBytes(audioChunk);
+        lastActivityTimestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Appends the remaining bytes of a buffer to this session's buffer without an intermediate
+     * copy, and refreshes its activity timestamp. The position of the buffer is not changed.
+     *
+     * @param audioChunk The PCM chunk to append
+     * @throws IllegalArgumentException if audioChunk has no remaining bytes
+     */
+    public void addAudioChunk(ByteBuffer audioChunk) {
+        audioBuffer.addAudioBytes(audioChunk);
+        lastActivityTimestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Extracts all buffered audio of this session and clears its buffer
+     *
+     * @return The accumulated PCM data
+     */
+    public byte[] extractAudio() {
+        return audioBuffer.extractAndClearAudioBytes();
+    }
+
+    /**
+     * Extracts all buffered audio of this session as a gathering view and clears its buffer.
+     * The caller must close the returned view.
+     *
+     * @return The accumulated PCM data, segment by segment
+     */
+    public AudioChunks extractAudioChunks() {
+        return audioBuffer.extractAudioChunks();
+    }
+
+    public int getBufferSize() {
+        return audioBuffer.getBufferSize();
+    }
+
+    public long getLastActivityTimestamp() {
+        return lastActivityTimestamp;
+    }
+
+    public String getLatestTranscription() {
+        return latestTranscription;
+    }
+
+    public void setLatestTranscription(String latestTranscription) {
+        this.latestTranscription = latestTranscription != null ? latestTranscription : "";
+    }
+
+    /**
+     * Adds the text of the next utterance to the transcription of this session
+     *
+     * @param text The transcribed text; null or blank text is ignored
+     */
+    public synchronized void appendTranscription(String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        latestTranscription = latestTranscription.isEmpty() ? text.trim() : latestTranscription + " " + text.trim();
+    }
+
+    /**
+     * Returns the silence detection state of this session, opening it on first use
+     *
+     * @param opener Opens the state for this session's format
+     * @return The tracker fed with this session's chunks
+     */
+    synchronized SilenceTracker silenceTracker(Supplier<SilenceTracker> opener) {
+        if (silenceTracker == null) {
+            silenceTracker = Objects.requireNonNull(opener.get(), "SilenceTracker cannot be null");
+        }
+        return silenceTracker;
+    }
+
+    /**
+     * Records the speech decisions of a chunk and, when they end the current utterance, detaches
+     * the audio buffered so far. The utterance is numbered and its place in the transcription is
+     * taken under the same lock, so utterances ended concurrently never share an index and their
+     * texts keep the order of the indexes.
+     *
+     * @param speech Whether the chunk holds speech
+     * @param endOfSpeech Whether the silence after the last speech is long enough to end an utterance
+     * @return The utterance just ended, or null while no utterance ends
+     */
+    synchronized EndedUtterance endUtterance(boolean speech, boolean endOfSpeech) {
+        utteranceOpen |= speech;
+        if (!utteranceOpen || !endOfSpeech) {
+            return null;
+        }
+        utteranceOpen = false;
+        utteranceCount++;
+        CompletableFuture<String> text = new CompletableFuture<>();
+        addUtteranceTranscription(text);
+        return new EndedUtterance(utteranceCount, audioBuffer.extractAudioChunks(), text);
+    }
+
+    /**
+     * @return The number of utterances ended so far
+     */
+    synchronized int getUtteranceCount() {
+        return utteranceCount;
+    }
+
+    /**
+     * @return Whether speech has been heard since the last utterance ended
+     */
+    synchronized boolean hasOpenUtterance() {
+        return utteranceOpen;
+    }
+
+    /**
+     * Appends the text of an utterance to the transcription once it and every earlier utterance
+     * are transcribed, so the text keeps the order of the speech
+     *
+     * @param transcription The pending text of the utterance; a failed transcription adds nothing
+     */
+    private synchronized void addUtteranceTranscription(CompletableFuture<String> transcription) {
+        utteranceTranscriptions = utteranceTranscriptions.thenCombine(
+            transcription.exceptionally(error -> null),
+            (ignored, text) -> {
+                appendTranscription(text);
+                return null;
+            });
+    }
+
+    /**
+     * @return Completes when every utterance ended so far has its text in the transcription
+     */
+    synchronized CompletableFuture<Void> utteranceTranscriptions() {
+        return utteranceTranscriptions;
+    }
+
+    /**
+     * An utterance just ended. The caller must close its audio and complete its text, which the
+     * transcription waits for before appending the texts of later utterances.
+     *
+     * @param index The number of the utterance in the session, from 1
+     * @param audio The audio of the utterance, detached from the session's buffer
+     * @param text The text of the utterance; completing it exceptionally adds nothing
+     */
+    record EndedUtterance(int index, AudioChunks audio, CompletableFuture<String> text) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            audio.close();
+        }
+    }
+
+    /**
+     * Releases the buffered audio of this session
+     */
+    void close() {
+        audioBuffer.clear();
+    }
+}
@@ -0,0 +1,156 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application service that keeps a registry of concurrent streaming sessions.
+ * Sessions are stored in a concurrent map, so every lookup is O(1) and no global lock is taken.
+ * Sessions idle for longer than the configured timeout are evicted by a periodic sweep on a
+ * background thread, so starting a session never scans the registry.
+ */
+public class StreamingSessionService implements AutoCloseable {
+
+    private static final long DEFAULT_MAX_IDLE_MILLIS = 5 * 60 * 1000L; // 5 minutes
+
+    private final ConcurrentHashMap<String, StreamingSession> sessions = new ConcurrentHashMap<>();
+    private final long maxIdleMillis;
+    private final ScheduledExecutorService sweeper;
+
+    public StreamingSessionService() {
+        this(DEFAULT_MAX_IDLE_MILLIS);
+    }
+
+    /**
+     * Creates a registry without a background sweep; idle sessions are only evicted by
+     * {@link #evictIdleSessions()}
+     *
+     * @param maxIdleMillis How long a session may go without audio before it is evicted
+     */
+    public StreamingSessionService(long maxIdleMillis) {
+        this(maxIdleMillis, 0);
+    }
+
+    /**
+     * @param maxIdleMillis How long a session may go without audio before it is evicted
+     * @param sweepIntervalMillis How often idle sessions are evicted; zero disables the background sweep
+     */
+    public StreamingSessionService(long maxIdleMillis, long sweepIntervalMillis) {
+        if (maxIdleMillis <= 0) {
+            throw new IllegalArgumentException("Max idle time must be positive");
+        }
+        if (sweepIntervalMillis < 0) {
+            throw new IllegalArgumentException("Sweep interval cannot be negative");
+        }
+        this.maxIdleMillis = maxIdleMillis;
+
+        if (sweepIntervalMillis == 0) {
+            this.sweeper = null;
+        } else {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "streaming-session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::evictIdleSessions, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts a new streaming session with its own buffer and audio format
+     *
+     * @param samplesPerSecond The sample rate (e.g., 16000)
+     * @param bitsPerSample The bit depth (e.g., 16)
+     * @param channels The number of channels
+     * @return The new session
+     * @throws IllegalArgumentException if any format parameter is not positive
+     */
+    public StreamingSession startSession(long samplesPerSecond, short bitsPerSample, short channels) {
+        if (samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Samples per second must be positive");
+        }
+
+        if (bitsPerSample <= 0) {
+            throw new IllegalArgumentException("Bits per sample must be positive");
+        }
+
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channels must be positive");
+        }
+
+        StreamingSession session = new StreamingSession(UUID.randomUUID().toString(), samplesPerSecond, bitsPerSample, channels);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Looks up an active session
+     *
+     * @param sessionId The session identifier
+     * @return The session if active, null otherwise
+     */
+    public StreamingSession getSession(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        return sessions.get(sessionId);
+    }
+
+    /**
+     * Removes a session from the registry so no more chunks are accepted for it.
+     * The buffered audio stays available on the returned session for a final extraction.
+     *
+     * @param sessionId The session identifier
+     * @return The removed session, or null if it was not active
+     */
+    public StreamingSession endSession(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        return sessions.remove(sessionId);
+    }
+
+    /**
+     * @return The number of active sessions
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Evicts sessions with no activity for longer than the configured idle timeout
+     *
+     * @return The number of evicted sessions
+     */
+    public int evictIdleSessions() {
+        long oldestAllowed = System.currentTimeMillis() - maxIdleMillis;
+        int evicted = 0;
+
+        Iterator<StreamingSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            StreamingSession session = iterator.next();
+            if (session.getLastActivityTimestamp() < oldestAllowed && sessions.remove(session.getId(), session)) {
+                session.close();
+                evicted++;
+            }
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Stops the background sweep. Active sessions are kept.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+}
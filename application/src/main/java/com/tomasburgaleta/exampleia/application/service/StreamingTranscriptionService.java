@@ -0,0 +1,86 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+
+import java.util.Objects;
+
+/**
+ * Application service ending streaming sessions and transcribing what they recorded, whatever
+ * transport the audio came over.
+ * The utterances already ended by endpointing are awaited first so their text keeps its place;
+ * the audio left after the last of them is only transcribed if it holds speech.
+ */
+public class StreamingTranscriptionService {
+
+    private final StreamingSessionService streamingSessionService;
+    private final AudioListenerService audioListenerService;
+    private final StreamingEndpointingService streamingEndpointingService;
+
+    /**
+     * @param streamingSessionService The registry of the sessions
+     * @param audioListenerService The service transcribing the audio left in a session
+     * @param streamingEndpointingService The service ending utterances during the session, or null
+     *     if the whole session is transcribed when it stops
+     */
+    public StreamingTranscriptionService(StreamingSessionService streamingSessionService,
+                                         AudioListenerService audioListenerService,
+                                         StreamingEndpointingService streamingEndpointingService) {
+        this.streamingSessionService = Objects.requireNonNull(streamingSessionService, "StreamingSessionService cannot be null");
+        this.audioListenerService = Objects.requireNonNull(audioListenerService, "AudioListenerService cannot be null");
+        this.streamingEndpointingService = streamingEndpointingService;
+    }
+
+    /**
+     * Ends a session, so no more audio is accepted for it, and completes its transcription
+     *
+     * @param sessionId The ID of the session to stop
+     * @return The whole transcription of the session
+     * @throws IllegalArgumentException if the session does not exist or recorded no audio
+     * @throws AudioProcessingException if the remaining audio cannot be transcribed
+     */
+    public SessionTranscript stopSession(String sessionId) throws AudioProcessingException {
+        StreamingSession session = sessionId != null ? streamingSessionService.endSession(sessionId) : null;
+        if (session == null) {
+            throw new IllegalArgumentException("Invalid or expired session");
+        }
+
+        // Let the utterances already dispatched finish, so their text comes before the rest
+        int utterances = 0;
+        boolean pendingSpeech = true;
+        if (streamingEndpointingService != null) {
+            utterances = streamingEndpointingService.awaitUtterances(session);
+            pendingSpeech = streamingEndpointingService.hasPendingSpeech(session);
+        }
+
+        // Extract all accumulated audio without concatenating the segments
+        long audioSize = 0;
+        AudioPayload pcmPayload = null;
+        try (AudioChunks pcmData = session.extractAudioChunks()) {
+            if (pcmData.isEmpty() && utterances == 0) {
+                throw new IllegalArgumentException("No audio data recorded");
+            }
+
+            if (!pcmData.isEmpty() && pendingSpeech) {
+                audioSize = pcmData.size();
+                pcmPayload = pcmData.toAudioPayload();
+            }
+        }
+
+        if (pcmPayload != null) {
+            AudioBean audioBean = new AudioBean(session.getId(), pcmPayload);
+            audioBean.setSamplesPerSecond(session.getSamplesPerSecond());
+            audioBean.setBitsPerSample(session.getBitsPerSample());
+            audioBean.setChannels(session.getChannels());
+
+            // Converted to the provider's format as PCM, then framed as WAV
+            audioListenerService.listenPcm(audioBean);
+
+            // Store the transcription after the text of the earlier utterances
+            session.appendTranscription(audioBean.getTranscribedText());
+        }
+
+        return new SessionTranscript(session.getId(), session.getLatestTranscription(), audioSize, utterances);
+    }
+}
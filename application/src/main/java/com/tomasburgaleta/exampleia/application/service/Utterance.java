@@ -0,0 +1,60 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An utterance closed by server-side endpointing and dispatched for transcription
+ * while its streaming session keeps accepting audio
+ */
+public final class Utterance {
+
+    private final int index;
+    private final long audioSize;
+    private final long durationMillis;
+    private final CompletableFuture<AudioBean> transcription;
+
+    Utterance(int index, long audioSize, long durationMillis, CompletableFuture<AudioBean> transcription) {
+        this.index = index;
+        this.audioSize = audioSize;
+        this.durationMillis = durationMillis;
+        this.transcription = Objects.requireNonNull(transcription, "Transcription cannot be null");
+    }
+
+    /**
+     * @return The position of the utterance in its session, from 1
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The number of PCM bytes in the utterance
+     */
+    public long getAudioSize() {
+        return audioSize;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return Completes with the transcribed utterance, or exceptionally with the
+     *     {@link com.tomasburgaleta.exampleia.domain.port.AudioProcessingException} of the provider
+     */
+    public CompletableFuture<AudioBean> getTranscription() {
+        return transcription;
+    }
+
+    @Override
+    public String toString() {
+        return "Utterance{" +
+                "index=" + index +
+                ", audioSize=" + audioSize +
+                ", durationMillis=" + durationMillis +
+                '}';
+    }
+}
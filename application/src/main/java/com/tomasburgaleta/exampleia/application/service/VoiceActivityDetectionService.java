@@ -0,0 +1,38 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Application service locating the speech in audio, as segments that can be trimmed,
+ * transcribed separately or used to detect the end of an utterance
+ */
+public class VoiceActivityDetectionService {
+
+    private final VoiceActivityDetectorPort voiceActivityDetectorPort;
+
+    public VoiceActivityDetectionService(VoiceActivityDetectorPort voiceActivityDetectorPort) {
+        this.voiceActivityDetectorPort = Objects.requireNonNull(voiceActivityDetectorPort, "VoiceActivityDetectorPort cannot be null");
+    }
+
+    /**
+     * Finds the speech segments of the PCM audio held by a bean
+     *
+     * @param audioBean The audio to analyze
+     * @return The speech segments in order, with offsets in sample frames
+     * @throws IllegalArgumentException if the bean has no audio data or its format is not supported
+     */
+    public List<SpeechSegment> detectSpeech(AudioBean audioBean) {
+        Objects.requireNonNull(audioBean, "AudioBean cannot be null");
+        if (!audioBean.hasAudioData()) {
+            throw new IllegalArgumentException("AudioBean must contain audio data");
+        }
+
+        return voiceActivityDetectorPort.detectSpeech(audioBean.getAudioPayload(), audioBean.getSamplesPerSecond(),
+            audioBean.getBitsPerSample(), audioBean.getChannels());
+    }
+}
@@ -1,9 +1,17 @@
 package com.tomasburgaleta.exampleia.application.service;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavProbe;
+import com.tomasburgaleta.exampleia.domain.model.WavStream;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.WavByteReaderPort;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
 import java.util.Objects;
 
 /**
@@ -12,6 +20,8 @@ import java.util.Objects;
  */
 public class WavByteProcessingService {
     
+    private static final int MAX_PCM_SIZE = Integer.MAX_VALUE - 8; // Largest array the JVM can allocate
+    
     private final WavByteReaderPort wavByteReaderPort;
     
     public WavByteProcessingService(WavByteReaderPort wavByteReaderPort) {
@@ -39,4 +49,108 @@ public class WavByteProcessingService {
         
         return wavByteReaderPort.processWavBytes(wavBytes, id);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Processes WAV audio held in a payload and returns an AudioBean
+     * sharing the PCM region of the payload
+     * 
+     * @param wavPayload The WAV file content
+     * @param id Unique identifier for the audio data
+     * @return AudioBean containing WAV metadata and PCM audio data without header
+     * @throws AudioFileException if the payload is not a valid WAV format
+     * @throws IllegalArgumentException if parameters are null or empty
+     */
+    public AudioBean processWavPayload(AudioPayload wavPayload, String id) throws AudioFileException {
+        if (wavPayload == null || wavPayload.isEmpty()) {
+            throw new IllegalArgumentException("WAV bytes cannot be null or empty");
+        }
+        
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID cannot be null or empty");
+        }
+        
+        return wavByteReaderPort.processWavPayload(wavPayload, id);
+    }
+    
+    /**
+     * Processes WAV audio read from a stream and returns an AudioBean.
+     * The header is parsed as it arrives and only the PCM data is kept, read straight into
+     * a buffer of its announced size, so the full file is never held in memory.
+     * 
+     * @param wavStream The stream to read the WAV file from
+     * @param id Unique identifier for the audio data
+     * @return AudioBean containing WAV metadata and PCM audio data without header
+     * @throws AudioFileException if the stream is not a valid WAV format, or its data chunk is shorter than announced
+     * @throws IOException if reading the stream fails
+     * @throws IllegalArgumentException if parameters are null or empty
+     */
+    public AudioBean processWavStream(InputStream wavStream, String id) throws IOException {
+        if (wavStream == null) {
+            throw new IllegalArgumentException("WAV stream cannot be null");
+        }
+        
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID cannot be null or empty");
+        }
+        
+        try (WavStream wav = wavByteReaderPort.openWavStream(Channels.newChannel(wavStream))) {
+            AudioBean audioBean = new AudioBean(id, wav.readData(MAX_PCM_SIZE));
+            audioBean.setSamplesPerSecond(wav.getSamplesPerSecond());
+            audioBean.setBitsPerSample(wav.getBitsPerSample());
+            audioBean.setChannels(wav.getChannels());
+            return audioBean;
+        } catch (EOFException e) {
+            throw new AudioFileException("Invalid data chunk size: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Describes WAV audio from the first bytes of the file without extracting its PCM data
+     * 
+     * @param wavPrefix The first bytes of the WAV file, or the whole file
+     * @return WavProbe with the format, data chunk location, duration and metadata chunks
+     * @throws AudioFileException if the header is not a valid WAV format
+     * @throws IllegalArgumentException if wavPrefix is null or empty
+     */
+    public WavProbe probeWavBytes(byte[] wavPrefix) throws AudioFileException {
+        if (wavPrefix == null || wavPrefix.length == 0) {
+            throw new IllegalArgumentException("WAV bytes cannot be null or empty");
+        }
+        
+        return wavByteReaderPort.probeWav(wavPrefix);
+    }
+    
+    /**
+     * Describes a WAV file by reading its chunk headers only
+     * 
+     * @param wavFile The WAV file
+     * @return WavProbe with the format, data chunk location, duration and metadata chunks
+     * @throws AudioFileException if the file is not a valid WAV format
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if wavFile is null
+     */
+    public WavProbe probeWavFile(Path wavFile) throws IOException {
+        if (wavFile == null) {
+            throw new IllegalArgumentException("WAV file cannot be null");
+        }
+        
+        return wavByteReaderPort.probeWav(wavFile);
+    }
+    
+    /**
+     * Describes WAV audio read from a stream, which is consumed only up to the start of its PCM data
+     * 
+     * @param wavStream The stream to read the WAV file from; it is not closed
+     * @return WavProbe with the format, data chunk location, duration and the metadata chunks before the data
+     * @throws AudioFileException if the stream is not a valid WAV format
+     * @throws IOException if reading the stream fails
+     * @throws IllegalArgumentException if wavStream is null
+     */
+    public WavProbe probeWavStream(InputStream wavStream) throws IOException {
+        if (wavStream == null) {
+            throw new IllegalArgumentException("WAV stream cannot be null");
+        }
+        
+        return wavByteReaderPort.probeWav(Channels.newChannel(wavStream));
+    }
+}
@@ -0,0 +1,123 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioDeduplicationServiceTest {
+
+    @Test
+    void shouldKeyAudioByFormatAndSamples() {
+        // Given - the same samples held in one array and split across parts
+        byte[] pcm = {1, 2, 3, 4, 5, 6, 7, 8};
+        AudioDeduplicationService service = new AudioDeduplicationService(10);
+        AudioBean whole = audioBean(AudioPayload.wrap(pcm), 16000);
+        AudioBean split = audioBean(AudioPayload.concat(AudioPayload.wrap(pcm, 0, 3), AudioPayload.wrap(pcm, 3, 5)), 16000);
+        AudioBean otherRate = audioBean(AudioPayload.wrap(pcm), 8000);
+        AudioBean otherSamples = audioBean(AudioPayload.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 9}), 16000);
+
+        // When
+        String key = service.contentKey(whole);
+
+        // Then
+        assertEquals(64, key.length());
+        assertEquals(key, service.contentKey(split));
+        assertNotEquals(key, service.contentKey(otherRate));
+        assertNotEquals(key, service.contentKey(otherSamples));
+    }
+
+    @Test
+    void shouldRememberTheKeyOfRegisteredRecordings() {
+        // Given
+        AudioDeduplicationService service = new AudioDeduplicationService(10);
+        AudioBean registered = new AudioBean("registered", new byte[]{1, 2, 3, 4});
+        AudioBean unregistered = new AudioBean("unregistered", new byte[]{1, 2, 3, 4});
+
+        // When
+        service.registerRecording("stored-key", "registered");
+
+        // Then - a registered recording is not hashed again, others are
+        assertEquals("stored-key", service.recordingKey(registered));
+        assertEquals(service.contentKey(unregistered), service.recordingKey(unregistered));
+    }
+
+    @Test
+    void shouldCountHitsMissesAndDeduplicatedBytes() {
+        // Given
+        AudioDeduplicationService service = new AudioDeduplicationService(10);
+        AudioBean transcribed = audioBean(AudioPayload.wrap(new byte[100]), 16000);
+        transcribed.setTranscribedText("hola");
+        transcribed.setDetectedLanguage("es-ES");
+
+        // When
+        assertNull(service.findRecording("a", 100));
+        service.registerRecording("a", "recording-1");
+        String found = service.findRecording("a", 100);
+        assertNull(service.findTranscription("a", 100));
+        service.registerTranscription("a", transcribed);
+        AudioDeduplicationService.TranscriptionResult result = service.findTranscription("a", 100);
+
+        // Then
+        assertEquals("recording-1", found);
+        assertEquals(new AudioDeduplicationService.TranscriptionResult("hola", "es-ES", null, null), result);
+        AudioDeduplicationService.Stats stats = service.getStats();
+        assertEquals(1, stats.getRecordingHits());
+        assertEquals(1, stats.getRecordingMisses());
+        assertEquals(0.5, stats.getRecordingHitRate());
+        assertEquals(0.5, stats.getTranscriptionHitRate());
+        assertEquals(200, stats.getDeduplicatedBytes());
+    }
+
+    @Test
+    void shouldTurnHitOnForgottenRecordingIntoMiss() {
+        // Given
+        AudioDeduplicationService service = new AudioDeduplicationService(10);
+        service.registerRecording("a", "recording-1");
+        service.findRecording("a", 100);
+
+        // When
+        service.forgetRecording("a", 100);
+
+        // Then
+        AudioDeduplicationService.Stats stats = service.getStats();
+        assertEquals(0, stats.getRecordingHits());
+        assertEquals(1, stats.getRecordingMisses());
+        assertEquals(0, stats.getDeduplicatedBytes());
+        assertEquals(0, stats.getRecordingCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries() {
+        // Given
+        AudioDeduplicationService service = new AudioDeduplicationService(2);
+        service.registerRecording("a", "recording-1");
+        service.registerRecording("b", "recording-2");
+        service.findRecording("a", 0);
+
+        // When
+        service.registerRecording("c", "recording-3");
+
+        // Then
+        assertEquals("recording-1", service.findRecording("a", 0));
+        assertNull(service.findRecording("b", 0));
+        assertEquals(2, service.getStats().getRecordingCount());
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AudioDeduplicationService(0));
+        AudioDeduplicationService service = new AudioDeduplicationService(1);
+        assertThrows(NullPointerException.class, () -> service.contentKey(null));
+        assertThrows(IllegalArgumentException.class, () -> service.contentKey(new AudioBean("test-id", new byte[0])));
+    }
+
+    private static AudioBean audioBean(AudioPayload pcm, long sampleRate) {
+        AudioBean audioBean = new AudioBean("test-id", pcm);
+        audioBean.setSamplesPerSecond(sampleRate);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 1);
+        return audioBean;
+    }
+}
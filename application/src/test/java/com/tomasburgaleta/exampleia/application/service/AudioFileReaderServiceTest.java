@@ -1,5 +1,6 @@
 package com.tomasburgaleta.exampleia.application.service;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileReaderPort;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -38,13 +41,13 @@ class AudioFileReaderServiceTest {
         // Arrange
         String filePath = "/path/to/audio.wav";
         byte[] expectedBytes = new byte[]{1, 2, 3, 4};
-        when(audioFileReaderPort.readWavFile(filePath)).thenReturn(expectedBytes);
+        when(audioFileReaderPort.readWavFile(filePath)).thenReturn(AudioPayload.wrap(expectedBytes));
         
         // Act
-        byte[] result = audioFileReaderService.readWavFile(filePath);
+        AudioPayload result = audioFileReaderService.readWavFile(filePath);
         
         // Assert
-        assertArrayEquals(expectedBytes, result);
+        assertArrayEquals(expectedBytes, result.toByteArray());
         verify(audioFileReaderPort).readWavFile(filePath);
     }
     
@@ -69,6 +72,28 @@ class AudioFileReaderServiceTest {
         verifyNoInteractions(audioFileReaderPort);
     }
     
+    @Test
+    void readWavFileAsync_shouldReturnPortFuture_whenValidPathProvided() {
+        // Arrange
+        String filePath = "/path/to/audio.wav";
+        AudioPayload expected = AudioPayload.wrap(new byte[]{1, 2, 3, 4});
+        when(audioFileReaderPort.readWavFileAsync(filePath)).thenReturn(CompletableFuture.completedFuture(expected));
+        
+        // Act
+        CompletableFuture<AudioPayload> result = audioFileReaderService.readWavFileAsync(filePath);
+        
+        // Assert
+        assertSame(expected, result.join());
+        verify(audioFileReaderPort).readWavFileAsync(filePath);
+    }
+    
+    @Test
+    void readWavFileAsync_shouldThrowIllegalArgumentException_whenPathIsEmpty() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> audioFileReaderService.readWavFileAsync(" "));
+        verifyNoInteractions(audioFileReaderPort);
+    }
+    
     @Test
     void readWavFile_shouldPropagateAudioFileException_whenPortThrowsException() throws AudioFileException {
         // Arrange
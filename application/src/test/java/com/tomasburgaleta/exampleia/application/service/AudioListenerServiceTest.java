@@ -1,10 +1,13 @@
 package com.tomasburgaleta.exampleia.application.service;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -29,13 +32,13 @@ class AudioListenerServiceTest {
         // Given
         byte[] audioData = {1, 2, 3, 4};
         AudioBean audioBean = new AudioBean("test-id", audioData);
-        when(audioListenerPort.listenAudio(audioBean)).thenReturn(audioData);
+        when(audioListenerPort.listenAudio(audioBean)).thenReturn(audioBean.getAudioPayload());
         
         // When
-        byte[] result = audioListenerService.listenAudio(audioBean);
+        AudioPayload result = audioListenerService.listenAudio(audioBean);
         
         // Then
-        assertArrayEquals(audioData, result);
+        assertArrayEquals(audioData, result.toByteArray());
         verify(audioListenerPort).listenAudio(audioBean);
     }
     
@@ -85,4 +88,78 @@ class AudioListenerServiceTest {
         assertThrows(NullPointerException.class, 
             () -> new AudioListenerService(null));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void shouldSendPreparedAudioAndKeepOriginal() throws AudioProcessingException {
+        // Given - 48 kHz stereo with a provider wanting 16 kHz mono
+        AudioBean audioBean = new AudioBean("test-id", new byte[4800 * 4]);
+        audioBean.setSamplesPerSecond(48000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 2);
+        AudioListenerService service = new AudioListenerService(audioListenerPort, new SpeechAudioPreprocessor(16000, 1));
+        when(audioListenerPort.listenAudio(any())).thenAnswer(invocation -> {
+            AudioBean sent = invocation.getArgument(0);
+            sent.setTranscribedText("hola");
+            sent.setDetectedLanguage("es-ES");
+            return sent.getAudioPayload();
+        });
+        
+        // When
+        AudioPayload result = service.listenAudio(audioBean);
+        
+        // Then
+        verify(audioListenerPort).listenAudio(argThat(sent -> sent.getSamplesPerSecond() == 16000
+            && sent.getChannels() == 1 && sent.getAudioDataSize() == 1600 * 2));
+        assertSame(audioBean.getAudioPayload(), result);
+        assertEquals("hola", audioBean.getTranscribedText());
+        assertEquals("es-ES", audioBean.getDetectedLanguage());
+    }
+    
+    @Test
+    void shouldFramePcmAsWavAfterPreparingIt() throws AudioProcessingException {
+        // Given - 48 kHz stereo PCM with a provider wanting 16 kHz mono
+        AudioBean audioBean = new AudioBean("test-id", new byte[4800 * 4]);
+        audioBean.setSamplesPerSecond(48000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 2);
+        AudioListenerService service = new AudioListenerService(audioListenerPort, new SpeechAudioPreprocessor(16000, 1));
+        
+        // When
+        AudioPayload result = service.listenPcm(audioBean);
+        
+        // Then - the header is built for the converted PCM, not converted with it
+        ArgumentCaptor<AudioBean> sent = ArgumentCaptor.forClass(AudioBean.class);
+        verify(audioListenerPort).listenAudio(sent.capture());
+        assertEquals(16000, sent.getValue().getSamplesPerSecond());
+        assertEquals(1, sent.getValue().getChannels());
+        assertEquals(WavFramer.HEADER_SIZE + 1600 * 2, sent.getValue().getAudioDataSize());
+        assertArrayEquals(WavFramer.header(1600 * 2, 16000, (short) 16, (short) 1).toByteArray(),
+            sent.getValue().getAudioPayload().slice(0, WavFramer.HEADER_SIZE).toByteArray());
+        assertSame(audioBean.getAudioPayload(), result);
+    }
+    
+    @Test
+    void shouldReuseTranscriptionOfIdenticalAudio() throws AudioProcessingException {
+        // Given
+        AudioDeduplicationService deduplicationService = new AudioDeduplicationService(10);
+        AudioListenerService service = new AudioListenerService(audioListenerPort, SpeechAudioPreprocessor.passThrough(),
+            deduplicationService);
+        AudioBean first = new AudioBean("first", new byte[]{1, 2, 3, 4});
+        AudioBean retried = new AudioBean("retried", new byte[]{1, 2, 3, 4});
+        when(audioListenerPort.listenAudio(any())).thenAnswer(invocation -> {
+            AudioBean sent = invocation.getArgument(0);
+            sent.setTranscribedText("hola");
+            return sent.getAudioPayload();
+        });
+        
+        // When
+        service.listenAudio(first);
+        AudioPayload result = service.listenAudio(retried);
+        
+        // Then
+        verify(audioListenerPort, times(1)).listenAudio(any());
+        assertEquals("hola", retried.getTranscribedText());
+        assertSame(retried.getAudioPayload(), result);
+        assertEquals(0.5, deduplicationService.getStats().getTranscriptionHitRate());
+    }
+}
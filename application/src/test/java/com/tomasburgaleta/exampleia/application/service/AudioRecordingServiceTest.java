@@ -1,23 +1,35 @@
 package com.tomasburgaleta.exampleia.application.service;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
 import com.tomasburgaleta.exampleia.domain.port.AiServicePort;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+import com.tomasburgaleta.exampleia.domain.port.RecordingLease;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AudioRecordingServiceTest {
     
-    @Mock
+    // Default methods, such as leasing a recording, fall back to the stubbed lookups
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private AudioRecordingPort audioRecordingPort;
     
     @Mock
@@ -33,12 +45,14 @@ class AudioRecordingServiceTest {
     
     @BeforeEach
     void setUp() {
-        audioRecordingService = new AudioRecordingService(audioRecordingPort, audioListenerPort, silenceDetectionService, aiServicePort);
+        audioRecordingService = new AudioRecordingService(audioRecordingPort, audioListenerPort, silenceDetectionService, aiServicePort,
+            null, null, null);
     }
     
     @Test
     void testConstructorWithNullPort() {
-        assertThrows(NullPointerException.class, () -> new AudioRecordingService(null, audioListenerPort, silenceDetectionService, aiServicePort));
+        assertThrows(NullPointerException.class, () -> new AudioRecordingService(null, audioListenerPort, silenceDetectionService, aiServicePort,
+            null, null, null));
     }
     
     @Test
@@ -66,10 +80,28 @@ class AudioRecordingServiceTest {
         verify(audioRecordingPort, times(1)).storeRecording(any(AudioBean.class));
     }
     
+    @Test
+    void testStartRecording_PayloadStoredWithoutCopy() {
+        // Arrange
+        AudioPayload pcmData = AudioPayload.wrap(new byte[]{1, 2, 3, 4, 5, 6}, 2, 4);
+        
+        when(audioRecordingPort.storeRecording(any(AudioBean.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        AudioBean result = audioRecordingService.startRecording(pcmData, 16000, (short) 16, (short) 1);
+        
+        // Assert
+        assertSame(pcmData, result.getAudioPayload());
+        assertArrayEquals(new byte[]{3, 4, 5, 6}, result.getAudioData());
+        assertThrows(IllegalArgumentException.class, () -> 
+            audioRecordingService.startRecording(AudioPayload.empty(), 16000, (short) 16, (short) 1));
+    }
+    
     @Test
     void testStartRecording_NullPcmData() {
         assertThrows(NullPointerException.class, () -> 
-            audioRecordingService.startRecording(null, 44100, (short) 16, (short) 2));
+            audioRecordingService.startRecording((byte[]) null, 44100, (short) 16, (short) 2));
     }
     
     @Test
@@ -190,4 +222,192 @@ class AudioRecordingServiceTest {
         assertThrows(IllegalArgumentException.class, () -> 
             audioRecordingService.stopRecording("   "));
     }
+    
+    @Test
+    void testStartRecording_SharesStoredAudioOfIdenticalUpload() {
+        // Arrange
+        AudioDeduplicationService deduplicationService = new AudioDeduplicationService(10);
+        AudioRecordingService service = new AudioRecordingService(audioRecordingPort, audioListenerPort,
+            silenceDetectionService, aiServicePort, SpeechAudioPreprocessor.passThrough(), deduplicationService, null);
+        when(audioRecordingPort.storeRecording(any(AudioBean.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        AudioBean first = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        when(audioRecordingPort.getRecording(first.getId())).thenReturn(first);
+        AudioBean retried = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        AudioBean other = service.startRecording(new byte[]{1, 2, 3, 5}, 16000, (short) 16, (short) 1);
+        
+        // Assert - a recording of its own sharing the stored audio
+        assertNotEquals(first.getId(), retried.getId());
+        assertSame(first.getAudioPayload(), retried.getAudioPayload());
+        assertEquals(16000, retried.getSamplesPerSecond());
+        assertEquals(deduplicationService.recordingKey(first), deduplicationService.recordingKey(retried));
+        assertNotEquals(first.getId(), other.getId());
+        verify(audioRecordingPort, times(3)).storeRecording(any(AudioBean.class));
+        assertEquals(1, deduplicationService.getStats().getRecordingHits());
+        assertEquals(4, deduplicationService.getStats().getDeduplicatedBytes());
+    }
+    
+    @Test
+    void testStopRecording_OfOneIdenticalUploadKeepsTheOther() {
+        // Arrange
+        MapRecordingPort recordingPort = new MapRecordingPort();
+        AudioRecordingService service = new AudioRecordingService(recordingPort, audioListenerPort,
+            silenceDetectionService, aiServicePort, SpeechAudioPreprocessor.passThrough(), new AudioDeduplicationService(10), null);
+        AudioBean first = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        AudioBean second = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        second.setTranscribedText("second");
+        
+        // Act
+        boolean cleared = service.stopRecording(first.getId());
+        AudioBean third = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        
+        // Assert - the other uploads keep their audio and results
+        assertTrue(cleared);
+        assertNull(service.getRecording(first.getId()));
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, service.getRecording(second.getId()).getAudioData());
+        assertEquals("second", service.getRecording(second.getId()).getTranscribedText());
+        assertSame(second.getAudioPayload(), third.getAudioPayload());
+        assertNull(third.getTranscribedText());
+        assertEquals(2, recordingPort.recordings.size());
+    }
+    
+    @Test
+    void testStartRecording_StoresAgainWhenDuplicateWasCleared() {
+        // Arrange
+        AudioDeduplicationService deduplicationService = new AudioDeduplicationService(10);
+        AudioRecordingService service = new AudioRecordingService(audioRecordingPort, audioListenerPort,
+            silenceDetectionService, aiServicePort, SpeechAudioPreprocessor.passThrough(), deduplicationService, null);
+        when(audioRecordingPort.storeRecording(any(AudioBean.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act - the port no longer holds the first recording
+        AudioBean first = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        AudioBean second = service.startRecording(new byte[]{1, 2, 3, 4}, 16000, (short) 16, (short) 1);
+        
+        // Assert
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(0, deduplicationService.getStats().getRecordingHits());
+        assertEquals(2, deduplicationService.getStats().getRecordingMisses());
+    }
+    
+    @Test
+    void testTranscribeRecording_SendsCompactedAudioAndKeepsTheOriginal() throws Exception {
+        // Arrange - 3 s at 1 kHz with speech in the middle second only
+        VoiceActivityDetectorPort voiceActivityDetectorPort = mock(VoiceActivityDetectorPort.class);
+        AudioRecordingService service = new AudioRecordingService(audioRecordingPort, audioListenerPort,
+            silenceDetectionService, null, SpeechAudioPreprocessor.passThrough(), null,
+            new SilenceCompactor(voiceActivityDetectorPort, 500));
+        AudioBean recording = new AudioBean("recording", new byte[6000]);
+        recording.setSamplesPerSecond(1000);
+        recording.setBitsPerSample((short) 16);
+        recording.setChannels((short) 1);
+        when(audioRecordingPort.getRecording("recording")).thenReturn(recording);
+        when(voiceActivityDetectorPort.detectSpeech(recording.getAudioPayload(), 1000, (short) 16, (short) 1))
+            .thenReturn(List.of(new SpeechSegment(1000, 2000, 0.9)));
+        
+        // Act
+        AudioBean result = service.transcribeRecording("recording");
+        
+        // Assert - one second of PCM was sent, and its offsets map back into the stored audio
+        verify(audioListenerPort).listenAudio(argThat(wav -> wav.getAudioDataSize() == WavFramer.HEADER_SIZE + 2000));
+        assertEquals(6000, result.getAudioDataSize());
+        assertNotNull(result.getTranscribedOffsetMap());
+        assertEquals(1000, result.getTranscribedOffsetMap().getCompactedLength());
+        assertEquals(1500, result.getTranscribedOffsetMap().toOriginalMillis(500, 1000));
+    }
+    
+    @Test
+    void testTranscribeRecording_ReusedTranscriptionKeepsItsOffsetMap() throws Exception {
+        // Arrange - the same audio stored twice, with speech in the middle second only
+        VoiceActivityDetectorPort voiceActivityDetectorPort = mock(VoiceActivityDetectorPort.class);
+        AudioRecordingService service = new AudioRecordingService(audioRecordingPort, audioListenerPort,
+            silenceDetectionService, null, SpeechAudioPreprocessor.passThrough(), new AudioDeduplicationService(10),
+            new SilenceCompactor(voiceActivityDetectorPort, 500));
+        AudioBean first = new AudioBean("first", new byte[6000]);
+        AudioBean second = new AudioBean("second", new byte[6000]);
+        for (AudioBean recording : List.of(first, second)) {
+            recording.setSamplesPerSecond(1000);
+            recording.setBitsPerSample((short) 16);
+            recording.setChannels((short) 1);
+        }
+        when(audioRecordingPort.getRecording("first")).thenReturn(first);
+        when(audioRecordingPort.getRecording("second")).thenReturn(second);
+        when(voiceActivityDetectorPort.detectSpeech(any(), eq(1000L), eq((short) 16), eq((short) 1)))
+            .thenReturn(List.of(new SpeechSegment(1000, 2000, 0.9)));
+        
+        // Act
+        service.transcribeRecording("first");
+        AudioBean reused = service.transcribeRecording("second");
+        
+        // Assert - the text of the compacted audio comes with the map that places it
+        verify(audioListenerPort, times(1)).listenAudio(any());
+        assertSame(first.getTranscribedOffsetMap(), reused.getTranscribedOffsetMap());
+        assertEquals(1500, reused.getTranscribedOffsetMap().toOriginalMillis(500, 1000));
+    }
+    
+    @Test
+    void testTranscribeRecording_ReadsUnderALeaseAndStoresTheResults() throws Exception {
+        // Arrange
+        AudioBean recording = new AudioBean("recording", new byte[6000]);
+        recording.setSamplesPerSecond(1000);
+        recording.setBitsPerSample((short) 16);
+        recording.setChannels((short) 1);
+        RecordingLease lease = mock(RecordingLease.class);
+        when(lease.getRecording()).thenReturn(recording);
+        when(audioRecordingPort.openRecording("recording")).thenReturn(lease);
+        doAnswer(invocation -> {
+            invocation.<AudioBean>getArgument(0).setTranscribedText("hello");
+            return null;
+        }).when(audioListenerPort).listenAudio(any(AudioBean.class));
+        doReturn(true).when(audioRecordingPort).updateTranscription(any(AudioBean.class));
+        
+        // Act
+        AudioBean result = audioRecordingService.transcribeRecording("recording");
+        
+        // Assert - the results reach the store, after the transcription and the AI response, and the lease is given back
+        assertEquals("hello", result.getTranscribedText());
+        verify(audioRecordingPort, times(2)).updateTranscription(argThat(bean -> "hello".equals(bean.getTranscribedText())));
+        verify(audioRecordingPort, never()).getRecording("recording");
+        verify(lease).close();
+    }
+    
+    @Test
+    void testTranscribeRecording_WithoutCompactorSendsEverything() throws Exception {
+        // Arrange
+        AudioBean recording = new AudioBean("recording", new byte[6000]);
+        recording.setSamplesPerSecond(1000);
+        recording.setBitsPerSample((short) 16);
+        recording.setChannels((short) 1);
+        when(audioRecordingPort.getRecording("recording")).thenReturn(recording);
+        
+        // Act
+        AudioBean result = audioRecordingService.transcribeRecording("recording");
+        
+        // Assert
+        verify(audioListenerPort).listenAudio(argThat(wav -> wav.getAudioDataSize() == WavFramer.HEADER_SIZE + 6000));
+        assertNull(result.getTranscribedOffsetMap());
+    }
+    
+    /**
+     * Store keeping the beans it is given, like the in-memory adapters
+     */
+    private static final class MapRecordingPort implements AudioRecordingPort {
+        private final Map<String, AudioBean> recordings = new HashMap<>();
+        
+        @Override
+        public AudioBean storeRecording(AudioBean audioBean) {
+            recordings.put(audioBean.getId(), audioBean);
+            return audioBean;
+        }
+        
+        @Override
+        public AudioBean getRecording(String id) {
+            return recordings.get(id);
+        }
+        
+        @Override
+        public boolean clearRecording(String id) {
+            return recordings.remove(id) != null;
+        }
+    }
 }
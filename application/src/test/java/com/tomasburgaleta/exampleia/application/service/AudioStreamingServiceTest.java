@@ -1,8 +1,12 @@
 package com.tomasburgaleta.exampleia.application.service;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -34,7 +38,8 @@ class AudioStreamingServiceTest {
     @Test
     void testAddAudioBytes_NullChunk() {
         // When/Then
-        assertThrows(NullPointerException.class, () -> audioStreamingService.addAudioBytes(null));
+        assertThrows(NullPointerException.class, () -> audioStreamingService.addAudioBytes((byte[]) null));
+        assertThrows(NullPointerException.class, () -> audioStreamingService.addAudioBytes((ByteBuffer) null));
     }
     
     @Test
@@ -62,6 +67,22 @@ class AudioStreamingServiceTest {
         assertEquals(8, audioStreamingService.getBufferSize());
     }
     
+    @Test
+    void testAddAudioBytes_BufferCopiesRemainingBytesOnly() {
+        // Given - a direct buffer, as network frames usually are, positioned after a header
+        ByteBuffer frame = ByteBuffer.allocateDirect(6);
+        frame.put(new byte[]{9, 9, 1, 2, 3, 4}).position(2);
+        
+        // When
+        audioStreamingService.addAudioBytes(frame);
+        audioStreamingService.addAudioBytes(new byte[]{5});
+        
+        // Then - the buffer is left as it was
+        assertEquals(2, frame.position());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, audioStreamingService.extractAndClearAudioBytes());
+        assertThrows(IllegalArgumentException.class, () -> audioStreamingService.addAudioBytes(ByteBuffer.allocate(0)));
+    }
+    
     @Test
     void testExtractAndClearAudioBytes_WithData() {
         // Given
@@ -219,4 +240,118 @@ class AudioStreamingServiceTest {
         // Buffer size will vary, but should not cause any concurrent modification exceptions
         assertTrue(audioStreamingService.getBufferSize() >= 0);
     }
+    
+    @Test
+    void testExtractAudioChunks_SpansSegmentsWithoutConcatenation() throws IOException {
+        // Given - segments of 8 bytes
+        AudioStreamingService segmented = new AudioStreamingService(new AudioSegmentPool(8, 4));
+        segmented.addAudioBytes(new byte[]{1, 2, 3, 4, 5});
+        segmented.addAudioBytes(new byte[]{6, 7, 8, 9, 10});
+        segmented.addAudioBytes(new byte[]{11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        
+        // When
+        try (AudioChunks chunks = segmented.extractAudioChunks()) {
+            // Then - every chunk stays contiguous inside one segment
+            ByteBuffer[] buffers = chunks.buffers();
+            assertEquals(3, buffers.length);
+            assertEquals(5, buffers[0].remaining());
+            assertEquals(5, buffers[1].remaining());
+            assertEquals(10, buffers[2].remaining());
+            assertEquals(20, chunks.size());
+            
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            chunks.writeTo(out);
+            assertArrayEquals(chunks.toByteArray(), out.toByteArray());
+            assertEquals(1, out.toByteArray()[0]);
+            assertEquals(20, out.toByteArray()[19]);
+        }
+        assertTrue(segmented.isEmpty());
+    }
+    
+    @Test
+    void testExtractAudioChunks_RecyclesSegments() {
+        // Given
+        AudioSegmentPool pool = new AudioSegmentPool(8, 4);
+        AudioStreamingService segmented = new AudioStreamingService(pool);
+        segmented.addAudioBytes(new byte[]{1, 2, 3, 4, 5, 6});
+        segmented.addAudioBytes(new byte[]{7, 8, 9, 10});
+        
+        // When
+        AudioChunks chunks = segmented.extractAudioChunks();
+        chunks.close();
+        
+        // Then
+        assertEquals(2, pool.getPooledSegmentCount());
+        assertThrows(IllegalStateException.class, chunks::buffers);
+        
+        // When appending again, pooled segments are reused
+        segmented.addAudioBytes(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        segmented.addAudioBytes(new byte[]{9});
+        
+        // Then - the second chunk no longer fits and takes a recycled segment
+        assertEquals(1, pool.getPooledSegmentCount());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, segmented.extractAndClearAudioBytes());
+    }
+    
+    @Test
+    void testExtractAudioChunks_HandsSegmentsToPayload() {
+        // Given
+        AudioSegmentPool pool = new AudioSegmentPool(8, 4);
+        AudioStreamingService segmented = new AudioStreamingService(pool);
+        segmented.addAudioBytes(new byte[]{1, 2, 3, 4, 5, 6});
+        segmented.addAudioBytes(new byte[]{7, 8, 9, 10});
+        
+        // When
+        AudioPayload payload;
+        try (AudioChunks chunks = segmented.extractAudioChunks()) {
+            payload = chunks.toAudioPayload();
+        }
+        
+        // Then - the payload owns the segments, so closing the view does not recycle them
+        assertTrue(payload.isComposite());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, payload.toByteArray());
+        assertEquals(0, pool.getPooledSegmentCount());
+    }
+    
+    @Test
+    void testThreadSafety_ConcurrentAddsKeepChunksIntact() throws InterruptedException {
+        // Given - small segments so producers constantly cross segment boundaries
+        AudioStreamingService segmented = new AudioStreamingService(new AudioSegmentPool(64, 16));
+        int numThreads = 8;
+        int chunksPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        ByteArrayOutputStream extracted = new ByteArrayOutputStream();
+        
+        // When - every producer writes 6-byte chunks filled with its own id while the buffer is drained
+        for (int i = 0; i < numThreads; i++) {
+            byte producerId = (byte) (i + 1);
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < chunksPerThread; j++) {
+                        segmented.addAudioBytes(new byte[]{producerId, producerId, producerId, producerId, producerId, producerId});
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        
+        while (latch.getCount() > 0) {
+            extracted.writeBytes(segmented.extractAndClearAudioBytes());
+        }
+        latch.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        extracted.writeBytes(segmented.extractAndClearAudioBytes());
+        
+        // Then
+        byte[] data = extracted.toByteArray();
+        assertEquals(numThreads * chunksPerThread * 6, data.length);
+        for (int offset = 0; offset < data.length; offset += 6) {
+            for (int k = 1; k < 6; k++) {
+                assertEquals(data[offset], data[offset + k], "Chunk interleaved at offset " + offset);
+            }
+        }
+        assertTrue(segmented.isEmpty());
+    }
 }
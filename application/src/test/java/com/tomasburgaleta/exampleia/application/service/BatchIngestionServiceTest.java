@@ -0,0 +1,237 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchIngestionServiceTest {
+
+    @Mock
+    private WavByteProcessingService wavByteProcessingService;
+
+    @Mock
+    private AudioListenerService audioListenerService;
+
+    @TempDir
+    Path tempDir;
+
+    private BatchIngestionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        service = new BatchIngestionService(wavByteProcessingService, audioListenerService, 2, tempDir);
+        // Every file holds one second of 16 kHz mono 16-bit audio
+        when(wavByteProcessingService.processWavStream(any(InputStream.class), anyString())).thenAnswer(invocation -> {
+            AudioBean audioBean = new AudioBean(invocation.getArgument(1), new byte[32000]);
+            audioBean.setSamplesPerSecond(16000);
+            audioBean.setBitsPerSample((short) 16);
+            audioBean.setChannels((short) 1);
+            return audioBean;
+        });
+    }
+
+    @Test
+    void shouldIngestEveryWavFileInDirectoryTree() throws Exception {
+        // Given
+        Path first = createFile("a.wav");
+        Path nested = createFile("nested/b.WAV");
+        createFile("notes.txt");
+
+        // When
+        BatchIngestionReport report = service.ingestDirectory(tempDir);
+
+        // Then
+        assertEquals(2, report.getFileCount());
+        assertEquals(2, report.getSucceededCount());
+        assertEquals(0, report.getFailedCount());
+        assertEquals(List.of(first, nested), report.getResults().stream().map(BatchIngestionReport.FileResult::file).toList());
+        assertEquals(2.0, report.getAudioSeconds());
+        assertTrue(report.getFilesPerSecond() > 0);
+        assertTrue(report.getAudioSecondsPerSecond() > 0);
+        verify(audioListenerService, times(2)).listenAudio(any(AudioBean.class));
+    }
+
+    @Test
+    void shouldRecordFailuresWithoutStoppingBatch() throws Exception {
+        // Given - one invalid WAV, one failed transcription and one missing file
+        Path invalid = createFile("invalid.wav");
+        Path untranscribable = createFile("untranscribable.wav");
+        Path valid = createFile("valid.wav");
+        Path missing = tempDir.resolve("missing.wav");
+        when(wavByteProcessingService.processWavStream(any(InputStream.class), eq(invalid.toString())))
+            .thenThrow(new AudioFileException("Invalid WAV format"));
+        when(audioListenerService.listenAudio(argThat(bean -> bean != null && bean.getId().equals(untranscribable.toString()))))
+            .thenThrow(new AudioProcessingException("Provider unavailable"));
+
+        // When
+        BatchIngestionReport report = service.ingest(List.of(invalid, untranscribable, valid, missing));
+
+        // Then
+        assertEquals(4, report.getFileCount());
+        assertEquals(1, report.getSucceededCount());
+        assertEquals(3, report.getFailedCount());
+        assertEquals(List.of(invalid, untranscribable, missing),
+            report.getFailures().stream().map(BatchIngestionReport.FileResult::file).toList());
+        assertTrue(report.getFailures().get(0).error().contains("Invalid WAV format"));
+        assertTrue(report.getFailures().get(1).error().contains("Provider unavailable"));
+        assertEquals(1.0, report.getAudioSeconds());
+    }
+
+    @Test
+    void shouldNotExceedConfiguredConcurrency() throws Exception {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(audioListenerService.listenAudio(any(AudioBean.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return null;
+        });
+        for (int i = 0; i < 6; i++) {
+            createFile("file" + i + ".wav");
+        }
+
+        // When
+        BatchIngestionReport report = service.ingestDirectory(tempDir);
+
+        // Then
+        assertEquals(6, report.getSucceededCount());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void shouldIngestFilesListedInManifest() throws Exception {
+        // Given - relative and absolute entries, a comment and a blank line
+        Path relative = createFile("audio/one.wav");
+        Path absolute = createFile("two.wav");
+        Path manifest = tempDir.resolve("manifest.txt");
+        Files.write(manifest, List.of("# backfill", "audio/one.wav", "", absolute.toString()));
+
+        // When
+        BatchIngestionReport report = service.ingestManifest(manifest);
+
+        // Then
+        assertEquals(2, report.getSucceededCount());
+        assertEquals(List.of(relative.toAbsolutePath(), absolute),
+            report.getResults().stream().map(BatchIngestionReport.FileResult::file).toList());
+    }
+
+    @Test
+    void shouldReturnEmptyReportForEmptyBatch() {
+        // When
+        BatchIngestionReport report = service.ingest(List.of());
+
+        // Then
+        assertEquals(0, report.getFileCount());
+        assertEquals(0, report.getAudioSecondsPerSecond());
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new BatchIngestionService(null, audioListenerService, 1, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> new BatchIngestionService(wavByteProcessingService, audioListenerService, 0, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> service.ingestDirectory(tempDir.resolve("missing")));
+        assertThrows(IllegalArgumentException.class, () -> service.ingestManifest(null));
+        assertThrows(IllegalArgumentException.class, () -> service.ingest(null));
+    }
+
+    @Test
+    void shouldRejectPathsOutsideBaseDirectory() throws Exception {
+        // Given
+        Path base = Files.createDirectory(tempDir.resolve("base"));
+        BatchIngestionService restricted = new BatchIngestionService(wavByteProcessingService, audioListenerService, 2, base);
+        Path outside = createFile("outside/secret.wav");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> restricted.ingestDirectory(Path.of("../outside")));
+        assertThrows(IllegalArgumentException.class, () -> restricted.ingestDirectory(outside.getParent()));
+        assertThrows(IllegalArgumentException.class, () -> restricted.submitManifest(Path.of("/etc/passwd")));
+        verify(wavByteProcessingService, never()).processWavStream(any(InputStream.class), anyString());
+    }
+
+    @Test
+    void shouldFailManifestEntriesOutsideBaseDirectory() throws Exception {
+        // Given
+        Path base = Files.createDirectory(tempDir.resolve("base"));
+        BatchIngestionService restricted = new BatchIngestionService(wavByteProcessingService, audioListenerService, 2, base);
+        Path inside = createFile("base/inside.wav");
+        Path outside = createFile("outside.wav");
+        Files.write(base.resolve("manifest.txt"), List.of("inside.wav", "../outside.wav", outside.toString()));
+
+        // When
+        BatchIngestionReport report = restricted.ingestManifest(Path.of("manifest.txt"));
+
+        // Then
+        assertEquals(1, report.getSucceededCount());
+        assertEquals(inside, report.getResults().get(0).file());
+        assertEquals("Path is outside the batch base directory", report.getFailures().get(0).error());
+        verify(wavByteProcessingService, never()).processWavStream(any(InputStream.class), eq(outside.toString()));
+    }
+
+    @Test
+    void shouldRejectDirectoryBatchesWithoutBaseDirectory() {
+        BatchIngestionService disabled = new BatchIngestionService(wavByteProcessingService, audioListenerService, 2, null);
+
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> disabled.ingestDirectory(tempDir));
+        assertThrows(IllegalStateException.class, () -> disabled.submitManifest(tempDir.resolve("manifest.txt")));
+    }
+
+    @Test
+    void shouldRunSubmittedBatchInBackgroundOneAtATime() throws Exception {
+        // Given - a transcription held until released
+        CountDownLatch release = new CountDownLatch(1);
+        when(audioListenerService.listenAudio(any(AudioBean.class))).thenAnswer(invocation -> {
+            release.await();
+            return null;
+        });
+        createFile("a.wav");
+
+        // When
+        BatchIngestionJob job = service.submitDirectory(tempDir);
+
+        // Then - the job is found by its ID and no second batch starts while it runs
+        assertSame(job, service.getJob(job.getId()));
+        assertEquals(BatchIngestionJob.Status.RUNNING, job.getStatus());
+        assertNull(job.getReport());
+        assertThrows(IllegalStateException.class, () -> service.submitDirectory(tempDir));
+
+        release.countDown();
+        BatchIngestionReport report = job.getResult().get(5, TimeUnit.SECONDS);
+        assertEquals(BatchIngestionJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1, report.getSucceededCount());
+        assertSame(report, job.getReport());
+        assertNull(job.getError());
+        assertNull(service.getJob("missing"));
+        service.close();
+    }
+
+    private Path createFile(String name) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, new byte[]{'R', 'I', 'F', 'F'});
+    }
+}
@@ -0,0 +1,139 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolyphaseResamplerTest {
+
+    @Test
+    void shouldDownsampleStereoToMonoKeepingSpeechBand() {
+        // Given - one second of a 1 kHz tone at 48 kHz, identical on both channels
+        short[] tone = tone(48000, 1000, 48000, 10000);
+        PolyphaseResampler resampler = new PolyphaseResampler(48000, 16000);
+
+        // When
+        short[] mono = samples(resampler.resample(pcm(interleave(tone, tone)), 2, true));
+
+        // Then - a sixth of the bytes, and the tone is still there at the same amplitude
+        assertEquals(16000, mono.length);
+        assertEquals(10000 / Math.sqrt(2), rms(mono, 100, mono.length - 100), 100);
+        assertEquals(0.0, relativeError(mono, tone(16000, 1000, 16000, 10000), 100), 0.01);
+    }
+
+    @Test
+    void shouldFilterOutFrequenciesAboveTheNewNyquist() {
+        // Given - 12 kHz cannot be represented at 16 kHz and must not alias down to 4 kHz
+        short[] tone = tone(48000, 12000, 48000, 10000);
+        PolyphaseResampler resampler = new PolyphaseResampler(48000, 16000);
+
+        // When
+        short[] resampled = samples(resampler.resample(pcm(tone), 1, false));
+
+        // Then
+        assertTrue(rms(resampled, 100, resampled.length - 100) < 10);
+    }
+
+    @Test
+    void shouldResampleNonIntegerRatios() {
+        // Given
+        short[] tone = tone(44100, 440, 44100, 8000);
+        PolyphaseResampler resampler = new PolyphaseResampler(44100, 16000);
+
+        // When
+        short[] resampled = samples(resampler.resample(pcm(tone), 1, false));
+
+        // Then
+        assertEquals(16000, resampled.length);
+        assertEquals(8000 / Math.sqrt(2), rms(resampled, 100, resampled.length - 100), 80);
+        assertEquals(0.0, relativeError(resampled, tone(16000, 440, 16000, 8000), 100), 0.01);
+    }
+
+    @Test
+    void shouldOnlyDownmixWhenRatesMatch() {
+        // Given
+        PolyphaseResampler resampler = new PolyphaseResampler(16000, 16000);
+
+        // When
+        short[] mono = samples(resampler.resample(pcm(new short[]{100, 300, -100, -200}), 2, true));
+
+        // Then
+        assertArrayEquals(new short[]{200, -150}, mono);
+    }
+
+    @Test
+    void shouldReadCompositePayloadsLikeSingleBuffers() {
+        // Given - the same audio cut into buffers at odd offsets, splitting samples
+        short[] tone = tone(44100, 440, 4410, 8000);
+        AudioPayload whole = pcm(interleave(tone, tone));
+        AudioPayload split = AudioPayload.concat(whole.slice(0, 1001), whole.slice(1001, 2), whole.slice(1003, whole.length() - 1003));
+        PolyphaseResampler resampler = new PolyphaseResampler(44100, 16000);
+
+        // When & Then
+        assertEquals(resampler.resample(whole, 2, true), resampler.resample(split, 2, true));
+        assertEquals(resampler.resample(whole, 2, false), resampler.resample(split, 2, false));
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PolyphaseResampler(0, 16000));
+        assertThrows(IllegalArgumentException.class,
+            () -> new PolyphaseResampler(48000, 16000).resample(AudioPayload.wrap(new byte[4]), 0, false));
+        assertThrows(NullPointerException.class, () -> new PolyphaseResampler(48000, 16000).resample(null, 1, false));
+    }
+
+    private static short[] tone(int sampleRate, double frequency, int length, double amplitude) {
+        short[] samples = new short[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = (short) Math.round(amplitude * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+        }
+        return samples;
+    }
+
+    private static short[] interleave(short[] left, short[] right) {
+        short[] samples = new short[left.length * 2];
+        for (int i = 0; i < left.length; i++) {
+            samples[2 * i] = left[i];
+            samples[2 * i + 1] = right[i];
+        }
+        return samples;
+    }
+
+    private static double rms(short[] samples, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += (double) samples[i] * samples[i];
+        }
+        return Math.sqrt(sum / (to - from));
+    }
+
+    /**
+     * Relative RMS error of the samples against the expected ones, away from the edges
+     */
+    private static double relativeError(short[] actual, short[] expected, int margin) {
+        double error = 0;
+        double energy = 0;
+        for (int i = margin; i < actual.length - margin; i++) {
+            double difference = actual[i] - expected[i];
+            error += difference * difference;
+            energy += (double) expected[i] * expected[i];
+        }
+        return Math.sqrt(error / energy);
+    }
+
+    private static AudioPayload pcm(short[] samples) {
+        ByteBuffer buffer = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asShortBuffer().put(samples);
+        return AudioPayload.wrap(buffer.array());
+    }
+
+    private static short[] samples(AudioPayload pcm) {
+        short[] samples = new short[pcm.length() / 2];
+        pcm.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+        return samples;
+    }
+}
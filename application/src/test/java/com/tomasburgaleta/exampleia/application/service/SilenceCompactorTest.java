@@ -0,0 +1,127 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SilenceCompactorTest {
+
+    private static final int RATE = 1000;
+
+    @Mock
+    private VoiceActivityDetectorPort voiceActivityDetectorPort;
+
+    private SilenceCompactor silenceCompactor;
+
+    private AudioBean audioBean;
+
+    @BeforeEach
+    void setUp() {
+        silenceCompactor = new SilenceCompactor(voiceActivityDetectorPort, 200);
+
+        // 10 s of 16-bit mono at 1 kHz, each sample frame holding its own index
+        byte[] pcm = new byte[10 * RATE * 2];
+        for (int i = 0; i < pcm.length / 2; i++) {
+            pcm[i * 2] = (byte) i;
+            pcm[i * 2 + 1] = (byte) (i >> 8);
+        }
+        audioBean = new AudioBean("recording", pcm);
+        audioBean.setSamplesPerSecond(RATE);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 1);
+    }
+
+    @Test
+    void testConstructorValidation() {
+        assertThrows(NullPointerException.class, () -> new SilenceCompactor(null, 200));
+        assertThrows(IllegalArgumentException.class, () -> new SilenceCompactor(voiceActivityDetectorPort, -1));
+    }
+
+    @Test
+    void testPlan_CutsEdgesAndShortensLongPauses() {
+        // Given - speech at 1-2 s, 2.1-3 s and 6-7 s
+        segments(new SpeechSegment(1000, 2000, 0.9), new SpeechSegment(2100, 3000, 0.9), new SpeechSegment(6000, 7000, 0.9));
+
+        // When
+        SampleOffsetMap offsetMap = silenceCompactor.plan(audioBean);
+
+        // Then - the 100 ms pause stays, the 3 s pause keeps 100 ms on each side
+        assertEquals(2, offsetMap.getSpanCount());
+        assertEquals(1000, offsetMap.getOriginalStart(0));
+        assertEquals(2100, offsetMap.getLength(0));
+        assertEquals(5900, offsetMap.getOriginalStart(1));
+        assertEquals(1100, offsetMap.getLength(1));
+        assertEquals(3200, offsetMap.getCompactedLength());
+        assertEquals(10 * RATE, offsetMap.getOriginalLength());
+    }
+
+    @Test
+    void testPlan_SendsWholeAudioWithoutSpeech() {
+        segments();
+
+        assertNull(silenceCompactor.plan(audioBean));
+    }
+
+    @Test
+    void testPlan_SendsWholeAudioWhenNothingWouldBeRemoved() {
+        segments(new SpeechSegment(0, 10 * RATE, 0.9));
+
+        assertNull(silenceCompactor.plan(audioBean));
+    }
+
+    @Test
+    void testPlan_SendsWholeAudioInUnsupportedFormat() {
+        when(voiceActivityDetectorPort.detectSpeech(any(), anyLong(), anyShort(), anyShort()))
+            .thenThrow(new IllegalArgumentException("Unsupported bits per sample"));
+
+        assertNull(silenceCompactor.plan(audioBean));
+    }
+
+    @Test
+    void testCut_KeepsSpansInOrderWithTheFormat() {
+        // Given
+        SampleOffsetMap offsetMap = new SampleOffsetMap(List.of(new long[]{10, 12}, new long[]{500, 501}), 10 * RATE);
+
+        // When
+        AudioBean compacted = SilenceCompactor.cut(audioBean, offsetMap);
+
+        // Then
+        assertEquals("recording", compacted.getId());
+        assertEquals(RATE, compacted.getSamplesPerSecond());
+        assertEquals(16, compacted.getBitsPerSample());
+        assertEquals(1, compacted.getChannels());
+        assertArrayEquals(new byte[]{10, 0, 11, 0, (byte) 500, (byte) (500 >> 8)}, compacted.getAudioData());
+    }
+
+    @Test
+    void testMappedTimesPointAtTheSameAudio() {
+        // Given
+        segments(new SpeechSegment(1000, 2000, 0.9), new SpeechSegment(6000, 7000, 0.9));
+        SampleOffsetMap offsetMap = silenceCompactor.plan(audioBean);
+        byte[] compacted = SilenceCompactor.cut(audioBean, offsetMap).getAudioData();
+
+        // When & Then - every compacted sample frame holds the index of the original frame it maps to
+        for (int frame = 0; frame < compacted.length / 2; frame += 37) {
+            int index = (compacted[frame * 2] & 0xFF) | (compacted[frame * 2 + 1] & 0xFF) << 8;
+            assertEquals(offsetMap.toOriginalSample(frame), index);
+        }
+    }
+
+    private void segments(SpeechSegment... segments) {
+        when(voiceActivityDetectorPort.detectSpeech(audioBean.getAudioPayload(), RATE, (short) 16, (short) 1))
+            .thenReturn(List.of(segments));
+    }
+}
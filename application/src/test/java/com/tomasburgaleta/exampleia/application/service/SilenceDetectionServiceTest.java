@@ -1,12 +1,18 @@
 package com.tomasburgaleta.exampleia.application.service;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
 import com.tomasburgaleta.exampleia.domain.port.SilenceDetectorPort;
+import com.tomasburgaleta.exampleia.domain.port.SilenceTracker;
+import com.tomasburgaleta.exampleia.domain.port.StreamingSilenceDetectorPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -33,7 +39,7 @@ class SilenceDetectionServiceTest {
     @Test
     void testIsSilent_NullData() {
         assertThrows(NullPointerException.class, () -> 
-            silenceDetectionService.isSilent(null, 44100, (short) 16, (short) 1));
+            silenceDetectionService.isSilent((byte[]) null, 44100, (short) 16, (short) 1));
     }
     
     @Test
@@ -42,7 +48,19 @@ class SilenceDetectionServiceTest {
         boolean result = silenceDetectionService.isSilent(emptyData, 44100, (short) 16, (short) 1);
         assertTrue(result, "Empty data should be considered silent");
         
-        verify(silenceDetectorPort, never()).detectSilence(any(), anyLong(), anyShort(), anyShort());
+        verify(silenceDetectorPort, never()).detectSilence(any(byte[].class), anyLong(), anyShort(), anyShort());
+    }
+    
+    @Test
+    void testIsSilent_PassesPayloadWithoutCopying() {
+        AudioPayload pcmData = AudioPayload.concat(
+            AudioPayload.wrap(new byte[]{1, 0}), AudioPayload.wrap(new byte[]{2, 0}));
+        when(silenceDetectorPort.detectSilence(pcmData, 16000, (short) 16, (short) 1)).thenReturn(false);
+        
+        assertFalse(silenceDetectionService.isSilent(pcmData, 16000, (short) 16, (short) 1));
+        assertTrue(silenceDetectionService.isSilent(AudioPayload.empty(), 16000, (short) 16, (short) 1));
+        
+        verify(silenceDetectorPort, never()).detectSilence(any(byte[].class), anyLong(), anyShort(), anyShort());
     }
     
     @Test
@@ -129,4 +147,64 @@ class SilenceDetectionServiceTest {
         
         verify(silenceDetectorPort, times(2)).detectSilence(eq(pcmData), anyLong(), anyShort(), anyShort());
     }
+    
+    @Test
+    void testTrackChunk_OpensOneTrackerPerSession() {
+        StreamingSilenceDetectorPort streamingPort = mock(StreamingSilenceDetectorPort.class);
+        SilenceTracker tracker = mock(SilenceTracker.class);
+        SpeechActivity activity = new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0);
+        when(streamingPort.openTracker(16000, (short) 16, (short) 1)).thenReturn(tracker);
+        when(tracker.accept(any(byte[].class))).thenReturn(activity);
+        SilenceDetectionService service = new SilenceDetectionService(silenceDetectorPort, streamingPort);
+        StreamingSession session = new StreamingSession("session", 16000, (short) 16, (short) 1);
+        
+        assertSame(activity, service.trackChunk(session, new byte[]{1, 2}));
+        assertSame(activity, service.trackChunk(session, new byte[]{3, 4}));
+        
+        verify(streamingPort, times(1)).openTracker(16000, (short) 16, (short) 1);
+        verify(tracker, times(2)).accept(any(byte[].class));
+        verify(silenceDetectorPort, never()).detectSilence(any(byte[].class), anyLong(), anyShort(), anyShort());
+    }
+    
+    @Test
+    void testTrackChunk_ReadsBufferInPlace() {
+        StreamingSilenceDetectorPort streamingPort = mock(StreamingSilenceDetectorPort.class);
+        SilenceTracker tracker = mock(SilenceTracker.class);
+        SpeechActivity activity = new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0);
+        ByteBuffer frame = ByteBuffer.wrap(new byte[]{1, 2, 3, 4});
+        when(streamingPort.openTracker(16000, (short) 16, (short) 1)).thenReturn(tracker);
+        when(tracker.accept(frame)).thenReturn(activity);
+        SilenceDetectionService service = new SilenceDetectionService(silenceDetectorPort, streamingPort);
+        
+        assertSame(activity, service.trackChunk(new StreamingSession("session", 16000, (short) 16, (short) 1), frame));
+        
+        verify(tracker, never()).accept(any(byte[].class));
+    }
+    
+    @Test
+    void testTrackChunk_SessionsKeepSeparateTrackers() {
+        StreamingSilenceDetectorPort streamingPort = mock(StreamingSilenceDetectorPort.class);
+        when(streamingPort.openTracker(anyLong(), anyShort(), anyShort()))
+            .thenAnswer(invocation -> mock(SilenceTracker.class));
+        SilenceDetectionService service = new SilenceDetectionService(silenceDetectorPort, streamingPort);
+        
+        service.trackChunk(new StreamingSession("first", 16000, (short) 16, (short) 1), new byte[]{1, 2});
+        service.trackChunk(new StreamingSession("second", 48000, (short) 16, (short) 2), new byte[]{1, 2});
+        
+        verify(streamingPort).openTracker(16000, (short) 16, (short) 1);
+        verify(streamingPort).openTracker(48000, (short) 16, (short) 2);
+    }
+    
+    @Test
+    void testTrackChunk_WithoutStreamingDetectorAnalyzesChunkAlone() {
+        byte[] pcmData = new byte[]{0, 0, 0, 0};
+        when(silenceDetectorPort.detectSilence(pcmData, 16000, (short) 16, (short) 1)).thenReturn(true);
+        
+        SpeechActivity activity = silenceDetectionService.trackChunk(
+            new StreamingSession("session", 16000, (short) 16, (short) 1), pcmData);
+        
+        assertTrue(activity.isSilent());
+        assertFalse(activity.isSpeaking());
+        assertEquals(1, activity.getFrameCount());
+    }
 }
@@ -0,0 +1,68 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeechAudioPreprocessorTest {
+
+    @Test
+    void shouldConvertHighRateStereoToTargetFormat() {
+        // Given - 100 ms of 48 kHz stereo
+        AudioBean audioBean = audioBean(48000, 16, 2, 4800);
+        SpeechAudioPreprocessor preprocessor = new SpeechAudioPreprocessor(16000, 1);
+
+        // When
+        AudioBean prepared = preprocessor.prepare(audioBean);
+
+        // Then
+        assertNotSame(audioBean, prepared);
+        assertEquals("test-id", prepared.getId());
+        assertEquals(16000, prepared.getSamplesPerSecond());
+        assertEquals(1, prepared.getChannels());
+        assertEquals(16, prepared.getBitsPerSample());
+        assertEquals(audioBean.getAudioDataSize() / 6, prepared.getAudioDataSize());
+        assertEquals(48000, audioBean.getSamplesPerSecond());
+    }
+
+    @Test
+    void shouldNotUpsampleLowRateAudio() {
+        // Given
+        AudioBean audioBean = audioBean(8000, 16, 2, 800);
+
+        // When
+        AudioBean prepared = new SpeechAudioPreprocessor(16000, 1).prepare(audioBean);
+
+        // Then - downmixed only
+        assertEquals(8000, prepared.getSamplesPerSecond());
+        assertEquals(1, prepared.getChannels());
+        assertEquals(1600, prepared.getAudioDataSize());
+    }
+
+    @Test
+    void shouldReturnSameBeanWhenNothingToConvert() {
+        AudioBean mono16k = audioBean(16000, 16, 1, 1600);
+        AudioBean eightBit = audioBean(48000, 8, 2, 4800);
+
+        assertSame(mono16k, new SpeechAudioPreprocessor(16000, 1).prepare(mono16k));
+        assertSame(eightBit, new SpeechAudioPreprocessor(16000, 1).prepare(eightBit));
+        AudioBean stereo = audioBean(48000, 16, 2, 4800);
+        assertSame(stereo, SpeechAudioPreprocessor.passThrough().prepare(stereo));
+    }
+
+    @Test
+    void shouldRejectUnsupportedTargets() {
+        assertThrows(IllegalArgumentException.class, () -> new SpeechAudioPreprocessor(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SpeechAudioPreprocessor(16000, 2));
+        assertThrows(NullPointerException.class, () -> SpeechAudioPreprocessor.passThrough().prepare(null));
+    }
+
+    private static AudioBean audioBean(long sampleRate, int bits, int channels, int frames) {
+        AudioBean audioBean = new AudioBean("test-id", new byte[frames * channels * bits / 8]);
+        audioBean.setSamplesPerSecond(sampleRate);
+        audioBean.setBitsPerSample((short) bits);
+        audioBean.setChannels((short) channels);
+        return audioBean;
+    }
+}
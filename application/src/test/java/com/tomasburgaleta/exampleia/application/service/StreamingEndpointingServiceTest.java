@@ -0,0 +1,254 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingEndpointingServiceTest {
+
+    @Mock
+    private AudioListenerService audioListenerService;
+
+    private final List<Runnable> dispatched = new ArrayList<>();
+
+    private StreamingEndpointingService endpointingService;
+
+    private StreamingSession session;
+
+    @BeforeEach
+    void setUp() {
+        endpointingService = new StreamingEndpointingService(audioListenerService, 500, dispatched::add);
+        session = new StreamingSession("session", 16000, (short) 16, (short) 1);
+    }
+
+    @Test
+    void testConstructorValidation() {
+        assertThrows(NullPointerException.class, () -> new StreamingEndpointingService(null, 500, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingEndpointingService(audioListenerService, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingEndpointingService(audioListenerService, 500, 0));
+    }
+
+    @Test
+    void testEndpoint_EndsUtteranceAfterSilenceFollowingSpeech() throws Exception {
+        // Given
+        session.addAudioChunk(new byte[]{1, 2, 3, 4});
+        assertNull(endpointingService.endpoint(session, speech()));
+        session.addAudioChunk(new byte[]{5, 6});
+        assertNull(endpointingService.endpoint(session, silence(24)));
+        session.addAudioChunk(new byte[]{7, 8});
+
+        // When
+        Utterance utterance = endpointingService.endpoint(session, silence(25));
+
+        // Then - the buffered audio is detached and dispatched, the session goes on
+        assertNotNull(utterance);
+        assertEquals(1, utterance.getIndex());
+        assertEquals(8, utterance.getAudioSize());
+        assertEquals(0, session.getBufferSize());
+        assertEquals(1, dispatched.size());
+        assertFalse(endpointingService.hasPendingSpeech(session));
+
+        runDispatched();
+        AudioBean transcribed = utterance.getTranscription().join();
+        assertEquals("session-1", transcribed.getId());
+        assertEquals(16000, transcribed.getSamplesPerSecond());
+        verify(audioListenerService).listenPcm(transcribed);
+    }
+
+    @Test
+    void testEndpoint_SilenceWithoutSpeechEndsNothing() {
+        // Given
+        session.addAudioChunk(new byte[]{1, 2, 3, 4});
+
+        // When
+        Utterance utterance = endpointingService.endpoint(session, silence(100));
+
+        // Then
+        assertNull(utterance);
+        assertEquals(4, session.getBufferSize());
+        assertTrue(dispatched.isEmpty());
+    }
+
+    @Test
+    void testEndpoint_SpeechAndSilenceInOneChunk() {
+        // Given - the chunk completes speech frames and then enough silence, as without hangover
+        session.addAudioChunk(new byte[]{1, 2, 3, 4});
+        SpeechActivity activity = new SpeechActivity(0, new boolean[]{true, false}, 320, 16000, false, 25);
+
+        // When & Then
+        assertNotNull(endpointingService.endpoint(session, activity));
+    }
+
+    @Test
+    void testEndpoint_ConcurrentChunksGetDistinctIndexes() throws Exception {
+        // Given - every chunk holds speech followed by enough silence to end an utterance
+        StreamingEndpointingService service = new StreamingEndpointingService(audioListenerService, 500, task -> { });
+        SpeechActivity activity = new SpeechActivity(0, new boolean[]{true, false}, 320, 16000, false, 25);
+        Set<Integer> indexes = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+
+        // When
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(threads.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        session.addAudioChunk(new byte[]{1, 2});
+                        Utterance utterance = service.endpoint(session, activity);
+                        if (utterance != null) {
+                            assertTrue(indexes.add(utterance.getIndex()), "Duplicate index " + utterance.getIndex());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        // Then - each utterance the session counted has its own index
+        assertEquals(800, session.getUtteranceCount());
+        assertEquals(800, indexes.size());
+        for (int index = 1; index <= indexes.size(); index++) {
+            assertTrue(indexes.contains(index));
+        }
+    }
+
+    @Test
+    void testEndpoint_DisabledWithZeroSilence() {
+        // Given
+        StreamingEndpointingService disabled = new StreamingEndpointingService(audioListenerService, 0, dispatched::add);
+        session.addAudioChunk(new byte[]{1, 2, 3, 4});
+        disabled.endpoint(session, speech());
+
+        // When & Then
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.endpoint(session, silence(1000)));
+        assertEquals(4, session.getBufferSize());
+    }
+
+    @Test
+    void testAwaitUtterances_KeepsSpeechOrderWhateverTheCompletionOrder() throws Exception {
+        // Given - two utterances, the second transcribed first
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText(bean.getId().endsWith("-1") ? "hello" : "world");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+        endUtterance(new byte[]{1, 2});
+        endUtterance(new byte[]{3, 4});
+
+        // When
+        dispatched.get(1).run();
+        assertEquals("", session.getLatestTranscription());
+        dispatched.get(0).run();
+        int utterances = endpointingService.awaitUtterances(session);
+
+        // Then
+        assertEquals(2, utterances);
+        assertEquals("hello world", session.getLatestTranscription());
+    }
+
+    @Test
+    void testAwaitUtterances_FailedTranscriptionAddsNoText() throws Exception {
+        // Given
+        when(audioListenerService.listenPcm(any()))
+            .thenThrow(new AudioProcessingException("provider down"))
+            .thenAnswer(invocation -> {
+                AudioBean bean = invocation.getArgument(0);
+                bean.setTranscribedText("world");
+                return null;
+            });
+        Utterance failed = endUtterance(new byte[]{1, 2});
+        endUtterance(new byte[]{3, 4});
+
+        // When
+        runDispatched();
+        int utterances = endpointingService.awaitUtterances(session);
+
+        // Then
+        assertEquals(2, utterances);
+        assertEquals("world", session.getLatestTranscription());
+        CompletionException error = assertThrows(CompletionException.class, () -> failed.getTranscription().join());
+        assertInstanceOf(AudioProcessingException.class, error.getCause());
+    }
+
+    @Test
+    void testAwaitUtterances_GivesUpAfterTimeout() {
+        // Given - an utterance the provider never answers
+        StreamingEndpointingService bounded = new StreamingEndpointingService(audioListenerService, 500, dispatched::add, 20);
+        session.addAudioChunk(new byte[]{1, 2});
+        bounded.endpoint(session, speech());
+        bounded.endpoint(session, silence(25));
+
+        // When & Then
+        AudioProcessingException error = assertThrows(AudioProcessingException.class, () -> bounded.awaitUtterances(session));
+        assertTrue(error.getMessage().contains("20 ms"));
+    }
+
+    @Test
+    void testClose_StopsOnlyItsOwnPool() {
+        ExecutorService external = Executors.newSingleThreadExecutor();
+        try {
+            new StreamingEndpointingService(audioListenerService, 500, external).close();
+            assertFalse(external.isShutdown());
+        } finally {
+            external.shutdownNow();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StreamingEndpointingService(audioListenerService, 500, 1, 0));
+    }
+
+    @Test
+    void testHasPendingSpeech() {
+        // Before any utterance ends, the buffered audio is always worth transcribing
+        assertTrue(endpointingService.hasPendingSpeech(session));
+
+        endUtterance(new byte[]{1, 2});
+        assertFalse(endpointingService.hasPendingSpeech(session));
+
+        endpointingService.endpoint(session, speech());
+        assertTrue(endpointingService.hasPendingSpeech(session));
+    }
+
+    private Utterance endUtterance(byte[] pcm) {
+        session.addAudioChunk(pcm);
+        endpointingService.endpoint(session, speech());
+        return endpointingService.endpoint(session, silence(25));
+    }
+
+    private void runDispatched() {
+        dispatched.forEach(Runnable::run);
+    }
+
+    private static SpeechActivity speech() {
+        return new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0);
+    }
+
+    /**
+     * @param frames The trailing silence in 20 ms frames
+     */
+    private static SpeechActivity silence(long frames) {
+        return new SpeechActivity(0, new boolean[]{false}, 320, 16000, false, frames);
+    }
+}
@@ -0,0 +1,170 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingSessionServiceTest {
+
+    private StreamingSessionService streamingSessionService;
+
+    @BeforeEach
+    void setUp() {
+        streamingSessionService = new StreamingSessionService();
+    }
+
+    @Test
+    void testStartSession_KeepsFormat() {
+        // When
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+
+        // Then
+        assertNotNull(session.getId());
+        assertEquals(16000, session.getSamplesPerSecond());
+        assertEquals(16, session.getBitsPerSample());
+        assertEquals(1, session.getChannels());
+        assertSame(session, streamingSessionService.getSession(session.getId()));
+        assertEquals(1, streamingSessionService.getActiveSessionCount());
+    }
+
+    @Test
+    void testStartSession_InvalidFormat() {
+        assertThrows(IllegalArgumentException.class, () -> streamingSessionService.startSession(0, (short) 16, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> streamingSessionService.startSession(16000, (short) 0, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> streamingSessionService.startSession(16000, (short) 16, (short) 0));
+    }
+
+    @Test
+    void testSessions_HaveIndependentBuffers() {
+        // Given
+        StreamingSession first = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        first.addAudioChunk(new byte[]{1, 2, 3});
+
+        // When
+        StreamingSession second = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        second.addAudioChunk(new byte[]{4, 5});
+
+        // Then
+        assertArrayEquals(new byte[]{1, 2, 3}, first.extractAudio());
+        assertArrayEquals(new byte[]{4, 5}, second.extractAudio());
+    }
+
+    @Test
+    void testEndSession_RemovesSessionButKeepsAudio() {
+        // Given
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        session.addAudioChunk(new byte[]{1, 2, 3});
+
+        // When
+        StreamingSession ended = streamingSessionService.endSession(session.getId());
+
+        // Then
+        assertSame(session, ended);
+        assertNull(streamingSessionService.getSession(session.getId()));
+        assertNull(streamingSessionService.endSession(session.getId()));
+        assertArrayEquals(new byte[]{1, 2, 3}, ended.extractAudio());
+    }
+
+    @Test
+    void testGetSession_UnknownOrNull() {
+        assertNull(streamingSessionService.getSession("unknown"));
+        assertNull(streamingSessionService.getSession(null));
+        assertNull(streamingSessionService.endSession(null));
+    }
+
+    @Test
+    void testEvictIdleSessions() throws InterruptedException {
+        // Given
+        StreamingSessionService shortLived = new StreamingSessionService(20);
+        StreamingSession session = shortLived.startSession(16000, (short) 16, (short) 1);
+        session.addAudioChunk(new byte[]{1, 2, 3});
+
+        // When
+        Thread.sleep(50);
+        int evicted = shortLived.evictIdleSessions();
+
+        // Then
+        assertEquals(1, evicted);
+        assertNull(shortLived.getSession(session.getId()));
+        assertEquals(0, session.getBufferSize());
+    }
+
+    @Test
+    void testStartSession_DoesNotEvict() throws InterruptedException {
+        // Given
+        StreamingSessionService shortLived = new StreamingSessionService(20);
+        StreamingSession idle = shortLived.startSession(16000, (short) 16, (short) 1);
+
+        // When
+        Thread.sleep(50);
+        shortLived.startSession(16000, (short) 16, (short) 1);
+
+        // Then - eviction is left to the sweep
+        assertSame(idle, shortLived.getSession(idle.getId()));
+        assertEquals(2, shortLived.getActiveSessionCount());
+    }
+
+    @Test
+    void testBackgroundSweep_EvictsIdleSessions() throws InterruptedException {
+        // Given
+        try (StreamingSessionService swept = new StreamingSessionService(20, 10)) {
+            StreamingSession session = swept.startSession(16000, (short) 16, (short) 1);
+
+            // When
+            long deadline = System.currentTimeMillis() + 5000;
+            while (swept.getSession(session.getId()) != null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Then
+            assertNull(swept.getSession(session.getId()));
+        }
+    }
+
+    @Test
+    void testConstructor_InvalidSweepInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingSessionService(1000, -1));
+    }
+
+    @Test
+    void testThreadSafety_ConcurrentSessions() throws InterruptedException {
+        // Given
+        int numThreads = 20;
+        Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        // When - every thread streams into its own session
+        for (int i = 0; i < numThreads; i++) {
+            executor.submit(() -> {
+                try {
+                    StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+                    sessionIds.add(session.getId());
+                    for (int j = 0; j < 50; j++) {
+                        streamingSessionService.getSession(session.getId()).addAudioChunk(new byte[]{1, 2});
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals(numThreads, sessionIds.size());
+        assertEquals(numThreads, streamingSessionService.getActiveSessionCount());
+        for (String sessionId : sessionIds) {
+            assertEquals(100, streamingSessionService.getSession(sessionId).getBufferSize());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
+import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingTranscriptionServiceTest {
+
+    @Mock
+    private AudioListenerService audioListenerService;
+
+    private StreamingSessionService streamingSessionService;
+
+    private StreamingEndpointingService streamingEndpointingService;
+
+    private StreamingTranscriptionService streamingTranscriptionService;
+
+    @BeforeEach
+    void setUp() {
+        streamingSessionService = new StreamingSessionService();
+        streamingEndpointingService = new StreamingEndpointingService(audioListenerService, 500, Runnable::run);
+        streamingTranscriptionService = new StreamingTranscriptionService(streamingSessionService, audioListenerService,
+            streamingEndpointingService);
+    }
+
+    @Test
+    void testConstructorValidation() {
+        assertThrows(NullPointerException.class, () -> new StreamingTranscriptionService(null, audioListenerService, null));
+        assertThrows(NullPointerException.class, () -> new StreamingTranscriptionService(streamingSessionService, null, null));
+    }
+
+    @Test
+    void testStopSession_TranscribesBufferedAudioAndEndsSession() throws Exception {
+        // Given
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        session.addAudioChunk(new byte[]{1, 2, 3, 4});
+        transcribeAs("hello");
+
+        // When
+        SessionTranscript transcript = streamingTranscriptionService.stopSession(session.getId());
+
+        // Then
+        assertEquals(session.getId(), transcript.sessionId());
+        assertEquals("hello", transcript.transcribedText());
+        assertTrue(transcript.hasTranscription());
+        assertEquals(4, transcript.audioSize());
+        assertEquals(0, transcript.utterances());
+        assertNull(streamingSessionService.getSession(session.getId()));
+        verify(audioListenerService).listenPcm(argThat(bean -> bean.getSamplesPerSecond() == 16000));
+    }
+
+    @Test
+    void testStopSession_AppendsRemainingSpeechAfterUtterances() throws Exception {
+        // Given - one utterance ended, then more speech
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText(bean.getId().endsWith("-1") ? "hello" : "world");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+        session.addAudioChunk(new byte[]{1, 2});
+        streamingEndpointingService.endpoint(session, new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0));
+        streamingEndpointingService.endpoint(session, new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25));
+        session.addAudioChunk(new byte[]{3, 4});
+        streamingEndpointingService.endpoint(session, new SpeechActivity(26, new boolean[]{true}, 320, 16000, true, 0));
+
+        // When
+        SessionTranscript transcript = streamingTranscriptionService.stopSession(session.getId());
+
+        // Then
+        assertEquals("hello world", transcript.transcribedText());
+        assertEquals(1, transcript.utterances());
+        assertEquals(2, transcript.audioSize());
+    }
+
+    @Test
+    void testStopSession_SkipsSilenceAfterLastUtterance() throws Exception {
+        // Given
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        transcribeAs("hello");
+        session.addAudioChunk(new byte[]{1, 2});
+        streamingEndpointingService.endpoint(session, new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0));
+        streamingEndpointingService.endpoint(session, new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25));
+        session.addAudioChunk(new byte[]{0, 0});
+
+        // When
+        SessionTranscript transcript = streamingTranscriptionService.stopSession(session.getId());
+
+        // Then
+        assertEquals("hello", transcript.transcribedText());
+        assertEquals(0, transcript.audioSize());
+        verify(audioListenerService, times(1)).listenPcm(any());
+    }
+
+    @Test
+    void testStopSession_InvalidSession() throws Exception {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> streamingTranscriptionService.stopSession("missing"));
+        assertEquals("Invalid or expired session", error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> streamingTranscriptionService.stopSession(null));
+        verify(audioListenerService, never()).listenPcm(any());
+    }
+
+    @Test
+    void testStopSession_NoAudioData() throws Exception {
+        // Given
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+
+        // When & Then - the session ends anyway
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> streamingTranscriptionService.stopSession(session.getId()));
+        assertEquals("No audio data recorded", error.getMessage());
+        assertNull(streamingSessionService.getSession(session.getId()));
+    }
+
+    @Test
+    void testStopSession_WithoutEndpointingTranscribesEverything() throws Exception {
+        // Given
+        StreamingTranscriptionService withoutEndpointing =
+            new StreamingTranscriptionService(streamingSessionService, audioListenerService, null);
+        StreamingSession session = streamingSessionService.startSession(16000, (short) 16, (short) 1);
+        session.addAudioChunk(new byte[]{1, 2, 3, 4});
+        when(audioListenerService.listenPcm(any())).thenThrow(new AudioProcessingException("provider down"));
+
+        // When & Then
+        assertThrows(AudioProcessingException.class, () -> withoutEndpointing.stopSession(session.getId()));
+    }
+
+    @Test
+    void testStopSession_48kHzStereoReachesProviderAsValidWav() throws Exception {
+        // Given - a real listener converting to 16 kHz mono, in front of a provider
+        AudioListenerPort provider = mock(AudioListenerPort.class);
+        AudioListenerService listener = new AudioListenerService(provider, new SpeechAudioPreprocessor(16000, 1));
+        StreamingTranscriptionService service = new StreamingTranscriptionService(streamingSessionService, listener,
+            new StreamingEndpointingService(listener, 500, Runnable::run));
+        StreamingSession session = streamingSessionService.startSession(48000, (short) 16, (short) 2);
+        session.addAudioChunk(new byte[48000 * 2 * 2]); // 1 s
+        session.addAudioChunk(new byte[48000 * 2 * 2 / 10]); // 100 ms
+
+        // When
+        service.stopSession(session.getId());
+
+        // Then - the header describes the converted audio and is followed by all of it
+        ArgumentCaptor<AudioBean> sent = ArgumentCaptor.forClass(AudioBean.class);
+        verify(provider).listenAudio(sent.capture());
+        AudioBean wav = sent.getValue();
+        ByteBuffer header = ByteBuffer.wrap(wav.getAudioData(), 0, WavFramer.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long dataLength = header.getInt(40) & 0xFFFFFFFFL;
+        assertEquals("RIFF", new String(wav.getAudioData(), 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("WAVE", new String(wav.getAudioData(), 8, 4, StandardCharsets.US_ASCII));
+        assertEquals("data", new String(wav.getAudioData(), 36, 4, StandardCharsets.US_ASCII));
+        assertEquals(1, header.getShort(22));
+        assertEquals(16000, header.getInt(24));
+        assertEquals(16, header.getShort(34));
+        assertEquals(wav.getAudioDataSize() - 8, header.getInt(4) & 0xFFFFFFFFL);
+        assertEquals(wav.getAudioDataSize() - WavFramer.HEADER_SIZE, dataLength);
+        assertEquals(1100 * 16 * 2, dataLength);
+        assertEquals(16000, wav.getSamplesPerSecond());
+        assertEquals(1, wav.getChannels());
+    }
+
+    private void transcribeAs(String text) throws AudioProcessingException {
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText(text);
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+    }
+}
@@ -0,0 +1,66 @@
+package com.tomasburgaleta.exampleia.application.service;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoiceActivityDetectionServiceTest {
+
+    @Mock
+    private VoiceActivityDetectorPort voiceActivityDetectorPort;
+
+    private VoiceActivityDetectionService voiceActivityDetectionService;
+
+    @BeforeEach
+    void setUp() {
+        voiceActivityDetectionService = new VoiceActivityDetectionService(voiceActivityDetectorPort);
+    }
+
+    @Test
+    void testConstructorWithNullPort() {
+        assertThrows(NullPointerException.class, () -> new VoiceActivityDetectionService(null));
+    }
+
+    @Test
+    void testDetectSpeech_PassesAudioAndFormat() {
+        // Given
+        AudioBean audioBean = new AudioBean("audio", new byte[]{1, 2, 3, 4});
+        audioBean.setSamplesPerSecond(16000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 1);
+        List<SpeechSegment> segments = List.of(new SpeechSegment(0, 2, 0.9));
+        when(voiceActivityDetectorPort.detectSpeech(audioBean.getAudioPayload(), 16000, (short) 16, (short) 1))
+            .thenReturn(segments);
+
+        // When
+        List<SpeechSegment> result = voiceActivityDetectionService.detectSpeech(audioBean);
+
+        // Then
+        assertSame(segments, result);
+    }
+
+    @Test
+    void testDetectSpeech_NoAudioData() {
+        AudioBean audioBean = new AudioBean("audio", new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> voiceActivityDetectionService.detectSpeech(audioBean));
+        verify(voiceActivityDetectorPort, never()).detectSpeech(any(), anyLong(), anyShort(), anyShort());
+    }
+
+    @Test
+    void testDetectSpeech_NullBean() {
+        assertThrows(NullPointerException.class, () -> voiceActivityDetectionService.detectSpeech(null));
+    }
+}
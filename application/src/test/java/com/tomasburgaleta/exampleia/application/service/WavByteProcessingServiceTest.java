@@ -1,6 +1,8 @@
 package com.tomasburgaleta.exampleia.application.service;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.WavProbe;
+import com.tomasburgaleta.exampleia.domain.model.WavStream;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.WavByteReaderPort;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +10,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -114,6 +125,69 @@ class WavByteProcessingServiceTest {
         verify(wavByteReaderPort).processWavBytes(wavBytes, id);
     }
     
+    @Test
+    void shouldBuildAudioBeanFromWavStream() throws IOException {
+        // Given
+        byte[] pcmData = {1, 2, 3, 4};
+        WavStream wav = new WavStream(16000, (short) 16, (short) 1, pcmData.length,
+            Channels.newChannel(new ByteArrayInputStream(pcmData)));
+        when(wavByteReaderPort.openWavStream(any())).thenReturn(wav);
+        
+        // When
+        AudioBean result = service.processWavStream(new ByteArrayInputStream(new byte[0]), "test-id");
+        
+        // Then
+        assertEquals("test-id", result.getId());
+        assertArrayEquals(pcmData, result.getAudioData());
+        assertEquals(16000L, result.getSamplesPerSecond());
+        assertEquals(16, result.getBitsPerSample());
+        assertEquals(1, result.getChannels());
+    }
+    
+    @Test
+    void shouldReportTruncatedWavStreamAsInvalidFormat() throws IOException {
+        // Given
+        ReadableByteChannel truncated = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                throw new EOFException("WAV data chunk is truncated");
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        when(wavByteReaderPort.openWavStream(any())).thenReturn(new WavStream(16000, (short) 16, (short) 1, 100, truncated));
+        InputStream in = new ByteArrayInputStream(new byte[0]);
+        
+        // When & Then
+        assertThrows(AudioFileException.class, () -> service.processWavStream(in, "test-id"));
+        assertThrows(IllegalArgumentException.class, () -> service.processWavStream(null, "test-id"));
+        assertThrows(IllegalArgumentException.class, () -> service.processWavStream(in, " "));
+    }
+    
+    @Test
+    void shouldDelegateProbesToPort() throws IOException {
+        // Given
+        WavProbe probe = new WavProbe(1, 16000, (short) 16, (short) 1, 2, 44, 3200, WavProbe.UNKNOWN, false, List.of());
+        byte[] prefix = {1, 2, 3};
+        when(wavByteReaderPort.probeWav(prefix)).thenReturn(probe);
+        when(wavByteReaderPort.probeWav(any(ReadableByteChannel.class))).thenReturn(probe);
+        
+        // When & Then
+        assertSame(probe, service.probeWavBytes(prefix));
+        assertSame(probe, service.probeWavStream(new ByteArrayInputStream(prefix)));
+        assertEquals(100, probe.getDurationMillis());
+        assertThrows(IllegalArgumentException.class, () -> service.probeWavBytes(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> service.probeWavFile(null));
+        assertThrows(IllegalArgumentException.class, () -> service.probeWavStream(null));
+    }
+    
     private byte[] createValidWavBytes() {
         // This would be a valid WAV byte array in a real test
         // For now, just return some test data
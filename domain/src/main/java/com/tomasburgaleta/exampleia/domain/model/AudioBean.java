@@ -7,7 +7,7 @@ import java.util.Objects;
  */
 public class AudioBean {
 
-    private final byte[] audioData;
+    private final AudioPayload audioPayload;
     private String transcribedText;
     private String aiResponse;
     private final String id;
@@ -15,11 +15,16 @@ public class AudioBean {
     private short bitsPerSample;
     private short channels;
     private String detectedLanguage;
+    private SampleOffsetMap transcribedOffsetMap;
 
     
     public AudioBean(String id, byte[] audioData) {
+        this(id, AudioPayload.wrap(Objects.requireNonNull(audioData, "Audio data cannot be null")));
+    }
+    
+    public AudioBean(String id, AudioPayload audioPayload) {
         this.id = Objects.requireNonNull(id, "ID cannot be null");
-        this.audioData = Objects.requireNonNull(audioData, "Audio data cannot be null");
+        this.audioPayload = Objects.requireNonNull(audioPayload, "Audio data cannot be null");
     }
 
     public long getSamplesPerSecond() {
@@ -50,8 +55,34 @@ public class AudioBean {
         return id;
     }
     
+    /**
+     * Returns a private copy of the audio data.
+     * Prefer {@link #getAudioPayload()} on hot paths, which shares the bytes without copying.
+     */
     public byte[] getAudioData() {
-        return audioData != null ? audioData.clone() : null;
+        return audioPayload.toByteArray();
+    }
+    
+    public AudioPayload getAudioPayload() {
+        return audioPayload;
+    }
+    
+    /**
+     * @return The number of audio bytes, which may exceed 2 GB for long recordings
+     */
+    public long getAudioDataSize() {
+        return audioPayload.size();
+    }
+    
+    public boolean hasAudioData() {
+        return !audioPayload.isEmpty();
+    }
+    
+    /**
+     * @return The duration of the audio in milliseconds based on the PCM metadata, or 0 if the metadata is not set
+     */
+    public long getDurationMillis() {
+        return audioPayload.durationMillis(samplesPerSecond, bitsPerSample, channels);
     }
     
     public String getTranscribedText() {
@@ -86,6 +117,17 @@ public class AudioBean {
         this.detectedLanguage = detectedLanguage;
     }
     
+    /**
+     * @return The map from the audio sent for transcription back to this audio, or null if it was sent whole
+     */
+    public SampleOffsetMap getTranscribedOffsetMap() {
+        return transcribedOffsetMap;
+    }
+    
+    public void setTranscribedOffsetMap(SampleOffsetMap transcribedOffsetMap) {
+        this.transcribedOffsetMap = transcribedOffsetMap;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -103,8 +145,8 @@ public class AudioBean {
     public String toString() {
         return "MIObject{" +
                 "id='" + id + '\'' +
-                ", hasAudioData=" + (audioData != null) +
-                ", audioDataSize=" + (audioData != null ? audioData.length : 0) +
+                ", hasAudioData=" + hasAudioData() +
+                ", audioDataSize=" + getAudioDataSize() +
                 ", hasTranscribedText=" + hasTranscribedText() +
                 '}';
     }
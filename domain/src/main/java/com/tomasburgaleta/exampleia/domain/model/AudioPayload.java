@@ -0,0 +1,721 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, shareable view over audio bytes.
+ * The payload never hands out writable access to its backing storage, so the same instance
+ * can be passed from the ingestion layer to storage and speech providers without defensive copies.
+ * Backing storage can be a heap array, an off-heap (direct) buffer, or several of them gathered
+ * into one composite payload (for example a WAV header followed by shared PCM).
+ * A composite payload may be larger than 2 GB, such as a multi-hour recording mapped from disk
+ * in segments. Its {@link #size()} is then beyond {@link #length()}, and only the long-based
+ * accessors, slices, streams and channel writes can be used on it.
+ * A lazy payload reads its buffers from a {@link PartSource} only when its bytes are accessed, so
+ * a store can hand out recordings whose size and slices cost nothing until the audio is read.
+ */
+public final class AudioPayload {
+
+    private static final AudioPayload EMPTY = new AudioPayload(ByteBuffer.allocate(0));
+    private static final int TRANSFER_CHUNK_SIZE = 8192;
+
+    // Never exposed directly
+    private final Part[] parts;
+    private final long length;
+
+    private AudioPayload(ByteBuffer buffer) {
+        this.parts = new Part[]{new Part(buffer)};
+        this.length = buffer.limit();
+    }
+
+    private AudioPayload(Part[] parts, long length) {
+        this.parts = parts;
+        this.length = length;
+    }
+
+    /**
+     * Wraps the given array without copying it.
+     * The caller hands over ownership and must not modify the array afterwards.
+     *
+     * @param data The audio bytes
+     * @return A payload backed by the given array
+     */
+    public static AudioPayload wrap(byte[] data) {
+        Objects.requireNonNull(data, "Audio data cannot be null");
+        return new AudioPayload(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Wraps a region of the given array without copying it.
+     * The caller hands over ownership of the region and must not modify it afterwards.
+     *
+     * @param data The audio bytes
+     * @param offset The start of the region
+     * @param length The length of the region
+     * @return A payload backed by the given region
+     * @throws IndexOutOfBoundsException if the region is outside the array
+     */
+    public static AudioPayload wrap(byte[] data, int offset, int length) {
+        Objects.requireNonNull(data, "Audio data cannot be null");
+        Objects.checkFromIndexSize(offset, length, data.length);
+        return new AudioPayload(ByteBuffer.wrap(data, offset, length).slice());
+    }
+
+    /**
+     * Creates a payload sharing the remaining bytes of the given buffer.
+     * The buffer's position and limit are not modified. The caller must not write to the shared region.
+     *
+     * @param buffer The buffer holding the audio bytes
+     * @return A payload backed by the remaining region of the buffer
+     */
+    public static AudioPayload of(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Audio buffer cannot be null");
+        return new AudioPayload(buffer.slice());
+    }
+
+    /**
+     * Creates a payload holding a private heap copy of the given array
+     *
+     * @param data The audio bytes to copy
+     * @return A payload backed by a new array
+     */
+    public static AudioPayload copyOf(byte[] data) {
+        Objects.requireNonNull(data, "Audio data cannot be null");
+        return new AudioPayload(ByteBuffer.wrap(data.clone()));
+    }
+
+    /**
+     * Creates a payload holding an off-heap copy of the remaining bytes of the given buffer.
+     * Useful for long-lived recordings that should not inflate the Java heap.
+     *
+     * @param buffer The buffer holding the audio bytes
+     * @return A payload backed by a direct buffer
+     */
+    public static AudioPayload directCopyOf(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Audio buffer cannot be null");
+        ByteBuffer direct = ByteBuffer.allocateDirect(buffer.remaining());
+        direct.put(buffer.duplicate());
+        direct.flip();
+        return new AudioPayload(direct);
+    }
+
+    /**
+     * Creates a payload holding an off-heap copy of the given array
+     *
+     * @param data The audio bytes to copy
+     * @return A payload backed by a direct buffer
+     */
+    public static AudioPayload directCopyOf(byte[] data) {
+        Objects.requireNonNull(data, "Audio data cannot be null");
+        return directCopyOf(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Gathers several payloads into one composite payload without copying their bytes.
+     * The result reads as the payloads one after another.
+     *
+     * @param payloads The payloads to gather, in order
+     * @return A payload sharing the storage of the given payloads
+     */
+    public static AudioPayload concat(AudioPayload... payloads) {
+        Objects.requireNonNull(payloads, "Payloads cannot be null");
+        List<Part> gathered = new ArrayList<>();
+        long total = 0;
+        for (AudioPayload payload : payloads) {
+            Objects.requireNonNull(payload, "Payload cannot be null");
+            for (Part part : payload.parts) {
+                if (part.length > 0) {
+                    gathered.add(part);
+                }
+            }
+            total += payload.length;
+        }
+
+        return gathered.isEmpty() ? EMPTY : new AudioPayload(gathered.toArray(new Part[0]), total);
+    }
+
+    /**
+     * Creates a payload whose buffers are read from the given source when its bytes are accessed.
+     * Only the part lengths are asked for up front. Each access reads the parts it needs again, so
+     * the source decides whether its parts are views, copies or decoded on the fly.
+     *
+     * @param source The source of the buffers
+     * @return A payload reading the source's parts, in order
+     */
+    public static AudioPayload lazy(PartSource source) {
+        Objects.requireNonNull(source, "Part source cannot be null");
+        List<Part> gathered = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < source.partCount(); i++) {
+            int partLength = source.partLength(i);
+            if (partLength > 0) {
+                gathered.add(new Part(source, i, 0, partLength));
+                total += partLength;
+            }
+        }
+
+        return gathered.isEmpty() ? EMPTY : new AudioPayload(gathered.toArray(new Part[0]), total);
+    }
+
+    /**
+     * @return An empty payload
+     */
+    public static AudioPayload empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads a stream to its end into a new payload.
+     * When the length is known up front the bytes are read straight into an exactly sized array,
+     * which then becomes the payload's storage without further copies.
+     *
+     * @param in The stream to read
+     * @param expectedLength The announced length, or a negative value if unknown
+     * @param maxLength The maximum number of bytes to accept
+     * @return A payload holding the bytes read
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the stream holds more than maxLength bytes
+     */
+    public static AudioPayload readFrom(InputStream in, long expectedLength, int maxLength) throws IOException {
+        Objects.requireNonNull(in, "Input stream cannot be null");
+
+        if (expectedLength > maxLength) {
+            throw new IllegalArgumentException("Audio data exceeds the maximum size of " + maxLength + " bytes");
+        }
+
+        byte[] data = new byte[expectedLength >= 0 ? (int) expectedLength : Math.min(TRANSFER_CHUNK_SIZE, maxLength)];
+        int length = 0;
+        while (true) {
+            if (length == data.length) {
+                // The announced length was wrong or unknown: probe for more data before growing
+                int next = in.read();
+                if (next < 0) {
+                    break;
+                }
+                if (length >= maxLength) {
+                    throw new IllegalArgumentException("Audio data exceeds the maximum size of " + maxLength + " bytes");
+                }
+                data = Arrays.copyOf(data, (int) Math.min((long) data.length * 2 + 1, maxLength));
+                data[length++] = (byte) next;
+            }
+
+            int read = in.read(data, length, data.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+
+        return length == data.length ? wrap(data) : wrap(data, 0, length);
+    }
+
+    /**
+     * @return The number of audio bytes in this payload
+     * @throws IllegalStateException if the payload is larger than 2 GB; use {@link #size()} instead
+     */
+    public int length() {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Audio payload of " + length + " bytes exceeds 2 GB; use size()");
+        }
+        return (int) length;
+    }
+
+    /**
+     * @return The number of audio bytes in this payload, which may exceed 2 GB
+     */
+    public long size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * @return true if all bytes are stored off-heap; parts of a lazy payload are not counted as such
+     */
+    public boolean isDirect() {
+        for (Part part : parts) {
+            if (part.buffer == null || !part.buffer.isDirect()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the payload gathers more than one buffer
+     */
+    public boolean isComposite() {
+        return parts.length > 1;
+    }
+
+    /**
+     * Calculates the playback duration of this payload interpreted as PCM audio
+     *
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return The duration in milliseconds, or 0 if the format is incomplete
+     */
+    public long durationMillis(long samplesPerSecond, short bitsPerSample, short channels) {
+        long bytesPerSecond = samplesPerSecond * channels * (bitsPerSample / 8);
+        if (bytesPerSecond <= 0) {
+            return 0;
+        }
+        return length * 1000L / bytesPerSecond;
+    }
+
+    /**
+     * Returns a read-only little-endian view of the payload positioned at the first byte.
+     * Each call returns an independent view, so callers can move its position freely.
+     * A composite payload has no single backing buffer and is copied into a new one on every call;
+     * hot paths should read the per-buffer views of {@link #asReadOnlyBuffers()} instead.
+     *
+     * @return A read-only view over the audio bytes
+     */
+    public ByteBuffer asReadOnlyBuffer() {
+        if (!isComposite()) {
+            return parts[0].read().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return ByteBuffer.wrap(toByteArray()).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns read-only little-endian views over the buffers of this payload, in order.
+     * Suitable for gathering writes. All parts of a lazy payload are read; streams,
+     * {@link #writeTo(OutputStream)} and {@link #buffer(int)} read them one at a time instead.
+     *
+     * @return The views, one per backing buffer
+     */
+    public ByteBuffer[] asReadOnlyBuffers() {
+        ByteBuffer[] views = new ByteBuffer[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            views[i] = parts[i].view();
+        }
+        return views;
+    }
+
+    /**
+     * @return The number of buffers backing this payload
+     */
+    public int bufferCount() {
+        return parts.length;
+    }
+
+    /**
+     * @param index The buffer index
+     * @return The length of the buffer, known without reading a lazy part
+     */
+    public int bufferLength(int index) {
+        return parts[Objects.checkIndex(index, parts.length)].length;
+    }
+
+    /**
+     * Returns a read-only little-endian view over one buffer of this payload. A lazy part is read
+     * by this call alone, so callers walking the payload buffer by buffer hold one part at a time.
+     *
+     * @param index The buffer index
+     * @return The view over the buffer
+     */
+    public ByteBuffer buffer(int index) {
+        return parts[Objects.checkIndex(index, parts.length)].view();
+    }
+
+    /**
+     * Returns a payload sharing a region of this payload without copying
+     *
+     * @param offset The start of the region
+     * @param length The length of the region
+     * @return A payload backed by the same storage
+     * @throws IndexOutOfBoundsException if the region is outside this payload
+     */
+    public AudioPayload slice(int offset, int length) {
+        return slice((long) offset, (long) length);
+    }
+
+    /**
+     * Returns a payload sharing a region of this payload without copying, at 64-bit offsets
+     *
+     * @param offset The start of the region
+     * @param length The length of the region
+     * @return A payload backed by the same storage
+     * @throws IndexOutOfBoundsException if the region is outside this payload
+     */
+    public AudioPayload slice(long offset, long length) {
+        Objects.checkFromIndexSize(offset, length, this.length);
+        if (offset == 0 && length == this.length) {
+            return this;
+        }
+        List<Part> sliced = new ArrayList<>();
+        long partStart = 0;
+        for (Part part : parts) {
+            long partEnd = partStart + part.length;
+            long from = Math.max(offset, partStart);
+            long to = Math.min(offset + length, partEnd);
+            if (from < to) {
+                sliced.add(part.slice((int) (from - partStart), (int) (to - from)));
+            }
+            partStart = partEnd;
+        }
+
+        return sliced.isEmpty() ? EMPTY : new AudioPayload(sliced.toArray(new Part[0]), length);
+    }
+
+    /**
+     * @param index The byte index
+     * @return The byte at the given index
+     */
+    public byte get(int index) {
+        return get((long) index);
+    }
+
+    /**
+     * Reads a single byte; on a lazy payload this reads the whole part holding it
+     *
+     * @param index The byte index, which may exceed 2 GB
+     * @return The byte at the given index
+     */
+    public byte get(long index) {
+        Objects.checkIndex(index, length);
+        long partStart = 0;
+        for (Part part : parts) {
+            if (index < partStart + part.length) {
+                return part.read().get((int) (index - partStart));
+            }
+            partStart += part.length;
+        }
+        throw new IndexOutOfBoundsException(Long.toString(index));
+    }
+
+    /**
+     * Copies a region of this payload into the given array
+     *
+     * @param srcOffset The start of the region in this payload
+     * @param dst The destination array
+     * @param dstOffset The start position in the destination array
+     * @param length The number of bytes to copy
+     */
+    public void copyTo(int srcOffset, byte[] dst, int dstOffset, int length) {
+        copyTo((long) srcOffset, dst, dstOffset, length);
+    }
+
+    /**
+     * Copies a region of this payload, starting at a 64-bit offset, into the given array
+     *
+     * @param srcOffset The start of the region in this payload
+     * @param dst The destination array
+     * @param dstOffset The start position in the destination array
+     * @param length The number of bytes to copy
+     */
+    public void copyTo(long srcOffset, byte[] dst, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, this.length);
+        if (!isComposite()) {
+            parts[0].read().get((int) srcOffset, dst, dstOffset, length);
+            return;
+        }
+
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        long partStart = 0;
+        for (Part part : parts) {
+            long partEnd = partStart + part.length;
+            long from = Math.max(srcOffset, partStart);
+            long to = Math.min(srcOffset + length, partEnd);
+            if (from < to) {
+                part.read().get((int) (from - partStart), dst, dstOffset + (int) (from - srcOffset), (int) (to - from));
+            }
+            partStart = partEnd;
+        }
+    }
+
+    /**
+     * Copies the payload into a new array.
+     * Only use this at boundaries that require a standalone array.
+     *
+     * @return A new array holding the audio bytes
+     * @throws IllegalStateException if the payload is larger than 2 GB
+     */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[length()];
+        copyTo(0, copy, 0, copy.length);
+        return copy;
+    }
+
+    /**
+     * Writes the payload to the given stream without materializing an intermediate copy
+     * for heap-backed buffers
+     *
+     * @param out The destination stream
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "Output stream cannot be null");
+        byte[] chunk = null;
+        for (Part source : parts) {
+            ByteBuffer part = source.read();
+            int partLength = part.limit();
+            if (part.hasArray()) {
+                out.write(part.array(), part.arrayOffset(), partLength);
+                continue;
+            }
+            if (chunk == null) {
+                chunk = new byte[(int) Math.min(TRANSFER_CHUNK_SIZE, length)];
+            }
+            for (int offset = 0; offset < partLength; offset += chunk.length) {
+                int count = Math.min(chunk.length, partLength - offset);
+                part.get(offset, chunk, 0, count);
+                out.write(chunk, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Writes the payload to the given channel, with a single gathering write
+     * when the channel supports it
+     *
+     * @param channel The destination channel
+     * @return The number of bytes written
+     * @throws IOException if writing fails
+     */
+    public long writeTo(WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel, "Channel cannot be null");
+        long written = 0;
+        if (channel instanceof GatheringByteChannel gathering && !isLazy()) {
+            ByteBuffer[] views = asReadOnlyBuffers();
+            while (written < length) {
+                written += gathering.write(views);
+            }
+            return written;
+        }
+
+        for (Part part : parts) {
+            ByteBuffer view = part.view();
+            while (view.hasRemaining()) {
+                written += channel.write(view);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @return A stream reading the payload from the first byte, sharing the backing storage
+     */
+    public InputStream asInputStream() {
+        return new PayloadInputStream(parts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AudioPayload other = (AudioPayload) o;
+        if (length != other.length) {
+            return false;
+        }
+        if (!isComposite() && !other.isComposite()) {
+            return parts[0].read().equals(other.parts[0].read());
+        }
+
+        // Compares the runs the parts of both payloads have in common, reading every part once
+        ByteBuffer mine = ByteBuffer.allocate(0);
+        ByteBuffer theirs = ByteBuffer.allocate(0);
+        for (int i = 0, j = 0; ; ) {
+            while (!mine.hasRemaining() && i < parts.length) {
+                mine = parts[i++].read().duplicate();
+            }
+            while (!theirs.hasRemaining() && j < other.parts.length) {
+                theirs = other.parts[j++].read().duplicate();
+            }
+            int count = Math.min(mine.remaining(), theirs.remaining());
+            if (count == 0) {
+                return true;
+            }
+            if (!mine.slice(mine.position(), count).equals(theirs.slice(theirs.position(), count))) {
+                return false;
+            }
+            mine.position(mine.position() + count);
+            theirs.position(theirs.position() + count);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        if (!isComposite()) {
+            return parts[0].read().hashCode();
+        }
+        // Same content hash as ByteBuffer, so single and composite payloads with equal bytes match
+        int h = 1;
+        for (int p = parts.length - 1; p >= 0; p--) {
+            ByteBuffer part = parts[p].read();
+            for (int i = part.limit() - 1; i >= 0; i--) {
+                h = 31 * h + part.get(i);
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "AudioPayload{" +
+                "length=" + length +
+                ", direct=" + isDirect() +
+                '}';
+    }
+
+    private boolean isLazy() {
+        for (Part part : parts) {
+            if (part.buffer == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Source of the buffers of a lazy payload. It may be called from several threads at once.
+     */
+    public interface PartSource {
+
+        /**
+         * @return The number of parts
+         */
+        int partCount();
+
+        /**
+         * @param index The part index
+         * @return The length of the part in bytes
+         */
+        int partLength(int index);
+
+        /**
+         * Reads a part. The payload never writes to the buffer nor moves its position.
+         *
+         * @param index The part index
+         * @return The bytes of the part, positioned at 0 with its length as limit
+         */
+        ByteBuffer readPart(int index);
+    }
+
+    /**
+     * A region of the payload: a buffer positioned at 0 with limit == its length, or a region of a
+     * part of a {@link PartSource}, read on every access
+     */
+    private static final class Part {
+        private final ByteBuffer buffer;
+        private final PartSource source;
+        private final int index;
+        private final int offset;
+        private final int length;
+
+        private Part(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.source = null;
+            this.index = 0;
+            this.offset = 0;
+            this.length = buffer.limit();
+        }
+
+        private Part(PartSource source, int index, int offset, int length) {
+            this.buffer = null;
+            this.source = source;
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * @return The bytes of the part, positioned at 0; must not be written to nor repositioned
+         */
+        private ByteBuffer read() {
+            if (buffer != null) {
+                return buffer;
+            }
+            ByteBuffer part = source.readPart(index);
+            if (part.limit() - offset < length) {
+                throw new IllegalStateException("Part " + index + " is shorter than announced");
+            }
+            return part.slice(offset, length);
+        }
+
+        private ByteBuffer view() {
+            return read().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private Part slice(int from, int count) {
+            return buffer != null ? new Part(buffer.slice(from, count)) : new Part(source, index, offset + from, count);
+        }
+    }
+
+    /**
+     * Input stream over the parts of a payload, read one after another as the stream reaches them
+     */
+    private static final class PayloadInputStream extends InputStream {
+
+        private final Part[] parts;
+        private ByteBuffer view = ByteBuffer.allocate(0);
+        private int next;
+
+        PayloadInputStream(Part[] parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer view = currentView();
+            return view != null ? view.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer view = currentView();
+            if (view == null) {
+                return -1;
+            }
+            int count = Math.min(len, view.remaining());
+            view.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            ByteBuffer view;
+            while (skipped < n && (view = currentView()) != null) {
+                int count = (int) Math.min(n - skipped, view.remaining());
+                view.position(view.position() + count);
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            long remaining = view.remaining();
+            for (int i = next; i < parts.length; i++) {
+                remaining += parts[i].length;
+            }
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+
+        private ByteBuffer currentView() {
+            while (!view.hasRemaining() && next < parts.length) {
+                view = parts[next++].view();
+            }
+            return view.hasRemaining() ? view : null;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps sample frame offsets of compacted audio back to the audio it was cut from.
+ * Compacted audio is a sequence of spans kept from the original, in order; everything between
+ * two spans was removed. Offsets are in sample frames, so they do not depend on the sample format.
+ */
+public final class SampleOffsetMap {
+
+    private final long[] originalStarts;
+    private final long[] compactedStarts;
+    private final long[] lengths;
+    private final long originalLength;
+
+    /**
+     * @param keptSpans The spans kept from the original, as {start, end} sample frame offsets
+     *     in increasing order and not overlapping
+     * @param originalLength The length of the original audio in sample frames
+     * @throws IllegalArgumentException if the spans are out of order, overlap or exceed the original
+     */
+    public SampleOffsetMap(List<long[]> keptSpans, long originalLength) {
+        Objects.requireNonNull(keptSpans, "Kept spans cannot be null");
+        int count = keptSpans.size();
+        this.originalStarts = new long[count];
+        this.compactedStarts = new long[count];
+        this.lengths = new long[count];
+        this.originalLength = originalLength;
+
+        long previousEnd = 0;
+        long compacted = 0;
+        for (int i = 0; i < count; i++) {
+            long[] span = keptSpans.get(i);
+            if (span.length != 2 || span[0] < previousEnd || span[1] <= span[0] || span[1] > originalLength) {
+                throw new IllegalArgumentException("Invalid kept span " + Arrays.toString(span) + " after " + previousEnd);
+            }
+            originalStarts[i] = span[0];
+            compactedStarts[i] = compacted;
+            lengths[i] = span[1] - span[0];
+            compacted += lengths[i];
+            previousEnd = span[1];
+        }
+    }
+
+    /**
+     * @param length The length of the audio in sample frames
+     * @return A map keeping the whole audio
+     */
+    public static SampleOffsetMap identity(long length) {
+        return new SampleOffsetMap(length > 0 ? List.of(new long[]{0, length}) : List.of(), Math.max(length, 0));
+    }
+
+    /**
+     * @return The number of spans kept
+     */
+    public int getSpanCount() {
+        return lengths.length;
+    }
+
+    public long getOriginalLength() {
+        return originalLength;
+    }
+
+    /**
+     * @return The length of the compacted audio in sample frames
+     */
+    public long getCompactedLength() {
+        return lengths.length == 0 ? 0 : compactedStarts[lengths.length - 1] + lengths[lengths.length - 1];
+    }
+
+    /**
+     * @param span The position of the span, from 0
+     * @return The offset of the span in the original audio
+     */
+    public long getOriginalStart(int span) {
+        return originalStarts[span];
+    }
+
+    /**
+     * @param span The position of the span, from 0
+     * @return The offset of the span in the compacted audio
+     */
+    public long getCompactedStart(int span) {
+        return compactedStarts[span];
+    }
+
+    /**
+     * @param span The position of the span, from 0
+     * @return The length of the span in sample frames
+     */
+    public long getLength(int span) {
+        return lengths[span];
+    }
+
+    /**
+     * @param compactedSample An offset in the compacted audio; offsets past its end map to the end of the last span
+     * @return The offset of the same sample frame in the original audio
+     */
+    public long toOriginalSample(long compactedSample) {
+        if (lengths.length == 0) {
+            return 0;
+        }
+        int span = spanAt(compactedStarts, compactedSample);
+        return originalStarts[span] + Math.min(Math.max(compactedSample - compactedStarts[span], 0), lengths[span]);
+    }
+
+    /**
+     * @param originalSample An offset in the original audio
+     * @return The offset of the same sample frame in the compacted audio; a removed sample maps
+     *     to the point where its removed stretch was cut out
+     */
+    public long toCompactedSample(long originalSample) {
+        if (lengths.length == 0) {
+            return 0;
+        }
+        int span = spanAt(originalStarts, originalSample);
+        return compactedStarts[span] + Math.min(Math.max(originalSample - originalStarts[span], 0), lengths[span]);
+    }
+
+    /**
+     * Maps a time in the compacted audio, such as a word timestamp from a speech provider, back to the original
+     *
+     * @param compactedMillis The time in the compacted audio
+     * @param samplesPerSecond The sample rate of the audio
+     * @return The time in the original audio
+     */
+    public long toOriginalMillis(long compactedMillis, long samplesPerSecond) {
+        if (samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Samples per second must be positive");
+        }
+        return toOriginalSample(compactedMillis * samplesPerSecond / 1000) * 1000 / samplesPerSecond;
+    }
+
+    /**
+     * @return The index of the last span starting at or before the offset, or 0 before the first span
+     */
+    private static int spanAt(long[] starts, long offset) {
+        int index = Arrays.binarySearch(starts, offset);
+        if (index >= 0) {
+            return index;
+        }
+        return Math.max(-index - 2, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "SampleOffsetMap{" +
+                "spans=" + lengths.length +
+                ", originalLength=" + originalLength +
+                ", compactedLength=" + getCompactedLength() +
+                '}';
+    }
+}
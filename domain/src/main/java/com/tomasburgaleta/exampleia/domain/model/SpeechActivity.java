@@ -0,0 +1,124 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+/**
+ * Speech/silence decisions for the analysis frames completed by one chunk of a stream.
+ * Frames are numbered from the start of the stream, so a frame that straddles two chunks
+ * is reported once, with the chunk that completes it. The state after the last frame is
+ * carried over to the next chunk, so a chunk completing no frame still reports it.
+ */
+public final class SpeechActivity {
+
+    private final long firstFrame;
+    private final boolean[] speechFrames;
+    private final int frameSamples;
+    private final long samplesPerSecond;
+    private final boolean speaking;
+    private final long trailingSilenceFrames;
+
+    /**
+     * @param firstFrame The index in the stream of the first frame reported
+     * @param speechFrames Whether each frame reported holds speech; the array is not copied
+     * @param frameSamples The length of a frame in sample frames
+     * @param samplesPerSecond The sample rate of the stream
+     * @param speaking Whether the stream is in speech after the last frame analyzed so far
+     * @param trailingSilenceFrames The number of consecutive silent frames ending the stream so far
+     */
+    public SpeechActivity(long firstFrame, boolean[] speechFrames, int frameSamples, long samplesPerSecond,
+                          boolean speaking, long trailingSilenceFrames) {
+        if (frameSamples <= 0 || samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Frame length and sample rate must be positive");
+        }
+        this.firstFrame = firstFrame;
+        this.speechFrames = speechFrames != null ? speechFrames : new boolean[0];
+        this.frameSamples = frameSamples;
+        this.samplesPerSecond = samplesPerSecond;
+        this.speaking = speaking;
+        this.trailingSilenceFrames = trailingSilenceFrames;
+    }
+
+    /**
+     * @return The index in the stream of the first frame reported
+     */
+    public long getFirstFrame() {
+        return firstFrame;
+    }
+
+    /**
+     * @return The number of frames completed by the chunk
+     */
+    public int getFrameCount() {
+        return speechFrames.length;
+    }
+
+    /**
+     * @param frame The position of the frame in this chunk's report, from 0
+     * @return Whether the frame holds speech
+     */
+    public boolean isSpeech(int frame) {
+        return speechFrames[frame];
+    }
+
+    /**
+     * @param frame The position of the frame in this chunk's report, from 0
+     * @return The offset of the frame from the start of the stream in milliseconds
+     */
+    public long getFrameStartMillis(int frame) {
+        return toMillis(firstFrame + frame);
+    }
+
+    public int getFrameSamples() {
+        return frameSamples;
+    }
+
+    public long getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    /**
+     * @return Whether any frame completed by the chunk holds speech
+     */
+    public boolean hasSpeech() {
+        for (boolean speech : speechFrames) {
+            if (speech) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the stream is in speech after the last frame analyzed so far
+     */
+    public boolean isSpeaking() {
+        return speaking;
+    }
+
+    /**
+     * @return Whether the chunk is silence: none of its frames holds speech, or, if it completed
+     *     no frame, the stream is not in speech
+     */
+    public boolean isSilent() {
+        return speechFrames.length == 0 ? !speaking : !hasSpeech();
+    }
+
+    /**
+     * @return How long the stream has been silent, in milliseconds, or 0 while in speech
+     */
+    public long getTrailingSilenceMillis() {
+        return toMillis(trailingSilenceFrames);
+    }
+
+    private long toMillis(long frames) {
+        return frames * frameSamples * 1000 / samplesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "SpeechActivity{" +
+                "firstFrame=" + firstFrame +
+                ", frames=" + speechFrames.length +
+                ", speaking=" + speaking +
+                ", trailingSilenceMillis=" + getTrailingSilenceMillis() +
+                '}';
+    }
+}
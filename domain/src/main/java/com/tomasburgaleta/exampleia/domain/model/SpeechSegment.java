@@ -0,0 +1,44 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+/**
+ * A stretch of audio holding speech, located by sample frame offsets so it can be cut
+ * out of the PCM data it was found in
+ *
+ * @param startSample The offset of the first sample frame of the segment
+ * @param endSample The offset just past the last sample frame of the segment
+ * @param confidence How clearly the segment holds speech, from 0 to 1
+ */
+public record SpeechSegment(long startSample, long endSample, double confidence) {
+
+    public SpeechSegment {
+        if (startSample < 0 || endSample < startSample) {
+            throw new IllegalArgumentException("Invalid segment bounds: " + startSample + " to " + endSample);
+        }
+        if (confidence < 0 || confidence > 1) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1: " + confidence);
+        }
+    }
+
+    /**
+     * @return The number of sample frames in the segment
+     */
+    public long length() {
+        return endSample - startSample;
+    }
+
+    /**
+     * @param samplesPerSecond The sample rate of the audio
+     * @return The start of the segment in milliseconds
+     */
+    public long startMillis(long samplesPerSecond) {
+        return startSample * 1000 / samplesPerSecond;
+    }
+
+    /**
+     * @param samplesPerSecond The sample rate of the audio
+     * @return The end of the segment in milliseconds
+     */
+    public long endMillis(long samplesPerSecond) {
+        return endSample * 1000 / samplesPerSecond;
+    }
+}
@@ -0,0 +1,162 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Frames raw PCM audio as a canonical 44-byte WAV file, or as an RF64 file when the audio
+ * is too long for the 32-bit sizes of a RIFF header (about 4 GB, or 8 hours of 16 kHz stereo
+ * 16-bit audio). RF64 keeps the layout of a WAV file and carries the 64-bit sizes in a ds64 chunk.
+ * The header is the only allocation: framed audio is a composite {@link AudioPayload} that
+ * shares the PCM storage, so it can be written to a channel or stream or handed to a provider
+ * without concatenating header and samples.
+ */
+public final class WavFramer {
+
+    public static final int HEADER_SIZE = 44;
+
+    /**
+     * Size of the RF64 header: the WAV header plus a ds64 chunk without a size table
+     */
+    public static final int RF64_HEADER_SIZE = 80;
+
+    /**
+     * Largest PCM length that fits a plain RIFF header; longer audio is framed as RF64
+     */
+    public static final long MAX_RIFF_DATA_LENGTH = 0xFFFFFFFEL - (HEADER_SIZE - 8);
+
+    /**
+     * Size written to the RIFF and data chunks when the audio length is not known yet.
+     * Readers that stream the file treat it as "until end of stream".
+     */
+    public static final long UNKNOWN_LENGTH = 0xFFFFFFFFL;
+
+    private static final int FMT_CHUNK_SIZE = 16;
+    private static final int DS64_CHUNK_SIZE = 28;
+    private static final short PCM_FORMAT = 1;
+
+    private WavFramer() {
+    }
+
+    /**
+     * Frames the given PCM audio as a WAV file without copying the samples
+     *
+     * @param pcmData The raw PCM audio
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return A payload holding the WAV header followed by the shared PCM bytes
+     */
+    public static AudioPayload frame(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        Objects.requireNonNull(pcmData, "PCM data cannot be null");
+        return AudioPayload.concat(header(pcmData.size(), samplesPerSecond, bitsPerSample, channels), pcmData);
+    }
+
+    /**
+     * Builds the WAV header for PCM audio of a known length.
+     * Audio longer than {@link #MAX_RIFF_DATA_LENGTH} gets an RF64 header.
+     *
+     * @param dataLength The number of PCM bytes that follow the header
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return A header payload of {@link #headerSize(long)} bytes
+     * @throws IllegalArgumentException if the length is negative or the format is invalid
+     */
+    public static AudioPayload header(long dataLength, long samplesPerSecond, short bitsPerSample, short channels) {
+        if (dataLength < 0) {
+            throw new IllegalArgumentException("PCM data length cannot be negative: " + dataLength);
+        }
+        if (dataLength > MAX_RIFF_DATA_LENGTH) {
+            return buildRf64Header(dataLength, samplesPerSecond, bitsPerSample, channels);
+        }
+        return buildHeader(HEADER_SIZE - 8 + dataLength, dataLength, samplesPerSecond, bitsPerSample, channels);
+    }
+
+    /**
+     * @param dataLength The number of PCM bytes that follow the header
+     * @return The size of the header {@link #header(long, long, short, short)} builds for that length
+     */
+    public static int headerSize(long dataLength) {
+        return dataLength > MAX_RIFF_DATA_LENGTH ? RF64_HEADER_SIZE : HEADER_SIZE;
+    }
+
+    /**
+     * Builds a WAV header for audio that is still being produced.
+     * Both chunk sizes are set to {@link #UNKNOWN_LENGTH}, so the header can be sent before the first sample.
+     *
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return A 44-byte header payload
+     */
+    public static AudioPayload streamingHeader(long samplesPerSecond, short bitsPerSample, short channels) {
+        return buildHeader(UNKNOWN_LENGTH, UNKNOWN_LENGTH, samplesPerSecond, bitsPerSample, channels);
+    }
+
+    private static AudioPayload buildHeader(long riffSize, long dataSize, long samplesPerSecond,
+                                            short bitsPerSample, short channels) {
+        validateFormat(samplesPerSecond, bitsPerSample, channels);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        // RIFF header
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) riffSize);
+        buffer.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+
+        putFormatAndDataChunks(buffer, dataSize, samplesPerSecond, bitsPerSample, channels);
+        return AudioPayload.wrap(buffer.array());
+    }
+
+    private static AudioPayload buildRf64Header(long dataSize, long samplesPerSecond, short bitsPerSample, short channels) {
+        validateFormat(samplesPerSecond, bitsPerSample, channels);
+        ByteBuffer buffer = ByteBuffer.allocate(RF64_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        // RF64 header: the 32-bit sizes are placeholders for the ds64 values
+        buffer.put("RF64".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) UNKNOWN_LENGTH);
+        buffer.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+
+        // ds64 chunk
+        buffer.put("ds64".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(DS64_CHUNK_SIZE);
+        buffer.putLong(RF64_HEADER_SIZE - 8 + dataSize); // RIFF size
+        buffer.putLong(dataSize);
+        buffer.putLong(dataSize / (channels * bitsPerSample / 8)); // Sample frames
+        buffer.putInt(0); // No size table
+
+        putFormatAndDataChunks(buffer, UNKNOWN_LENGTH, samplesPerSecond, bitsPerSample, channels);
+        return AudioPayload.wrap(buffer.array());
+    }
+
+    private static void validateFormat(long samplesPerSecond, short bitsPerSample, short channels) {
+        if (samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Samples per second must be positive");
+        }
+        if (bitsPerSample <= 0 || bitsPerSample % 8 != 0) {
+            throw new IllegalArgumentException("Bits per sample must be a positive multiple of 8");
+        }
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channels must be positive");
+        }
+    }
+
+    private static void putFormatAndDataChunks(ByteBuffer buffer, long dataSize, long samplesPerSecond,
+                                               short bitsPerSample, short channels) {
+        // fmt chunk
+        buffer.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(FMT_CHUNK_SIZE);
+        buffer.putShort(PCM_FORMAT);
+        buffer.putShort(channels);
+        buffer.putInt((int) samplesPerSecond);
+        buffer.putInt((int) (samplesPerSecond * channels * bitsPerSample / 8)); // Byte rate
+        buffer.putShort((short) (channels * bitsPerSample / 8)); // Block align
+        buffer.putShort(bitsPerSample);
+
+        // data chunk
+        buffer.put("data".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) dataSize);
+    }
+}
@@ -0,0 +1,156 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What the header of a WAV file tells about it, read without touching its samples:
+ * the audio format, where the data chunk lies and how long it plays, and the other chunks
+ * the file carries such as LIST/INFO tags, cue points or broadcast extension metadata.
+ * The format is reported as stored, so a mu-law or float file reports its own encoding and
+ * sample size rather than the 16-bit PCM it is decoded to when read.
+ */
+public final class WavProbe {
+
+    /**
+     * Value of a length or duration the header does not determine
+     */
+    public static final long UNKNOWN = -1;
+
+    private final int encoding;
+    private final long samplesPerSecond;
+    private final short bitsPerSample;
+    private final short channels;
+    private final int blockAlign;
+    private final long dataOffset;
+    private final long dataLength;
+    private final long sampleFrames;
+    private final boolean rf64;
+    private final List<MetadataChunk> metadataChunks;
+
+    /**
+     * @param encoding The WAV format tag, or the sub-format of an extensible file
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The stored size of a sample in bits
+     * @param channels The number of channels
+     * @param blockAlign The size of a sample frame in bytes
+     * @param dataOffset The offset of the data chunk body in the file
+     * @param dataLength The length of the data chunk body, or {@link #UNKNOWN}
+     * @param sampleFrames The number of sample frames announced by a fact chunk, or {@link #UNKNOWN}
+     * @param rf64 Whether the file is RF64 or BW64
+     * @param metadataChunks The chunks other than the RIFF structure, fmt and data ones, in file order
+     */
+    public WavProbe(int encoding, long samplesPerSecond, short bitsPerSample, short channels, int blockAlign,
+                    long dataOffset, long dataLength, long sampleFrames, boolean rf64, List<MetadataChunk> metadataChunks) {
+        if (dataLength < UNKNOWN) {
+            throw new IllegalArgumentException("Data length cannot be negative");
+        }
+        this.encoding = encoding;
+        this.samplesPerSecond = samplesPerSecond;
+        this.bitsPerSample = bitsPerSample;
+        this.channels = channels;
+        this.blockAlign = blockAlign;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+        this.sampleFrames = sampleFrames;
+        this.rf64 = rf64;
+        this.metadataChunks = List.copyOf(Objects.requireNonNull(metadataChunks, "Metadata chunks cannot be null"));
+    }
+
+    /**
+     * @return The WAV format tag, or the sub-format of an extensible file (1 for PCM)
+     */
+    public int getEncoding() {
+        return encoding;
+    }
+
+    public long getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    public short getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    public short getChannels() {
+        return channels;
+    }
+
+    public int getBlockAlign() {
+        return blockAlign;
+    }
+
+    /**
+     * @return The offset of the first sample in the file
+     */
+    public long getDataOffset() {
+        return dataOffset;
+    }
+
+    /**
+     * @return The length of the data chunk in bytes, or {@link #UNKNOWN} if a streaming writer
+     *     left it unset and the length of the file is not known
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * @return The number of sample frames, from the fact chunk when present or else from the
+     *     data length, or {@link #UNKNOWN}
+     */
+    public long getSampleFrames() {
+        if (sampleFrames != UNKNOWN) {
+            return sampleFrames;
+        }
+        return dataLength == UNKNOWN || blockAlign <= 0 ? UNKNOWN : dataLength / blockAlign;
+    }
+
+    /**
+     * @return The playing time in milliseconds, or {@link #UNKNOWN}
+     */
+    public long getDurationMillis() {
+        long frames = getSampleFrames();
+        return frames == UNKNOWN || samplesPerSecond <= 0 ? UNKNOWN : frames * 1000 / samplesPerSecond;
+    }
+
+    public boolean isRf64() {
+        return rf64;
+    }
+
+    /**
+     * @return The chunks other than the RIFF structure, fmt and data ones, in file order
+     */
+    public List<MetadataChunk> getMetadataChunks() {
+        return metadataChunks;
+    }
+
+    @Override
+    public String toString() {
+        return "WavProbe{" +
+                "encoding=" + encoding +
+                ", samplesPerSecond=" + samplesPerSecond +
+                ", bitsPerSample=" + bitsPerSample +
+                ", channels=" + channels +
+                ", dataOffset=" + dataOffset +
+                ", dataLength=" + dataLength +
+                ", durationMillis=" + getDurationMillis() +
+                ", metadataChunks=" + metadataChunks.size() +
+                '}';
+    }
+
+    /**
+     * A chunk located in the file; its body is not read
+     *
+     * @param id The four-character chunk id, such as "LIST", "cue " or "bext"
+     * @param listType The four-character type of a LIST chunk, such as "INFO", otherwise null
+     * @param offset The offset of the chunk body in the file
+     * @param size The size of the chunk body
+     */
+    public record MetadataChunk(String id, String listType, long offset, long size) {
+
+        public MetadataChunk {
+            Objects.requireNonNull(id, "Chunk id cannot be null");
+        }
+    }
+}
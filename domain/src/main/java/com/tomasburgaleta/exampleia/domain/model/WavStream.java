@@ -0,0 +1,91 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * A WAV file being read sequentially: the format parsed from its header and a channel
+ * over its data chunk that ends where the chunk ends.
+ * Only the header has been consumed from the source, so the PCM samples can be copied,
+ * forwarded or read into a payload without ever holding the whole file in memory.
+ * Closing the stream closes the source it was parsed from.
+ */
+public final class WavStream implements Closeable {
+
+    /**
+     * Data length of a stream whose header did not announce one; its data runs to the end of the source
+     */
+    public static final long UNKNOWN_LENGTH = -1;
+
+    private final long samplesPerSecond;
+    private final short bitsPerSample;
+    private final short channels;
+    private final long dataLength;
+    private final ReadableByteChannel data;
+
+    public WavStream(long samplesPerSecond, short bitsPerSample, short channels, long dataLength, ReadableByteChannel data) {
+        if (dataLength < UNKNOWN_LENGTH) {
+            throw new IllegalArgumentException("Data length cannot be negative");
+        }
+        this.samplesPerSecond = samplesPerSecond;
+        this.bitsPerSample = bitsPerSample;
+        this.channels = channels;
+        this.dataLength = dataLength;
+        this.data = Objects.requireNonNull(data, "Data channel cannot be null");
+    }
+
+    public long getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    public short getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    public short getChannels() {
+        return channels;
+    }
+
+    /**
+     * @return The announced length of the data chunk, or {@link #UNKNOWN_LENGTH}
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * @return A channel over the PCM samples of the data chunk
+     */
+    public ReadableByteChannel getDataChannel() {
+        return data;
+    }
+
+    /**
+     * @return A stream over the PCM samples of the data chunk
+     */
+    public InputStream getDataStream() {
+        return Channels.newInputStream(data);
+    }
+
+    /**
+     * Reads the remaining PCM samples into a payload.
+     * With a known data length they are read straight into an exactly sized array.
+     *
+     * @param maxLength The maximum number of bytes to accept
+     * @return A payload holding the PCM samples
+     * @throws IOException if reading fails or the data chunk is truncated
+     * @throws IllegalArgumentException if the data chunk holds more than maxLength bytes
+     */
+    public AudioPayload readData(int maxLength) throws IOException {
+        return AudioPayload.readFrom(getDataStream(), dataLength, maxLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+}
@@ -1,5 +1,9 @@
 package com.tomasburgaleta.exampleia.domain.port;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Port (interface) for audio file reading services
  * Following hexagonal architecture, this is the contract that infrastructure adapters must implement
@@ -7,11 +11,25 @@ package com.tomasburgaleta.exampleia.domain.port;
 public interface AudioFileReaderPort {
     
     /**
-     * Reads a WAV audio file from the specified file path and converts it to a byte array
+     * Reads a WAV audio file from the specified file path and returns its PCM data.
+     * Encodings other than plain PCM, such as G.711 or float, are decoded to 16-bit PCM.
      * 
      * @param filePath The absolute or relative path to the WAV file to read
-     * @return The audio file content as byte array
+     * @return The PCM data of the file as a read-only payload
      * @throws AudioFileException if the file doesn't exist, is not readable, or is not a valid WAV format
      */
-    byte[] readWavFile(String filePath) throws AudioFileException;
+    AudioPayload readWavFile(String filePath) throws AudioFileException;
+    
+    /**
+     * Reads a WAV audio file without blocking the caller.
+     * The default implementation runs {@link #readWavFile(String)} on the common pool;
+     * adapters backed by asynchronous I/O override it.
+     * 
+     * @param filePath The absolute or relative path to the WAV file to read
+     * @return A future completed with the PCM data of the file, or completed exceptionally
+     *     with an AudioFileException if the file cannot be read or is not a valid WAV format
+     */
+    default CompletableFuture<AudioPayload> readWavFileAsync(String filePath) {
+        return CompletableFuture.supplyAsync(() -> readWavFile(filePath));
+    }
 }
\ No newline at end of file
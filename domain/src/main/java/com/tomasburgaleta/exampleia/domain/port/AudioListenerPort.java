@@ -1,6 +1,7 @@
 package com.tomasburgaleta.exampleia.domain.port;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 
 /**
  * Port (interface) for audio listening services
@@ -12,8 +13,8 @@ public interface AudioListenerPort {
      * Processes audio data and updates the MIObject with the transcribed text
      * 
      * @param audioBean The object containing audio data to be processed
-     * @return The audio data as byte array for further processing if needed
+     * @return The audio payload that was processed, shared without copying
      * @throws AudioProcessingException if the audio cannot be processed
      */
-    byte[] listenAudio(AudioBean audioBean) throws AudioProcessingException;
+    AudioPayload listenAudio(AudioBean audioBean) throws AudioProcessingException;
 }
\ No newline at end of file
@@ -31,4 +31,54 @@ public interface AudioRecordingPort {
      * @return true if the recording was found and cleared, false otherwise
      */
     boolean clearRecording(String id);
+    
+    /**
+     * Opens a lease on a stored recording, for reading its audio without copying it out of the store.
+     * By default the recording returned by {@link #getRecording(String)} is leased, which needs no release.
+     * 
+     * @param id The unique identifier of the recording
+     * @return A lease on the recording, to be closed once done with its audio, or null if not found
+     */
+    default RecordingLease openRecording(String id) {
+        AudioBean recording = getRecording(id);
+        return recording != null ? RecordingLease.of(recording) : null;
+    }
+    
+    /**
+     * Stores the transcription results of a recording (text, AI response, detected language and
+     * offset map) without touching its audio. By default they are copied onto the bean returned
+     * by {@link #getRecording(String)}, which only lasts for stores returning the stored bean itself.
+     * 
+     * @param audioBean The recording holding the results
+     * @return true if the recording was found and updated, false otherwise
+     */
+    default boolean updateTranscription(AudioBean audioBean) {
+        AudioBean stored = getRecording(audioBean.getId());
+        if (stored == null) {
+            return false;
+        }
+        if (stored != audioBean) {
+            stored.setTranscribedText(audioBean.getTranscribedText());
+            stored.setAiResponse(audioBean.getAiResponse());
+            stored.setDetectedLanguage(audioBean.getDetectedLanguage());
+            stored.setTranscribedOffsetMap(audioBean.getTranscribedOffsetMap());
+        }
+        return true;
+    }
+    
+    /**
+     * Replaces the stored copy of a recording with an equivalent one, such as its encoded audio,
+     * without counting as a new store: stores tracking expiry or use keep the recording's times.
+     * By default the recording is stored again if it is still there.
+     * 
+     * @param audioBean The replacement, with the ID of the stored recording
+     * @return true if the recording was found and replaced, false otherwise
+     */
+    default boolean replaceRecording(AudioBean audioBean) {
+        if (getRecording(audioBean.getId()) == null) {
+            return false;
+        }
+        storeRecording(audioBean);
+        return true;
+    }
 }
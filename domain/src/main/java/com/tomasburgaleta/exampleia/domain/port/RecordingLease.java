@@ -0,0 +1,41 @@
+package com.tomasburgaleta.exampleia.domain.port;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+
+/**
+ * A stored recording held open for reading. Stores that share their storage with the recordings
+ * they hand out keep that storage for the recording until the lease is closed, even if the
+ * recording is cleared or replaced meanwhile. The audio must not be read after closing the lease.
+ */
+public interface RecordingLease extends AutoCloseable {
+
+    /**
+     * @return The leased recording
+     */
+    AudioBean getRecording();
+
+    /**
+     * Releases the recording. Closing a lease more than once has no further effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * Leases a recording that needs no release, such as one the store does not share storage with
+     *
+     * @param recording The recording
+     * @return A lease whose close does nothing
+     */
+    static RecordingLease of(AudioBean recording) {
+        return new RecordingLease() {
+            @Override
+            public AudioBean getRecording() {
+                return recording;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
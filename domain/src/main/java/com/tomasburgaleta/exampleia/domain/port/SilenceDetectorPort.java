@@ -1,5 +1,7 @@
 package com.tomasburgaleta.exampleia.domain.port;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+
 /**
  * Port for silence detection in audio data
  */
@@ -15,4 +17,18 @@ public interface SilenceDetectorPort {
      * @return true if silence is detected, false otherwise
      */
     boolean detectSilence(byte[] pcmData, long samplesPerSecond, short bitsPerSample, short channels);
+    
+    /**
+     * Detects if the given audio payload contains silence. Detectors that can read the payload's
+     * buffers in place should override this; by default the payload is copied into an array.
+     * 
+     * @param pcmData The PCM audio data to analyze
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return true if silence is detected, false otherwise
+     */
+    default boolean detectSilence(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        return detectSilence(pcmData.toByteArray(), samplesPerSecond, bitsPerSample, channels);
+    }
 }
@@ -0,0 +1,33 @@
+package com.tomasburgaleta.exampleia.domain.port;
+
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Silence detection state of a single audio stream, fed chunk by chunk in stream order
+ */
+public interface SilenceTracker {
+
+    /**
+     * Analyzes the next chunk of the stream. Audio left over after the last complete frame,
+     * including a partial sample, is kept and completed by the following chunk.
+     *
+     * @param pcmChunk The next PCM bytes of the stream
+     * @return The decisions for the frames completed by the chunk
+     */
+    SpeechActivity accept(byte[] pcmChunk);
+
+    /**
+     * Analyzes the remaining bytes of a buffer as the next chunk of the stream. The position of
+     * the buffer is not changed; trackers reading the buffer in place should override this.
+     *
+     * @param pcmChunk The next PCM bytes of the stream
+     * @return The decisions for the frames completed by the chunk
+     */
+    default SpeechActivity accept(ByteBuffer pcmChunk) {
+        byte[] copy = new byte[pcmChunk.remaining()];
+        pcmChunk.get(pcmChunk.position(), copy);
+        return accept(copy);
+    }
+}
@@ -1,6 +1,7 @@
 package com.tomasburgaleta.exampleia.domain.port;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 
 /**
  * Port (interface) for speech-to-text services
@@ -13,8 +14,8 @@ public interface SpeechToTextPort {
      * Transcribes audio data and updates the AudioBean with the transcribed text and detected language
      * 
      * @param audioBean The object containing audio data to be transcribed
-     * @return The audio data as byte array for further processing if needed
+     * @return The audio payload that was transcribed, shared without copying
      * @throws AudioProcessingException if the audio cannot be transcribed
      */
-    byte[] transcribe(AudioBean audioBean) throws AudioProcessingException;
+    AudioPayload transcribe(AudioBean audioBean) throws AudioProcessingException;
 }
@@ -0,0 +1,19 @@
+package com.tomasburgaleta.exampleia.domain.port;
+
+/**
+ * Port for silence detection over a stream of audio chunks, as opposed to the
+ * self-contained buffers analyzed by {@link SilenceDetectorPort}
+ */
+public interface StreamingSilenceDetectorPort {
+
+    /**
+     * Opens the detection state of a new stream
+     *
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return A tracker to feed with the chunks of the stream
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    SilenceTracker openTracker(long samplesPerSecond, short bitsPerSample, short channels);
+}
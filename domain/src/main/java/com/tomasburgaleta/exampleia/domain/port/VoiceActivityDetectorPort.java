@@ -0,0 +1,25 @@
+package com.tomasburgaleta.exampleia.domain.port;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+
+import java.util.List;
+
+/**
+ * Port for voice activity detection: locating the speech in audio rather than
+ * telling whether it is silent as a whole
+ */
+public interface VoiceActivityDetectorPort {
+
+    /**
+     * Finds the speech segments of PCM audio
+     *
+     * @param pcmData The PCM audio data to analyze
+     * @param samplesPerSecond The sample rate
+     * @param bitsPerSample The bit depth
+     * @param channels The number of channels
+     * @return The speech segments in order, not overlapping; empty if the audio holds no speech
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    List<SpeechSegment> detectSpeech(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels);
+}
@@ -1,6 +1,15 @@
 package com.tomasburgaleta.exampleia.domain.port;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavProbe;
+import com.tomasburgaleta.exampleia.domain.model.WavStream;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Port (interface) for WAV byte array processing services
@@ -10,7 +19,8 @@ import com.tomasburgaleta.exampleia.domain.model.AudioBean;
 public interface WavByteReaderPort {
     
     /**
-     * Processes a WAV audio byte array and extracts metadata and PCM data
+     * Processes a WAV audio byte array and extracts metadata and PCM data.
+     * The returned AudioBean shares the PCM region of the given array, so the caller must not modify it afterwards.
      * 
      * @param wavBytes The WAV file content as byte array
      * @param id Unique identifier for the audio data
@@ -19,4 +29,73 @@ public interface WavByteReaderPort {
      * @throws IllegalArgumentException if wavBytes is null or empty, or id is null/empty
      */
     AudioBean processWavBytes(byte[] wavBytes, String id) throws AudioFileException;
-}
\ No newline at end of file
+    
+    /**
+     * Processes WAV audio held in a payload and extracts metadata and PCM data.
+     * The returned AudioBean shares the PCM region of the given payload without copying it.
+     * 
+     * @param wavPayload The WAV file content
+     * @param id Unique identifier for the audio data
+     * @return AudioBean with populated WAV metadata and PCM audio data (without header)
+     * @throws AudioFileException if the payload is not a valid WAV format
+     * @throws IllegalArgumentException if wavPayload is null or empty, or id is null/empty
+     */
+    AudioBean processWavPayload(AudioPayload wavPayload, String id) throws AudioFileException;
+    
+    /**
+     * Reads the header of WAV audio from a channel and returns a stream positioned at its PCM data.
+     * Only the header chunks are read; the data chunk is left in the channel for the caller to consume,
+     * so memory use does not depend on the size of the audio.
+     * 
+     * @param wavChannel The channel to read the WAV file from
+     * @return WavStream with the WAV metadata and a channel bounded to the data chunk
+     * @throws AudioFileException if the header is not a valid WAV format
+     * @throws IOException if reading from the channel fails
+     * @throws IllegalArgumentException if wavChannel is null
+     */
+    WavStream openWavStream(ReadableByteChannel wavChannel) throws IOException;
+    
+    /**
+     * Reads the format, data chunk location and metadata chunks from the first bytes of a WAV file.
+     * The prefix only needs to hold the header; chunks whose headers lie beyond it are not reported.
+     * 
+     * @param wavPrefix The first bytes of the WAV file, or the whole file
+     * @return WavProbe describing the file
+     * @throws AudioFileException if the header is not a valid WAV format or does not fit the prefix
+     * @throws IllegalArgumentException if wavPrefix is null or empty
+     */
+    WavProbe probeWav(byte[] wavPrefix) throws AudioFileException;
+    
+    /**
+     * Reads the format, data chunk location and metadata chunks of WAV audio from a channel.
+     * Only chunk headers and the small chunks describing the format are read. A seekable channel is
+     * walked to its end by seeking past chunk bodies, so metadata after the data chunk is reported too;
+     * any other channel is read only up to the start of the data chunk.
+     * 
+     * @param wavChannel The channel to read the WAV file from; it is not closed
+     * @return WavProbe describing the file
+     * @throws AudioFileException if the header is not a valid WAV format
+     * @throws IOException if reading from the channel fails
+     * @throws IllegalArgumentException if wavChannel is null
+     */
+    WavProbe probeWav(ReadableByteChannel wavChannel) throws IOException;
+    
+    /**
+     * Reads the format, data chunk location and metadata chunks of a WAV file
+     * 
+     * @param wavFile The WAV file
+     * @return WavProbe describing the file
+     * @throws AudioFileException if the header is not a valid WAV format
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if wavFile is null
+     */
+    default WavProbe probeWav(Path wavFile) throws IOException {
+        if (wavFile == null) {
+            throw new IllegalArgumentException("WAV file cannot be null");
+        }
+        
+        try (FileChannel channel = FileChannel.open(wavFile, StandardOpenOption.READ)) {
+            return probeWav(channel);
+        }
+    }
+}
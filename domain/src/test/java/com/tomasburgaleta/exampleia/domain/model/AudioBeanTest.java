@@ -36,7 +36,34 @@ class AudioBeanTest {
         String id = "test-id";
         
         // When & Then
-        assertThrows(NullPointerException.class, () -> new AudioBean(id, null));
+        assertThrows(NullPointerException.class, () -> new AudioBean(id, (byte[]) null));
+    }
+    
+    @Test
+    void shouldThrowExceptionWhenAudioPayloadIsNull() {
+        // Given
+        String id = "test-id";
+        
+        // When & Then
+        assertThrows(NullPointerException.class, () -> new AudioBean(id, (AudioPayload) null));
+    }
+    
+    @Test
+    void shouldShareAudioPayloadWithoutCopying() {
+        // Given
+        AudioPayload payload = AudioPayload.wrap(new byte[32000]);
+        
+        // When
+        AudioBean audioBean = new AudioBean("test-id", payload);
+        audioBean.setSamplesPerSecond(16000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 1);
+        
+        // Then
+        assertSame(payload, audioBean.getAudioPayload());
+        assertEquals(32000, audioBean.getAudioDataSize());
+        assertEquals(1000, audioBean.getDurationMillis());
+        assertTrue(audioBean.hasAudioData());
     }
     
     @Test
@@ -0,0 +1,289 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioPayloadTest {
+
+    @Test
+    void shouldWrapArrayWithoutCopying() {
+        // Given
+        byte[] audioData = {1, 2, 3, 4};
+
+        // When
+        AudioPayload payload = AudioPayload.wrap(audioData);
+        audioData[0] = 9;
+
+        // Then - the payload shares the caller's array
+        assertEquals(4, payload.length());
+        assertEquals(9, payload.get(0));
+    }
+
+    @Test
+    void shouldCopyArrayWhenRequested() {
+        // Given
+        byte[] audioData = {1, 2, 3, 4};
+
+        // When
+        AudioPayload payload = AudioPayload.copyOf(audioData);
+        audioData[0] = 9;
+
+        // Then
+        assertEquals(1, payload.get(0));
+    }
+
+    @Test
+    void shouldExposeReadOnlyBuffer() {
+        // Given
+        AudioPayload payload = AudioPayload.wrap(new byte[]{1, 2, 3, 4});
+
+        // When
+        ByteBuffer view = payload.asReadOnlyBuffer();
+
+        // Then
+        assertTrue(view.isReadOnly());
+        assertEquals(4, view.remaining());
+        assertThrows(ReadOnlyBufferException.class, () -> view.put(0, (byte) 9));
+    }
+
+    @Test
+    void shouldSliceWithoutCopying() {
+        // Given
+        byte[] audioData = {1, 2, 3, 4, 5, 6};
+        AudioPayload payload = AudioPayload.wrap(audioData);
+
+        // When
+        AudioPayload slice = payload.slice(2, 3);
+
+        // Then
+        assertEquals(3, slice.length());
+        assertArrayEquals(new byte[]{3, 4, 5}, slice.toByteArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> payload.slice(4, 3));
+    }
+
+    @Test
+    void shouldCalculateDurationFromPcmFormat() {
+        // Given - one second of 16 kHz, 16-bit mono audio
+        AudioPayload payload = AudioPayload.wrap(new byte[32000]);
+
+        // When & Then
+        assertEquals(1000, payload.durationMillis(16000, (short) 16, (short) 1));
+        assertEquals(500, payload.durationMillis(16000, (short) 16, (short) 2));
+        assertEquals(0, payload.durationMillis(0, (short) 16, (short) 1));
+    }
+
+    @Test
+    void shouldKeepDirectCopyOffHeap() {
+        // Given
+        byte[] audioData = {1, 2, 3, 4};
+
+        // When
+        AudioPayload payload = AudioPayload.directCopyOf(audioData);
+
+        // Then
+        assertTrue(payload.isDirect());
+        assertArrayEquals(audioData, payload.toByteArray());
+        assertEquals(AudioPayload.wrap(audioData), payload);
+    }
+
+    @Test
+    void shouldWriteToStreamAndReadBack() throws IOException {
+        // Given
+        byte[] audioData = {1, 2, 3, 4, 5};
+        AudioPayload payload = AudioPayload.directCopyOf(audioData);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        payload.writeTo(out);
+        byte[] streamed;
+        try (InputStream in = payload.asInputStream()) {
+            streamed = in.readAllBytes();
+        }
+
+        // Then
+        assertArrayEquals(audioData, out.toByteArray());
+        assertArrayEquals(audioData, streamed);
+    }
+
+    @Test
+    void shouldReadStreamWithKnownAndUnknownLength() throws IOException {
+        // Given
+        byte[] audioData = new byte[20000];
+        for (int i = 0; i < audioData.length; i++) {
+            audioData[i] = (byte) i;
+        }
+
+        // When
+        AudioPayload known = AudioPayload.readFrom(new ByteArrayInputStream(audioData), audioData.length, 1 << 20);
+        AudioPayload unknown = AudioPayload.readFrom(new ByteArrayInputStream(audioData), -1, 1 << 20);
+        AudioPayload understated = AudioPayload.readFrom(new ByteArrayInputStream(audioData), 10, 1 << 20);
+
+        // Then
+        assertArrayEquals(audioData, known.toByteArray());
+        assertArrayEquals(audioData, unknown.toByteArray());
+        assertArrayEquals(audioData, understated.toByteArray());
+    }
+
+    @Test
+    void shouldRejectStreamLongerThanMaximum() {
+        // Given
+        byte[] audioData = new byte[100];
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> AudioPayload.readFrom(new ByteArrayInputStream(audioData), -1, 50));
+        assertThrows(IllegalArgumentException.class, () -> AudioPayload.readFrom(new ByteArrayInputStream(audioData), 100, 50));
+    }
+
+    @Test
+    void shouldConcatWithoutCopying() {
+        // Given
+        byte[] first = {1, 2, 3};
+        byte[] second = {4, 5};
+
+        // When
+        AudioPayload payload = AudioPayload.concat(AudioPayload.wrap(first), AudioPayload.empty(), AudioPayload.wrap(second));
+        second[0] = 9;
+
+        // Then - the composite shares both arrays
+        assertTrue(payload.isComposite());
+        assertEquals(5, payload.length());
+        assertEquals(9, payload.get(3));
+        assertEquals(2, payload.asReadOnlyBuffers().length);
+        assertArrayEquals(new byte[]{1, 2, 3, 9, 5}, payload.toByteArray());
+    }
+
+    @Test
+    void shouldSliceAcrossParts() {
+        // Given
+        AudioPayload payload = AudioPayload.concat(
+                AudioPayload.wrap(new byte[]{1, 2, 3}), AudioPayload.wrap(new byte[]{4, 5, 6}));
+
+        // When
+        AudioPayload spanning = payload.slice(2, 3);
+        AudioPayload inner = payload.slice(3, 2);
+
+        // Then
+        assertArrayEquals(new byte[]{3, 4, 5}, spanning.toByteArray());
+        assertTrue(spanning.isComposite());
+        assertArrayEquals(new byte[]{4, 5}, inner.toByteArray());
+        assertFalse(inner.isComposite());
+    }
+
+    @Test
+    void shouldWriteCompositeToChannelAndStream() throws IOException {
+        // Given
+        AudioPayload payload = AudioPayload.concat(
+                AudioPayload.wrap(new byte[]{1, 2}), AudioPayload.directCopyOf(new byte[]{3, 4, 5}));
+
+        // When
+        ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+        long written = payload.writeTo(Channels.newChannel(channelOut));
+        ByteArrayOutputStream streamOut = new ByteArrayOutputStream();
+        payload.writeTo(streamOut);
+
+        // Then
+        assertEquals(5, written);
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, channelOut.toByteArray());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, streamOut.toByteArray());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, payload.asInputStream().readAllBytes());
+    }
+
+    @Test
+    void shouldCompareCompositeByContent() {
+        // Given
+        AudioPayload composite = AudioPayload.concat(
+                AudioPayload.wrap(new byte[]{1, 2}), AudioPayload.wrap(new byte[]{3, 4}));
+        AudioPayload single = AudioPayload.wrap(new byte[]{1, 2, 3, 4});
+
+        // Then
+        assertEquals(single, composite);
+        assertEquals(composite, single);
+        assertEquals(single.hashCode(), composite.hashCode());
+        assertEquals(single.asReadOnlyBuffer(), composite.asReadOnlyBuffer());
+    }
+
+    @Test
+    void shouldAddressCompositeBeyondTwoGigabytes() {
+        // Given - 320 parts sharing one 16 MB buffer, 5 GB in total
+        byte[] block = new byte[16 * 1024 * 1024];
+        block[block.length - 1] = 7;
+        AudioPayload[] parts = new AudioPayload[320];
+        Arrays.fill(parts, AudioPayload.wrap(block));
+
+        // When
+        AudioPayload payload = AudioPayload.concat(parts);
+        long lastByte = payload.size() - 1;
+        AudioPayload tail = payload.slice(lastByte - 1, 2);
+
+        // Then
+        assertEquals(320L * block.length, payload.size());
+        assertThrows(IllegalStateException.class, payload::length);
+        assertEquals(7, payload.get(lastByte));
+        assertArrayEquals(new byte[]{0, 7}, tail.toByteArray());
+        assertEquals(65536, payload.slice(4_000_000_000L, 65536).length());
+    }
+
+    @Test
+    void shouldReadLazyPartsOnlyWhenAccessed() throws IOException {
+        // Given - three parts of 2, 0 and 3 bytes, counting the reads
+        byte[][] data = {{1, 2}, {}, {3, 4, 5}};
+        int[] reads = new int[data.length];
+        AudioPayload payload = AudioPayload.lazy(new AudioPayload.PartSource() {
+            @Override
+            public int partCount() {
+                return data.length;
+            }
+
+            @Override
+            public int partLength(int index) {
+                return data[index].length;
+            }
+
+            @Override
+            public ByteBuffer readPart(int index) {
+                reads[index]++;
+                return ByteBuffer.wrap(data[index]);
+            }
+        });
+
+        // When - sizes and slices read nothing
+        AudioPayload tail = AudioPayload.concat(payload.slice(1, 4), AudioPayload.wrap(new byte[]{6}));
+        assertEquals(5, payload.size());
+        assertEquals(5, tail.size());
+        assertFalse(payload.isDirect());
+        assertArrayEquals(new int[]{0, 0, 0}, reads);
+
+        // Then - a stream reads each part once, as it gets there
+        InputStream in = tail.asInputStream();
+        assertEquals(2, in.read());
+        assertArrayEquals(new int[]{1, 0, 0}, reads);
+        assertArrayEquals(new byte[]{3, 4, 5, 6}, in.readAllBytes());
+        assertArrayEquals(new int[]{1, 0, 1}, reads);
+        assertEquals(AudioPayload.wrap(new byte[]{2, 3, 4, 5, 6}), tail);
+        assertEquals(AudioPayload.wrap(new byte[]{2, 3, 4, 5, 6}).hashCode(), tail.hashCode());
+
+        // And - single buffers are read on their own, their lengths without reading
+        Arrays.fill(reads, 0);
+        assertEquals(3, tail.bufferCount());
+        assertEquals(3, tail.bufferLength(1));
+        assertArrayEquals(new int[]{0, 0, 0}, reads);
+        assertEquals(3, tail.buffer(1).get(0));
+        assertArrayEquals(new int[]{0, 0, 1}, reads);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenWrappingNull() {
+        // When & Then
+        assertThrows(NullPointerException.class, () -> AudioPayload.wrap(null));
+    }
+}
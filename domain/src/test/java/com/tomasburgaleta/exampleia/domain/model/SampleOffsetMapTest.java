@@ -0,0 +1,68 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleOffsetMapTest {
+
+    // Keeps 100-200 and 500-800 of 1000 sample frames
+    private final SampleOffsetMap map = new SampleOffsetMap(List.of(new long[]{100, 200}, new long[]{500, 800}), 1000);
+
+    @Test
+    void shouldLayKeptSpansEndToEnd() {
+        assertEquals(2, map.getSpanCount());
+        assertEquals(1000, map.getOriginalLength());
+        assertEquals(400, map.getCompactedLength());
+        assertEquals(0, map.getCompactedStart(0));
+        assertEquals(100, map.getCompactedStart(1));
+        assertEquals(500, map.getOriginalStart(1));
+        assertEquals(300, map.getLength(1));
+    }
+
+    @Test
+    void shouldMapCompactedOffsetsBackToTheOriginal() {
+        assertEquals(100, map.toOriginalSample(0));
+        assertEquals(199, map.toOriginalSample(99));
+        assertEquals(500, map.toOriginalSample(100));
+        assertEquals(799, map.toOriginalSample(399));
+        assertEquals(800, map.toOriginalSample(400));
+        assertEquals(800, map.toOriginalSample(10_000));
+    }
+
+    @Test
+    void shouldMapRemovedSamplesToWhereTheyWereCut() {
+        assertEquals(0, map.toCompactedSample(0));
+        assertEquals(50, map.toCompactedSample(150));
+        assertEquals(100, map.toCompactedSample(300));
+        assertEquals(150, map.toCompactedSample(550));
+        assertEquals(400, map.toCompactedSample(900));
+    }
+
+    @Test
+    void shouldMapMillisecondsAtTheSampleRate() {
+        // 100 ms into the compacted audio at 1 kHz is 100 ms into the second span
+        assertEquals(600, map.toOriginalMillis(200, 1000));
+        assertThrows(IllegalArgumentException.class, () -> map.toOriginalMillis(200, 0));
+    }
+
+    @Test
+    void shouldKeepEverythingWithIdentity() {
+        SampleOffsetMap identity = SampleOffsetMap.identity(1000);
+
+        assertEquals(1000, identity.getCompactedLength());
+        assertEquals(123, identity.toOriginalSample(123));
+        assertEquals(0, SampleOffsetMap.identity(0).getCompactedLength());
+    }
+
+    @Test
+    void shouldRejectInvalidSpans() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SampleOffsetMap(List.of(new long[]{100, 200}, new long[]{150, 300}), 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SampleOffsetMap(List.of(new long[]{200, 100}), 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SampleOffsetMap(List.of(new long[]{900, 1100}), 1000));
+        assertThrows(NullPointerException.class, () -> new SampleOffsetMap(null, 1000));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WavFramerTest {
+
+    @Test
+    void shouldFramePcmWithoutCopyingSamples() {
+        // Given
+        byte[] pcmData = {1, 2, 3, 4};
+
+        // When
+        AudioPayload wav = WavFramer.frame(AudioPayload.wrap(pcmData), 16000, (short) 16, (short) 1);
+        pcmData[0] = 9;
+
+        // Then - the samples follow the header and are shared with the caller's array
+        assertTrue(wav.isComposite());
+        assertEquals(WavFramer.HEADER_SIZE + 4, wav.length());
+        assertEquals(9, wav.get(WavFramer.HEADER_SIZE));
+    }
+
+    @Test
+    void shouldWriteCanonicalPcmHeader() {
+        // When
+        ByteBuffer header = WavFramer.header(1000, 48000, (short) 16, (short) 2).asReadOnlyBuffer();
+
+        // Then
+        assertEquals(WavFramer.HEADER_SIZE, header.remaining());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, header.order());
+        assertEquals("RIFF", ascii(header, 0));
+        assertEquals(1036, header.getInt(4));
+        assertEquals("WAVE", ascii(header, 8));
+        assertEquals("fmt ", ascii(header, 12));
+        assertEquals(16, header.getInt(16));
+        assertEquals(1, header.getShort(20));
+        assertEquals(2, header.getShort(22));
+        assertEquals(48000, header.getInt(24));
+        assertEquals(192000, header.getInt(28));
+        assertEquals(4, header.getShort(32));
+        assertEquals(16, header.getShort(34));
+        assertEquals("data", ascii(header, 36));
+        assertEquals(1000, header.getInt(40));
+    }
+
+    @Test
+    void shouldMarkStreamingHeaderAsUnknownLength() {
+        // When
+        ByteBuffer header = WavFramer.streamingHeader(16000, (short) 16, (short) 1).asReadOnlyBuffer();
+
+        // Then
+        assertEquals(WavFramer.UNKNOWN_LENGTH, Integer.toUnsignedLong(header.getInt(4)));
+        assertEquals(WavFramer.UNKNOWN_LENGTH, Integer.toUnsignedLong(header.getInt(40)));
+    }
+
+    @Test
+    void shouldWriteRf64HeaderBeyondRiffLimit() {
+        // Given - 5 GB of 16 kHz mono 16-bit audio, past the 4 GB reach of a RIFF header
+        long dataLength = 5_000_000_000L;
+
+        // When
+        ByteBuffer header = WavFramer.header(dataLength, 16000, (short) 16, (short) 1).asReadOnlyBuffer();
+
+        // Then - 32-bit sizes are placeholders and the real ones are in ds64
+        assertEquals(WavFramer.RF64_HEADER_SIZE, header.remaining());
+        assertEquals(WavFramer.RF64_HEADER_SIZE, WavFramer.headerSize(dataLength));
+        assertEquals(WavFramer.HEADER_SIZE, WavFramer.headerSize(WavFramer.MAX_RIFF_DATA_LENGTH));
+        assertEquals("RF64", ascii(header, 0));
+        assertEquals(WavFramer.UNKNOWN_LENGTH, Integer.toUnsignedLong(header.getInt(4)));
+        assertEquals("WAVE", ascii(header, 8));
+        assertEquals("ds64", ascii(header, 12));
+        assertEquals(28, header.getInt(16));
+        assertEquals(WavFramer.RF64_HEADER_SIZE - 8 + dataLength, header.getLong(20));
+        assertEquals(dataLength, header.getLong(28));
+        assertEquals(dataLength / 2, header.getLong(36));
+        assertEquals(0, header.getInt(44));
+        assertEquals("fmt ", ascii(header, 48));
+        assertEquals(16000, header.getInt(60));
+        assertEquals("data", ascii(header, 72));
+        assertEquals(WavFramer.UNKNOWN_LENGTH, Integer.toUnsignedLong(header.getInt(76)));
+    }
+
+    @Test
+    void shouldRejectInvalidFormat() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> WavFramer.header(10, 0, (short) 16, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> WavFramer.header(10, 16000, (short) 12, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> WavFramer.header(-1, 16000, (short) 16, (short) 1));
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset) {
+        byte[] id = new byte[4];
+        buffer.get(offset, id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,58 @@
+package com.tomasburgaleta.exampleia.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WavStreamTest {
+
+    @Test
+    void shouldReadDataIntoPayload() throws IOException {
+        // Given
+        byte[] pcmData = {1, 2, 3, 4, 5, 6};
+        WavStream wav = new WavStream(16000, (short) 16, (short) 1, pcmData.length, channelOf(pcmData));
+
+        // When
+        AudioPayload payload = wav.readData(1024);
+
+        // Then
+        assertArrayEquals(pcmData, payload.toByteArray());
+    }
+
+    @Test
+    void shouldRejectDataLongerThanMaximum() {
+        // Given
+        WavStream wav = new WavStream(16000, (short) 16, (short) 1, WavStream.UNKNOWN_LENGTH, channelOf(new byte[100]));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> wav.readData(50));
+    }
+
+    @Test
+    void shouldCloseSourceChannel() throws IOException {
+        // Given
+        ReadableByteChannel channel = channelOf(new byte[4]);
+        WavStream wav = new WavStream(16000, (short) 16, (short) 1, 4, channel);
+
+        // When
+        wav.close();
+
+        // Then
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new WavStream(16000, (short) 16, (short) 1, 4, null));
+        assertThrows(IllegalArgumentException.class, () -> new WavStream(16000, (short) 16, (short) 1, -2, channelOf(new byte[0])));
+    }
+
+    private static ReadableByteChannel channelOf(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+}
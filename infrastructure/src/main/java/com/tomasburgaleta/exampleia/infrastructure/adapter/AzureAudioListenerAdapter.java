@@ -8,6 +8,7 @@ import com.microsoft.cognitiveservices.speech.audio.PushAudioInputStream;
 import com.microsoft.cognitiveservices.speech.AutoDetectSourceLanguageConfig;
 import com.microsoft.cognitiveservices.speech.PropertyId;
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.SpeechToTextPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
@@ -24,6 +25,9 @@ import java.util.concurrent.ExecutionException;
 @Component
 public class AzureAudioListenerAdapter implements SpeechToTextPort, AudioListenerPort {
     
+    // Size of the blocks pushed to the Azure input stream
+    private static final int PUSH_CHUNK_SIZE = 32 * 1024;
+    
     private final AzureSpeechConfig azureConfig;
     
     public AzureAudioListenerAdapter(AzureSpeechConfig azureConfig) {
@@ -31,20 +35,20 @@ public class AzureAudioListenerAdapter implements SpeechToTextPort, AudioListene
     }
     
     @Override
-    public byte[] listenAudio(AudioBean audioBean) throws AudioProcessingException {
+    public AudioPayload listenAudio(AudioBean audioBean) throws AudioProcessingException {
         return transcribe(audioBean);
     }
     
     @Override
-    public byte[] transcribe(AudioBean audioBean) throws AudioProcessingException {
+    public AudioPayload transcribe(AudioBean audioBean) throws AudioProcessingException {
         Objects.requireNonNull(audioBean, "MIObject cannot be null");
         
         if (!azureConfig.isValid()) {
             throw new AudioProcessingException("Azure Speech Services configuration is invalid. Please check subscription key and region.");
         }
         
-        byte[] audioData = audioBean.getAudioData();
-        if (audioData == null || audioData.length == 0) {
+        AudioPayload audioData = audioBean.getAudioPayload();
+        if (audioData.isEmpty()) {
             throw new AudioProcessingException("Audio data is empty or null");
         }
         
@@ -71,7 +75,7 @@ public class AzureAudioListenerAdapter implements SpeechToTextPort, AudioListene
         }
     }
     
-    private TranscriptionResult transcribeAudio(byte[] audioData, long samplesPerSecond, short bitsPerSample, short channels) throws AudioProcessingException {
+    private TranscriptionResult transcribeAudio(AudioPayload audioData, long samplesPerSecond, short bitsPerSample, short channels) throws AudioProcessingException {
         // Validate audio metadata
         if (samplesPerSecond <= 0) {
             throw new AudioProcessingException("Invalid samples per second: " + samplesPerSecond);
@@ -100,7 +104,7 @@ public class AzureAudioListenerAdapter implements SpeechToTextPort, AudioListene
                 // Create speech recognizer with auto-detection
                 try (SpeechRecognizer recognizer = new SpeechRecognizer(speechConfig, autoDetectConfig, audioConfig)) {
                     // Write audio data to the stream
-                    pushStream.write(audioData);
+                    pushAudio(pushStream, audioData);
                     pushStream.close();
 
                     // Perform recognition
@@ -131,4 +135,20 @@ public class AzureAudioListenerAdapter implements SpeechToTextPort, AudioListene
             throw new AudioProcessingException("Failed to configure or execute speech recognition", e);
         }
     }
+    
+    /**
+     * Pushes the payload to the Azure stream in fixed-size blocks, so the full recording
+     * is never duplicated on the heap
+     */
+    private void pushAudio(PushAudioInputStream pushStream, AudioPayload audioData) {
+        long length = audioData.size();
+        byte[] chunk = new byte[(int) Math.min(PUSH_CHUNK_SIZE, length)];
+        for (long offset = 0; offset < length; offset += chunk.length) {
+            int count = (int) Math.min(chunk.length, length - offset);
+            // The SDK only accepts whole arrays, so the last partial block gets its own array
+            byte[] block = count == chunk.length ? chunk : new byte[count];
+            audioData.copyTo(offset, block, 0, count);
+            pushStream.write(block);
+        }
+    }
 }
\ No newline at end of file
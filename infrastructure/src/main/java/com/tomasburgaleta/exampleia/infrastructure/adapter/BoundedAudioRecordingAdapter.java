@@ -0,0 +1,460 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Infrastructure adapter for storing audio recordings in memory within a fixed byte budget.
+ * Recordings are weighed by their audio size and kept in least-recently-used order; when the
+ * budget is exceeded the least recently used recordings are evicted. Recordings are also evicted
+ * once they have not been accessed for the idle timeout or have been stored for longer than the
+ * maximum lifetime, so abandoned recordings never pin the heap.
+ * Expired recordings are swept on every store, lookup and clear, on {@link #evictExpired()} and,
+ * when a sweep interval is given, periodically in the background so quiet stores release them too.
+ */
+public class BoundedAudioRecordingAdapter implements AudioRecordingPort, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedAudioRecordingAdapter.class);
+
+    /**
+     * Approximate heap cost of a recording besides its audio bytes (bean, map entry, bookkeeping)
+     */
+    static final long ENTRY_OVERHEAD = 256;
+
+    /**
+     * Why a recording was evicted
+     */
+    public enum EvictionCause {
+        /** The byte budget was exceeded and the recording was the least recently used */
+        SIZE,
+        /** The recording was not accessed within the idle timeout */
+        IDLE,
+        /** The recording outlived the maximum lifetime */
+        EXPIRED
+    }
+
+    /**
+     * Callback for evicted recordings. Invoked outside the store's lock, on the thread that
+     * triggered the eviction.
+     */
+    @FunctionalInterface
+    public interface EvictionListener {
+        void onEviction(AudioBean recording, EvictionCause cause);
+    }
+
+    private final long maxBytes;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final Clock clock;
+    private final List<EvictionListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService sweeper;
+
+    private final Object lock = new Object();
+    // Access-ordered: iteration starts at the least recently used recording
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // The same entries by id, for lookups that must not count as an access
+    private final HashMap<String, Entry> index = new HashMap<>();
+    // Store order, which is also expiry order for the maximum lifetime; removed entries are skipped lazily
+    private final ArrayDeque<Entry> storeOrder = new ArrayDeque<>();
+    private long residentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes The byte budget for all stored recordings
+     * @param idleTimeout Evict recordings not accessed for this long; zero disables idle eviction
+     * @param maxLifetime Evict recordings stored for longer than this; zero disables lifetime eviction
+     */
+    public BoundedAudioRecordingAdapter(long maxBytes, Duration idleTimeout, Duration maxLifetime) {
+        this(maxBytes, idleTimeout, maxLifetime, Duration.ZERO, Clock.systemUTC());
+    }
+
+    public BoundedAudioRecordingAdapter(long maxBytes, Duration idleTimeout, Duration maxLifetime, Clock clock) {
+        this(maxBytes, idleTimeout, maxLifetime, Duration.ZERO, clock);
+    }
+
+    /**
+     * @param maxBytes The byte budget for all stored recordings
+     * @param idleTimeout Evict recordings not accessed for this long; zero disables idle eviction
+     * @param maxLifetime Evict recordings stored for longer than this; zero disables lifetime eviction
+     * @param sweepInterval How often expired recordings are evicted in the background; zero disables the sweep
+     */
+    public BoundedAudioRecordingAdapter(long maxBytes, Duration idleTimeout, Duration maxLifetime, Duration sweepInterval) {
+        this(maxBytes, idleTimeout, maxLifetime, sweepInterval, Clock.systemUTC());
+    }
+
+    public BoundedAudioRecordingAdapter(long maxBytes, Duration idleTimeout, Duration maxLifetime, Duration sweepInterval,
+                                        Clock clock) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Max bytes must be positive");
+        }
+        Objects.requireNonNull(idleTimeout, "Idle timeout cannot be null");
+        Objects.requireNonNull(maxLifetime, "Max lifetime cannot be null");
+        if (idleTimeout.isNegative() || maxLifetime.isNegative()) {
+            throw new IllegalArgumentException("Timeouts cannot be negative");
+        }
+
+        this.maxBytes = maxBytes;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxLifetimeMillis = maxLifetime.toMillis();
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+
+        Objects.requireNonNull(sweepInterval, "Sweep interval cannot be null");
+        if (sweepInterval.isZero() || sweepInterval.isNegative() || idleTimeoutMillis == 0 && maxLifetimeMillis == 0) {
+            this.sweeper = null;
+        } else {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "recording-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = sweepInterval.toMillis();
+            sweeper.scheduleWithFixedDelay(this::evictExpiredQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public AudioBean storeRecording(AudioBean audioBean) {
+        if (audioBean == null) {
+            throw new IllegalArgumentException("AudioBean cannot be null");
+        }
+
+        if (audioBean.getId() == null || audioBean.getId().trim().isEmpty()) {
+            throw new IllegalArgumentException("AudioBean ID cannot be null or empty");
+        }
+
+        long weight = audioBean.getAudioDataSize() + ENTRY_OVERHEAD;
+        if (weight > maxBytes) {
+            throw new IllegalArgumentException("Recording of " + audioBean.getAudioDataSize()
+                    + " bytes exceeds the recording store budget of " + maxBytes + " bytes");
+        }
+
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (lock) {
+            long now = clock.millis();
+            expire(now, evicted);
+
+            Entry entry = new Entry(audioBean, weight, now);
+            Entry replaced = entries.put(audioBean.getId(), entry);
+            index.put(audioBean.getId(), entry);
+            if (replaced != null) {
+                detach(replaced);
+            }
+            residentBytes += weight;
+            if (maxLifetimeMillis > 0) {
+                storeOrder.addLast(entry);
+            }
+
+            Iterator<Entry> lru = entries.values().iterator();
+            while (residentBytes > maxBytes) {
+                Entry eldest = lru.next();
+                lru.remove();
+                evict(eldest, EvictionCause.SIZE, evicted);
+            }
+        }
+
+        notifyListeners(evicted);
+        return audioBean;
+    }
+
+    @Override
+    public AudioBean getRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        List<Entry> evicted = new ArrayList<>();
+        AudioBean recording;
+        synchronized (lock) {
+            long now = clock.millis();
+            expire(now, evicted);
+
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                misses++;
+                recording = null;
+            } else {
+                hits++;
+                entry.lastAccess = now;
+                recording = entry.recording;
+            }
+        }
+
+        notifyListeners(evicted);
+        return recording;
+    }
+
+    /**
+     * Swaps the recording of an entry in place: it keeps its place in the access order and its idle
+     * and lifetime clocks, and only its weight is accounted again. A heavier replacement may evict
+     * other recordings to stay within the budget; replacements are not evictions of the entry itself.
+     */
+    @Override
+    public boolean replaceRecording(AudioBean audioBean) {
+        if (audioBean == null) {
+            throw new IllegalArgumentException("AudioBean cannot be null");
+        }
+
+        long weight = audioBean.getAudioDataSize() + ENTRY_OVERHEAD;
+        if (weight > maxBytes) {
+            throw new IllegalArgumentException("Recording of " + audioBean.getAudioDataSize()
+                    + " bytes exceeds the recording store budget of " + maxBytes + " bytes");
+        }
+
+        List<Entry> evicted = new ArrayList<>();
+        boolean replaced = false;
+        synchronized (lock) {
+            expire(clock.millis(), evicted);
+
+            // Looked up in the index: entries.get() would move the entry in the access order
+            Entry entry = index.get(audioBean.getId());
+            if (entry != null) {
+                residentBytes += weight - entry.weight;
+                entry.recording = audioBean;
+                entry.weight = weight;
+                replaced = true;
+            }
+
+            Iterator<Entry> lru = entries.values().iterator();
+            while (residentBytes > maxBytes) {
+                Entry eldest = lru.next();
+                lru.remove();
+                evict(eldest, EvictionCause.SIZE, evicted);
+            }
+        }
+
+        notifyListeners(evicted);
+        return replaced;
+    }
+
+    @Override
+    public boolean clearRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        List<Entry> evicted = new ArrayList<>();
+        boolean cleared;
+        synchronized (lock) {
+            expire(clock.millis(), evicted);
+
+            Entry entry = entries.remove(id);
+            cleared = entry != null;
+            if (cleared) {
+                detach(entry);
+            }
+        }
+
+        notifyListeners(evicted);
+        return cleared;
+    }
+
+    /**
+     * Evicts every recording past its idle timeout or maximum lifetime.
+     * Runs on every sweep interval when one is configured; eviction otherwise happens lazily.
+     *
+     * @return The number of recordings evicted
+     */
+    public int evictExpired() {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (lock) {
+            expire(clock.millis(), evicted);
+        }
+
+        notifyListeners(evicted);
+        return evicted.size();
+    }
+
+    /**
+     * Stops the background sweep. Stored recordings stay readable.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private void evictExpiredQuietly() {
+        try {
+            int evicted = evictExpired();
+            if (evicted > 0) {
+                logger.debug("Swept {} expired recordings", evicted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Recording sweep failed", e);
+        }
+    }
+
+    /**
+     * Registers a listener notified of every eviction. Explicit clears and replacements are not evictions.
+     *
+     * @param listener The listener to add
+     */
+    public void addEvictionListener(EvictionListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Eviction listener cannot be null"));
+    }
+
+    public void removeEvictionListener(EvictionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return A consistent snapshot of the store counters
+     */
+    public Stats getStats() {
+        synchronized (lock) {
+            return new Stats(hits, misses, evictions, residentBytes, entries.size());
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Removes recordings past their idle timeout or lifetime. Both sweeps stop at the first live
+     * recording: the access order is also last-access order, and the store order is lifetime order.
+     */
+    private void expire(long now, List<Entry> evicted) {
+        if (idleTimeoutMillis > 0) {
+            Iterator<Entry> lru = entries.values().iterator();
+            while (lru.hasNext()) {
+                Entry entry = lru.next();
+                if (now - entry.lastAccess < idleTimeoutMillis) {
+                    break;
+                }
+                lru.remove();
+                evict(entry, EvictionCause.IDLE, evicted);
+            }
+        }
+
+        if (maxLifetimeMillis > 0) {
+            Entry oldest;
+            while ((oldest = storeOrder.peekFirst()) != null) {
+                if (!oldest.removed && now - oldest.storedAt < maxLifetimeMillis) {
+                    break;
+                }
+                storeOrder.pollFirst();
+                if (!oldest.removed) {
+                    entries.remove(oldest.recording.getId());
+                    evict(oldest, EvictionCause.EXPIRED, evicted);
+                }
+            }
+        }
+    }
+
+    private void evict(Entry entry, EvictionCause cause, List<Entry> evicted) {
+        detach(entry);
+        entry.cause = cause;
+        evictions++;
+        evicted.add(entry);
+    }
+
+    private void detach(Entry entry) {
+        // A replaced entry's id already maps to its successor
+        index.remove(entry.recording.getId(), entry);
+        entry.removed = true;
+        residentBytes -= entry.weight;
+    }
+
+    private void notifyListeners(List<Entry> evicted) {
+        for (Entry entry : evicted) {
+            logger.debug("Evicted recording {} ({} bytes): {}", entry.recording.getId(), entry.weight, entry.cause);
+            for (EvictionListener listener : listeners) {
+                try {
+                    listener.onEviction(entry.recording, entry.cause);
+                } catch (RuntimeException e) {
+                    logger.warn("Eviction listener failed for recording {}", entry.recording.getId(), e);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private AudioBean recording;
+        private long weight;
+        private final long storedAt;
+        private long lastAccess;
+        private boolean removed;
+        private EvictionCause cause;
+
+        private Entry(AudioBean recording, long weight, long now) {
+            this.recording = recording;
+            this.weight = weight;
+            this.storedAt = now;
+            this.lastAccess = now;
+        }
+    }
+
+    /**
+     * Snapshot of the recording store counters
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long residentBytes;
+        private final int recordingCount;
+
+        private Stats(long hits, long misses, long evictions, long residentBytes, int recordingCount) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.residentBytes = residentBytes;
+            this.recordingCount = recordingCount;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return The weighed size of all resident recordings, audio bytes plus per-entry overhead
+         */
+        public long getResidentBytes() {
+            return residentBytes;
+        }
+
+        public int getRecordingCount() {
+            return recordingCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    ", residentBytes=" + residentBytes +
+                    ", recordingCount=" + recordingCount +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+import com.tomasburgaleta.exampleia.domain.port.RecordingLease;
+import com.tomasburgaleta.exampleia.infrastructure.codec.LosslessPcmCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Decorator compressing the recordings of any {@link AudioRecordingPort} with {@link LosslessPcmCodec}.
+ * A stored recording is handed to the delegate as is, so it can be read right away, and is
+ * encoded on a background executor; the delegate's copy is then replaced in place by the compressed
+ * one, keeping its expiry, unless the recording was stored again or cleared in the meantime.
+ * Compressed recordings are stored as {@link EncodedRecording}s, which the delegate keeps in its own
+ * records, so an upload that happens to start like an encoded stream is never mistaken for one.
+ * Lookups and leases hand out compressed recordings with a lazily decoded payload: nothing is decoded
+ * until the audio is read, ranges decode only the frames covering them, and reading the payload
+ * buffer by buffer holds one decoded frame at a time, so metadata lookups cost no decoding and
+ * transcribing a long recording never holds it whole.
+ * Formats the codec does not support, and recordings over 2 GB, are stored uncompressed.
+ */
+public class CompressingAudioRecordingAdapter implements AudioRecordingPort, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressingAudioRecordingAdapter.class);
+
+    private final AudioRecordingPort delegate;
+    private final ExecutorService encoder;
+    private final Object lock = new Object();
+    // Recordings waiting for their background encoding, by id
+    private final ConcurrentHashMap<String, AudioBean> pending = new ConcurrentHashMap<>();
+
+    public CompressingAudioRecordingAdapter(AudioRecordingPort delegate, ExecutorService encoder) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate cannot be null");
+        this.encoder = Objects.requireNonNull(encoder, "Encoder cannot be null");
+    }
+
+    @Override
+    public AudioBean storeRecording(AudioBean audioBean) {
+        AudioBean stored;
+        synchronized (lock) {
+            stored = delegate.storeRecording(audioBean);
+            pending.remove(audioBean.getId());
+            if (!EncodedRecording.isEncoded(audioBean)
+                    && LosslessPcmCodec.supports(audioBean.getBitsPerSample(), audioBean.getChannels())
+                    && audioBean.getAudioDataSize() <= Integer.MAX_VALUE) {
+                pending.put(audioBean.getId(), stored);
+            }
+        }
+
+        if (pending.get(audioBean.getId()) == stored) {
+            try {
+                encoder.execute(() -> compress(stored));
+            } catch (RejectedExecutionException e) {
+                pending.remove(audioBean.getId(), stored);
+                logger.warn("Recording {} stays uncompressed: encoder is not accepting work", audioBean.getId());
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public AudioBean getRecording(String id) {
+        return decoded(delegate.getRecording(id));
+    }
+
+    @Override
+    public RecordingLease openRecording(String id) {
+        RecordingLease lease = delegate.openRecording(id);
+        if (lease == null || !EncodedRecording.isEncoded(lease.getRecording())) {
+            return lease;
+        }
+
+        AudioBean recording = decoded(lease.getRecording());
+        return new RecordingLease() {
+            @Override
+            public AudioBean getRecording() {
+                return recording;
+            }
+
+            @Override
+            public void close() {
+                lease.close();
+            }
+        };
+    }
+
+    /**
+     * Stores the results with the delegate and on a recording still waiting for its encoding,
+     * so the compressed copy replacing it carries them as well
+     */
+    @Override
+    public boolean updateTranscription(AudioBean audioBean) {
+        synchronized (lock) {
+            AudioBean original = pending.get(audioBean.getId());
+            if (original != null && original != audioBean) {
+                original.setTranscribedText(audioBean.getTranscribedText());
+                original.setAiResponse(audioBean.getAiResponse());
+                original.setDetectedLanguage(audioBean.getDetectedLanguage());
+                original.setTranscribedOffsetMap(audioBean.getTranscribedOffsetMap());
+            }
+            return delegate.updateTranscription(audioBean);
+        }
+    }
+
+    @Override
+    public boolean clearRecording(String id) {
+        synchronized (lock) {
+            pending.remove(id);
+            return delegate.clearRecording(id);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        encoder.shutdownNow();
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void compress(AudioBean original) {
+        if (pending.get(original.getId()) != original) {
+            return;
+        }
+
+        AudioPayload encoded;
+        try {
+            encoded = LosslessPcmCodec.encode(original.getAudioPayload(), original.getBitsPerSample(), original.getChannels());
+        } catch (RuntimeException e) {
+            pending.remove(original.getId(), original);
+            logger.warn("Failed to compress recording {}; keeping it uncompressed", original.getId(), e);
+            return;
+        }
+
+        synchronized (lock) {
+            if (!pending.remove(original.getId(), original)) {
+                return;
+            }
+            if (encoded.length() < original.getAudioDataSize()) {
+                AudioBean compressed = copyMetadata(original, new EncodedRecording(original.getId(), encoded));
+                delegate.replaceRecording(compressed);
+                logger.debug("Compressed recording {} from {} to {} bytes",
+                        original.getId(), original.getAudioDataSize(), encoded.length());
+            }
+        }
+    }
+
+    /**
+     * @return The recording with its audio decoded lazily if it is compressed
+     */
+    private static AudioBean decoded(AudioBean recording) {
+        if (!EncodedRecording.isEncoded(recording)) {
+            return recording;
+        }
+
+        return copyMetadata(recording,
+                new AudioBean(recording.getId(), LosslessPcmCodec.decodeLazily(recording.getAudioPayload())));
+    }
+
+    private static AudioBean copyMetadata(AudioBean source, AudioBean target) {
+        target.setSamplesPerSecond(source.getSamplesPerSecond());
+        target.setBitsPerSample(source.getBitsPerSample());
+        target.setChannels(source.getChannels());
+        target.setTranscribedText(source.getTranscribedText());
+        target.setAiResponse(source.getAiResponse());
+        target.setDetectedLanguage(source.getDetectedLanguage());
+        target.setTranscribedOffsetMap(source.getTranscribedOffsetMap());
+        return target;
+    }
+}
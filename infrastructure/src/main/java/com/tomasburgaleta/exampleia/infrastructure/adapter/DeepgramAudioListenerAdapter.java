@@ -1,15 +1,19 @@
 package com.tomasburgaleta.exampleia.infrastructure.adapter;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.SpeechToTextPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import com.tomasburgaleta.exampleia.infrastructure.config.DeepgramSpeechConfig;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,20 +36,20 @@ public class DeepgramAudioListenerAdapter implements SpeechToTextPort, AudioList
     }
     
     @Override
-    public byte[] listenAudio(AudioBean audioBean) throws AudioProcessingException {
+    public AudioPayload listenAudio(AudioBean audioBean) throws AudioProcessingException {
         return transcribe(audioBean);
     }
     
     @Override
-    public byte[] transcribe(AudioBean audioBean) throws AudioProcessingException {
+    public AudioPayload transcribe(AudioBean audioBean) throws AudioProcessingException {
         Objects.requireNonNull(audioBean, "AudioBean cannot be null");
         
         if (!deepgramConfig.isValid()) {
             throw new AudioProcessingException("Deepgram configuration is invalid. Please check API key.");
         }
         
-        byte[] audioData = audioBean.getAudioData();
-        if (audioData == null || audioData.length == 0) {
+        AudioPayload audioData = audioBean.getAudioPayload();
+        if (audioData.isEmpty()) {
             throw new AudioProcessingException("Audio data is empty or null");
         }
         
@@ -73,7 +77,7 @@ public class DeepgramAudioListenerAdapter implements SpeechToTextPort, AudioList
         }
     }
     
-    private TranscriptionResult transcribeAudio(byte[] audioData, long samplesPerSecond, 
+    private TranscriptionResult transcribeAudio(AudioPayload audioData, long samplesPerSecond, 
                                                 short bitsPerSample, short channels) throws AudioProcessingException {
         // Validate audio metadata
         if (samplesPerSecond <= 0) {
@@ -95,8 +99,8 @@ public class DeepgramAudioListenerAdapter implements SpeechToTextPort, AudioList
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
             headers.set("Authorization", "Token " + deepgramConfig.getApiKey());
             
-            // Create request entity with audio data
-            HttpEntity<byte[]> requestEntity = new HttpEntity<>(audioData, headers);
+            // Create request entity streaming the audio payload without copying it
+            HttpEntity<Resource> requestEntity = new HttpEntity<>(new AudioPayloadResource(audioData), headers);
             
             // Make API call
             ResponseEntity<Map> response = restTemplate.exchange(
@@ -116,6 +120,32 @@ public class DeepgramAudioListenerAdapter implements SpeechToTextPort, AudioList
         }
     }
     
+    /**
+     * Resource exposing an audio payload as a request body with a known content length
+     */
+    private static class AudioPayloadResource extends AbstractResource {
+        private final AudioPayload payload;
+        
+        AudioPayloadResource(AudioPayload payload) {
+            this.payload = payload;
+        }
+        
+        @Override
+        public InputStream getInputStream() {
+            return payload.asInputStream();
+        }
+        
+        @Override
+        public long contentLength() {
+            return payload.size();
+        }
+        
+        @Override
+        public String getDescription() {
+            return "Audio payload [" + payload.size() + " bytes]";
+        }
+    }
+    
     private String buildRequestUrl(long samplesPerSecond, short bitsPerSample, short channels) {
         StringBuilder urlBuilder = new StringBuilder(DEEPGRAM_API_URL);
         urlBuilder.append("?model=").append(deepgramConfig.getModel());
@@ -0,0 +1,185 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Allocator of fixed-size blocks carved out of large direct (off-heap) slabs.
+ * A block is addressed by an int id ({@code slab * blocksPerSlab + block}), so callers keep only
+ * small int arrays on the heap. Every slab tracks its free blocks in a bit set.
+ * Allocation always takes the lowest free blocks of the lowest slabs, which favours the first slabs
+ * for new data; a slab whose blocks are all free again is dropped so its direct memory can be
+ * reclaimed, except for the first slab, which is kept for reuse. A live block can be relocated into a
+ * free block of a lower slab, so a long-lived recording does not keep a mostly free slab reserved.
+ */
+final class DirectSlabAllocator {
+
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final Slab[] slabs;
+    private int liveSlabs;
+    private long usedBlocks;
+
+    /**
+     * @param blockSize The size of one block in bytes
+     * @param slabSize The size of one slab in bytes; must be a multiple of the block size
+     * @param maxBytes The maximum off-heap memory to reserve, rounded up to whole slabs
+     */
+    DirectSlabAllocator(int blockSize, int slabSize, long maxBytes) {
+        if (blockSize <= 0 || slabSize <= 0 || slabSize % blockSize != 0) {
+            throw new IllegalArgumentException("Slab size must be a positive multiple of the block size");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Max bytes must be positive");
+        }
+
+        long slabCount = (maxBytes + slabSize - 1) / slabSize;
+        if (slabCount > Integer.MAX_VALUE / (slabSize / blockSize)) {
+            throw new IllegalArgumentException("Too many blocks for max bytes " + maxBytes);
+        }
+
+        this.blockSize = blockSize;
+        this.blocksPerSlab = slabSize / blockSize;
+        this.slabs = new Slab[(int) slabCount];
+    }
+
+    /**
+     * Allocates enough blocks to hold the given number of bytes. Either all blocks are allocated or none.
+     *
+     * @param bytes The number of bytes to hold
+     * @return The ids of the allocated blocks, in order
+     * @throws IllegalStateException if the allocator has not enough free memory left
+     */
+    synchronized int[] allocate(long bytes) {
+        long needed = (bytes + blockSize - 1) / blockSize;
+        long available = (long) (slabs.length - liveSlabs) * blocksPerSlab;
+        for (Slab slab : slabs) {
+            if (slab != null) {
+                available += blocksPerSlab - slab.used;
+            }
+        }
+        if (needed > available) {
+            throw new IllegalStateException("Off-heap recording store is full: cannot allocate " + bytes + " bytes");
+        }
+
+        int[] blocks = new int[(int) needed];
+        int count = 0;
+        for (int s = 0; s < slabs.length && count < blocks.length; s++) {
+            Slab slab = slabs[s];
+            if (slab == null) {
+                slab = new Slab(ByteBuffer.allocateDirect(blocksPerSlab * blockSize), blocksPerSlab);
+                slabs[s] = slab;
+                liveSlabs++;
+            }
+
+            for (int b = slab.free.nextSetBit(0); b >= 0 && count < blocks.length; b = slab.free.nextSetBit(b + 1)) {
+                slab.free.clear(b);
+                slab.used++;
+                blocks[count++] = s * blocksPerSlab + b;
+            }
+        }
+
+        usedBlocks += blocks.length;
+        return blocks;
+    }
+
+    /**
+     * Returns blocks to their slabs and drops slabs that became empty
+     *
+     * @param blocks The ids of the blocks to release
+     */
+    synchronized void release(int[] blocks) {
+        for (int id : blocks) {
+            int s = id / blocksPerSlab;
+            Slab slab = slabs[s];
+            if (slab == null || slab.free.get(id % blocksPerSlab)) {
+                throw new IllegalStateException("Block " + id + " is not allocated");
+            }
+
+            slab.free.set(id % blocksPerSlab);
+            slab.used--;
+            usedBlocks--;
+            if (slab.used == 0 && s > 0) {
+                slabs[s] = null;
+                liveSlabs--;
+            }
+        }
+    }
+
+    /**
+     * Moves the bytes of a block into the lowest free block of a lower slab, if there is one, and
+     * releases the block. The caller must make sure nobody reads or writes the block meanwhile.
+     *
+     * @param id The id of the block to move
+     * @return The id of the block now holding the bytes, which is the given id if it was not moved
+     */
+    synchronized int relocate(int id) {
+        int s = id / blocksPerSlab;
+        if (slabs[s] == null || slabs[s].free.get(id % blocksPerSlab)) {
+            throw new IllegalStateException("Block " + id + " is not allocated");
+        }
+
+        for (int t = 0; t < s; t++) {
+            Slab target = slabs[t];
+            int b = target != null ? target.free.nextSetBit(0) : -1;
+            if (b >= 0) {
+                target.free.clear(b);
+                target.used++;
+                usedBlocks++;
+                int moved = t * blocksPerSlab + b;
+                block(moved).put(block(id));
+                release(new int[]{id});
+                return moved;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns a writable view over one block. The view shares the slab's memory.
+     *
+     * @param id The block id
+     * @return A buffer of {@link #getBlockSize()} bytes positioned at 0
+     */
+    synchronized ByteBuffer block(int id) {
+        Slab slab = slabs[id / blocksPerSlab];
+        if (slab == null) {
+            throw new IllegalStateException("Block " + id + " is not allocated");
+        }
+        return slab.memory.slice((id % blocksPerSlab) * blockSize, blockSize);
+    }
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    int getSlabSize() {
+        return blocksPerSlab * blockSize;
+    }
+
+    /**
+     * @return The off-heap memory currently reserved by live slabs
+     */
+    synchronized long getReservedBytes() {
+        return (long) liveSlabs * blocksPerSlab * blockSize;
+    }
+
+    /**
+     * @return The off-heap memory held by allocated blocks
+     */
+    synchronized long getUsedBytes() {
+        return usedBlocks * blockSize;
+    }
+
+    private static final class Slab {
+        private final ByteBuffer memory;
+        private final BitSet free;
+        private int used;
+
+        private Slab(ByteBuffer memory, int blocks) {
+            this.memory = memory;
+            this.free = new BitSet(blocks);
+            this.free.set(0, blocks);
+        }
+    }
+}
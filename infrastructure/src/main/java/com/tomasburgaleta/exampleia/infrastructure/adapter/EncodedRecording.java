@@ -0,0 +1,28 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+
+/**
+ * A recording whose payload holds the audio compressed by {@link CompressingAudioRecordingAdapter}
+ * rather than as PCM. Only that adapter creates them and it decodes them before handing them out;
+ * the stores it wraps keep the encoding in their own records and rebuild the same kind of bean,
+ * so an upload that happens to start like an encoded stream is never mistaken for one.
+ */
+final class EncodedRecording extends AudioBean {
+
+    EncodedRecording(String id, AudioPayload audioPayload) {
+        super(id, audioPayload);
+    }
+
+    /**
+     * @return An encoded recording if {@code encoded} is set, otherwise a plain one
+     */
+    static AudioBean of(String id, AudioPayload audioPayload, boolean encoded) {
+        return encoded ? new EncodedRecording(id, audioPayload) : new AudioBean(id, audioPayload);
+    }
+
+    static boolean isEncoded(AudioBean recording) {
+        return recording instanceof EncodedRecording;
+    }
+}
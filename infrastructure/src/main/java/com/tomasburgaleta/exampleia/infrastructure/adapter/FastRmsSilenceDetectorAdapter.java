@@ -0,0 +1,223 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.SilenceDetectorPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Silence detection making exactly the decisions of {@link RmsSilenceDetectorAdapter}, in integer arithmetic.
+ * A frame is silent when the mean absolute amplitude of its channels is below 1% of full scale. Instead of
+ * normalizing every sample to a double, the sum of absolute sample values of a frame is compared with the
+ * smallest sum the reference computation does not consider silent, worked out once per call from that very
+ * computation, so rounding cannot make the two disagree. Each bit depth has its own loop without branches
+ * on the format, 16-bit samples are read through a {@link ShortBuffer} view, and nothing is allocated per
+ * sample. Payloads are read in place, buffer by buffer. The RMS amplitude is only computed for the debug log, from integer squared sums.
+ */
+public class FastRmsSilenceDetectorAdapter implements SilenceDetectorPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastRmsSilenceDetectorAdapter.class);
+
+    // Same thresholds as the reference detector
+    private static final double SILENCE_THRESHOLD = 0.01; // 1% of maximum amplitude
+    private static final double SILENT_SAMPLES_PERCENTAGE = 0.95; // 95% of samples must be silent
+
+    // Frames per block of squared sums, bounded so a block cannot overflow a long
+    private static final int MAX_BLOCK_FRAMES = 1 << 16;
+    private static final int MAX_CHANNELS = 255;
+
+    private final RmsSilenceDetectorAdapter reference = new RmsSilenceDetectorAdapter();
+
+    @Override
+    public boolean detectSilence(byte[] pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        if (pcmData == null || pcmData.length == 0) {
+            return true;
+        }
+
+        if (fullScale(bitsPerSample) == 0 || channels <= 0 || channels > MAX_CHANNELS) {
+            // Formats the reference only skips over, or rejects, are left to it
+            return reference.detectSilence(pcmData, samplesPerSecond, bitsPerSample, channels);
+        }
+
+        return detect(AudioPayload.wrap(pcmData), bitsPerSample, channels);
+    }
+
+    /**
+     * Reads the buffers of the payload in place, one after another. A frame split between two buffers
+     * is put together in a buffer of one frame, so the decisions do not depend on where the payload
+     * was cut.
+     */
+    @Override
+    public boolean detectSilence(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        if (pcmData == null || pcmData.isEmpty()) {
+            return true;
+        }
+
+        if (fullScale(bitsPerSample) == 0 || channels <= 0 || channels > MAX_CHANNELS) {
+            return reference.detectSilence(pcmData.toByteArray(), samplesPerSecond, bitsPerSample, channels);
+        }
+
+        return detect(pcmData, bitsPerSample, channels);
+    }
+
+    private boolean detect(AudioPayload pcmData, short bitsPerSample, short channels) {
+        int frameSize = bitsPerSample / 8 * channels;
+        long totalSamples = pcmData.size() / frameSize;
+        if (totalSamples == 0) {
+            return true;
+        }
+
+        int scale = fullScale(bitsPerSample);
+        int limit = silenceLimit(scale, channels);
+        long maxSum = (long) scale * channels;
+        int blockFrames = (int) Math.max(1, Math.min(MAX_BLOCK_FRAMES, Long.MAX_VALUE / (maxSum * maxSum)));
+
+        Counts counts = new Counts();
+        ByteBuffer split = ByteBuffer.allocate(frameSize);
+        for (int i = 0; i < pcmData.bufferCount(); i++) {
+            ByteBuffer part = pcmData.buffer(i);
+            int offset = 0;
+            if (split.position() > 0) {
+                offset = Math.min(split.remaining(), part.limit());
+                split.put(part.slice(0, offset));
+                if (split.hasRemaining()) {
+                    continue;
+                }
+                count(split.flip(), 1, bitsPerSample, channels, limit, blockFrames, counts);
+                split.clear();
+            }
+            int frames = (part.limit() - offset) / frameSize;
+            count(part.slice(offset, frames * frameSize), frames, bitsPerSample, channels, limit, blockFrames, counts);
+            offset += frames * frameSize;
+            split.put(part.slice(offset, part.limit() - offset));
+        }
+
+        double silentPercentage = (double) counts.silentSamples / totalSamples;
+        boolean isSilent = silentPercentage >= SILENT_SAMPLES_PERCENTAGE;
+
+        if (logger.isDebugEnabled()) {
+            double rms = Math.sqrt(counts.sumSquares / totalSamples) / maxSum;
+            logger.debug("Silence detection result: RMS={}, Silent samples={}%, IsSilent={}",
+                         String.format("%.4f", rms),
+                         String.format("%.2f", silentPercentage * 100),
+                         isSilent);
+        }
+
+        return isSilent;
+    }
+
+    private static void count(ByteBuffer pcm, int frames, short bitsPerSample, int channels, int limit,
+                              int blockFrames, Counts counts) {
+        switch (bitsPerSample) {
+            case 8 -> count8(pcm, frames, channels, limit, blockFrames, counts);
+            case 16 -> count16(pcm, frames, channels, limit, blockFrames, counts);
+            default -> count24(pcm, frames, channels, limit, blockFrames, counts);
+        }
+    }
+
+    /**
+     * Returns the smallest sum of absolute sample values of a frame that the reference detector does not
+     * count as silent. The reference divides the sum by the full scale, which is exact as it is a power of
+     * two, and then by the channel count, which rounds; since that is monotonic in the sum, every smaller
+     * sum is silent and every larger one is not.
+     */
+    static int silenceLimit(int scale, int channels) {
+        int sum = Math.max(0, (int) (SILENCE_THRESHOLD * scale * channels) - 2);
+        while (((double) sum / scale) / channels < SILENCE_THRESHOLD) {
+            sum++;
+        }
+        return sum;
+    }
+
+    private static int fullScale(short bitsPerSample) {
+        return switch (bitsPerSample) {
+            case 8 -> 1 << 7;
+            case 16 -> 1 << 15;
+            case 24 -> 1 << 23;
+            default -> 0;
+        };
+    }
+
+    private static void count8(ByteBuffer pcm, int frames, int channels, int limit, int blockFrames, Counts counts) {
+        for (int start = 0; start < frames; start += blockFrames) {
+            int end = Math.min(frames, start + blockFrames);
+            int silent = 0;
+            long blockSquares = 0;
+            for (int frame = start, index = start * channels; frame < end; frame++) {
+                int sum = 0;
+                for (int ch = 0; ch < channels; ch++, index++) {
+                    // 8-bit audio is unsigned, centred on 128
+                    sum += Math.abs((pcm.get(index) & 0xFF) - 128);
+                }
+                silent += (sum - limit) >>> 31;
+                blockSquares += (long) sum * sum;
+            }
+            counts.silentSamples += silent;
+            counts.sumSquares += blockSquares;
+        }
+    }
+
+    private static void count16(ByteBuffer pcm, int frames, int channels, int limit, int blockFrames, Counts counts) {
+        ShortBuffer samples = pcm.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        for (int start = 0; start < frames; start += blockFrames) {
+            int end = Math.min(frames, start + blockFrames);
+            int silent = 0;
+            long blockSquares = 0;
+            if (channels == 1) {
+                for (int frame = start; frame < end; frame++) {
+                    int sum = Math.abs(samples.get(frame));
+                    silent += (sum - limit) >>> 31;
+                    blockSquares += (long) sum * sum;
+                }
+            } else if (channels == 2) {
+                for (int frame = start; frame < end; frame++) {
+                    int sum = Math.abs(samples.get(2 * frame)) + Math.abs(samples.get(2 * frame + 1));
+                    silent += (sum - limit) >>> 31;
+                    blockSquares += (long) sum * sum;
+                }
+            } else {
+                for (int frame = start, index = start * channels; frame < end; frame++) {
+                    int sum = 0;
+                    for (int ch = 0; ch < channels; ch++, index++) {
+                        sum += Math.abs(samples.get(index));
+                    }
+                    silent += (sum - limit) >>> 31;
+                    blockSquares += (long) sum * sum;
+                }
+            }
+            counts.silentSamples += silent;
+            counts.sumSquares += blockSquares;
+        }
+    }
+
+    private static void count24(ByteBuffer pcm, int frames, int channels, int limit, int blockFrames, Counts counts) {
+        for (int start = 0; start < frames; start += blockFrames) {
+            int end = Math.min(frames, start + blockFrames);
+            int silent = 0;
+            long blockSquares = 0;
+            for (int frame = start, offset = start * channels * 3; frame < end; frame++) {
+                int sum = 0;
+                for (int ch = 0; ch < channels; ch++, offset += 3) {
+                    // The signed top byte sign-extends the little-endian 24-bit sample
+                    sum += Math.abs(pcm.get(offset + 2) << 16 | (pcm.get(offset + 1) & 0xFF) << 8 | (pcm.get(offset) & 0xFF));
+                }
+                silent += (sum - limit) >>> 31;
+                blockSquares += (long) sum * sum;
+            }
+            counts.silentSamples += silent;
+            counts.sumSquares += blockSquares;
+        }
+    }
+
+    /**
+     * Results of one pass over the samples
+     */
+    private static final class Counts {
+        private long silentSamples;
+        private double sumSquares;
+    }
+}
@@ -1,31 +1,134 @@
 package com.tomasburgaleta.exampleia.infrastructure.adapter;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileReaderPort;
+import com.tomasburgaleta.exampleia.infrastructure.codec.PcmDecoder;
+import com.tomasburgaleta.exampleia.infrastructure.wav.RiffChunkIndex;
+import com.tomasburgaleta.exampleia.infrastructure.wav.WavFormat;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
  * File system implementation of the AudioFileReaderPort
- * This adapter reads audio files from the file system and validates WAV format
+ * This adapter reads audio files from the file system and validates WAV format.
+ * By default files are read onto the heap. In memory-mapped mode the file is mapped read-only
+ * and the returned payload is a slice of the mapping, so large files are neither copied nor
+ * counted against the heap, and pages are only loaded as the PCM data is read.
+ * Memory-mapped mode also reads RF64/BW64 files over 4 GB: their data chunk is mapped in
+ * 1 GB segments gathered into one payload.
+ * Asynchronous reads use an AsynchronousFileChannel, so no thread waits on the PCM data. The head of
+ * the file is read into a pooled direct buffer to locate the data chunk; chunk headers past the
+ * head, behind large metadata, are read one by one. The PCM data is then read through the same
+ * pooled buffer onto the heap, so the direct memory used for reads is bounded by the pool.
+ * Files that are not plain 16/24-bit PCM (A-law, mu-law, float, 32-bit) are decoded to 16-bit PCM
+ * with {@link PcmDecoder}, as uploads are, so a file transcribes the same however it was received;
+ * the decoded audio is always on the heap.
  */
 @Component
 public class FileSystemAudioFileReaderAdapter implements AudioFileReaderPort {
     
     // WAV file header constants
-    private static final byte[] RIFF_HEADER = {'R', 'I', 'F', 'F'};
-    private static final byte[] WAVE_FORMAT = {'W', 'A', 'V', 'E'};
-    private static final int WAV_HEADER_MIN_SIZE = 12; // Minimum size to check RIFF + size + WAVE
+    private static final int WAV_HEADER_MIN_SIZE = RiffChunkIndex.HEADER_SIZE; // Minimum size to check RIFF + size + WAVE
+    private static final long MAP_SEGMENT_SIZE = 1L << 30;
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+    private static final int IO_BUFFER_SIZE = 64 * 1024; // Holds the head of the file, then each read of PCM data
+    private static final int IO_BUFFER_POOL_SIZE = 16;
+    
+    private final boolean memoryMapped;
+    private final long mapSegmentSize;
+    private final BlockingQueue<ByteBuffer> ioBuffers = new ArrayBlockingQueue<>(IO_BUFFER_POOL_SIZE);
+    
+    public FileSystemAudioFileReaderAdapter() {
+        this(false);
+    }
+    
+    /**
+     * @param memoryMapped Whether to map files instead of reading them onto the heap
+     */
+    public FileSystemAudioFileReaderAdapter(boolean memoryMapped) {
+        this(memoryMapped, MAP_SEGMENT_SIZE);
+    }
+    
+    FileSystemAudioFileReaderAdapter(boolean memoryMapped, long mapSegmentSize) {
+        this.memoryMapped = memoryMapped;
+        this.mapSegmentSize = mapSegmentSize;
+    }
     
     @Override
-    public byte[] readWavFile(String filePath) throws AudioFileException {
+    public AudioPayload readWavFile(String filePath) throws AudioFileException {
         Path path = Paths.get(filePath);
+        checkReadableFile(path, filePath);
+        
+        if (memoryMapped) {
+            return mapWavFile(path, filePath);
+        }
         
+        ByteBuffer fileBytes = ByteBuffer.wrap(readFile(path, filePath)).order(ByteOrder.LITTLE_ENDIAN);
+        
+        // Validate WAV format
+        validateWavFormat(fileBytes, filePath);
+        
+        return extractPcmFromWav(fileBytes);
+    }
+    
+    /**
+     * Reads the file without blocking the caller. The file checks, opening the channel and, in
+     * memory-mapped mode, the mapping run on the common pool, and their failures complete the
+     * returned future; the PCM data is then read asynchronously.
+     */
+    @Override
+    public CompletableFuture<AudioPayload> readWavFileAsync(String filePath) {
+        // The read is started within the task, so no stage of it ever runs on the caller's thread
+        return CompletableFuture.supplyAsync(() -> startRead(filePath)).thenCompose(Function.identity());
+    }
+    
+    private CompletableFuture<AudioPayload> startRead(String filePath) {
+        AsynchronousFileChannel channel;
+        long fileSize;
+        try {
+            Path path = Paths.get(filePath);
+            checkReadableFile(path, filePath);
+            if (memoryMapped) {
+                return CompletableFuture.completedFuture(mapWavFile(path, filePath));
+            }
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new AudioFileException("Failed to read file: " + filePath, e);
+        }
+        
+        ByteBuffer buffer = acquireIoBuffer();
+        buffer.limit((int) Math.min(buffer.capacity(), fileSize));
+        return readFully(channel, buffer, 0)
+            .thenCompose(head -> readPcm(channel, head, fileSize, filePath))
+            .handle((pcmData, error) -> {
+                closeQuietly(channel);
+                releaseIoBuffer(buffer);
+                if (error != null) {
+                    throw toAudioFileException(error, filePath);
+                }
+                return pcmData;
+            });
+    }
+    
+    private void checkReadableFile(Path path, String filePath) throws AudioFileException {
         // Check if file exists and is readable
         if (!Files.exists(path)) {
             throw new AudioFileException("File not found: " + filePath);
@@ -38,62 +141,256 @@ public class FileSystemAudioFileReaderAdapter implements AudioFileReaderPort {
         if (Files.isDirectory(path)) {
             throw new AudioFileException("Path points to a directory, not a file: " + filePath);
         }
-        
-        byte[] fileBytes;
+    }
+    
+    private byte[] readFile(Path path, String filePath) throws AudioFileException {
         try {
-            fileBytes = Files.readAllBytes(path);
+            if (Files.size(path) > MAX_BUFFER_SIZE) {
+                throw new AudioFileException("File is too large to be read onto the heap, use memory-mapped mode: " + filePath);
+            }
+            return Files.readAllBytes(path);
         } catch (IOException e) {
             throw new AudioFileException("Failed to read file: " + filePath, e);
         }
+    }
+    
+    /**
+     * Maps the file read-only and returns its PCM region. Mappings are lazy, so the head mapping
+     * covers as much of the file as one segment can and the chunks are located in it; a data chunk
+     * reaching past the head is mapped on its own in segments. Mappings stay valid after the
+     * channel is closed and are released once the last payload sharing them is garbage collected.
+     */
+    private AudioPayload mapWavFile(Path path, String filePath) throws AudioFileException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, mapSegmentSize));
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            validateWavFormat(head, filePath);
+            
+            RiffChunkIndex index = RiffChunkIndex.of(head, size);
+            RiffChunkIndex.Chunk data = findDataChunk(index);
+            long length = index.available(data);
+            if (data.offset() + length <= head.limit()) {
+                return decode(index.getFormat(), AudioPayload.of(head.slice((int) data.offset(), (int) length)));
+            }
+            return decode(index.getFormat(), mapSegments(channel, data.offset(), length));
+        } catch (IOException e) {
+            throw new AudioFileException("Failed to map file: " + filePath, e);
+        }
+    }
+    
+    /**
+     * Locates the data chunk from the head of the file and reads its PCM region onto the heap.
+     * The part of the data chunk held in the head is copied from it; the rest is read through
+     * the head's buffer once the head is no longer needed.
+     */
+    private CompletableFuture<AudioPayload> readPcm(AsynchronousFileChannel channel, ByteBuffer head, long fileSize, String filePath) {
+        head.order(ByteOrder.LITTLE_ENDIAN);
+        validateWavFormat(head, filePath);
         
-        // Validate WAV format
-        validateWavFormat(fileBytes, filePath);
+        RiffChunkIndex index = RiffChunkIndex.of(head, fileSize);
+        // Parsed now, as the head's buffer is reused for the PCM data
+        WavFormat format = index.getFormat();
+        RiffChunkIndex.Chunk indexed = index.find(RiffChunkIndex.DATA);
+        CompletableFuture<RiffChunkIndex.Chunk> located = indexed != null
+            ? CompletableFuture.completedFuture(indexed)
+            : findDataChunkPastHead(channel, index, index.getNextChunkOffset(), fileSize);
         
-        return extractPcmFromWav(fileBytes);
+        return located.thenCompose(data -> {
+            long length = index.available(data);
+            if (length > MAX_BUFFER_SIZE) {
+                throw new AudioFileException("File is too large to be read into one buffer, use memory-mapped mode: " + filePath);
+            }
+            
+            byte[] pcmData = new byte[(int) length];
+            int inHead = (int) Math.max(0, Math.min(length, head.limit() - data.offset()));
+            if (inHead > 0) {
+                head.get((int) data.offset(), pcmData, 0, inHead);
+            }
+            return readInto(channel, head, data.offset() + inHead, pcmData, inHead)
+                .thenApply(pcm -> decode(format, pcm));
+        });
     }
-
-    public byte[] extractPcmFromWav(byte[] wavBytes) {
-        int offset = 12; // después de "RIFF" y "WAVE"
-        while (offset < wavBytes.length - 8) {
-            String chunkId = new String(wavBytes, offset, 4);
-            int chunkSize = ((wavBytes[offset+4] & 0xFF)) |
-                    ((wavBytes[offset+5] & 0xFF) << 8) |
-                    ((wavBytes[offset+6] & 0xFF) << 16) |
-                    ((wavBytes[offset+7] & 0xFF) << 24);
-
-            if ("data".equals(chunkId)) {
-                // Encontramos el bloque con las muestras
-                return Arrays.copyOfRange(wavBytes, offset + 8, offset + 8 + chunkSize);
+    
+    /**
+     * Walks the chunk headers that follow the head of the file, reading one header at a time,
+     * for files whose metadata chunks do not fit in the head
+     */
+    private static CompletableFuture<RiffChunkIndex.Chunk> findDataChunkPastHead(AsynchronousFileChannel channel,
+                                                                               RiffChunkIndex index, long position, long fileSize) {
+        if (position + RiffChunkIndex.CHUNK_HEADER_SIZE > fileSize) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No se encontró chunk 'data' en el WAV"));
+        }
+        
+        ByteBuffer header = ByteBuffer.allocate(RiffChunkIndex.CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        return readFully(channel, header, position).thenCompose(headerBytes -> {
+            RiffChunkIndex.Chunk chunk = index.resolve(RiffChunkIndex.readChunkHeader(headerBytes, 0, position));
+            if (chunk.id() == RiffChunkIndex.DATA) {
+                return CompletableFuture.completedFuture(chunk);
+            }
+            return findDataChunkPastHead(channel, index, chunk.next(), fileSize);
+        });
+    }
+    
+    /**
+     * Reads the file into an array through a pooled buffer, one buffer's worth at a time
+     * 
+     * @return A future completed with the array, cut where the file ended
+     */
+    private static CompletableFuture<AudioPayload> readInto(AsynchronousFileChannel channel, ByteBuffer buffer,
+                                                            long position, byte[] target, int offset) {
+        CompletableFuture<AudioPayload> result = new CompletableFuture<>();
+        new CompletionHandler<Integer, Integer>() {
+            private long readPosition = position;
+            
+            void readNext(int filled) {
+                if (filled == target.length) {
+                    result.complete(AudioPayload.wrap(target));
+                    return;
+                }
+                buffer.clear().limit(Math.min(buffer.capacity(), target.length - filled));
+                channel.read(buffer, readPosition, filled, this);
             }
-            offset += 8 + chunkSize;
+            
+            @Override
+            public void completed(Integer read, Integer filled) {
+                if (read < 0) {
+                    result.complete(AudioPayload.wrap(target, 0, filled));
+                    return;
+                }
+                buffer.flip().get(target, filled, read);
+                readPosition += read;
+                readNext(filled + read);
+            }
+            
+            @Override
+            public void failed(Throwable error, Integer filled) {
+                result.completeExceptionally(error);
+            }
+        }.readNext(offset);
+        return result;
+    }
+    
+    /**
+     * Reads from the channel until the buffer is full or the end of the file is reached
+     * 
+     * @return A future completed with the flipped buffer
+     */
+    private static CompletableFuture<ByteBuffer> readFully(AsynchronousFileChannel channel, ByteBuffer buffer, long position) {
+        CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+        channel.read(buffer, position, position, new CompletionHandler<Integer, Long>() {
+            @Override
+            public void completed(Integer read, Long readPosition) {
+                if (read < 0 || !buffer.hasRemaining()) {
+                    result.complete(buffer.flip());
+                    return;
+                }
+                long next = readPosition + read;
+                channel.read(buffer, next, next, this);
+            }
+            
+            @Override
+            public void failed(Throwable error, Long readPosition) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+    
+    private ByteBuffer acquireIoBuffer() {
+        ByteBuffer buffer = ioBuffers.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+    }
+    
+    private void releaseIoBuffer(ByteBuffer buffer) {
+        ioBuffers.offer(buffer);
+    }
+    
+    private static RuntimeException toAudioFileException(Throwable error, String filePath) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
         }
-        throw new IllegalArgumentException("No se encontró chunk 'data' en el WAV");
+        return new AudioFileException("Failed to read file: " + filePath, cause);
+    }
+    
+    private static void closeQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to read from the channel
+        }
+    }
+    
+    private AudioPayload mapSegments(FileChannel channel, long offset, long length) throws IOException {
+        AudioPayload[] segments = new AudioPayload[(int) ((length + mapSegmentSize - 1) / mapSegmentSize)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = offset + i * mapSegmentSize;
+            long segmentLength = Math.min(mapSegmentSize, offset + length - start);
+            segments[i] = AudioPayload.of(channel.map(FileChannel.MapMode.READ_ONLY, start, segmentLength));
+        }
+        return AudioPayload.concat(segments);
+    }
+
+    /**
+     * Returns the PCM region of the WAV bytes as a payload sharing the given array, or decoded to
+     * 16-bit PCM if the file is not plain PCM.
+     * A data chunk declaring more bytes than available (truncated file) is cut at the end of the array.
+     */
+    public AudioPayload extractPcmFromWav(byte[] wavBytes) {
+        return extractPcmFromWav(ByteBuffer.wrap(wavBytes).order(ByteOrder.LITTLE_ENDIAN));
+    }
+    
+    /**
+     * Locates the data chunk in place and returns a payload sharing its region of the buffer
+     */
+    private AudioPayload extractPcmFromWav(ByteBuffer wavBytes) {
+        RiffChunkIndex index = RiffChunkIndex.of(wavBytes);
+        RiffChunkIndex.Chunk data = findDataChunk(index);
+        // Encontramos el bloque con las muestras
+        return decode(index.getFormat(), AudioPayload.of(wavBytes.slice((int) data.offset(), (int) index.available(data))));
+    }
+    
+    /**
+     * Decodes the PCM region to 16-bit PCM unless the file holds plain PCM already
+     * 
+     * @param format The format of the file, or null if it has no fmt chunk
+     */
+    private static AudioPayload decode(WavFormat format, AudioPayload pcmData) throws AudioFileException {
+        if (format == null || !PcmDecoder.needsDecoding(format)) {
+            return pcmData;
+        }
+        return PcmDecoder.forFormat(format).decode(pcmData);
+    }
+    
+    private RiffChunkIndex.Chunk findDataChunk(RiffChunkIndex index) {
+        RiffChunkIndex.Chunk data = index.find(RiffChunkIndex.DATA);
+        if (data == null) {
+            throw new IllegalArgumentException("No se encontró chunk 'data' en el WAV");
+        }
+        return data;
     }
     
     /**
      * Validates that the file has a proper WAV format by checking the header
      * 
-     * @param fileBytes The file content as byte array
+     * @param fileBytes The file content
      * @param filePath The file path for error reporting
      * @throws AudioFileException if the file is not a valid WAV format
      */
-    private void validateWavFormat(byte[] fileBytes, String filePath) throws AudioFileException {
-        if (fileBytes.length < WAV_HEADER_MIN_SIZE) {
+    private void validateWavFormat(ByteBuffer fileBytes, String filePath) throws AudioFileException {
+        if (fileBytes.limit() < WAV_HEADER_MIN_SIZE) {
             throw new AudioFileException("File is too small to be a valid WAV file: " + filePath);
         }
         
         // Check RIFF header (bytes 0-3)
-        for (int i = 0; i < RIFF_HEADER.length; i++) {
-            if (fileBytes[i] != RIFF_HEADER[i]) {
-                throw new AudioFileException("Invalid WAV format: missing RIFF header in file: " + filePath);
-            }
+        if (!RiffChunkIndex.isRiffId(fileBytes.getInt(0))) {
+            throw new AudioFileException("Invalid WAV format: missing RIFF header in file: " + filePath);
         }
         
         // Check WAVE format identifier (bytes 8-11)
-        for (int i = 0; i < WAVE_FORMAT.length; i++) {
-            if (fileBytes[8 + i] != WAVE_FORMAT[i]) {
-                throw new AudioFileException("Invalid WAV format: missing WAVE format identifier in file: " + filePath);
-            }
+        if (fileBytes.getInt(8) != RiffChunkIndex.WAVE) {
+            throw new AudioFileException("Invalid WAV format: missing WAVE format identifier in file: " + filePath);
         }
     }
 }
\ No newline at end of file
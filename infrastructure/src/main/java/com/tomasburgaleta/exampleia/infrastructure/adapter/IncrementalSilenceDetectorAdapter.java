@@ -0,0 +1,219 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.port.SilenceTracker;
+import com.tomasburgaleta.exampleia.domain.port.StreamingSilenceDetectorPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Frame-level silence detection over a stream, independent of how the stream is cut into chunks.
+ * The audio is analyzed in fixed-length frames that may straddle chunks: the energy of a frame is
+ * summed as its samples arrive and a partial sample at the end of a chunk is kept for the next one,
+ * so each byte is read once and no history is scanned again. A frame holds speech when its level is
+ * above 1% of full scale, the level the buffer detector uses, and clearly above a running estimate
+ * of the background noise. The estimate follows quieter frames quickly and louder ones slowly, so a
+ * steady noisy room stops counting as speech within a few seconds. After the last speech frame the
+ * stream stays in speech for a hangover period, bridging the short pauses within and between words.
+ */
+public class IncrementalSilenceDetectorAdapter implements StreamingSilenceDetectorPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalSilenceDetectorAdapter.class);
+
+    public static final int DEFAULT_FRAME_MILLIS = 20;
+    public static final int DEFAULT_HANGOVER_MILLIS = 300;
+
+    private static final double SPEECH_FLOOR_DB = -40; // 1% of full scale
+    private static final double NOISE_MARGIN_DB = 12; // Speech must be this far above the noise floor
+    private static final double INITIAL_NOISE_FLOOR_DB = -60;
+    private static final double MIN_LEVEL_DB = -120; // Level given to digital silence
+    private static final double NOISE_FALL = 0.3; // Share of the gap closed per frame when the level drops
+    private static final double NOISE_RISE_MILLIS = 1000; // Time constant of the rise over silent frames
+    private static final double NOISE_RISE_SPEECH_MILLIS = 4000; // and over speech frames
+
+    private final int frameMillis;
+    private final int hangoverMillis;
+
+    public IncrementalSilenceDetectorAdapter() {
+        this(DEFAULT_FRAME_MILLIS, DEFAULT_HANGOVER_MILLIS);
+    }
+
+    /**
+     * @param frameMillis The length of an analysis frame in milliseconds
+     * @param hangoverMillis How long the stream stays in speech after the last speech frame
+     * @throws IllegalArgumentException if the frame length is not positive or the hangover is negative
+     */
+    public IncrementalSilenceDetectorAdapter(int frameMillis, int hangoverMillis) {
+        if (frameMillis <= 0) {
+            throw new IllegalArgumentException("Frame length must be positive: " + frameMillis);
+        }
+        if (hangoverMillis < 0) {
+            throw new IllegalArgumentException("Hangover cannot be negative: " + hangoverMillis);
+        }
+        this.frameMillis = frameMillis;
+        this.hangoverMillis = hangoverMillis;
+    }
+
+    @Override
+    public SilenceTracker openTracker(long samplesPerSecond, short bitsPerSample, short channels) {
+        if (samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Samples per second must be positive");
+        }
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channels must be positive");
+        }
+        if (bitsPerSample != 8 && bitsPerSample != 16 && bitsPerSample != 24 && bitsPerSample != 32) {
+            throw new IllegalArgumentException("Unsupported bits per sample: " + bitsPerSample);
+        }
+
+        long frameSamples = Math.max(1, samplesPerSecond * frameMillis / 1000);
+        if (frameSamples * channels > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Analysis frame too long: " + frameSamples + " samples");
+        }
+        int hangoverFrames = (int) Math.min(Integer.MAX_VALUE, ((long) hangoverMillis + frameMillis - 1) / frameMillis);
+        return new Tracker(samplesPerSecond, bitsPerSample / 8, channels, (int) frameSamples, hangoverFrames,
+            1 - Math.exp(-frameMillis / NOISE_RISE_MILLIS), 1 - Math.exp(-frameMillis / NOISE_RISE_SPEECH_MILLIS));
+    }
+
+    /**
+     * Detection state of one stream. Chunks of a stream are analyzed one at a time.
+     */
+    private static final class Tracker implements SilenceTracker {
+
+        private final long samplesPerSecond;
+        private final int bytesPerSample;
+        private final int frameSamples;
+        private final int frameLength;
+        private final double fullScaleSquared;
+        private final int hangoverFrames;
+        private final double riseSilent;
+        private final double riseSpeech;
+
+        private final byte[] partial = new byte[4];
+        private int partialLength;
+        private double energy;
+        private int frameFill;
+        private long frameIndex;
+        private double noiseFloorDb = INITIAL_NOISE_FLOOR_DB;
+        private int hangover;
+        private boolean speaking;
+        private long trailingSilenceFrames;
+
+        private Tracker(long samplesPerSecond, int bytesPerSample, int channels, int frameSamples, int hangoverFrames,
+                        double riseSilent, double riseSpeech) {
+            this.samplesPerSecond = samplesPerSecond;
+            this.bytesPerSample = bytesPerSample;
+            this.frameSamples = frameSamples;
+            this.frameLength = frameSamples * channels;
+            // 32-bit samples are read at 24-bit precision
+            double fullScale = 1 << (Math.min(bytesPerSample, 3) * 8 - 1);
+            this.fullScaleSquared = fullScale * fullScale;
+            this.hangoverFrames = hangoverFrames;
+            this.riseSilent = riseSilent;
+            this.riseSpeech = riseSpeech;
+        }
+
+        @Override
+        public SpeechActivity accept(byte[] pcmChunk) {
+            Objects.requireNonNull(pcmChunk, "PCM chunk cannot be null");
+            return accept(ByteBuffer.wrap(pcmChunk));
+        }
+
+        @Override
+        public synchronized SpeechActivity accept(ByteBuffer pcmChunk) {
+            Objects.requireNonNull(pcmChunk, "PCM chunk cannot be null");
+
+            long firstFrame = frameIndex;
+            int base = pcmChunk.position();
+            int length = pcmChunk.remaining();
+            long samples = (partialLength + (long) length) / bytesPerSample;
+            boolean[] decisions = new boolean[(int) ((frameFill + samples) / frameLength)];
+            int decided = 0;
+            int offset = 0;
+
+            if (partialLength > 0) {
+                int needed = Math.min(bytesPerSample - partialLength, length);
+                pcmChunk.get(base, partial, partialLength, needed);
+                partialLength += needed;
+                offset = needed;
+                if (partialLength == bytesPerSample) {
+                    partialLength = 0;
+                    if (add(sample(ByteBuffer.wrap(partial), 0))) {
+                        decisions[decided++] = decide();
+                    }
+                }
+            }
+
+            int end = offset + (length - offset) / bytesPerSample * bytesPerSample;
+            for (; offset < end; offset += bytesPerSample) {
+                if (add(sample(pcmChunk, base + offset))) {
+                    decisions[decided++] = decide();
+                }
+            }
+
+            int rest = length - offset;
+            pcmChunk.get(base + offset, partial, partialLength, rest);
+            partialLength += rest;
+
+            return new SpeechActivity(firstFrame, decisions, frameSamples, samplesPerSecond, speaking, trailingSilenceFrames);
+        }
+
+        /**
+         * Adds a sample to the current frame
+         *
+         * @return Whether the sample completes the frame
+         */
+        private boolean add(int sample) {
+            energy += (double) sample * sample;
+            return ++frameFill == frameLength;
+        }
+
+        /**
+         * Classifies the completed frame, updates the noise estimate and starts a new frame
+         *
+         * @return Whether the stream is in speech at the frame
+         */
+        private boolean decide() {
+            double meanSquare = energy / frameLength / fullScaleSquared;
+            double level = meanSquare > 0 ? Math.max(MIN_LEVEL_DB, 10 * Math.log10(meanSquare)) : MIN_LEVEL_DB;
+            energy = 0;
+            frameFill = 0;
+
+            boolean active = level > Math.max(SPEECH_FLOOR_DB, noiseFloorDb + NOISE_MARGIN_DB);
+            double rate = level < noiseFloorDb ? NOISE_FALL : active ? riseSpeech : riseSilent;
+            noiseFloorDb += (level - noiseFloorDb) * rate;
+
+            boolean wasSpeaking = speaking;
+            if (active) {
+                hangover = hangoverFrames;
+                speaking = true;
+            } else if (hangover > 0) {
+                hangover--;
+            } else {
+                speaking = false;
+            }
+            trailingSilenceFrames = speaking ? 0 : trailingSilenceFrames + 1;
+
+            if (speaking != wasSpeaking && logger.isDebugEnabled()) {
+                logger.debug("Stream {} speech at frame {} (level={} dB, noise floor={} dB)",
+                             speaking ? "entered" : "left", frameIndex,
+                             String.format("%.1f", level), String.format("%.1f", noiseFloorDb));
+            }
+            frameIndex++;
+            return speaking;
+        }
+
+        private int sample(ByteBuffer pcm, int offset) {
+            return switch (bytesPerSample) {
+                // 8-bit audio is unsigned, centred on 128
+                case 1 -> (pcm.get(offset) & 0xFF) - 128;
+                case 2 -> pcm.get(offset + 1) << 8 | (pcm.get(offset) & 0xFF);
+                case 3 -> pcm.get(offset + 2) << 16 | (pcm.get(offset + 1) & 0xFF) << 8 | (pcm.get(offset) & 0xFF);
+                default -> pcm.get(offset + 3) << 16 | (pcm.get(offset + 2) & 0xFF) << 8 | (pcm.get(offset + 1) & 0xFF);
+            };
+        }
+    }
+}
@@ -0,0 +1,648 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Infrastructure adapter for storing audio recordings in append-only segment files.
+ * Every store appends a record (id, format and PCM, checked by a CRC-32C) to the active segment;
+ * every clear appends a tombstone. A compact in-memory index maps each id to its segment, offset,
+ * length and format and is rebuilt by scanning the segments on startup, so recordings survive
+ * restarts; the scan stops at the first record whose checksum does not match.
+ * Reads are served as slices of a {@link MappedByteBuffer}: the returned payload shares the page
+ * cache and never copies the audio onto the heap. The active segment is mapped in fixed windows,
+ * so a read past the mapped part maps one window rather than the whole segment again. Full segments
+ * are forced to disk, sealed and mapped once. By default every store and clear is also forced to disk
+ * before it returns; with synchronous writes turned off, the records of the active segment can be lost
+ * in a crash of the operating system until the segment is sealed or the store is closed. A record,
+ * header included, must fit in a single mapping of at most 2 GB.
+ * A background task rewrites the live records of sealed segments that are mostly dead into the
+ * active segment one record at a time, so stores and clears are not held up by a whole rewrite,
+ * and deletes the old files.
+ */
+public class MappedFileAudioRecordingAdapter implements AudioRecordingPort, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileAudioRecordingAdapter.class);
+
+    public static final long DEFAULT_SEGMENT_SIZE = 256L * 1024 * 1024; // 256 MB
+
+    static final String SEGMENT_PREFIX = "recordings-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int RECORD_MAGIC = 0x52454332; // "REC2"
+    private static final byte TYPE_RECORDING = 1;
+    private static final byte TYPE_TOMBSTONE = 2;
+    // A recording whose payload was encoded by a compressing store rather than held as PCM
+    private static final byte TYPE_ENCODED_RECORDING = 3;
+    // magic + type + id length + samples per second + bits per sample + channels + data length + CRC
+    private static final int FIXED_HEADER_SIZE = 4 + 1 + 2 + 8 + 2 + 2 + 4 + 4;
+    private static final double COMPACTION_DEAD_RATIO = 0.5;
+    // Size of the windows the active segment is mapped in
+    static final int MAPPING_WINDOW_SIZE = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean syncWrites;
+    private final Object writeLock = new Object();
+    // Serializes compactions, which hold the write lock only for one record at a time
+    private final Object compactionLock = new Object();
+    private final ConcurrentHashMap<String, IndexEntry> index = new ConcurrentHashMap<>();
+    // Sealed and active segments by id, guarded by writeLock
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final ScheduledExecutorService compactor;
+    private Segment active;
+
+    /**
+     * Opens the store with every store and clear forced to disk before it returns
+     *
+     * @param directory The directory holding the segment files; created if missing
+     * @param segmentSize The size at which a segment is sealed and a new one started
+     * @param compactionInterval How often sealed segments are checked for compaction; zero disables background compaction
+     * @throws UncheckedIOException if the segments cannot be read
+     */
+    public MappedFileAudioRecordingAdapter(Path directory, long segmentSize, Duration compactionInterval) {
+        this(directory, segmentSize, compactionInterval, true);
+    }
+
+    /**
+     * Opens the store, recovering the index from existing segment files
+     *
+     * @param directory The directory holding the segment files; created if missing
+     * @param segmentSize The size at which a segment is sealed and a new one started
+     * @param compactionInterval How often sealed segments are checked for compaction; zero disables background compaction
+     * @param syncWrites Whether every store and clear is forced to disk before it returns, rather than
+     *     only when its segment is sealed
+     * @throws UncheckedIOException if the segments cannot be read
+     */
+    public MappedFileAudioRecordingAdapter(Path directory, long segmentSize, Duration compactionInterval,
+                                           boolean syncWrites) {
+        this.directory = Objects.requireNonNull(directory, "Directory cannot be null");
+        Objects.requireNonNull(compactionInterval, "Compaction interval cannot be null");
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between 1 and " + Integer.MAX_VALUE + " bytes");
+        }
+        this.segmentSize = segmentSize;
+        this.syncWrites = syncWrites;
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open recording segments in " + directory, e);
+        }
+
+        if (compactionInterval.isZero() || compactionInterval.isNegative()) {
+            this.compactor = null;
+        } else {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "recording-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = compactionInterval.toMillis();
+            compactor.scheduleWithFixedDelay(this::compactQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public AudioBean storeRecording(AudioBean audioBean) {
+        if (audioBean == null) {
+            throw new IllegalArgumentException("AudioBean cannot be null");
+        }
+
+        if (audioBean.getId() == null || audioBean.getId().trim().isEmpty()) {
+            throw new IllegalArgumentException("AudioBean ID cannot be null or empty");
+        }
+
+        // Records, and segments holding a single record, are mapped whole, which cannot exceed 2 GB
+        long recordSize = FIXED_HEADER_SIZE + audioBean.getId().getBytes(StandardCharsets.UTF_8).length
+                + audioBean.getAudioDataSize();
+        if (recordSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Recording of " + audioBean.getAudioDataSize()
+                    + " bytes exceeds the 2 GB record limit of the file store, header included");
+        }
+
+        try {
+            synchronized (writeLock) {
+                byte type = EncodedRecording.isEncoded(audioBean) ? TYPE_ENCODED_RECORDING : TYPE_RECORDING;
+                IndexEntry entry = append(type, audioBean.getId(), audioBean.getSamplesPerSecond(),
+                        audioBean.getBitsPerSample(), audioBean.getChannels(), audioBean.getAudioPayload());
+                markDead(index.put(audioBean.getId(), entry));
+                if (syncWrites) {
+                    active.channel.force(false);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store recording " + audioBean.getId(), e);
+        }
+        return audioBean;
+    }
+
+    /**
+     * Returns a bean whose payload is a slice of the memory-mapped segment.
+     * Transcription results set on the bean are not persisted.
+     */
+    @Override
+    public AudioBean getRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        IndexEntry entry = index.get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        AudioPayload payload;
+        try {
+            payload = entry.segment.slice(entry.dataOffset, entry.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read recording " + id, e);
+        }
+
+        AudioBean audioBean = EncodedRecording.of(id, payload, entry.encoded);
+        audioBean.setSamplesPerSecond(entry.samplesPerSecond);
+        audioBean.setBitsPerSample(entry.bitsPerSample);
+        audioBean.setChannels(entry.channels);
+        return audioBean;
+    }
+
+    @Override
+    public boolean clearRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        try {
+            synchronized (writeLock) {
+                IndexEntry entry = index.remove(id);
+                if (entry == null) {
+                    return false;
+                }
+
+                IndexEntry tombstone = append(TYPE_TOMBSTONE, id, 0, (short) 0, (short) 0, AudioPayload.empty());
+                markDead(entry);
+                markDead(tombstone);
+                if (syncWrites) {
+                    active.channel.force(false);
+                }
+                return true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear recording " + id, e);
+        }
+    }
+
+    /**
+     * Rewrites the live records of sealed segments that are at least half dead into the active
+     * segment and deletes the old segment files. The write lock is taken for one record at a time,
+     * so stores and clears interleave with the rewrite.
+     *
+     * @return The number of segments removed
+     * @throws UncheckedIOException if a segment cannot be rewritten
+     */
+    public int compact() {
+        int removed = 0;
+        try {
+            synchronized (compactionLock) {
+                List<Segment> candidates = new ArrayList<>();
+                synchronized (writeLock) {
+                    for (Segment segment : segments.values()) {
+                        if (segment != active && segment.deadBytes >= segment.size * COMPACTION_DEAD_RATIO) {
+                            candidates.add(segment);
+                        }
+                    }
+                }
+
+                for (Segment segment : candidates) {
+                    rewrite(segment);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact recording segments", e);
+        }
+        return removed;
+    }
+
+    /**
+     * @return The number of recordings in the index
+     */
+    public int getRecordingCount() {
+        return index.size();
+    }
+
+    /**
+     * @return The number of segment files, including the active one
+     */
+    public int getSegmentCount() {
+        synchronized (writeLock) {
+            return segments.size();
+        }
+    }
+
+    /**
+     * @return The bytes held by segment files, live and dead
+     */
+    public long getDiskBytes() {
+        synchronized (writeLock) {
+            long total = 0;
+            for (Segment segment : segments.values()) {
+                total += segment.size;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Stops background compaction, forces the active segment to disk and closes it. Mapped payloads
+     * already handed out stay readable.
+     */
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        synchronized (writeLock) {
+            if (active.channel != null) {
+                active.channel.force(false);
+            }
+            for (Segment segment : segments.values()) {
+                segment.closeChannel();
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            int removed = compact();
+            if (removed > 0) {
+                logger.debug("Compacted {} recording segments", removed);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Recording segment compaction failed", e);
+        }
+    }
+
+    /**
+     * Moves the live records of a sealed segment to the active segment and deletes it.
+     * The segment is immutable, so it is read without the write lock; each record is checked
+     * and moved under the lock, against stores and clears that happened since.
+     */
+    private void rewrite(Segment segment) throws IOException {
+        boolean oldest;
+        synchronized (writeLock) {
+            oldest = segment == segments.firstEntry().getValue();
+        }
+
+        ByteBuffer records = segment.mapped.duplicate();
+        while (records.remaining() >= FIXED_HEADER_SIZE) {
+            Record record = Record.read(records);
+            if (record == null) {
+                break;
+            }
+
+            synchronized (writeLock) {
+                if (record.isRecording()) {
+                    IndexEntry current = index.get(record.id);
+                    if (current != null && current.segment == segment && current.dataOffset == record.dataOffset) {
+                        AudioPayload data = AudioPayload.of(segment.mapped.slice((int) record.dataOffset, record.length));
+                        IndexEntry moved = append(record.type, record.id, record.samplesPerSecond,
+                                record.bitsPerSample, record.channels, data);
+                        index.put(record.id, moved);
+                    }
+                } else if (!oldest && !index.containsKey(record.id)) {
+                    // Older segments may still hold the record this tombstone cancels. A live id was stored
+                    // again after the tombstone, and that newer record supersedes the older one on replay.
+                    markDead(append(TYPE_TOMBSTONE, record.id, 0, (short) 0, (short) 0, AudioPayload.empty()));
+                }
+            }
+        }
+
+        synchronized (writeLock) {
+            for (IndexEntry entry : index.values()) {
+                if (entry.segment == segment) {
+                    // A record the scan could not read, such as one damaged on disk since startup
+                    throw new IOException("Segment " + segment.path + " still holds live records after its rewrite");
+                }
+            }
+            // The moved records must be on disk before their old copies are deleted
+            active.channel.force(false);
+            segments.remove(segment.id);
+            segment.closeChannel();
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    private IndexEntry append(byte type, String id, long samplesPerSecond, short bitsPerSample, short channels,
+                              AudioPayload data) throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Recording ID is too long");
+        }
+
+        long recordSize = FIXED_HEADER_SIZE + idBytes.length + (long) data.length();
+        if (active.size > 0 && active.size + recordSize > segmentSize) {
+            active.seal();
+            active = openSegment(active.id + 1);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + idBytes.length);
+        header.putInt(RECORD_MAGIC);
+        header.put(type);
+        header.putShort((short) idBytes.length);
+        header.put(idBytes);
+        header.putLong(samplesPerSecond);
+        header.putShort(bitsPerSample);
+        header.putShort(channels);
+        header.putInt(data.length());
+
+        ByteBuffer[] views = data.asReadOnlyBuffers();
+        CRC32C crc = new CRC32C();
+        crc.update(header.slice(4, header.position() - 4));
+        for (ByteBuffer view : views) {
+            crc.update(view.duplicate());
+        }
+        header.putInt((int) crc.getValue());
+        header.flip();
+
+        ByteBuffer[] buffers = new ByteBuffer[views.length + 1];
+        buffers[0] = header;
+        System.arraycopy(views, 0, buffers, 1, views.length);
+
+        long recordOffset = active.size;
+        active.channel.position(recordOffset);
+        long written = 0;
+        while (written < recordSize) {
+            written += active.channel.write(buffers);
+        }
+        active.size += recordSize;
+
+        return new IndexEntry(active, recordOffset + header.limit(), data.length(), recordSize,
+                samplesPerSecond, bitsPerSample, channels, type == TYPE_ENCODED_RECORDING);
+    }
+
+    private void markDead(IndexEntry entry) {
+        if (entry != null) {
+            entry.segment.deadBytes += entry.recordSize;
+        }
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    int id = Integer.parseInt(number);
+                    segments.put(id, new Segment(id, file));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file in recording directory: {}", file);
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, Segment> entry : segments.entrySet()) {
+            Segment segment = entry.getValue();
+            boolean last = entry.getKey().equals(segments.lastKey());
+            segment.channel = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment.size = segment.channel.size();
+            replay(segment, last);
+            if (!last) {
+                segment.seal();
+            }
+        }
+
+        if (segments.isEmpty()) {
+            active = openSegment(0);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        logger.debug("Recovered {} recordings from {} segments in {}", index.size(), segments.size(), directory);
+    }
+
+    private void replay(Segment segment, boolean last) throws IOException {
+        ByteBuffer records = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.size);
+        long validSize = 0;
+        while (records.remaining() >= FIXED_HEADER_SIZE) {
+            Record record = Record.read(records);
+            if (record == null) {
+                break;
+            }
+
+            long recordSize = records.position() - validSize;
+            IndexEntry entry = new IndexEntry(segment, record.dataOffset, record.length, recordSize,
+                    record.samplesPerSecond, record.bitsPerSample, record.channels, record.type == TYPE_ENCODED_RECORDING);
+            if (record.isRecording()) {
+                markDead(index.put(record.id, entry));
+            } else {
+                markDead(index.remove(record.id));
+                markDead(entry);
+            }
+            validSize = records.position();
+        }
+
+        if (validSize < segment.size) {
+            logger.warn("Discarding {} bytes of incomplete records in {}", segment.size - validSize, segment.path);
+            if (last) {
+                // Interrupted append: cut it off so new records follow the last complete one
+                segment.channel.truncate(validSize);
+                segment.size = validSize;
+            } else {
+                segment.deadBytes += segment.size - validSize;
+            }
+        }
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        Segment segment = new Segment(id, path);
+        segment.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.size = segment.channel.size();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * One segment file. Sizes and dead bytes are guarded by the store's write lock; the mapping by the segment itself.
+     */
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private FileChannel channel;
+        private long size;
+        private long deadBytes;
+        private MappedByteBuffer mapped;
+        // Mappings of the active segment by window index
+        private final Map<Integer, MappedByteBuffer> windows = new HashMap<>();
+
+        private Segment(int id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+
+        /**
+         * Forces the segment to disk, maps it whole for good and closes its channel; the segment no longer grows
+         */
+        private synchronized void seal() throws IOException {
+            channel.force(true);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            windows.clear();
+            closeChannel();
+        }
+
+        /**
+         * Returns a view of a region. In the active segment the region is served from the fixed
+         * windows covering it; a window is mapped again only when the region lies past its mapped end.
+         */
+        private synchronized AudioPayload slice(long offset, int length) throws IOException {
+            if (mapped != null) {
+                return AudioPayload.of(mapped.slice((int) offset, length));
+            }
+
+            List<AudioPayload> parts = new ArrayList<>();
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                int windowIndex = (int) (position / MAPPING_WINDOW_SIZE);
+                long windowStart = (long) windowIndex * MAPPING_WINDOW_SIZE;
+                long windowEnd = Math.min(end, windowStart + MAPPING_WINDOW_SIZE);
+                MappedByteBuffer window = windows.get(windowIndex);
+                if (window == null || windowStart + window.capacity() < windowEnd) {
+                    long windowLength = Math.min(MAPPING_WINDOW_SIZE, channel.size() - windowStart);
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+                    windows.put(windowIndex, window);
+                }
+                parts.add(AudioPayload.of(window.slice((int) (position - windowStart), (int) (windowEnd - position))));
+                position = windowEnd;
+            }
+            return AudioPayload.concat(parts.toArray(new AudioPayload[0]));
+        }
+
+        private synchronized void closeChannel() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Location and format of a record. Kept per recording, so it holds no audio bytes.
+     * The content key is kept in memory only; recordings recovered from disk are hashed again when deduplicated.
+     */
+    private static final class IndexEntry {
+        private final Segment segment;
+        private final long dataOffset;
+        private final int length;
+        private final long recordSize;
+        private final long samplesPerSecond;
+        private final short bitsPerSample;
+        private final short channels;
+        private final boolean encoded;
+
+        private IndexEntry(Segment segment, long dataOffset, int length, long recordSize,
+                           long samplesPerSecond, short bitsPerSample, short channels, boolean encoded) {
+            this.segment = segment;
+            this.dataOffset = dataOffset;
+            this.length = length;
+            this.recordSize = recordSize;
+            this.samplesPerSecond = samplesPerSecond;
+            this.bitsPerSample = bitsPerSample;
+            this.channels = channels;
+            this.encoded = encoded;
+        }
+    }
+
+    /**
+     * A record header decoded from a segment
+     */
+    private static final class Record {
+        private byte type;
+        private String id;
+        private long samplesPerSecond;
+        private short bitsPerSample;
+        private short channels;
+        private long dataOffset;
+        private int length;
+
+        /**
+         * Reads the record at the buffer's position and moves past its data
+         *
+         * @return The record, or null if the buffer holds no complete, valid record at its position
+         */
+        private static Record read(ByteBuffer buffer) {
+            int start = buffer.position();
+            if (buffer.remaining() < FIXED_HEADER_SIZE || buffer.getInt() != RECORD_MAGIC) {
+                buffer.position(start);
+                return null;
+            }
+
+            Record record = new Record();
+            record.type = buffer.get();
+            int idLength = buffer.getShort();
+            if ((!record.isRecording() && record.type != TYPE_TOMBSTONE) || idLength < 0
+                    || buffer.remaining() < idLength + FIXED_HEADER_SIZE - 7) {
+                buffer.position(start);
+                return null;
+            }
+
+            byte[] idBytes = new byte[idLength];
+            buffer.get(idBytes);
+            record.id = new String(idBytes, StandardCharsets.UTF_8);
+            record.samplesPerSecond = buffer.getLong();
+            record.bitsPerSample = buffer.getShort();
+            record.channels = buffer.getShort();
+            record.length = buffer.getInt();
+            int checksumOffset = buffer.position();
+            int checksum = buffer.getInt();
+            if (record.length < 0 || buffer.remaining() < record.length) {
+                buffer.position(start);
+                return null;
+            }
+
+            record.dataOffset = buffer.position();
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(start + 4, checksumOffset - start - 4));
+            crc.update(buffer.slice((int) record.dataOffset, record.length));
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                return null;
+            }
+
+            buffer.position(buffer.position() + record.length);
+            return record;
+        }
+
+        private boolean isRecording() {
+            return type == TYPE_RECORDING || type == TYPE_ENCODED_RECORDING;
+        }
+    }
+}
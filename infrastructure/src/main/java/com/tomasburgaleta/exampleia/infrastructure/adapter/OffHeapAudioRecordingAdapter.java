@@ -0,0 +1,367 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+import com.tomasburgaleta.exampleia.domain.port.RecordingLease;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Infrastructure adapter for storing audio recordings off-heap.
+ * The PCM bytes are copied into blocks of a {@link DirectSlabAllocator}; only the metadata and the
+ * block ids stay on the heap, so gigabytes of audio add no old-generation pressure.
+ * Lookups never allocate direct memory outside the allocator's budget. {@link #getRecording(String)}
+ * returns a bean whose audio is read lazily, one block copied onto the heap at a time, so metadata
+ * lookups copy nothing; reading it after the recording was cleared fails instead of reading reused
+ * blocks. {@link #openRecording(String)} hands out read-only views of the blocks themselves, which
+ * stay allocated until the lease is closed: clearing or replacing a leased recording defers the
+ * release of its blocks to the last lease, rather than waiting for it, and they keep counting
+ * against the maximum meanwhile. Whenever releases leave more than a slab of free blocks inside
+ * the live slabs, the blocks of unleased recordings are moved down so the upper slabs are dropped.
+ */
+public class OffHeapAudioRecordingAdapter implements AudioRecordingPort {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024; // 64 KB
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024; // 4 MB
+
+    private final DirectSlabAllocator allocator;
+    private final ConcurrentHashMap<String, StoredRecording> recordings = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxBytes The maximum off-heap memory for all recordings
+     */
+    public OffHeapAudioRecordingAdapter(long maxBytes) {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_SLAB_SIZE, maxBytes);
+    }
+
+    public OffHeapAudioRecordingAdapter(int blockSize, int slabSize, long maxBytes) {
+        this.allocator = new DirectSlabAllocator(blockSize, slabSize, maxBytes);
+    }
+
+    /**
+     * Copies the recording's audio off-heap
+     *
+     * @return The given bean, which keeps its own payload
+     * @throws IllegalStateException if the off-heap memory is exhausted
+     */
+    @Override
+    public AudioBean storeRecording(AudioBean audioBean) {
+        if (audioBean == null) {
+            throw new IllegalArgumentException("AudioBean cannot be null");
+        }
+
+        if (audioBean.getId() == null || audioBean.getId().trim().isEmpty()) {
+            throw new IllegalArgumentException("AudioBean ID cannot be null or empty");
+        }
+
+        AudioPayload source = audioBean.getAudioPayload();
+        int[] blocks = allocator.allocate(source.size());
+        int blockSize = allocator.getBlockSize();
+        ByteBuffer[] views = source.asReadOnlyBuffers();
+        int view = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            int length = (int) Math.min(blockSize, source.size() - (long) i * blockSize);
+            ByteBuffer block = allocator.block(blocks[i]).limit(length);
+            while (block.hasRemaining()) {
+                ByteBuffer src = views[view];
+                int count = Math.min(src.remaining(), block.remaining());
+                block.put(src.slice(src.position(), count));
+                src.position(src.position() + count);
+                if (!src.hasRemaining()) {
+                    view++;
+                }
+            }
+        }
+
+        AudioBean metadata = new AudioBean(audioBean.getId(), AudioPayload.empty());
+        copyMetadata(audioBean, metadata);
+
+        StoredRecording replaced = recordings.put(metadata.getId(),
+                new StoredRecording(metadata, EncodedRecording.isEncoded(audioBean), source.size(), blocks));
+        if (replaced != null && replaced.remove()) {
+            compactIfFragmented();
+        }
+        return audioBean;
+    }
+
+    /**
+     * Returns a bean whose audio is copied onto the heap block by block as it is read.
+     * Reading it after the recording was cleared or replaced throws {@link IllegalStateException}.
+     */
+    @Override
+    public AudioBean getRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        while (true) {
+            StoredRecording recording = recordings.get(id);
+            if (recording == null) {
+                return null;
+            }
+            AudioBean bean = recording.lookup();
+            if (bean != null) {
+                return bean;
+            }
+            // Removed by a concurrent clear or replace: look again
+        }
+    }
+
+    /**
+     * Leases the recording, whose audio then reads the off-heap blocks in place
+     */
+    @Override
+    public RecordingLease openRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        while (true) {
+            StoredRecording recording = recordings.get(id);
+            if (recording == null) {
+                return null;
+            }
+            RecordingLease lease = recording.lease();
+            if (lease != null) {
+                return lease;
+            }
+        }
+    }
+
+    @Override
+    public boolean updateTranscription(AudioBean audioBean) {
+        if (audioBean == null) {
+            throw new IllegalArgumentException("AudioBean cannot be null");
+        }
+
+        StoredRecording recording = recordings.get(audioBean.getId());
+        return recording != null && recording.updateTranscription(audioBean);
+    }
+
+    /**
+     * Removes the recording and returns its off-heap blocks to the allocator, once no lease holds them
+     */
+    @Override
+    public boolean clearRecording(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recording ID cannot be null or empty");
+        }
+
+        StoredRecording recording = recordings.remove(id);
+        if (recording == null) {
+            return false;
+        }
+
+        if (recording.remove()) {
+            compactIfFragmented();
+        }
+        return true;
+    }
+
+    /**
+     * Moves the blocks of recordings without open leases into free blocks of lower slabs, so the
+     * upper slabs empty out and their memory is given back
+     */
+    public synchronized void compact() {
+        for (StoredRecording recording : recordings.values()) {
+            recording.compact();
+        }
+    }
+
+    /**
+     * @return The off-heap memory reserved by the allocator's live slabs
+     */
+    public long getReservedBytes() {
+        return allocator.getReservedBytes();
+    }
+
+    /**
+     * @return The off-heap memory held by stored and leased recordings, rounded up to whole blocks
+     */
+    public long getUsedBytes() {
+        return allocator.getUsedBytes();
+    }
+
+    private void compactIfFragmented() {
+        if (allocator.getReservedBytes() - allocator.getUsedBytes() > allocator.getSlabSize()) {
+            compact();
+        }
+    }
+
+    private static void copyMetadata(AudioBean source, AudioBean target) {
+        target.setSamplesPerSecond(source.getSamplesPerSecond());
+        target.setBitsPerSample(source.getBitsPerSample());
+        target.setChannels(source.getChannels());
+        target.setTranscribedText(source.getTranscribedText());
+        target.setAiResponse(source.getAiResponse());
+        target.setDetectedLanguage(source.getDetectedLanguage());
+        target.setTranscribedOffsetMap(source.getTranscribedOffsetMap());
+    }
+
+    /**
+     * The metadata and blocks of a recording. Reads, leases, moves and the release of the blocks
+     * are serialized, so a lookup never reads blocks that were handed to another recording.
+     */
+    private final class StoredRecording implements AudioPayload.PartSource {
+        private final AudioBean metadata;
+        private final boolean encoded;
+        private final long size;
+        private final int[] blocks;
+        private int leases;
+        private boolean removed;
+        private boolean released;
+
+        private StoredRecording(AudioBean metadata, boolean encoded, long size, int[] blocks) {
+            this.metadata = metadata;
+            this.encoded = encoded;
+            this.size = size;
+            this.blocks = blocks;
+        }
+
+        @Override
+        public int partCount() {
+            return blocks.length;
+        }
+
+        @Override
+        public int partLength(int index) {
+            return (int) Math.min(allocator.getBlockSize(), size - (long) index * allocator.getBlockSize());
+        }
+
+        /**
+         * @return A heap copy of one block
+         * @throws IllegalStateException if the blocks were released
+         */
+        @Override
+        public synchronized ByteBuffer readPart(int index) {
+            if (released) {
+                throw new IllegalStateException("Recording " + metadata.getId() + " was cleared");
+            }
+            ByteBuffer copy = ByteBuffer.allocate(partLength(index));
+            copy.put(allocator.block(blocks[index]).limit(copy.capacity()));
+            return copy.flip();
+        }
+
+        /**
+         * @return A bean reading this recording lazily, or null if it was removed
+         */
+        private synchronized AudioBean lookup() {
+            if (removed) {
+                return null;
+            }
+            AudioBean bean = EncodedRecording.of(metadata.getId(), AudioPayload.lazy(this), encoded);
+            copyMetadata(metadata, bean);
+            return bean;
+        }
+
+        /**
+         * @return A lease on the blocks, or null if the recording was removed
+         */
+        private synchronized RecordingLease lease() {
+            if (removed) {
+                return null;
+            }
+            ByteBuffer[] views = new ByteBuffer[blocks.length];
+            for (int i = 0; i < blocks.length; i++) {
+                views[i] = allocator.block(blocks[i]).limit(partLength(i)).asReadOnlyBuffer();
+            }
+            leases++;
+            return new Lease(this, views);
+        }
+
+        private synchronized boolean updateTranscription(AudioBean audioBean) {
+            if (removed) {
+                return false;
+            }
+            metadata.setTranscribedText(audioBean.getTranscribedText());
+            metadata.setAiResponse(audioBean.getAiResponse());
+            metadata.setDetectedLanguage(audioBean.getDetectedLanguage());
+            metadata.setTranscribedOffsetMap(audioBean.getTranscribedOffsetMap());
+            return true;
+        }
+
+        /**
+         * @return true if the blocks were released
+         */
+        private synchronized boolean remove() {
+            removed = true;
+            return releaseIfUnused();
+        }
+
+        /**
+         * @return true if the blocks were released
+         */
+        private synchronized boolean unlease() {
+            leases--;
+            return releaseIfUnused();
+        }
+
+        private boolean releaseIfUnused() {
+            if (!removed || leases > 0 || released) {
+                return false;
+            }
+            released = true;
+            allocator.release(blocks);
+            return true;
+        }
+
+        private synchronized void compact() {
+            if (removed || leases > 0) {
+                return;
+            }
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = allocator.relocate(blocks[i]);
+            }
+        }
+    }
+
+    /**
+     * A lease on a recording, whose audio reads the views of its blocks until the lease is closed
+     */
+    private final class Lease implements RecordingLease, AudioPayload.PartSource {
+        private final StoredRecording recording;
+        private final ByteBuffer[] views;
+        private final AudioBean bean;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(StoredRecording recording, ByteBuffer[] views) {
+            this.recording = recording;
+            this.views = views;
+            this.bean = EncodedRecording.of(recording.metadata.getId(), AudioPayload.lazy(this), recording.encoded);
+            copyMetadata(recording.metadata, bean);
+        }
+
+        @Override
+        public AudioBean getRecording() {
+            return bean;
+        }
+
+        @Override
+        public int partCount() {
+            return views.length;
+        }
+
+        @Override
+        public int partLength(int index) {
+            return views[index].limit();
+        }
+
+        @Override
+        public ByteBuffer readPart(int index) {
+            if (closed.get()) {
+                throw new IllegalStateException("Lease on recording " + bean.getId() + " was closed");
+            }
+            return views[index];
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true) && recording.unlease()) {
+                compactIfFragmented();
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Voice activity detection from three features of short frames of the audio, downmixed to mono:
+ * <ul>
+ *   <li>energy, compared with the background noise, taken as the quietest frame within a second and
+ *       a half on either side, so the threshold follows the recording level and the room. The estimate
+ *       is capped at the level of a loud room, so that a long stretch of speech without a pause cannot
+ *       be taken for noise;</li>
+ *   <li>spectral flatness over 100 Hz to 8 kHz, near 0 for the harmonic spectrum of voiced speech and
+ *       near 0.5 for noise;</li>
+ *   <li>zero-crossing rate, high for the noise-like fricatives that flatness alone would miss.</li>
+ * </ul>
+ * Each frame gets a confidence from its energy above the noise and the stronger of its voicing and
+ * friction. Speech frames are then joined into segments across pauses shorter than the minimum
+ * silence, segments shorter than the minimum speech are dropped and the rest are padded so the
+ * onsets and releases around them are kept. The frames are read once, straight from the payload
+ * buffers, and each costs one radix-2 FFT, so an hour of audio is analyzed in seconds.
+ */
+public class SpectralVoiceActivityDetectorAdapter implements VoiceActivityDetectorPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpectralVoiceActivityDetectorAdapter.class);
+
+    public static final int DEFAULT_FRAME_MILLIS = 20;
+    public static final int DEFAULT_MIN_SPEECH_MILLIS = 100;
+    public static final int DEFAULT_MIN_SILENCE_MILLIS = 200;
+    public static final int DEFAULT_PADDING_MILLIS = 50;
+
+    private static final double MIN_LEVEL_DB = -50; // Quieter frames are never speech
+    private static final double SILENCE_LEVEL_DB = -120; // Level given to digital silence
+    private static final int NOISE_WINDOW_MILLIS = 1500; // On each side of a frame
+    private static final double MAX_NOISE_FLOOR_DB = -40; // A loud room; speech is usually 15 dB or more above it
+    private static final double SNR_LOW_DB = 6; // No confidence at or below this level above the noise
+    private static final double SNR_HIGH_DB = 18; // Full confidence from this level above the noise
+    private static final double VOICED_FLATNESS = 0.1;
+    private static final double NOISE_FLATNESS = 0.4;
+    private static final double VOICED_ZCR = 0.15;
+    private static final double FRICATIVE_ZCR = 0.35;
+    private static final double FRICATIVE_WEIGHT = 0.8; // Friction is weaker evidence than voicing
+    private static final double SPEECH_CONFIDENCE = 0.5;
+    private static final double LOW_FREQUENCY = 100;
+    private static final double HIGH_FREQUENCY = 8000;
+    private static final int MAX_FRAME_SAMPLES = 1 << 20;
+
+    private final int frameMillis;
+    private final int minSpeechMillis;
+    private final int minSilenceMillis;
+    private final int paddingMillis;
+
+    public SpectralVoiceActivityDetectorAdapter() {
+        this(DEFAULT_FRAME_MILLIS, DEFAULT_MIN_SPEECH_MILLIS, DEFAULT_MIN_SILENCE_MILLIS, DEFAULT_PADDING_MILLIS);
+    }
+
+    /**
+     * @param frameMillis The length of an analysis frame in milliseconds
+     * @param minSpeechMillis The shortest segment reported
+     * @param minSilenceMillis The shortest pause that separates two segments
+     * @param paddingMillis The audio kept before and after each segment
+     * @throws IllegalArgumentException if the frame length is not positive or another duration is negative
+     */
+    public SpectralVoiceActivityDetectorAdapter(int frameMillis, int minSpeechMillis, int minSilenceMillis, int paddingMillis) {
+        if (frameMillis <= 0) {
+            throw new IllegalArgumentException("Frame length must be positive: " + frameMillis);
+        }
+        if (minSpeechMillis < 0 || minSilenceMillis < 0 || paddingMillis < 0) {
+            throw new IllegalArgumentException("Durations cannot be negative");
+        }
+        this.frameMillis = frameMillis;
+        this.minSpeechMillis = minSpeechMillis;
+        this.minSilenceMillis = minSilenceMillis;
+        this.paddingMillis = paddingMillis;
+    }
+
+    @Override
+    public List<SpeechSegment> detectSpeech(AudioPayload pcmData, long samplesPerSecond, short bitsPerSample, short channels) {
+        Objects.requireNonNull(pcmData, "PCM data cannot be null");
+        if (samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Samples per second must be positive");
+        }
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channels must be positive");
+        }
+        if (bitsPerSample != 8 && bitsPerSample != 16 && bitsPerSample != 24 && bitsPerSample != 32) {
+            throw new IllegalArgumentException("Unsupported bits per sample: " + bitsPerSample);
+        }
+
+        long frameLength = Math.max(1, samplesPerSecond * frameMillis / 1000);
+        if (frameLength > MAX_FRAME_SAMPLES) {
+            throw new IllegalArgumentException("Analysis frame too long: " + frameLength + " samples");
+        }
+        int frameSamples = (int) frameLength;
+        long totalSamples = pcmData.size() / ((long) bitsPerSample / 8 * channels);
+        long frameCount = totalSamples / frameSamples;
+        if (frameCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Audio too long to analyze: " + totalSamples + " samples");
+        }
+        if (frameCount == 0) {
+            return List.of();
+        }
+
+        double[] confidence = confidence(analyze(new SampleReader(pcmData, bitsPerSample / 8, channels),
+            (int) frameCount, frameSamples, samplesPerSecond));
+        List<SpeechSegment> segments = segments(confidence, frameSamples, totalSamples);
+
+        if (logger.isDebugEnabled()) {
+            long speechSamples = segments.stream().mapToLong(SpeechSegment::length).sum();
+            logger.debug("Voice activity detection: {} frames, {} segments, {}% speech",
+                         frameCount, segments.size(), String.format("%.1f", 100.0 * speechSamples / totalSamples));
+        }
+        return segments;
+    }
+
+    /**
+     * Computes the level, zero-crossing rate and spectral flatness of every frame
+     */
+    private static Features analyze(SampleReader reader, int frameCount, int frameSamples, long samplesPerSecond) {
+        Features features = new Features(frameCount);
+        Fft fft = new Fft(Integer.highestOneBit(Math.max(2, frameSamples - 1)) << 1);
+        double[] window = hann(frameSamples);
+        double[] frame = new double[frameSamples];
+        double[] re = new double[fft.size];
+        double[] im = new double[fft.size];
+        int lowBin = (int) Math.max(1, Math.ceil(LOW_FREQUENCY * fft.size / samplesPerSecond));
+        int highBin = (int) Math.min(fft.size / 2, Math.floor(HIGH_FREQUENCY * fft.size / samplesPerSecond));
+        if (highBin < lowBin) {
+            lowBin = 1;
+            highBin = fft.size / 2;
+        }
+        // Keeps the logarithm finite on silent bins, about 120 dB below a full-scale tone
+        double powerFloor = 1e-12 * frameSamples * frameSamples;
+
+        for (int f = 0; f < frameCount; f++) {
+            double energy = 0;
+            int crossings = 0;
+            boolean positive = true;
+            for (int i = 0; i < frameSamples; i++) {
+                double sample = reader.next();
+                frame[i] = sample;
+                energy += sample * sample;
+                boolean nonNegative = sample >= 0;
+                if (i > 0 && nonNegative != positive) {
+                    crossings++;
+                }
+                positive = nonNegative;
+            }
+            double meanSquare = energy / frameSamples;
+            features.level[f] = meanSquare > 0 ? Math.max(SILENCE_LEVEL_DB, 10 * Math.log10(meanSquare)) : SILENCE_LEVEL_DB;
+            features.zeroCrossingRate[f] = frameSamples > 1 ? (double) crossings / (frameSamples - 1) : 0;
+
+            for (int i = 0; i < frameSamples; i++) {
+                re[i] = frame[i] * window[i];
+            }
+            Arrays.fill(re, frameSamples, fft.size, 0);
+            Arrays.fill(im, 0);
+            fft.transform(re, im);
+
+            double logSum = 0;
+            double sum = 0;
+            for (int k = lowBin; k <= highBin; k++) {
+                double power = re[k] * re[k] + im[k] * im[k] + powerFloor;
+                logSum += Math.log(power);
+                sum += power;
+            }
+            int bins = highBin - lowBin + 1;
+            features.flatness[f] = Math.exp(logSum / bins) / (sum / bins);
+        }
+        return features;
+    }
+
+    /**
+     * Turns the features of every frame into a speech confidence between 0 and 1
+     */
+    private double[] confidence(Features features) {
+        int frameCount = features.level.length;
+        double[] noiseFloor = slidingMinimum(features.level, Math.max(1, NOISE_WINDOW_MILLIS / frameMillis));
+        double[] confidence = new double[frameCount];
+        for (int f = 0; f < frameCount; f++) {
+            if (features.level[f] < MIN_LEVEL_DB) {
+                continue;
+            }
+            double noise = Math.min(MAX_NOISE_FLOOR_DB, noiseFloor[f]);
+            double loudness = ramp(features.level[f] - noise, SNR_LOW_DB, SNR_HIGH_DB);
+            double voicing = ramp(NOISE_FLATNESS - features.flatness[f], 0, NOISE_FLATNESS - VOICED_FLATNESS);
+            double friction = ramp(features.zeroCrossingRate[f], VOICED_ZCR, FRICATIVE_ZCR);
+            confidence[f] = loudness * Math.max(voicing, FRICATIVE_WEIGHT * friction);
+        }
+        return confidence;
+    }
+
+    /**
+     * Joins speech frames into segments across short pauses, drops short segments and pads the others
+     */
+    private List<SpeechSegment> segments(double[] confidence, int frameSamples, long totalSamples) {
+        int minSpeechFrames = frames(minSpeechMillis);
+        int minSilenceFrames = Math.max(1, frames(minSilenceMillis));
+        int paddingFrames = frames(paddingMillis);
+
+        List<SpeechSegment> segments = new ArrayList<>();
+        long previousEnd = 0;
+        int f = 0;
+        while (f < confidence.length) {
+            if (confidence[f] < SPEECH_CONFIDENCE) {
+                f++;
+                continue;
+            }
+
+            int start = f;
+            int end = f + 1;
+            double sum = confidence[f];
+            int speechFrames = 1;
+            for (f++; f < confidence.length && f - end < minSilenceFrames; f++) {
+                if (confidence[f] >= SPEECH_CONFIDENCE) {
+                    sum += confidence[f];
+                    speechFrames++;
+                    end = f + 1;
+                }
+            }
+
+            if (end - start >= minSpeechFrames) {
+                long startSample = Math.max(previousEnd, (long) Math.max(0, start - paddingFrames) * frameSamples);
+                long endSample = Math.min(totalSamples, (long) (end + paddingFrames) * frameSamples);
+                segments.add(new SpeechSegment(startSample, endSample, Math.min(1, sum / speechFrames)));
+                previousEnd = endSample;
+            }
+        }
+        return segments;
+    }
+
+    private int frames(int millis) {
+        return (millis + frameMillis - 1) / frameMillis;
+    }
+
+    /**
+     * Minimum of the values within a radius of each position, in one pass with a monotonic queue
+     */
+    private static double[] slidingMinimum(double[] values, int radius) {
+        double[] minimum = new double[values.length];
+        int[] queue = new int[values.length];
+        int head = 0;
+        int tail = 0;
+        int next = 0;
+        for (int i = 0; i < values.length; i++) {
+            int last = Math.min(values.length - 1, i + radius);
+            for (; next <= last; next++) {
+                while (tail > head && values[queue[tail - 1]] >= values[next]) {
+                    tail--;
+                }
+                queue[tail++] = next;
+            }
+            while (queue[head] < i - radius) {
+                head++;
+            }
+            minimum[i] = values[queue[head]];
+        }
+        return minimum;
+    }
+
+    /**
+     * Maps a value linearly from 0 at low to 1 at high, clamped to that range
+     */
+    private static double ramp(double value, double low, double high) {
+        return Math.max(0, Math.min(1, (value - low) / (high - low)));
+    }
+
+    private static double[] hann(int length) {
+        double[] window = new double[length];
+        for (int i = 0; i < length; i++) {
+            window[i] = length > 1 ? 0.5 - 0.5 * Math.cos(2 * Math.PI * i / (length - 1)) : 1;
+        }
+        return window;
+    }
+
+    /**
+     * Per-frame features of the analyzed audio
+     */
+    private static final class Features {
+        private final double[] level;
+        private final double[] zeroCrossingRate;
+        private final double[] flatness;
+
+        private Features(int frameCount) {
+            this.level = new double[frameCount];
+            this.zeroCrossingRate = new double[frameCount];
+            this.flatness = new double[frameCount];
+        }
+    }
+
+    /**
+     * Reads the sample frames of a payload in order, averaged over their channels and scaled to [-1, 1].
+     * A sample split between two payload buffers is put together byte by byte. Buffers are read
+     * one at a time, so a lazily decoded recording is never held whole.
+     */
+    private static final class SampleReader {
+        private final AudioPayload pcmData;
+        private final int bytesPerSample;
+        private final int channels;
+        private final double scale;
+        private ByteBuffer current;
+        private int index;
+
+        private SampleReader(AudioPayload pcmData, int bytesPerSample, int channels) {
+            this.pcmData = pcmData;
+            this.bytesPerSample = bytesPerSample;
+            this.channels = channels;
+            // 32-bit samples are read at 24-bit precision
+            this.scale = 1.0 / ((double) (1 << (Math.min(bytesPerSample, 3) * 8 - 1)) * channels);
+            this.current = pcmData.buffer(0);
+        }
+
+        private double next() {
+            long sum = 0;
+            for (int c = 0; c < channels; c++) {
+                sum += current.remaining() >= bytesPerSample ? sample() : splitSample();
+            }
+            return sum * scale;
+        }
+
+        private int sample() {
+            return switch (bytesPerSample) {
+                // 8-bit audio is unsigned, centred on 128
+                case 1 -> (current.get() & 0xFF) - 128;
+                case 2 -> current.getShort();
+                case 3 -> (current.get() & 0xFF) | (current.get() & 0xFF) << 8 | current.get() << 16;
+                default -> current.getInt() >> 8;
+            };
+        }
+
+        private int splitSample() {
+            int value = 0;
+            for (int i = 0; i < bytesPerSample; i++) {
+                while (!current.hasRemaining()) {
+                    current = pcmData.buffer(++index);
+                }
+                value |= (current.get() & 0xFF) << (8 * i);
+            }
+            if (bytesPerSample == 1) {
+                return value - 128;
+            }
+            int shift = 32 - 8 * bytesPerSample;
+            return bytesPerSample == 4 ? value >> 8 : value << shift >> shift;
+        }
+    }
+
+    /**
+     * In-place iterative radix-2 FFT of a fixed power-of-two size
+     */
+    private static final class Fft {
+        private final int size;
+        private final int[] reversed;
+        private final double[] cos;
+        private final double[] sin;
+
+        private Fft(int size) {
+            this.size = size;
+            int bits = Integer.numberOfTrailingZeros(size);
+            this.reversed = new int[size];
+            for (int i = 0; i < size; i++) {
+                reversed[i] = Integer.reverse(i) >>> (32 - bits);
+            }
+            this.cos = new double[size / 2];
+            this.sin = new double[size / 2];
+            for (int k = 0; k < size / 2; k++) {
+                cos[k] = Math.cos(2 * Math.PI * k / size);
+                sin[k] = -Math.sin(2 * Math.PI * k / size);
+            }
+        }
+
+        private void transform(double[] re, double[] im) {
+            for (int i = 0; i < size; i++) {
+                int j = reversed[i];
+                if (j > i) {
+                    double t = re[i];
+                    re[i] = re[j];
+                    re[j] = t;
+                    t = im[i];
+                    im[i] = im[j];
+                    im[j] = t;
+                }
+            }
+            for (int length = 2; length <= size; length <<= 1) {
+                int half = length >> 1;
+                int step = size / length;
+                for (int start = 0; start < size; start += length) {
+                    for (int k = 0; k < half; k++) {
+                        double wr = cos[k * step];
+                        double wi = sin[k * step];
+                        int a = start + k;
+                        int b = a + half;
+                        double tr = re[b] * wr - im[b] * wi;
+                        double ti = re[b] * wi + im[b] * wr;
+                        re[b] = re[a] - tr;
+                        im[b] = im[a] - ti;
+                        re[a] += tr;
+                        im[a] += ti;
+                    }
+                }
+            }
+        }
+    }
+}
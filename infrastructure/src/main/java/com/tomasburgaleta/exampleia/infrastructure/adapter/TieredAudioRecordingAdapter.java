@@ -0,0 +1,133 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Infrastructure adapter combining a bounded in-memory hot tier with a durable cold store.
+ * Every recording is written to the cold store and kept in the hot tier while it fits its budget.
+ * Lookups that miss the hot tier read the cold store and promote a heap copy of the recording,
+ * so recently used recordings are served from memory and the rest from disk. Recordings larger
+ * than the hot budget are never copied: their lookups return the cold store's recording as is.
+ * A promotion is dropped if the recording was stored again or cleared while it was being read,
+ * so a lookup racing with a clear never puts the cleared recording back into the hot tier.
+ */
+public class TieredAudioRecordingAdapter implements AudioRecordingPort, Closeable {
+
+    private final BoundedAudioRecordingAdapter hotTier;
+    private final AudioRecordingPort coldStore;
+    private final Object lock = new Object();
+    // Changed by every store and removed by every clear of an id, guarded by lock for writes
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong nextVersion = new AtomicLong();
+
+    public TieredAudioRecordingAdapter(BoundedAudioRecordingAdapter hotTier, AudioRecordingPort coldStore) {
+        this.hotTier = Objects.requireNonNull(hotTier, "Hot tier cannot be null");
+        this.coldStore = Objects.requireNonNull(coldStore, "Cold store cannot be null");
+    }
+
+    @Override
+    public AudioBean storeRecording(AudioBean audioBean) {
+        synchronized (lock) {
+            AudioBean stored = coldStore.storeRecording(audioBean);
+            versions.put(audioBean.getId(), nextVersion.incrementAndGet());
+            cache(audioBean);
+            return stored;
+        }
+    }
+
+    @Override
+    public AudioBean getRecording(String id) {
+        AudioBean cached = hotTier.getRecording(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Recordings recovered by the cold store have no version until their first lookup
+        Long version = versions.computeIfAbsent(id, key -> nextVersion.incrementAndGet());
+        AudioBean recording = coldStore.getRecording(id);
+        if (recording == null) {
+            versions.remove(id, version);
+            return null;
+        }
+        if (!fitsHotTier(recording)) {
+            // Served from the cold store as is, without a heap copy the hot tier could not keep
+            return recording;
+        }
+
+        AudioBean promoted = EncodedRecording.of(id, AudioPayload.wrap(recording.getAudioData()),
+                EncodedRecording.isEncoded(recording));
+        promoted.setSamplesPerSecond(recording.getSamplesPerSecond());
+        promoted.setBitsPerSample(recording.getBitsPerSample());
+        promoted.setChannels(recording.getChannels());
+        synchronized (lock) {
+            if (version.equals(versions.get(id))) {
+                cache(promoted);
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * Replaces the recording in the cold store and, if it is cached, in the hot tier, where it keeps
+     * its expiry. A promotion racing with the replacement is dropped.
+     */
+    @Override
+    public boolean replaceRecording(AudioBean audioBean) {
+        synchronized (lock) {
+            if (!coldStore.replaceRecording(audioBean)) {
+                return false;
+            }
+            versions.put(audioBean.getId(), nextVersion.incrementAndGet());
+            if (fitsHotTier(audioBean)) {
+                hotTier.replaceRecording(audioBean);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean clearRecording(String id) {
+        synchronized (lock) {
+            boolean clearedHot = hotTier.clearRecording(id);
+            boolean clearedCold = coldStore.clearRecording(id);
+            versions.remove(id);
+            return clearedHot || clearedCold;
+        }
+    }
+
+    /**
+     * @return The hot tier, for its eviction listeners and stats
+     */
+    public BoundedAudioRecordingAdapter getHotTier() {
+        return hotTier;
+    }
+
+    @Override
+    public void close() throws IOException {
+        hotTier.close();
+        if (coldStore instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void cache(AudioBean audioBean) {
+        if (fitsHotTier(audioBean)) {
+            hotTier.storeRecording(audioBean);
+        }
+    }
+
+    /**
+     * Recordings larger than the whole hot budget are only kept in the cold store
+     */
+    private boolean fitsHotTier(AudioBean audioBean) {
+        return audioBean.getAudioDataSize() + BoundedAudioRecordingAdapter.ENTRY_OVERHEAD <= hotTier.getMaxBytes();
+    }
+}
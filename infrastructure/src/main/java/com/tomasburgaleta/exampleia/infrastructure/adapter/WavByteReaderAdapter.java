@@ -1,27 +1,37 @@
 package com.tomasburgaleta.exampleia.infrastructure.adapter;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavProbe;
+import com.tomasburgaleta.exampleia.domain.model.WavStream;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.WavByteReaderPort;
+import com.tomasburgaleta.exampleia.infrastructure.codec.PcmDecoder;
+import com.tomasburgaleta.exampleia.infrastructure.wav.RiffChunkIndex;
+import com.tomasburgaleta.exampleia.infrastructure.wav.WavFormat;
 import org.springframework.stereotype.Component;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Infrastructure adapter for processing WAV byte arrays
- * This adapter validates WAV format and extracts metadata and PCM data
+ * This adapter validates WAV format and extracts metadata and PCM data.
+ * IEEE float, 32-bit integer, A-law and mu-law audio is decoded to 16-bit PCM as it is read,
+ * so telephony recordings and DAW exports are accepted without transcoding them first.
  */
 @Component
 public class WavByteReaderAdapter implements WavByteReaderPort {
     
     // WAV file header constants
-    private static final byte[] RIFF_HEADER = {'R', 'I', 'F', 'F'};
-    private static final byte[] WAVE_FORMAT = {'W', 'A', 'V', 'E'};
-    private static final byte[] FMT_CHUNK = {'f', 'm', 't', ' '};
-    private static final int WAV_HEADER_MIN_SIZE = 12; // Minimum size to check RIFF + size + WAVE
-    private static final int FMT_CHUNK_SIZE = 16; // Standard PCM format chunk size
+    private static final int WAV_HEADER_MIN_SIZE = RiffChunkIndex.HEADER_SIZE; // Minimum size to check RIFF + size + WAVE
+    private static final int STREAM_BUFFER_SIZE = 4096; // Scratch space for headers and skipped chunks
     
     @Override
     public AudioBean processWavBytes(byte[] wavBytes, String id) throws AudioFileException {
@@ -33,20 +43,230 @@ public class WavByteReaderAdapter implements WavByteReaderPort {
             throw new IllegalArgumentException("ID cannot be null or empty");
         }
         
+        return processWav(AudioPayload.wrap(wavBytes), id);
+    }
+    
+    @Override
+    public AudioBean processWavPayload(AudioPayload wavPayload, String id) throws AudioFileException {
+        if (wavPayload == null || wavPayload.isEmpty()) {
+            throw new IllegalArgumentException("WAV bytes cannot be null or empty");
+        }
+        
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID cannot be null or empty");
+        }
+        
+        return processWav(wavPayload, id);
+    }
+    
+    @Override
+    public WavStream openWavStream(ReadableByteChannel wavChannel) throws IOException {
+        if (wavChannel == null) {
+            throw new IllegalArgumentException("WAV channel cannot be null");
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(wavChannel, buffer, WAV_HEADER_MIN_SIZE)) {
+            throw new AudioFileException("Data is too small to be a valid WAV file");
+        }
+        validateWavFormat(buffer);
+        
+        // Walk the chunks in file order, keeping only the format, until the data chunk starts
+        WavFormat format = null;
+        PcmDecoder decoder = null;
+        RiffChunkIndex.Ds64 ds64 = null;
+        boolean rf64 = buffer.getInt(0) != RiffChunkIndex.RIFF;
+        long position = RiffChunkIndex.HEADER_SIZE;
+        while (readFully(wavChannel, buffer, RiffChunkIndex.CHUNK_HEADER_SIZE)) {
+            RiffChunkIndex.Chunk chunk = RiffChunkIndex.readChunkHeader(buffer, 0, position);
+            if (ds64 != null) {
+                chunk = ds64.resolve(chunk);
+            }
+            position = chunk.next();
+            
+            if (rf64 && ds64 == null && chunk.id() == RiffChunkIndex.DS64) {
+                // The 64-bit sizes of an RF64 file come first; a size table that does not fit the buffer is cut short
+                int ds64Size = (int) Math.min(chunk.size(), buffer.capacity());
+                if (!readFully(wavChannel, buffer, ds64Size)) {
+                    throw new AudioFileException("Invalid ds64 chunk size");
+                }
+                ds64 = RiffChunkIndex.Ds64.parse(buffer, 0, chunk.size());
+                skip(wavChannel, buffer, chunk.next() - chunk.offset() - ds64Size);
+            } else if (chunk.id() == RiffChunkIndex.FMT) {
+                int fmtSize = (int) Math.min(chunk.size(), WavFormat.EXTENSIBLE_SIZE);
+                if (!readFully(wavChannel, buffer, fmtSize)) {
+                    throw new AudioFileException("Invalid fmt chunk size");
+                }
+                format = WavFormat.parse(buffer, 0, chunk.size());
+                decoder = PcmDecoder.needsDecoding(format) ? PcmDecoder.forFormat(format) : null;
+                skip(wavChannel, buffer, chunk.next() - chunk.offset() - fmtSize);
+            } else if (chunk.id() == RiffChunkIndex.DATA) {
+                if (format == null) {
+                    throw new AudioFileException("fmt chunk not found before data chunk in WAV file");
+                }
+                // Streaming writers leave the size unset; such data runs to the end of the file
+                long dataLength = chunk.hasUnknownSize() ? WavStream.UNKNOWN_LENGTH : chunk.size();
+                ReadableByteChannel data = chunk.hasUnknownSize() ? wavChannel : new BoundedChannel(wavChannel, chunk.size());
+                if (decoder != null) {
+                    return new WavStream(format.getSampleRate(), PcmDecoder.OUTPUT_BITS_PER_SAMPLE, format.getChannels(),
+                        chunk.hasUnknownSize() ? WavStream.UNKNOWN_LENGTH : decoder.decodedLength(dataLength),
+                        decoder.decodingChannel(data));
+                }
+                return new WavStream(format.getSampleRate(), format.getBitsPerSample(), format.getChannels(), dataLength, data);
+            } else {
+                skip(wavChannel, buffer, chunk.next() - chunk.offset());
+            }
+        }
+        
+        throw new AudioFileException(format == null ? "fmt chunk not found in WAV file" : "data chunk not found in WAV file");
+    }
+    
+    @Override
+    public WavProbe probeWav(byte[] wavPrefix) throws AudioFileException {
+        if (wavPrefix == null || wavPrefix.length == 0) {
+            throw new IllegalArgumentException("WAV bytes cannot be null or empty");
+        }
+        
+        ByteBuffer buffer = ByteBuffer.wrap(wavPrefix).order(ByteOrder.LITTLE_ENDIAN);
+        validateWavFormat(buffer);
+        RiffChunkIndex index = RiffChunkIndex.of(buffer);
+        
+        WavFormat format = index.getFormat();
+        if (format == null) {
+            throw new AudioFileException("fmt chunk not found in WAV file");
+        }
+        RiffChunkIndex.Chunk data = index.find(RiffChunkIndex.DATA);
+        if (data == null) {
+            throw new AudioFileException("data chunk not found in WAV file");
+        }
+        
+        List<WavProbe.MetadataChunk> metadata = new ArrayList<>();
+        for (RiffChunkIndex.Chunk chunk : index.getChunks()) {
+            if (isMetadata(chunk)) {
+                metadata.add(metadataChunk(chunk, chunk.id() == RiffChunkIndex.LIST ? index.getListType(chunk) : 0));
+            }
+        }
+        return probe(format, data, data.hasUnknownSize() ? WavProbe.UNKNOWN : data.size(),
+            index.getFactSampleLength(), index.isRf64(), metadata);
+    }
+    
+    @Override
+    public WavProbe probeWav(ReadableByteChannel wavChannel) throws IOException {
+        if (wavChannel == null) {
+            throw new IllegalArgumentException("WAV channel cannot be null");
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(wavChannel, buffer, WAV_HEADER_MIN_SIZE)) {
+            throw new AudioFileException("Data is too small to be a valid WAV file");
+        }
+        validateWavFormat(buffer);
+        
+        // Same walk as openWavStream, but the data chunk is skipped over instead of returned
+        boolean seekable = wavChannel instanceof SeekableByteChannel;
+        long start = seekable ? ((SeekableByteChannel) wavChannel).position() - WAV_HEADER_MIN_SIZE : 0;
+        long fileLength = seekable ? ((SeekableByteChannel) wavChannel).size() - start : WavProbe.UNKNOWN;
+        boolean rf64 = buffer.getInt(0) != RiffChunkIndex.RIFF;
+        WavFormat format = null;
+        RiffChunkIndex.Chunk data = null;
+        long dataLength = WavProbe.UNKNOWN;
+        long factSampleLength = WavProbe.UNKNOWN;
+        RiffChunkIndex.Ds64 ds64 = null;
+        List<WavProbe.MetadataChunk> metadata = new ArrayList<>();
+        long position = RiffChunkIndex.HEADER_SIZE;
+        while (readFully(wavChannel, buffer, RiffChunkIndex.CHUNK_HEADER_SIZE)) {
+            RiffChunkIndex.Chunk chunk = RiffChunkIndex.readChunkHeader(buffer, 0, position);
+            if (ds64 != null) {
+                chunk = ds64.resolve(chunk);
+            }
+            position = chunk.next();
+            
+            // Only the first bytes of a chunk body are ever read; the rest is skipped
+            int bodyRead = 0;
+            if (rf64 && ds64 == null && chunk.id() == RiffChunkIndex.DS64) {
+                bodyRead = (int) Math.min(chunk.size(), buffer.capacity());
+                if (!readFully(wavChannel, buffer, bodyRead)) {
+                    throw new AudioFileException("Invalid ds64 chunk size");
+                }
+                ds64 = RiffChunkIndex.Ds64.parse(buffer, 0, chunk.size());
+            } else if (chunk.id() == RiffChunkIndex.FMT) {
+                bodyRead = (int) Math.min(chunk.size(), WavFormat.EXTENSIBLE_SIZE);
+                if (!readFully(wavChannel, buffer, bodyRead)) {
+                    throw new AudioFileException("Invalid fmt chunk size");
+                }
+                format = WavFormat.parse(buffer, 0, chunk.size());
+            } else if (chunk.id() == RiffChunkIndex.DATA) {
+                data = chunk;
+                if (!chunk.hasUnknownSize()) {
+                    dataLength = chunk.size();
+                } else if (fileLength != WavProbe.UNKNOWN) {
+                    // Streaming writers leave the size unset; such data runs to the end of the file
+                    dataLength = Math.max(0, fileLength - chunk.offset());
+                }
+                // Nothing after data of unknown size can be located, and other channels would have to read the samples
+                if (chunk.hasUnknownSize() || !seekable) {
+                    break;
+                }
+            } else {
+                int listType = 0;
+                if ((chunk.id() == RiffChunkIndex.FACT || chunk.id() == RiffChunkIndex.LIST) && chunk.size() >= 4) {
+                    bodyRead = 4;
+                    if (!readFully(wavChannel, buffer, bodyRead)) {
+                        throw new AudioFileException("Unexpected end of WAV file inside a chunk");
+                    }
+                    if (chunk.id() == RiffChunkIndex.FACT) {
+                        factSampleLength = Integer.toUnsignedLong(buffer.getInt(0));
+                    } else {
+                        listType = buffer.getInt(0);
+                    }
+                }
+                if (isMetadata(chunk)) {
+                    metadata.add(metadataChunk(chunk, listType));
+                }
+            }
+            // Seeking past the end of a truncated file is harmless: the next read finds the end
+            skip(wavChannel, buffer, chunk.next() - chunk.offset() - bodyRead);
+        }
+        
+        if (format == null) {
+            throw new AudioFileException("fmt chunk not found in WAV file");
+        }
+        if (data == null) {
+            throw new AudioFileException("data chunk not found in WAV file");
+        }
+        return probe(format, data, dataLength, factSampleLength, rf64, metadata);
+    }
+    
+    private AudioBean processWav(AudioPayload wavPayload, String id) throws AudioFileException {
+        ByteBuffer wavBytes = wavPayload.asReadOnlyBuffer();
+        
         // Validate WAV format
         validateWavFormat(wavBytes);
         
+        // Locate all chunks in one pass
+        RiffChunkIndex index = RiffChunkIndex.of(wavBytes);
+        
         // Extract WAV metadata
-        WavMetadata metadata = extractWavMetadata(wavBytes);
+        WavFormat format = index.getFormat();
+        if (format == null) {
+            throw new AudioFileException("fmt chunk not found in WAV file");
+        }
+        PcmDecoder decoder = PcmDecoder.needsDecoding(format) ? PcmDecoder.forFormat(format) : null;
         
-        // Extract PCM data (audio data without header)
-        byte[] pcmData = extractPcmFromWav(wavBytes);
+        // Extract PCM data (audio data without header) as a view over the WAV bytes
+        AudioPayload pcmData = extractPcmFromWav(wavPayload, index);
+        short bitsPerSample = format.getBitsPerSample();
+        if (decoder != null) {
+            // Other encodings are decoded to 16-bit PCM in one pass
+            pcmData = decoder.decode(pcmData);
+            bitsPerSample = PcmDecoder.OUTPUT_BITS_PER_SAMPLE;
+        }
         
         // Create AudioBean with extracted data
         AudioBean audioBean = new AudioBean(id, pcmData);
-        audioBean.setSamplesPerSecond(metadata.sampleRate);
-        audioBean.setBitsPerSample(metadata.bitsPerSample);
-        audioBean.setChannels(metadata.channels);
+        audioBean.setSamplesPerSecond(format.getSampleRate());
+        audioBean.setBitsPerSample(bitsPerSample);
+        audioBean.setChannels(format.getChannels());
         
         return audioBean;
     }
@@ -54,127 +274,141 @@ public class WavByteReaderAdapter implements WavByteReaderPort {
     /**
      * Validates that the byte array has a proper WAV format by checking the header
      * 
-     * @param wavBytes The WAV file content as byte array
+     * @param wavBytes The WAV file content
      * @throws AudioFileException if the byte array is not a valid WAV format
      */
-    private void validateWavFormat(byte[] wavBytes) throws AudioFileException {
-        if (wavBytes.length < WAV_HEADER_MIN_SIZE) {
+    private void validateWavFormat(ByteBuffer wavBytes) throws AudioFileException {
+        if (wavBytes.limit() < WAV_HEADER_MIN_SIZE) {
             throw new AudioFileException("Data is too small to be a valid WAV file");
         }
         
         // Check RIFF header (bytes 0-3)
-        for (int i = 0; i < RIFF_HEADER.length; i++) {
-            if (wavBytes[i] != RIFF_HEADER[i]) {
-                throw new AudioFileException("Invalid WAV format: missing RIFF header");
-            }
+        if (!RiffChunkIndex.isRiffId(wavBytes.getInt(0))) {
+            throw new AudioFileException("Invalid WAV format: missing RIFF header");
         }
         
         // Check WAVE format identifier (bytes 8-11)
-        for (int i = 0; i < WAVE_FORMAT.length; i++) {
-            if (wavBytes[8 + i] != WAVE_FORMAT[i]) {
-                throw new AudioFileException("Invalid WAV format: missing WAVE format identifier");
-            }
+        if (wavBytes.getInt(8) != RiffChunkIndex.WAVE) {
+            throw new AudioFileException("Invalid WAV format: missing WAVE format identifier");
         }
     }
     
     /**
-     * Extracts WAV metadata from the format chunk
+     * Extracts PCM audio data from the WAV file (without header)
      * 
-     * @param wavBytes The WAV file content as byte array
-     * @return WavMetadata containing sample rate, bits per sample, and channels
-     * @throws AudioFileException if the format chunk is not found or invalid
+     * @param wavPayload The WAV file content
+     * @param index The chunks of the WAV file
+     * @return payload sharing only the PCM audio data region
+     * @throws AudioFileException if the data chunk is not found or is truncated
      */
-    private WavMetadata extractWavMetadata(byte[] wavBytes) throws AudioFileException {
-        int offset = 12; // Start after RIFF header (4) + size (4) + WAVE (4)
-        
-        // Look for the fmt chunk
-        while (offset < wavBytes.length - 8) {
-            String chunkId = new String(wavBytes, offset, 4);
-            int chunkSize = readLittleEndianInt(wavBytes, offset + 4);
-            
-            if ("fmt ".equals(chunkId)) {
-                if (chunkSize < 16) {
-                    throw new AudioFileException("Invalid fmt chunk size");
-                }
-                
-                // Extract audio format parameters
-                int audioFormat = readLittleEndianShort(wavBytes, offset + 8);
-                if (audioFormat != 1) { // PCM format
-                    throw new AudioFileException("Only PCM format is supported");
-                }
-                
-                short channels = readLittleEndianShort(wavBytes, offset + 10);
-                int sampleRate = readLittleEndianInt(wavBytes, offset + 12);
-                // Skip byte rate (4 bytes) and block align (2 bytes)
-                short bitsPerSample = readLittleEndianShort(wavBytes, offset + 22);
-                
-                return new WavMetadata(sampleRate, bitsPerSample, channels);
-            }
-            
-            offset += 8 + chunkSize;
+    private AudioPayload extractPcmFromWav(AudioPayload wavPayload, RiffChunkIndex index) throws AudioFileException {
+        RiffChunkIndex.Chunk data = index.find(RiffChunkIndex.DATA);
+        if (data == null) {
+            throw new AudioFileException("data chunk not found in WAV file");
         }
         
-        throw new AudioFileException("fmt chunk not found in WAV file");
+        // A size left unset by a streaming writer covers the rest of the file
+        long available = index.available(data);
+        if (!data.hasUnknownSize() && available < data.size()) {
+            throw new AudioFileException("Invalid data chunk size");
+        }
+        return wavPayload.slice(data.offset(), available);
+    }
+    
+    private static boolean isMetadata(RiffChunkIndex.Chunk chunk) {
+        return chunk.id() != RiffChunkIndex.FMT && chunk.id() != RiffChunkIndex.DATA && chunk.id() != RiffChunkIndex.DS64;
+    }
+    
+    private static WavProbe.MetadataChunk metadataChunk(RiffChunkIndex.Chunk chunk, int listType) {
+        String type = listType == 0 ? null : RiffChunkIndex.fourCcName(listType);
+        return new WavProbe.MetadataChunk(chunk.name(), type, chunk.offset(), chunk.size());
+    }
+    
+    private static WavProbe probe(WavFormat format, RiffChunkIndex.Chunk data, long dataLength, long factSampleLength,
+                                  boolean rf64, List<WavProbe.MetadataChunk> metadata) {
+        // The fact chunk only carries the length of compressed audio; PCM lengths come from the data chunk
+        long sampleFrames = format.isPcm() ? WavProbe.UNKNOWN : factSampleLength;
+        return new WavProbe(format.getEncoding(), format.getSampleRate(), format.getBitsPerSample(), format.getChannels(),
+            format.getBlockAlign(), data.offset(), dataLength, sampleFrames, rf64, metadata);
     }
     
     /**
-     * Extracts PCM audio data from the WAV file (without header)
+     * Reads exactly the given number of bytes from the channel into the start of the buffer
      * 
-     * @param wavBytes The WAV file content as byte array
-     * @return byte array containing only the PCM audio data
-     * @throws AudioFileException if the data chunk is not found
+     * @return true if the bytes were read, false if the channel ended first
      */
-    private byte[] extractPcmFromWav(byte[] wavBytes) throws AudioFileException {
-        int offset = 12; // Start after RIFF header
-        
-        while (offset < wavBytes.length - 8) {
-            String chunkId = new String(wavBytes, offset, 4);
-            int chunkSize = readLittleEndianInt(wavBytes, offset + 4);
-            
-            if ("data".equals(chunkId)) {
-                // Found the data chunk containing PCM samples
-                if (offset + 8 + chunkSize > wavBytes.length) {
-                    throw new AudioFileException("Invalid data chunk size");
-                }
-                return Arrays.copyOfRange(wavBytes, offset + 8, offset + 8 + chunkSize);
+    private boolean readFully(ReadableByteChannel channel, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
             }
-            
-            offset += 8 + chunkSize;
         }
-        
-        throw new AudioFileException("data chunk not found in WAV file");
+        return true;
     }
     
     /**
-     * Reads a little-endian 32-bit integer from byte array
+     * Skips bytes of the channel, seeking when the channel supports it
      */
-    private int readLittleEndianInt(byte[] data, int offset) {
-        return (data[offset] & 0xFF) |
-               ((data[offset + 1] & 0xFF) << 8) |
-               ((data[offset + 2] & 0xFF) << 16) |
-               ((data[offset + 3] & 0xFF) << 24);
-    }
-    
-    /**
-     * Reads a little-endian 16-bit short from byte array
-     */
-    private short readLittleEndianShort(byte[] data, int offset) {
-        return (short) ((data[offset] & 0xFF) |
-                       ((data[offset + 1] & 0xFF) << 8));
+    private void skip(ReadableByteChannel channel, ByteBuffer buffer, long length) throws IOException {
+        if (channel instanceof SeekableByteChannel seekable) {
+            seekable.position(seekable.position() + length);
+            return;
+        }
+        
+        long remaining = length;
+        while (remaining > 0) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+            int read = channel.read(buffer);
+            if (read < 0) {
+                throw new AudioFileException("Unexpected end of WAV file inside a chunk");
+            }
+            remaining -= read;
+        }
     }
     
     /**
-     * Internal class to hold WAV metadata
+     * Channel ending with the data chunk of a WAV stream
      */
-    private static class WavMetadata {
-        final long sampleRate;
-        final short bitsPerSample;
-        final short channels;
-        
-        WavMetadata(long sampleRate, short bitsPerSample, short channels) {
-            this.sampleRate = sampleRate;
-            this.bitsPerSample = bitsPerSample;
-            this.channels = channels;
+    private static class BoundedChannel implements ReadableByteChannel {
+        private final ReadableByteChannel source;
+        private long remaining;
+        
+        BoundedChannel(ReadableByteChannel source, long length) {
+            this.source = source;
+            this.remaining = length;
+        }
+        
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            
+            int limit = dst.limit();
+            if (dst.remaining() > remaining) {
+                dst.limit(dst.position() + (int) remaining);
+            }
+            try {
+                int read = source.read(dst);
+                if (read < 0) {
+                    throw new EOFException("WAV data chunk is truncated: " + remaining + " bytes missing");
+                }
+                remaining -= read;
+                return read;
+            } finally {
+                dst.limit(limit);
+            }
+        }
+        
+        @Override
+        public boolean isOpen() {
+            return source.isOpen();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            source.close();
         }
     }
 }
\ No newline at end of file
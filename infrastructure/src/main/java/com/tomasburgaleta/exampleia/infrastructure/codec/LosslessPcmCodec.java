@@ -0,0 +1,595 @@
+package com.tomasburgaleta.exampleia.infrastructure.codec;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Lossless FLAC-style codec for 16-bit PCM.
+ * The audio is cut into frames of {@link #FRAME_SAMPLES} samples per channel. In every frame each
+ * channel picks the fixed polynomial predictor (order 0 to 4) with the smallest residual and
+ * Rice-codes the residual with the best parameter for that frame. Frames that would not shrink
+ * are stored verbatim. A frame offset table in the header lets callers decode any byte range by
+ * decoding only the frames that cover it.
+ *
+ * <pre>
+ * magic (8) | bits per sample (2) | channels (2) | PCM length (4) | frame samples (4) | frame count (4)
+ * frame offsets (4 * (frame count + 1)) | frames | trailing PCM bytes that do not fill a sample frame
+ * </pre>
+ */
+public final class LosslessPcmCodec {
+
+    public static final int FRAME_SAMPLES = 4096;
+
+    private static final long MAGIC = 0x4C50435249434531L; // "LPCRICE1"
+    private static final int HEADER_SIZE = 8 + 2 + 2 + 4 + 4 + 4;
+    private static final int MAX_ORDER = 4;
+    private static final int MAX_RICE_PARAMETER = 30;
+    private static final byte FRAME_VERBATIM = 0;
+    private static final byte FRAME_PREDICTED = 1;
+
+    private LosslessPcmCodec() {
+    }
+
+    /**
+     * @return true if audio in the given format can be encoded
+     */
+    public static boolean supports(short bitsPerSample, short channels) {
+        return bitsPerSample == 16 && channels > 0;
+    }
+
+    /**
+     * Encodes 16-bit little-endian PCM
+     *
+     * @param pcm The PCM audio
+     * @param bitsPerSample The bit depth; only 16 is supported
+     * @param channels The number of interleaved channels
+     * @return The encoded audio
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static AudioPayload encode(AudioPayload pcm, short bitsPerSample, short channels) {
+        Objects.requireNonNull(pcm, "PCM data cannot be null");
+        if (!supports(bitsPerSample, channels)) {
+            throw new IllegalArgumentException("Only 16-bit PCM can be encoded, got " + bitsPerSample + " bits and " + channels + " channels");
+        }
+
+        int blockAlign = channels * 2;
+        int sampleFrames = pcm.length() / blockAlign;
+        int frameCount = (sampleFrames + FRAME_SAMPLES - 1) / FRAME_SAMPLES;
+        int tail = pcm.length() - sampleFrames * blockAlign;
+
+        BitWriter out = new BitWriter(HEADER_SIZE + 4 * (frameCount + 1) + pcm.length() / 2);
+        out.skipBytes(HEADER_SIZE + 4 * (frameCount + 1));
+
+        int[] offsets = new int[frameCount + 1];
+        byte[] frameBytes = new byte[FRAME_SAMPLES * blockAlign];
+        int[][] samples = new int[channels][FRAME_SAMPLES];
+        long[] residual = new long[FRAME_SAMPLES];
+        for (int frame = 0; frame < frameCount; frame++) {
+            offsets[frame] = out.position();
+            int frameSamples = Math.min(FRAME_SAMPLES, sampleFrames - frame * FRAME_SAMPLES);
+            int length = frameSamples * blockAlign;
+            pcm.copyTo(frame * FRAME_SAMPLES * blockAlign, frameBytes, 0, length);
+            deinterleave(frameBytes, frameSamples, channels, samples);
+
+            out.writeByte(FRAME_PREDICTED);
+            for (int c = 0; c < channels; c++) {
+                writeChannel(out, samples[c], frameSamples, residual);
+            }
+            out.alignToByte();
+
+            if (out.position() - offsets[frame] > length + 1) {
+                // Noise-like frame: the prediction does not pay off
+                out.rewindTo(offsets[frame]);
+                out.writeByte(FRAME_VERBATIM);
+                out.writeBytes(frameBytes, 0, length);
+            }
+        }
+        offsets[frameCount] = out.position();
+
+        byte[] tailBytes = new byte[tail];
+        pcm.copyTo(pcm.length() - tail, tailBytes, 0, tail);
+        out.writeBytes(tailBytes, 0, tail);
+
+        ByteBuffer header = ByteBuffer.wrap(out.buffer(), 0, HEADER_SIZE + 4 * (frameCount + 1));
+        header.putLong(MAGIC);
+        header.putShort(bitsPerSample);
+        header.putShort(channels);
+        header.putInt(pcm.length());
+        header.putInt(FRAME_SAMPLES);
+        header.putInt(frameCount);
+        for (int offset : offsets) {
+            header.putInt(offset);
+        }
+
+        // Trim the spare capacity so only the compressed size stays resident
+        return AudioPayload.wrap(Arrays.copyOf(out.buffer(), out.position()));
+    }
+
+    /**
+     * Checks whether the payload is a complete stream produced by {@link #encode}
+     *
+     * @param payload The payload to check
+     * @return true if the payload can be decoded
+     */
+    public static boolean isEncoded(AudioPayload payload) {
+        if (payload == null || payload.length() < HEADER_SIZE) {
+            return false;
+        }
+
+        ByteBuffer in = payload.slice(0, HEADER_SIZE).asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+        if (in.getLong() != MAGIC) {
+            return false;
+        }
+        short bitsPerSample = in.getShort();
+        short channels = in.getShort();
+        int pcmLength = in.getInt();
+        int frameSamples = in.getInt();
+        int frameCount = in.getInt();
+        if (!supports(bitsPerSample, channels) || pcmLength < 0 || frameSamples <= 0 || frameCount < 0) {
+            return false;
+        }
+
+        long tableEnd = HEADER_SIZE + 4L * (frameCount + 1);
+        if (tableEnd > payload.length()) {
+            return false;
+        }
+        int blockAlign = channels * 2;
+        int sampleFrames = pcmLength / blockAlign;
+        if ((sampleFrames + (long) frameSamples - 1) / frameSamples != frameCount) {
+            return false;
+        }
+        ByteBuffer table = payload.slice((int) tableEnd - 4, 4).asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+        return table.getInt() + (pcmLength - sampleFrames * blockAlign) == payload.length();
+    }
+
+    /**
+     * @return The length of the PCM audio held by the encoded payload
+     */
+    public static int decodedLength(AudioPayload encoded) {
+        return new Stream(encoded).pcmLength;
+    }
+
+    /**
+     * Decodes the whole payload
+     *
+     * @param encoded The encoded audio
+     * @return The PCM audio
+     */
+    public static AudioPayload decode(AudioPayload encoded) {
+        Stream stream = new Stream(encoded);
+        return decodeRange(stream, 0, stream.pcmLength);
+    }
+
+    /**
+     * Decodes a byte range of the PCM audio, decoding only the frames that cover it
+     *
+     * @param encoded The encoded audio
+     * @param offset The start of the range in the PCM audio
+     * @param length The length of the range
+     * @return The PCM bytes of the range
+     * @throws IndexOutOfBoundsException if the range is outside the audio
+     */
+    public static AudioPayload decodeRange(AudioPayload encoded, int offset, int length) {
+        return decodeRange(new Stream(encoded), offset, length);
+    }
+
+    /**
+     * Returns the PCM audio as a lazy payload with one part per frame, decoded each time the part is
+     * read. Nothing is decoded up front: a range of the payload decodes only the frames covering it,
+     * and reading it buffer by buffer holds one decoded frame at a time. The encoded payload is read
+     * on every access, so it must stay readable while the result is in use.
+     *
+     * @param encoded The encoded audio
+     * @return A payload of the PCM bytes
+     */
+    public static AudioPayload decodeLazily(AudioPayload encoded) {
+        return AudioPayload.lazy(new FrameSource(new Stream(encoded)));
+    }
+
+    /**
+     * Returns a stream decoding the audio one frame at a time
+     *
+     * @param encoded The encoded audio
+     * @return A stream of the PCM bytes
+     */
+    public static InputStream decodingStream(AudioPayload encoded) {
+        return new DecodingInputStream(new Stream(encoded));
+    }
+
+    private static AudioPayload decodeRange(Stream stream, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, stream.pcmLength);
+        byte[] pcm = new byte[length];
+        int frameBytes = stream.frameSamples * stream.blockAlign;
+        int tailStart = stream.pcmLength / stream.blockAlign * stream.blockAlign;
+        int position = offset;
+        byte[] frame = new byte[Math.max(frameBytes, stream.blockAlign)];
+        int[][] samples = stream.newSamples();
+        while (position < offset + length) {
+            int index = position >= tailStart ? stream.frameCount : position / frameBytes;
+            int frameStart = index == stream.frameCount ? tailStart : index * frameBytes;
+            int frameLength = stream.decodeFrame(index, frame, samples);
+            int from = position - frameStart;
+            int count = Math.min(frameLength - from, offset + length - position);
+            System.arraycopy(frame, from, pcm, position - offset, count);
+            position += count;
+        }
+        return AudioPayload.wrap(pcm);
+    }
+
+    private static void deinterleave(byte[] frameBytes, int frameSamples, int channels, int[][] samples) {
+        int index = 0;
+        for (int n = 0; n < frameSamples; n++) {
+            for (int c = 0; c < channels; c++) {
+                samples[c][n] = (short) ((frameBytes[index] & 0xFF) | (frameBytes[index + 1] << 8));
+                index += 2;
+            }
+        }
+    }
+
+    private static void writeChannel(BitWriter out, int[] x, int count, long[] residual) {
+        int order = bestOrder(x, count);
+        for (int n = order; n < count; n++) {
+            residual[n] = zigzag(predictionError(x, n, order));
+        }
+        int k = bestRiceParameter(residual, order, count);
+
+        out.writeBits(order, 3);
+        out.writeBits(k, 5);
+        for (int n = 0; n < order; n++) {
+            out.writeBits(x[n] & 0xFFFF, 16);
+        }
+        for (int n = order; n < count; n++) {
+            out.writeRice(residual[n], k);
+        }
+    }
+
+    private static int bestOrder(int[] x, int count) {
+        int best = 0;
+        long bestCost = Long.MAX_VALUE;
+        for (int order = 0; order <= Math.min(MAX_ORDER, count - 1); order++) {
+            long cost = 0;
+            for (int n = order; n < count; n++) {
+                cost += Math.abs(predictionError(x, n, order));
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = order;
+            }
+        }
+        return best;
+    }
+
+    private static int bestRiceParameter(long[] residual, int from, int to) {
+        int best = 0;
+        long bestBits = Long.MAX_VALUE;
+        for (int k = 0; k <= MAX_RICE_PARAMETER; k++) {
+            long bits = (long) (to - from) * (k + 1);
+            for (int n = from; n < to && bits < bestBits; n++) {
+                bits += residual[n] >>> k;
+            }
+            if (bits < bestBits) {
+                bestBits = bits;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private static long predictionError(int[] x, int n, int order) {
+        switch (order) {
+            case 0:
+                return x[n];
+            case 1:
+                return (long) x[n] - x[n - 1];
+            case 2:
+                return (long) x[n] - 2L * x[n - 1] + x[n - 2];
+            case 3:
+                return (long) x[n] - 3L * x[n - 1] + 3L * x[n - 2] - x[n - 3];
+            default:
+                return (long) x[n] - 4L * x[n - 1] + 6L * x[n - 2] - 4L * x[n - 3] + x[n - 4];
+        }
+    }
+
+    private static int predict(int[] x, int n, int order) {
+        switch (order) {
+            case 0:
+                return 0;
+            case 1:
+                return x[n - 1];
+            case 2:
+                return 2 * x[n - 1] - x[n - 2];
+            case 3:
+                return 3 * x[n - 1] - 3 * x[n - 2] + x[n - 3];
+            default:
+                return 4 * x[n - 1] - 6 * x[n - 2] + 4 * x[n - 3] - x[n - 4];
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Parsed header of an encoded payload. Frames are read from the payload one at a time, so a
+     * composite payload is never gathered into a single buffer. Decoding keeps no state of its own
+     * and can run on several threads at once.
+     */
+    private static final class Stream {
+        private final AudioPayload encoded;
+        private final int channels;
+        private final int blockAlign;
+        private final int pcmLength;
+        private final int frameSamples;
+        private final int frameCount;
+        private final int[] frameOffsets;
+
+        private Stream(AudioPayload encoded) {
+            if (!isEncoded(encoded)) {
+                throw new IllegalArgumentException("Payload is not encoded with " + LosslessPcmCodec.class.getSimpleName());
+            }
+
+            ByteBuffer header = encoded.slice(0, HEADER_SIZE).asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+            this.encoded = encoded;
+            this.channels = header.getShort(10);
+            this.blockAlign = channels * 2;
+            this.pcmLength = header.getInt(12);
+            this.frameSamples = header.getInt(16);
+            this.frameCount = header.getInt(20);
+            this.frameOffsets = new int[frameCount + 1];
+            encoded.slice(HEADER_SIZE, 4 * (frameCount + 1)).asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN)
+                    .asIntBuffer().get(frameOffsets);
+        }
+
+        private int[][] newSamples() {
+            return new int[channels][frameSamples];
+        }
+
+        /**
+         * @return The number of PCM bytes of a frame, or of the trailing bytes when index equals the frame count
+         */
+        private int frameLength(int index) {
+            if (index == frameCount) {
+                return pcmLength % blockAlign;
+            }
+            return Math.min(frameSamples, pcmLength / blockAlign - index * frameSamples) * blockAlign;
+        }
+
+        /**
+         * Decodes a frame, or the trailing bytes when index equals the frame count
+         *
+         * @param samples Scratch space from {@link #newSamples()}
+         * @return The number of PCM bytes written to out
+         */
+        private int decodeFrame(int index, byte[] out, int[][] samples) {
+            int start = frameOffsets[index];
+            int end = index == frameCount ? encoded.length() : frameOffsets[index + 1];
+            int length = frameLength(index);
+            if (index == frameCount) {
+                encoded.copyTo(start, out, 0, length);
+                return length;
+            }
+
+            ByteBuffer data = encoded.slice(start, end - start).asReadOnlyBuffer();
+            if (data.get(0) == FRAME_VERBATIM) {
+                data.get(1, out, 0, length);
+                return length;
+            }
+
+            int count = length / blockAlign;
+            BitReader in = new BitReader(data, 1);
+            for (int c = 0; c < channels; c++) {
+                int[] x = samples[c];
+                int order = (int) in.readBits(3);
+                int k = (int) in.readBits(5);
+                for (int n = 0; n < order; n++) {
+                    x[n] = (short) in.readBits(16);
+                }
+                for (int n = order; n < count; n++) {
+                    x[n] = (int) (predict(x, n, order) + unzigzag(in.readRice(k)));
+                }
+            }
+
+            int position = 0;
+            for (int n = 0; n < count; n++) {
+                for (int c = 0; c < channels; c++) {
+                    int sample = samples[c][n];
+                    out[position++] = (byte) sample;
+                    out[position++] = (byte) (sample >> 8);
+                }
+            }
+            return length;
+        }
+    }
+
+    /**
+     * The frames of an encoded payload as the parts of a lazy one
+     */
+    private static final class FrameSource implements AudioPayload.PartSource {
+        private final Stream stream;
+
+        private FrameSource(Stream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public int partCount() {
+            return stream.frameCount + 1;
+        }
+
+        @Override
+        public int partLength(int index) {
+            return stream.frameLength(index);
+        }
+
+        @Override
+        public ByteBuffer readPart(int index) {
+            byte[] pcm = new byte[stream.frameLength(index)];
+            stream.decodeFrame(index, pcm, stream.newSamples());
+            return ByteBuffer.wrap(pcm);
+        }
+    }
+
+    private static final class DecodingInputStream extends InputStream {
+        private final Stream stream;
+        private final int[][] samples;
+        private final byte[] frame;
+        private int nextFrame;
+        private int position;
+        private int limit;
+
+        private DecodingInputStream(Stream stream) {
+            this.stream = stream;
+            this.samples = stream.newSamples();
+            this.frame = new byte[Math.max(stream.frameSamples * stream.blockAlign, stream.blockAlign)];
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return frame[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(len, limit - position);
+            System.arraycopy(frame, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() {
+            while (position == limit) {
+                if (nextFrame > stream.frameCount) {
+                    return false;
+                }
+                limit = stream.decodeFrame(nextFrame++, frame, samples);
+                position = 0;
+            }
+            return true;
+        }
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer;
+        private int position;
+        private long bits;
+        private int bitCount;
+
+        private BitWriter(int capacity) {
+            this.buffer = new byte[Math.max(capacity, 64)];
+        }
+
+        private void writeBits(long value, int count) {
+            bits = (bits << count) | (value & ((1L << count) - 1));
+            bitCount += count;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                put((byte) (bits >>> bitCount));
+            }
+        }
+
+        private void writeRice(long value, int k) {
+            long quotient = value >>> k;
+            while (quotient >= 32) {
+                writeBits(0, 32);
+                quotient -= 32;
+            }
+            writeBits(1, (int) quotient + 1);
+            if (k > 0) {
+                writeBits(value, k);
+            }
+        }
+
+        private void writeByte(byte value) {
+            writeBits(value, 8);
+        }
+
+        private void writeBytes(byte[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, buffer, position, length);
+            position += length;
+        }
+
+        private void alignToByte() {
+            if (bitCount > 0) {
+                writeBits(0, 8 - bitCount);
+            }
+        }
+
+        private void skipBytes(int count) {
+            ensureCapacity(count);
+            position += count;
+        }
+
+        private void rewindTo(int newPosition) {
+            position = newPosition;
+            bitCount = 0;
+        }
+
+        private int position() {
+            return position;
+        }
+
+        private byte[] buffer() {
+            return buffer;
+        }
+
+        private void put(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final ByteBuffer data;
+        private int position;
+        private long bits;
+        private int bitCount;
+
+        private BitReader(ByteBuffer data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private long readBits(int count) {
+            while (bitCount < count) {
+                bits = (bits << 8) | (data.get(position++) & 0xFF);
+                bitCount += 8;
+            }
+            bitCount -= count;
+            return (bits >>> bitCount) & ((1L << count) - 1);
+        }
+
+        private long readRice(int k) {
+            long quotient = 0;
+            while (readBits(1) == 0) {
+                quotient++;
+            }
+            return k > 0 ? (quotient << k) | readBits(k) : quotient;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.tomasburgaleta.exampleia.infrastructure.codec;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+import com.tomasburgaleta.exampleia.infrastructure.wav.WavFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Decodes WAV encodings that transcription providers do not take into canonical 16-bit
+ * little-endian PCM, in a single pass over the samples.
+ * G.711 A-law and mu-law samples are looked up in 256-entry tables built once; IEEE float
+ * samples are clamped to [-1, 1] and scaled; 32-bit integer samples keep their 16 most
+ * significant bits. Channels are interleaved in the same order, so only the sample width changes.
+ * A trailing partial sample is dropped.
+ */
+public final class PcmDecoder {
+
+    public static final short OUTPUT_BITS_PER_SAMPLE = 16;
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final short[] ALAW_TABLE = new short[256];
+    private static final short[] MULAW_TABLE = new short[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            ALAW_TABLE[i] = alawToLinear(i);
+            MULAW_TABLE[i] = mulawToLinear(i);
+        }
+    }
+
+    private enum Encoding { ALAW, MULAW, FLOAT32, FLOAT64, INT32 }
+
+    private final Encoding encoding;
+    private final int inputBytesPerSample;
+
+    private PcmDecoder(Encoding encoding, int inputBytesPerSample) {
+        this.encoding = encoding;
+        this.inputBytesPerSample = inputBytesPerSample;
+    }
+
+    /**
+     * @return true if the format has to be decoded before it can be handed to a provider
+     */
+    public static boolean needsDecoding(WavFormat format) {
+        return !format.isPcm() || format.getBitsPerSample() == 32;
+    }
+
+    /**
+     * Returns the decoder for a format that {@link #needsDecoding(WavFormat) needs decoding}
+     *
+     * @param format The format of the WAV file
+     * @return The decoder
+     * @throws AudioFileException if the encoding or its sample size is not supported
+     */
+    public static PcmDecoder forFormat(WavFormat format) throws AudioFileException {
+        Objects.requireNonNull(format, "Format cannot be null");
+        int bits = format.getBitsPerSample();
+        switch (format.getEncoding()) {
+            case WavFormat.FORMAT_PCM:
+                if (bits == 32) {
+                    return new PcmDecoder(Encoding.INT32, 4);
+                }
+                break;
+            case WavFormat.FORMAT_IEEE_FLOAT:
+                if (bits == 32) {
+                    return new PcmDecoder(Encoding.FLOAT32, 4);
+                }
+                if (bits == 64) {
+                    return new PcmDecoder(Encoding.FLOAT64, 8);
+                }
+                break;
+            case WavFormat.FORMAT_ALAW:
+                if (bits == 8) {
+                    return new PcmDecoder(Encoding.ALAW, 1);
+                }
+                break;
+            case WavFormat.FORMAT_MULAW:
+                if (bits == 8) {
+                    return new PcmDecoder(Encoding.MULAW, 1);
+                }
+                break;
+            default:
+                throw new AudioFileException(String.format(
+                    "Unsupported WAV encoding 0x%04X: only PCM, IEEE float, A-law and mu-law formats are supported", format.getEncoding()));
+        }
+        throw new AudioFileException(String.format(
+            "Unsupported sample size for WAV encoding 0x%04X: %d bits", format.getEncoding(), bits));
+    }
+
+    /**
+     * @param inputLength The number of encoded bytes
+     * @return The number of PCM bytes they decode to
+     */
+    public long decodedLength(long inputLength) {
+        return inputLength / inputBytesPerSample * 2;
+    }
+
+    /**
+     * Decodes a whole payload into a new 16-bit PCM payload
+     *
+     * @param encoded The encoded samples
+     * @return The decoded samples
+     * @throws IllegalArgumentException if the decoded audio would exceed 2 GB
+     */
+    public AudioPayload decode(AudioPayload encoded) {
+        Objects.requireNonNull(encoded, "Encoded audio cannot be null");
+        long length = decodedLength(encoded.size());
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Decoded audio exceeds 2 GB: " + length + " bytes");
+        }
+
+        ByteBuffer output = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer carry = ByteBuffer.allocate(inputBytesPerSample).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < encoded.bufferCount(); i++) {
+            ByteBuffer part = encoded.buffer(i);
+            // A sample split between parts is completed from the carry buffer
+            if (carry.position() > 0) {
+                while (carry.hasRemaining() && part.hasRemaining()) {
+                    carry.put(part.get());
+                }
+                if (carry.hasRemaining()) {
+                    continue;
+                }
+                decode(carry.flip(), output);
+                carry.clear();
+            }
+            decode(part, output);
+            carry.put(part);
+        }
+        return AudioPayload.wrap(output.array());
+    }
+
+    /**
+     * Decodes the whole samples held in the source into the destination, as many as fit.
+     * Positions of both buffers advance past the samples decoded.
+     *
+     * @param src Little-endian encoded samples
+     * @param dst Little-endian buffer receiving 16-bit samples
+     */
+    public void decode(ByteBuffer src, ByteBuffer dst) {
+        int samples = Math.min(src.remaining() / inputBytesPerSample, dst.remaining() / 2);
+        int in = src.position();
+        int out = dst.position();
+        switch (encoding) {
+            case ALAW -> {
+                for (int i = 0; i < samples; i++, out += 2) {
+                    dst.putShort(out, ALAW_TABLE[src.get(in + i) & 0xFF]);
+                }
+            }
+            case MULAW -> {
+                for (int i = 0; i < samples; i++, out += 2) {
+                    dst.putShort(out, MULAW_TABLE[src.get(in + i) & 0xFF]);
+                }
+            }
+            case FLOAT32 -> {
+                for (int i = 0; i < samples; i++, out += 2) {
+                    dst.putShort(out, floatToShort(src.getFloat(in + i * 4)));
+                }
+            }
+            case FLOAT64 -> {
+                for (int i = 0; i < samples; i++, out += 2) {
+                    dst.putShort(out, floatToShort((float) src.getDouble(in + i * 8)));
+                }
+            }
+            case INT32 -> {
+                for (int i = 0; i < samples; i++, out += 2) {
+                    dst.putShort(out, (short) (src.getInt(in + i * 4) >> 16));
+                }
+            }
+        }
+        src.position(in + samples * inputBytesPerSample);
+        dst.position(out);
+    }
+
+    /**
+     * Wraps a channel of encoded samples in a channel of 16-bit PCM.
+     * The channel decodes block by block into buffers it reuses for every read.
+     *
+     * @param encoded The channel of encoded samples; closing the returned channel closes it
+     * @return The decoding channel
+     */
+    public ReadableByteChannel decodingChannel(ReadableByteChannel encoded) {
+        return new DecodingChannel(Objects.requireNonNull(encoded, "Encoded channel cannot be null"));
+    }
+
+    private static short floatToShort(float sample) {
+        float clamped = Math.max(-1f, Math.min(1f, sample));
+        return (short) Math.round(clamped * Short.MAX_VALUE);
+    }
+
+    /**
+     * ITU-T G.711 A-law expansion
+     */
+    private static short alawToLinear(int alaw) {
+        int value = alaw ^ 0x55;
+        int magnitude = (value & 0x0F) << 4;
+        int segment = (value & 0x70) >> 4;
+        if (segment == 0) {
+            magnitude += 8;
+        } else {
+            magnitude = (magnitude + 0x108) << (segment - 1);
+        }
+        return (short) ((value & 0x80) != 0 ? magnitude : -magnitude);
+    }
+
+    /**
+     * ITU-T G.711 mu-law expansion
+     */
+    private static short mulawToLinear(int mulaw) {
+        int value = ~mulaw & 0xFF;
+        int magnitude = (((value & 0x0F) << 3) + 0x84) << ((value & 0x70) >> 4);
+        return (short) ((value & 0x80) != 0 ? 0x84 - magnitude : magnitude - 0x84);
+    }
+
+    private class DecodingChannel implements ReadableByteChannel {
+        private final ReadableByteChannel source;
+        private final ByteBuffer input = ByteBuffer.allocate(STREAM_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN).flip();
+        private final ByteBuffer output;
+        private boolean endOfSource;
+
+        DecodingChannel(ReadableByteChannel source) {
+            this.source = source;
+            this.output = ByteBuffer.allocate(STREAM_BUFFER_SIZE / inputBytesPerSample * 2).order(ByteOrder.LITTLE_ENDIAN).flip();
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            while (!output.hasRemaining()) {
+                if (endOfSource) {
+                    return -1;
+                }
+                input.compact();
+                int read = source.read(input);
+                input.flip();
+                if (read < 0) {
+                    endOfSource = true;
+                } else if (read == 0) {
+                    return 0;
+                }
+                output.clear();
+                decode(input, output);
+                output.flip();
+            }
+
+            int length = Math.min(dst.remaining(), output.remaining());
+            dst.put(output.slice(output.position(), length));
+            output.position(output.position() + length);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return source.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -6,19 +6,32 @@ import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
 import com.tomasburgaleta.exampleia.domain.port.SilenceDetectorPort;
 import com.tomasburgaleta.exampleia.domain.port.SpeechToTextPort;
+import com.tomasburgaleta.exampleia.domain.port.StreamingSilenceDetectorPort;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
 import com.tomasburgaleta.exampleia.domain.port.WavByteReaderPort;
 import com.tomasburgaleta.exampleia.infrastructure.adapter.AzureAudioListenerAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.BoundedAudioRecordingAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.CompressingAudioRecordingAdapter;
 import com.tomasburgaleta.exampleia.infrastructure.adapter.DeepgramAudioListenerAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.FastRmsSilenceDetectorAdapter;
 import com.tomasburgaleta.exampleia.infrastructure.adapter.FileSystemAudioFileReaderAdapter;
-import com.tomasburgaleta.exampleia.infrastructure.adapter.InMemoryAudioRecordingAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.IncrementalSilenceDetectorAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.MappedFileAudioRecordingAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.OffHeapAudioRecordingAdapter;
 import com.tomasburgaleta.exampleia.infrastructure.adapter.OpenAiAdapter;
-import com.tomasburgaleta.exampleia.infrastructure.adapter.RmsSilenceDetectorAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.SpectralVoiceActivityDetectorAdapter;
+import com.tomasburgaleta.exampleia.infrastructure.adapter.TieredAudioRecordingAdapter;
 import com.tomasburgaleta.exampleia.infrastructure.adapter.WavByteReaderAdapter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Configuration for infrastructure adapters
  */
@@ -28,6 +41,15 @@ public class InfrastructureConfig {
     @Value("${speech.provider:azure}")
     private String speechProvider;
     
+    @Value("${audio.file-reader.memory-mapped:false}")
+    private boolean memoryMappedFileReader;
+    
+    @Value("${audio.silence.frame-millis:20}")
+    private int silenceFrameMillis;
+    
+    @Value("${audio.silence.hangover-millis:300}")
+    private int silenceHangoverMillis;
+    
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
@@ -62,7 +84,7 @@ public class InfrastructureConfig {
     
     @Bean
     public AudioFileReaderPort audioFileReaderPort() {
-        return new FileSystemAudioFileReaderAdapter();
+        return new FileSystemAudioFileReaderAdapter(memoryMappedFileReader);
     }
     
     @Bean
@@ -71,12 +93,59 @@ public class InfrastructureConfig {
     }
     
     @Bean
-    public AudioRecordingPort audioRecordingPort() {
-        return new InMemoryAudioRecordingAdapter();
+    public AudioRecordingPort audioRecordingPort(RecordingStoreConfig recordingStoreConfig) {
+        AudioRecordingPort recordingStore = recordingStore(recordingStoreConfig);
+        if (recordingStoreConfig.isCompression()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService encoder = Executors.newFixedThreadPool(recordingStoreConfig.getCompressionThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "recording-encoder-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            return new CompressingAudioRecordingAdapter(recordingStore, encoder);
+        }
+        return recordingStore;
+    }
+    
+    private AudioRecordingPort recordingStore(RecordingStoreConfig recordingStoreConfig) {
+        if ("off-heap".equalsIgnoreCase(recordingStoreConfig.getType())) {
+            return new OffHeapAudioRecordingAdapter(
+                recordingStoreConfig.getBlockSize(),
+                recordingStoreConfig.getSlabSize(),
+                recordingStoreConfig.getMaxBytes()
+            );
+        }
+        BoundedAudioRecordingAdapter boundedAdapter = new BoundedAudioRecordingAdapter(
+            recordingStoreConfig.getMaxBytes(),
+            recordingStoreConfig.getIdleTimeout(),
+            recordingStoreConfig.getMaxLifetime(),
+            recordingStoreConfig.getSweepInterval()
+        );
+        if ("file".equalsIgnoreCase(recordingStoreConfig.getType())) {
+            // The bounded store becomes the hot tier in front of the segment files
+            return new TieredAudioRecordingAdapter(boundedAdapter, new MappedFileAudioRecordingAdapter(
+                Path.of(recordingStoreConfig.getDirectory()),
+                recordingStoreConfig.getSegmentSize(),
+                recordingStoreConfig.getCompactionInterval(),
+                recordingStoreConfig.isSyncWrites()
+            ));
+        }
+        // Default to the bounded on-heap store
+        return boundedAdapter;
     }
     
     @Bean
     public SilenceDetectorPort silenceDetectorPort() {
-        return new RmsSilenceDetectorAdapter();
+        return new FastRmsSilenceDetectorAdapter();
+    }
+    
+    @Bean
+    public StreamingSilenceDetectorPort streamingSilenceDetectorPort() {
+        return new IncrementalSilenceDetectorAdapter(silenceFrameMillis, silenceHangoverMillis);
+    }
+    
+    @Bean
+    public VoiceActivityDetectorPort voiceActivityDetectorPort() {
+        return new SpectralVoiceActivityDetectorAdapter();
     }
 }
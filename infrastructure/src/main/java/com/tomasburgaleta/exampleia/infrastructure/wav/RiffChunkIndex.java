@@ -0,0 +1,321 @@
+package com.tomasburgaleta.exampleia.infrastructure.wav;
+
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index of the chunks of a RIFF/WAVE file held in a buffer, built in a single pass.
+ * Chunk ids are compared as little-endian ints, so walking the file allocates nothing per chunk.
+ * Odd-sized chunks are followed by a pad byte, as the RIFF specification requires.
+ * The index only records where chunks are; their bodies stay in the buffer until asked for.
+ * RF64 and BW64 files are supported: the 64-bit chunk sizes of their ds64 chunk replace the
+ * 32-bit placeholders, so offsets and sizes beyond 4 GB are indexed as longs. The buffer can
+ * hold only the head of such a file; chunks are indexed as long as their headers lie in it.
+ */
+public final class RiffChunkIndex {
+
+    public static final int RIFF = fourCc("RIFF");
+    public static final int RF64 = fourCc("RF64");
+    public static final int BW64 = fourCc("BW64");
+    public static final int DS64 = fourCc("ds64");
+    public static final int WAVE = fourCc("WAVE");
+    public static final int FMT = fourCc("fmt ");
+    public static final int DATA = fourCc("data");
+    public static final int FACT = fourCc("fact");
+    public static final int LIST = fourCc("LIST");
+    public static final int CUE = fourCc("cue ");
+
+    /**
+     * Size of the RIFF header: "RIFF", the file size and "WAVE"
+     */
+    public static final int HEADER_SIZE = 12;
+    public static final int CHUNK_HEADER_SIZE = 8;
+
+    /**
+     * Chunk size written by streaming encoders that did not know the final length
+     */
+    public static final long UNKNOWN_SIZE = 0xFFFFFFFFL;
+
+    private final ByteBuffer wav;
+    private final long fileLength;
+    private final boolean rf64;
+    private final Ds64 ds64;
+    private final List<Chunk> chunks;
+
+    private RiffChunkIndex(ByteBuffer wav, long fileLength, boolean rf64, Ds64 ds64, List<Chunk> chunks) {
+        this.wav = wav;
+        this.fileLength = fileLength;
+        this.rf64 = rf64;
+        this.ds64 = ds64;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Indexes the chunks following the RIFF header.
+     * The walk stops at the end of the buffer, or at a data chunk of unknown size since nothing
+     * after it can be located. The caller is expected to have validated the RIFF header.
+     *
+     * @param wav The WAV file content; its position and limit are not modified
+     * @return The index of the chunks
+     */
+    public static RiffChunkIndex of(ByteBuffer wav) {
+        return of(wav, wav.limit());
+    }
+
+    /**
+     * Indexes the chunks of a file of which the buffer holds the head
+     *
+     * @param head The first bytes of the WAV file; its position and limit are not modified
+     * @param fileLength The length of the whole file
+     * @return The index of the chunks whose headers lie in the buffer
+     */
+    public static RiffChunkIndex of(ByteBuffer head, long fileLength) {
+        Objects.requireNonNull(head, "WAV buffer cannot be null");
+        ByteBuffer view = head.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        boolean rf64 = view.limit() >= 4 && isRf64(view.getInt(0));
+
+        List<Chunk> chunks = new ArrayList<>();
+        Ds64 ds64 = null;
+        long position = HEADER_SIZE;
+        while (position + CHUNK_HEADER_SIZE <= view.limit()) {
+            Chunk chunk = readChunkHeader(view, (int) position, position);
+            if (rf64 && chunk.id() == DS64 && chunks.isEmpty() && chunk.offset() + chunk.size() <= view.limit()) {
+                ds64 = Ds64.parse(view, (int) chunk.offset(), chunk.size());
+            } else if (ds64 != null) {
+                chunk = ds64.resolve(chunk);
+            }
+            chunks.add(chunk);
+            if (chunk.id() == DATA && chunk.hasUnknownSize()) {
+                break;
+            }
+            position = chunk.next();
+        }
+        return new RiffChunkIndex(view, fileLength, rf64, ds64, Collections.unmodifiableList(chunks));
+    }
+
+    /**
+     * Tells whether a file id opens a RIFF, RF64 or BW64 file
+     */
+    public static boolean isRiffId(int id) {
+        return id == RIFF || isRf64(id);
+    }
+
+    private static boolean isRf64(int id) {
+        return id == RF64 || id == BW64;
+    }
+
+    /**
+     * Decodes the chunk header held in a buffer
+     *
+     * @param buffer Little-endian buffer holding the header
+     * @param index The index of the header in the buffer
+     * @param fileOffset The offset of the header in the file
+     * @return The chunk, with its body offset relative to the file
+     */
+    public static Chunk readChunkHeader(ByteBuffer buffer, int index, long fileOffset) {
+        return new Chunk(buffer.getInt(index), fileOffset + CHUNK_HEADER_SIZE, Integer.toUnsignedLong(buffer.getInt(index + 4)));
+    }
+
+    /**
+     * Returns the little-endian int of a four-character chunk id
+     */
+    public static int fourCc(String id) {
+        if (id.length() != 4) {
+            throw new IllegalArgumentException("Chunk id must have four characters: " + id);
+        }
+        return (id.charAt(0) & 0xFF) | (id.charAt(1) & 0xFF) << 8 | (id.charAt(2) & 0xFF) << 16 | (id.charAt(3) & 0xFF) << 24;
+    }
+
+    /**
+     * Returns the four characters of a little-endian chunk id, the inverse of {@link #fourCc(String)}
+     */
+    public static String fourCcName(int id) {
+        return new String(new char[]{(char) (id & 0xFF), (char) (id >> 8 & 0xFF), (char) (id >> 16 & 0xFF), (char) (id >>> 24)});
+    }
+
+    /**
+     * @return true if the file is RF64 or BW64
+     */
+    public boolean isRf64() {
+        return rf64;
+    }
+
+    /**
+     * @return All chunks, in file order
+     */
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * @return The first chunk with the given id, or null if there is none
+     */
+    public Chunk find(int id) {
+        for (Chunk chunk : chunks) {
+            if (chunk.id() == id) {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return All chunks with the given id, in file order
+     */
+    public List<Chunk> findAll(int id) {
+        List<Chunk> found = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            if (chunk.id() == id) {
+                found.add(chunk);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Parses the fmt chunk
+     *
+     * @return The audio format, or null if the file has no fmt chunk
+     * @throws AudioFileException if the fmt chunk is invalid
+     */
+    public WavFormat getFormat() throws AudioFileException {
+        Chunk fmt = find(FMT);
+        if (fmt == null) {
+            return null;
+        }
+        if (fmt.offset() + fmt.size() > wav.limit()) {
+            throw new AudioFileException("Invalid fmt chunk size");
+        }
+        return WavFormat.parse(wav, (int) fmt.offset(), fmt.size());
+    }
+
+    /**
+     * Reads the number of sample frames announced by the fact chunk, which compressed formats carry
+     *
+     * @return The sample frame count, or -1 if the file has no complete fact chunk
+     */
+    public long getFactSampleLength() {
+        Chunk fact = find(FACT);
+        if (fact == null || fact.size() < 4 || fact.offset() + 4 > wav.limit()) {
+            return -1;
+        }
+        return Integer.toUnsignedLong(wav.getInt((int) fact.offset()));
+    }
+
+    /**
+     * Reads the list type of a LIST chunk, such as "INFO" or "adtl"
+     *
+     * @return The list type as a little-endian int, or 0 if the chunk is too short
+     */
+    public int getListType(Chunk list) {
+        return list.size() < 4 || list.offset() + 4 > wav.limit() ? 0 : wav.getInt((int) list.offset());
+    }
+
+    /**
+     * @return The offset of the first chunk header past the indexed chunks, where a walk of the
+     *     rest of the file continues when the buffer holds only its head
+     */
+    public long getNextChunkOffset() {
+        return chunks.isEmpty() ? HEADER_SIZE : chunks.get(chunks.size() - 1).next();
+    }
+
+    /**
+     * Applies the 64-bit sizes of the ds64 chunk to a chunk read outside the buffer
+     *
+     * @return The chunk with its size resolved, or the chunk itself in a plain RIFF file
+     */
+    public Chunk resolve(Chunk chunk) {
+        return ds64 != null && chunk.id() != DS64 ? ds64.resolve(chunk) : chunk;
+    }
+
+    /**
+     * @return The number of body bytes of the chunk present in the file, which is
+     *     less than its size when the file is truncated
+     */
+    public long available(Chunk chunk) {
+        long remaining = Math.max(0, fileLength - chunk.offset());
+        return Math.min(chunk.size(), remaining);
+    }
+
+    /**
+     * The 64-bit sizes of an RF64 file, which replace chunk sizes set to {@link #UNKNOWN_SIZE}
+     *
+     * @param riffSize The size of the file after the first 8 bytes
+     * @param dataSize The size of the data chunk
+     * @param sampleCount The number of sample frames
+     * @param table The sizes of other chunks over 4 GB, by chunk id
+     */
+    public record Ds64(long riffSize, long dataSize, long sampleCount, Map<Integer, Long> table) {
+
+        /**
+         * Size of the ds64 chunk body without a table
+         */
+        public static final int BASE_SIZE = 28;
+        private static final int TABLE_ENTRY_SIZE = 12;
+
+        /**
+         * Parses a ds64 chunk body; table entries beyond the buffer are ignored
+         *
+         * @throws AudioFileException if the chunk is too small
+         */
+        public static Ds64 parse(ByteBuffer data, int offset, long size) throws AudioFileException {
+            if (size < BASE_SIZE) {
+                throw new AudioFileException("Invalid ds64 chunk size");
+            }
+            Map<Integer, Long> table = new HashMap<>();
+            long tableLength = Integer.toUnsignedLong(data.getInt(offset + 24));
+            long end = Math.min(offset + size, data.limit());
+            for (long i = 0, entry = offset + BASE_SIZE; i < tableLength && entry + TABLE_ENTRY_SIZE <= end; i++, entry += TABLE_ENTRY_SIZE) {
+                table.put(data.getInt((int) entry), data.getLong((int) entry + 4));
+            }
+            return new Ds64(data.getLong(offset), data.getLong(offset + 8), data.getLong(offset + 16), Map.copyOf(table));
+        }
+
+        /**
+         * @return The chunk with its 64-bit size if its header holds the placeholder, otherwise the chunk itself
+         */
+        public Chunk resolve(Chunk chunk) {
+            if (!chunk.hasUnknownSize()) {
+                return chunk;
+            }
+            Long size = chunk.id() == DATA ? Long.valueOf(dataSize) : table.get(chunk.id());
+            return size == null ? chunk : new Chunk(chunk.id(), chunk.offset(), size);
+        }
+    }
+
+    /**
+     * A chunk located by the index
+     *
+     * @param id The chunk id as a little-endian int
+     * @param offset The offset of the chunk body in the file
+     * @param size The size of the chunk body as declared in its header
+     */
+    public record Chunk(int id, long offset, long size) {
+
+        /**
+         * @return The offset of the following chunk header, after the pad byte of odd-sized chunks
+         */
+        public long next() {
+            return offset + size + (size & 1);
+        }
+
+        public boolean hasUnknownSize() {
+            return size == UNKNOWN_SIZE;
+        }
+
+        /**
+         * @return The chunk id as text, for logging
+         */
+        public String name() {
+            return fourCcName(id);
+        }
+    }
+}
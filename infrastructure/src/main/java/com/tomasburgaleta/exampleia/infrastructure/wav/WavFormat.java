@@ -0,0 +1,149 @@
+package com.tomasburgaleta.exampleia.infrastructure.wav;
+
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Audio format described by the fmt chunk of a WAV file.
+ * For WAVE_FORMAT_EXTENSIBLE the encoding is taken from the sub-format GUID, so an
+ * extensible PCM file reads the same as a plain PCM one.
+ */
+public final class WavFormat {
+
+    public static final int FORMAT_PCM = 0x0001;
+    public static final int FORMAT_IEEE_FLOAT = 0x0003;
+    public static final int FORMAT_ALAW = 0x0006;
+    public static final int FORMAT_MULAW = 0x0007;
+    public static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    /**
+     * Size of the basic fmt chunk body
+     */
+    public static final int BASIC_SIZE = 16;
+
+    /**
+     * Size of the fmt chunk body of WAVE_FORMAT_EXTENSIBLE
+     */
+    public static final int EXTENSIBLE_SIZE = 40;
+
+    private final int formatTag;
+    private final int encoding;
+    private final short channels;
+    private final long sampleRate;
+    private final long byteRate;
+    private final int blockAlign;
+    private final short bitsPerSample;
+    private final short validBitsPerSample;
+    private final int channelMask;
+
+    private WavFormat(int formatTag, int encoding, short channels, long sampleRate, long byteRate, int blockAlign,
+                      short bitsPerSample, short validBitsPerSample, int channelMask) {
+        this.formatTag = formatTag;
+        this.encoding = encoding;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.byteRate = byteRate;
+        this.blockAlign = blockAlign;
+        this.bitsPerSample = bitsPerSample;
+        this.validBitsPerSample = validBitsPerSample;
+        this.channelMask = channelMask;
+    }
+
+    /**
+     * Parses a fmt chunk body
+     *
+     * @param data Little-endian buffer holding the chunk body
+     * @param offset The index of the chunk body in the buffer
+     * @param size The size of the chunk body
+     * @return The audio format
+     * @throws AudioFileException if the chunk is too small for its format tag
+     */
+    public static WavFormat parse(ByteBuffer data, int offset, long size) throws AudioFileException {
+        if (size < BASIC_SIZE) {
+            throw new AudioFileException("Invalid fmt chunk size");
+        }
+
+        int formatTag = data.getShort(offset) & 0xFFFF;
+        short channels = data.getShort(offset + 2);
+        long sampleRate = Integer.toUnsignedLong(data.getInt(offset + 4));
+        long byteRate = Integer.toUnsignedLong(data.getInt(offset + 8));
+        int blockAlign = data.getShort(offset + 12) & 0xFFFF;
+        short bitsPerSample = data.getShort(offset + 14);
+
+        if (formatTag != FORMAT_EXTENSIBLE) {
+            return new WavFormat(formatTag, formatTag, channels, sampleRate, byteRate, blockAlign,
+                    bitsPerSample, bitsPerSample, 0);
+        }
+
+        if (size < EXTENSIBLE_SIZE) {
+            throw new AudioFileException("Invalid fmt chunk size for WAVE_FORMAT_EXTENSIBLE");
+        }
+        // cbSize (2 bytes), then the extension: valid bits, channel mask and the sub-format GUID,
+        // whose first two bytes hold the format tag it stands for
+        short validBitsPerSample = data.getShort(offset + 18);
+        int channelMask = data.getInt(offset + 20);
+        int encoding = data.getShort(offset + 24) & 0xFFFF;
+        return new WavFormat(formatTag, encoding, channels, sampleRate, byteRate, blockAlign,
+                bitsPerSample, validBitsPerSample == 0 ? bitsPerSample : validBitsPerSample, channelMask);
+    }
+
+    /**
+     * @return The format tag as written in the chunk, possibly {@link #FORMAT_EXTENSIBLE}
+     */
+    public int getFormatTag() {
+        return formatTag;
+    }
+
+    /**
+     * @return The effective encoding: the format tag, or the sub-format of an extensible format
+     */
+    public int getEncoding() {
+        return encoding;
+    }
+
+    public boolean isPcm() {
+        return encoding == FORMAT_PCM;
+    }
+
+    public boolean isExtensible() {
+        return formatTag == FORMAT_EXTENSIBLE;
+    }
+
+    public short getChannels() {
+        return channels;
+    }
+
+    public long getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getByteRate() {
+        return byteRate;
+    }
+
+    public int getBlockAlign() {
+        return blockAlign;
+    }
+
+    /**
+     * @return The container size of a sample in bits
+     */
+    public short getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    /**
+     * @return The bits of each sample that carry audio, which extensible formats may set below the container size
+     */
+    public short getValidBitsPerSample() {
+        return validBitsPerSample;
+    }
+
+    /**
+     * @return The speaker positions of the channels, or 0 if not specified
+     */
+    public int getChannelMask() {
+        return channelMask;
+    }
+}
@@ -0,0 +1,247 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedAudioRecordingAdapterTest {
+
+    private static final long ENTRY = BoundedAudioRecordingAdapter.ENTRY_OVERHEAD;
+
+    private TestClock clock;
+    private List<String> evicted;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock();
+        evicted = new ArrayList<>();
+    }
+
+    @Test
+    void testStoreAndGet_TracksHitsMissesAndBytes() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(10_000, Duration.ZERO, Duration.ZERO);
+        adapter.storeRecording(new AudioBean("a", new byte[100]));
+
+        // Act
+        AudioBean hit = adapter.getRecording("a");
+        AudioBean miss = adapter.getRecording("missing");
+
+        // Assert
+        assertNotNull(hit);
+        assertNull(miss);
+        BoundedAudioRecordingAdapter.Stats stats = adapter.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(100 + ENTRY, stats.getResidentBytes());
+        assertEquals(1, stats.getRecordingCount());
+    }
+
+    @Test
+    void testStoreRecording_EvictsLeastRecentlyUsedOverBudget() {
+        // Arrange - room for two recordings of 100 bytes
+        BoundedAudioRecordingAdapter adapter = newAdapter(2 * (100 + ENTRY), Duration.ZERO, Duration.ZERO);
+        adapter.storeRecording(new AudioBean("a", new byte[100]));
+        adapter.storeRecording(new AudioBean("b", new byte[100]));
+        adapter.getRecording("a");
+
+        // Act
+        adapter.storeRecording(new AudioBean("c", new byte[100]));
+
+        // Assert - "b" was the least recently used
+        assertEquals(List.of("b:SIZE"), evicted);
+        assertNull(adapter.getRecording("b"));
+        assertNotNull(adapter.getRecording("a"));
+        assertNotNull(adapter.getRecording("c"));
+        assertEquals(1, adapter.getStats().getEvictions());
+        assertEquals(2 * (100 + ENTRY), adapter.getStats().getResidentBytes());
+    }
+
+    @Test
+    void testStoreRecording_LargeRecordingEvictsSeveral() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(3 * (100 + ENTRY), Duration.ZERO, Duration.ZERO);
+        adapter.storeRecording(new AudioBean("a", new byte[100]));
+        adapter.storeRecording(new AudioBean("b", new byte[100]));
+        adapter.storeRecording(new AudioBean("c", new byte[100]));
+
+        // Act
+        adapter.storeRecording(new AudioBean("big", new byte[300]));
+
+        // Assert
+        assertEquals(List.of("a:SIZE", "b:SIZE"), evicted);
+        assertEquals(2, adapter.getStats().getRecordingCount());
+    }
+
+    @Test
+    void testStoreRecording_RejectsRecordingLargerThanBudget() {
+        BoundedAudioRecordingAdapter adapter = newAdapter(1000, Duration.ZERO, Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () ->
+            adapter.storeRecording(new AudioBean("huge", new byte[1000])));
+    }
+
+    @Test
+    void testGetRecording_EvictsIdleRecordings() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(10_000, Duration.ofMinutes(10), Duration.ZERO);
+        adapter.storeRecording(new AudioBean("a", new byte[10]));
+        adapter.storeRecording(new AudioBean("b", new byte[10]));
+        clock.advance(Duration.ofMinutes(6));
+        adapter.getRecording("b");
+
+        // Act
+        clock.advance(Duration.ofMinutes(5));
+
+        // Assert - "a" has been idle for 11 minutes, "b" for 5
+        assertNull(adapter.getRecording("a"));
+        assertNotNull(adapter.getRecording("b"));
+        assertEquals(List.of("a:IDLE"), evicted);
+    }
+
+    @Test
+    void testEvictExpired_EnforcesMaxLifetimeDespiteAccess() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(10_000, Duration.ofMinutes(10), Duration.ofMinutes(30));
+        adapter.storeRecording(new AudioBean("a", new byte[10]));
+        for (int i = 0; i < 3; i++) {
+            clock.advance(Duration.ofMinutes(8));
+            adapter.getRecording("a");
+        }
+        clock.advance(Duration.ofMinutes(7));
+
+        // Act - stored 31 minutes ago, last accessed 7 minutes ago
+        int count = adapter.evictExpired();
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals(List.of("a:EXPIRED"), evicted);
+        assertEquals(0, adapter.getStats().getResidentBytes());
+    }
+
+    @Test
+    void testSweepInterval_EvictsExpiredRecordingsWithoutTraffic() throws Exception {
+        // Arrange
+        CountDownLatch swept = new CountDownLatch(1);
+        try (BoundedAudioRecordingAdapter adapter = new BoundedAudioRecordingAdapter(10_000, Duration.ofMinutes(10),
+                Duration.ZERO, Duration.ofMillis(10), clock)) {
+            adapter.addEvictionListener((recording, cause) -> swept.countDown());
+            adapter.storeRecording(new AudioBean("a", new byte[10]));
+
+            // Act - nothing touches the store after the timeout passes
+            clock.advance(Duration.ofMinutes(11));
+
+            // Assert
+            assertTrue(swept.await(5, TimeUnit.SECONDS));
+            assertEquals(0, adapter.getStats().getRecordingCount());
+        }
+    }
+
+    @Test
+    void testClearAndReplace_AreNotEvictions() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(10_000, Duration.ZERO, Duration.ofMinutes(30));
+        adapter.storeRecording(new AudioBean("a", new byte[10]));
+        adapter.storeRecording(new AudioBean("a", new byte[20]));
+        adapter.storeRecording(new AudioBean("b", new byte[10]));
+
+        // Act
+        boolean cleared = adapter.clearRecording("b");
+
+        // Assert
+        assertTrue(cleared);
+        assertFalse(adapter.clearRecording("b"));
+        assertTrue(evicted.isEmpty());
+        assertEquals(20 + ENTRY, adapter.getStats().getResidentBytes());
+        assertEquals(20, adapter.getRecording("a").getAudioDataSize());
+    }
+
+    @Test
+    void testReplaceRecording_KeepsExpiryAndAccessOrder() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(10_000, Duration.ofMinutes(10), Duration.ofMinutes(30));
+        adapter.storeRecording(new AudioBean("a", new byte[100]));
+        clock.advance(Duration.ofMinutes(6));
+        adapter.storeRecording(new AudioBean("b", new byte[100]));
+
+        // Act
+        boolean replaced = adapter.replaceRecording(new AudioBean("a", new byte[40]));
+
+        // Assert - "a" still idles from its store, 6 minutes before "b"
+        assertTrue(replaced);
+        assertFalse(adapter.replaceRecording(new AudioBean("missing", new byte[40])));
+        assertEquals(40 + ENTRY + 100 + ENTRY, adapter.getStats().getResidentBytes());
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(1, adapter.evictExpired());
+        assertEquals(List.of("a:IDLE"), evicted);
+        assertEquals(100 + ENTRY, adapter.getStats().getResidentBytes());
+    }
+
+    @Test
+    void testReplaceRecording_MissesClearedAndEvictedRecordings() {
+        // Arrange
+        BoundedAudioRecordingAdapter adapter = newAdapter(300 + 2 * ENTRY, Duration.ZERO, Duration.ZERO);
+        adapter.storeRecording(new AudioBean("a", new byte[100]));
+        adapter.storeRecording(new AudioBean("a", new byte[100]));
+        adapter.storeRecording(new AudioBean("b", new byte[100]));
+        adapter.clearRecording("a");
+        adapter.storeRecording(new AudioBean("c", new byte[250]));
+
+        // Act & Assert - "a" was cleared after being stored twice, "b" was evicted by "c"
+        assertEquals(List.of("b:SIZE"), evicted);
+        assertFalse(adapter.replaceRecording(new AudioBean("a", new byte[10])));
+        assertFalse(adapter.replaceRecording(new AudioBean("b", new byte[10])));
+        assertTrue(adapter.replaceRecording(new AudioBean("c", new byte[10])));
+        assertEquals(10 + ENTRY, adapter.getStats().getResidentBytes());
+    }
+
+    @Test
+    void testGetRecording_EmptyId() {
+        BoundedAudioRecordingAdapter adapter = newAdapter(10_000, Duration.ZERO, Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> adapter.getRecording(" "));
+        assertThrows(NullPointerException.class,
+            () -> new BoundedAudioRecordingAdapter(10_000, Duration.ZERO, Duration.ZERO, null, clock));
+    }
+
+    private BoundedAudioRecordingAdapter newAdapter(long maxBytes, Duration idleTimeout, Duration maxLifetime) {
+        BoundedAudioRecordingAdapter adapter = new BoundedAudioRecordingAdapter(maxBytes, idleTimeout, maxLifetime, clock);
+        adapter.addEvictionListener((recording, cause) -> evicted.add(recording.getId() + ":" + cause));
+        return adapter;
+    }
+
+    private static final class TestClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+import com.tomasburgaleta.exampleia.domain.port.RecordingLease;
+import com.tomasburgaleta.exampleia.infrastructure.codec.LosslessPcmCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingAudioRecordingAdapterTest {
+
+    private InMemoryAudioRecordingAdapter delegate;
+    private ExecutorService encoder;
+    private CompressingAudioRecordingAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemoryAudioRecordingAdapter();
+        encoder = Executors.newSingleThreadExecutor();
+        adapter = new CompressingAudioRecordingAdapter(delegate, encoder);
+    }
+
+    @Test
+    void testStoreRecording_CompressesInBackgroundAndDecodesOnGet() throws Exception {
+        // Arrange
+        byte[] pcm = ramp(20000);
+        AudioBean audioBean = pcmBean("a", pcm);
+        SampleOffsetMap offsetMap = SampleOffsetMap.identity(pcm.length / 2);
+        audioBean.setTranscribedOffsetMap(offsetMap);
+
+        // Act
+        adapter.storeRecording(audioBean);
+        awaitEncoder();
+
+        // Assert
+        AudioBean stored = delegate.getRecording("a");
+        assertInstanceOf(EncodedRecording.class, stored);
+        assertTrue(LosslessPcmCodec.isEncoded(stored.getAudioPayload()));
+        assertTrue(stored.getAudioDataSize() < pcm.length / 2);
+
+        AudioBean retrieved = adapter.getRecording("a");
+        assertFalse(EncodedRecording.isEncoded(retrieved));
+        assertEquals(pcm.length, retrieved.getAudioDataSize());
+        assertArrayEquals(pcm, retrieved.getAudioData());
+        assertEquals(16000, retrieved.getSamplesPerSecond());
+        assertEquals(16, retrieved.getBitsPerSample());
+        assertSame(offsetMap, retrieved.getTranscribedOffsetMap());
+    }
+
+    @Test
+    void testGetRecording_DecodesOneFrameAtATime() throws Exception {
+        // Arrange
+        byte[] pcm = ramp(40001);
+        adapter.storeRecording(pcmBean("a", pcm));
+        awaitEncoder();
+
+        // Act
+        AudioPayload payload = adapter.getRecording("a").getAudioPayload();
+        byte[] range = payload.slice(30000, 50).toByteArray();
+        byte[] streamed;
+        try (InputStream in = payload.asInputStream()) {
+            streamed = in.readAllBytes();
+        }
+
+        // Assert - one buffer per frame plus the odd trailing byte
+        assertArrayEquals(Arrays.copyOfRange(pcm, 30000, 30050), range);
+        assertArrayEquals(pcm, streamed);
+        int frameBytes = LosslessPcmCodec.FRAME_SAMPLES * 2;
+        assertEquals(40000 / frameBytes + 2, payload.bufferCount());
+        assertEquals(frameBytes, payload.bufferLength(0));
+        assertEquals(1, payload.bufferLength(payload.bufferCount() - 1));
+        assertArrayEquals(Arrays.copyOfRange(pcm, frameBytes, 2 * frameBytes), toArray(payload.buffer(1)));
+    }
+
+    @Test
+    void testOpenRecording_LeasesDecodedRecording() throws Exception {
+        // Arrange
+        byte[] pcm = ramp(20000);
+        adapter.storeRecording(pcmBean("a", pcm));
+        awaitEncoder();
+
+        // Act & Assert
+        try (RecordingLease lease = adapter.openRecording("a")) {
+            assertFalse(EncodedRecording.isEncoded(lease.getRecording()));
+            assertArrayEquals(pcm, lease.getRecording().getAudioData());
+        }
+        assertNull(adapter.openRecording("missing"));
+    }
+
+    @Test
+    void testCompression_ReplacesRecordingWithoutRestartingItsExpiry() throws Exception {
+        // Arrange
+        TestClock clock = new TestClock();
+        BoundedAudioRecordingAdapter bounded =
+                new BoundedAudioRecordingAdapter(1_000_000, Duration.ofMinutes(10), Duration.ZERO, clock);
+        List<String> evicted = new ArrayList<>();
+        bounded.addEvictionListener((recording, cause) -> evicted.add(recording.getId() + ":" + cause));
+        Object gate = new Object();
+        synchronized (gate) {
+            encoder.execute(() -> {
+                synchronized (gate) {
+                    // released once the clock has moved on
+                }
+            });
+            adapter = new CompressingAudioRecordingAdapter(bounded, encoder);
+            adapter.storeRecording(pcmBean("a", ramp(20000)));
+            clock.advance(Duration.ofMinutes(6));
+        }
+
+        // Act
+        awaitEncoder();
+        clock.advance(Duration.ofMinutes(5));
+
+        // Assert - idle since its store 11 minutes ago, as the compression did not count as a use
+        assertEquals(1, bounded.evictExpired());
+        assertEquals(List.of("a:IDLE"), evicted);
+        assertEquals(0, bounded.getStats().getResidentBytes());
+    }
+
+    @Test
+    void testUpdateTranscription_BeforeEncodingFinishesIsKept() throws Exception {
+        // Arrange - keep the encoder busy until the transcription is stored
+        Object gate = new Object();
+        synchronized (gate) {
+            encoder.execute(() -> {
+                synchronized (gate) {
+                    // released once the test thread leaves the block
+                }
+            });
+            adapter.storeRecording(pcmBean("a", ramp(20000)));
+            AudioBean transcribed = adapter.getRecording("a");
+            transcribed.setTranscribedText("hello");
+
+            // Act
+            assertTrue(adapter.updateTranscription(transcribed));
+        }
+        awaitEncoder();
+
+        // Assert
+        assertInstanceOf(EncodedRecording.class, delegate.getRecording("a"));
+        assertEquals("hello", adapter.getRecording("a").getTranscribedText());
+    }
+
+    @Test
+    void testUpdateTranscription_OfCompressedRecordingIsKept() throws Exception {
+        // Arrange
+        adapter.storeRecording(pcmBean("a", ramp(20000)));
+        awaitEncoder();
+        AudioBean transcribed = adapter.getRecording("a");
+        transcribed.setTranscribedText("hello");
+
+        // Act
+        boolean updated = adapter.updateTranscription(transcribed);
+
+        // Assert
+        assertTrue(updated);
+        assertEquals("hello", adapter.getRecording("a").getTranscribedText());
+    }
+
+    @Test
+    void testClearRecording_BeforeEncodingFinishes() throws Exception {
+        // Arrange - keep the encoder busy until the recording is cleared
+        Object gate = new Object();
+        synchronized (gate) {
+            encoder.execute(() -> {
+                synchronized (gate) {
+                    // released once the test thread leaves the block
+                }
+            });
+            adapter.storeRecording(pcmBean("a", ramp(20000)));
+
+            // Act
+            assertTrue(adapter.clearRecording("a"));
+        }
+        awaitEncoder();
+
+        // Assert - the late encoding does not resurrect the recording
+        assertNull(adapter.getRecording("a"));
+        assertNull(delegate.getRecording("a"));
+    }
+
+    @Test
+    void testStoreRecording_UnsupportedFormatStaysUncompressed() throws Exception {
+        // Arrange
+        AudioBean audioBean = new AudioBean("a", new byte[]{1, 2, 3});
+        audioBean.setBitsPerSample((short) 8);
+        audioBean.setChannels((short) 1);
+
+        // Act
+        adapter.storeRecording(audioBean);
+        awaitEncoder();
+
+        // Assert
+        assertSame(audioBean, adapter.getRecording("a"));
+    }
+
+    @Test
+    void testGetRecording_UploadLookingEncodedIsServedAsStored() throws Exception {
+        // Arrange - an upload whose bytes happen to be a complete encoded stream
+        byte[] lookalike = LosslessPcmCodec.encode(pcmBean("x", ramp(20000)).getAudioPayload(), (short) 16, (short) 1)
+                .toByteArray();
+        AudioBean audioBean = new AudioBean("a", lookalike);
+        audioBean.setBitsPerSample((short) 8);
+        audioBean.setChannels((short) 1);
+
+        // Act
+        adapter.storeRecording(audioBean);
+        awaitEncoder();
+        AudioPayload payload = adapter.getRecording("a").getAudioPayload();
+
+        // Assert
+        assertArrayEquals(lookalike, payload.toByteArray());
+        assertArrayEquals(Arrays.copyOfRange(lookalike, 0, 8), payload.slice(0, 8).toByteArray());
+    }
+
+    private void awaitEncoder() throws InterruptedException {
+        encoder.shutdown();
+        assertTrue(encoder.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static AudioBean pcmBean(String id, byte[] pcm) {
+        AudioBean audioBean = new AudioBean(id, pcm);
+        audioBean.setSamplesPerSecond(16000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 1);
+        return audioBean;
+    }
+
+    private static byte[] ramp(int length) {
+        byte[] pcm = new byte[length];
+        for (int i = 0; i + 1 < length; i += 2) {
+            short sample = (short) (3000 * Math.sin(i / 40.0));
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+
+    private static final class TestClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.tomasburgaleta.exampleia.infrastructure.adapter;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import com.tomasburgaleta.exampleia.infrastructure.config.DeepgramSpeechConfig;
 import org.junit.jupiter.api.BeforeEach;
@@ -60,7 +61,7 @@ class DeepgramAudioListenerAdapterTest {
         )).thenReturn(responseEntity);
 
         // When
-        byte[] result = adapter.transcribe(audioBean);
+        AudioPayload result = adapter.transcribe(audioBean);
 
         // Then
         assertNotNull(result);
@@ -128,7 +129,7 @@ class DeepgramAudioListenerAdapterTest {
         )).thenReturn(responseEntity);
 
         // When
-        byte[] result = adapter.transcribe(audioBean);
+        AudioPayload result = adapter.transcribe(audioBean);
 
         // Then
         assertNotNull(result);
@@ -202,7 +203,7 @@ class DeepgramAudioListenerAdapterTest {
         )).thenReturn(responseEntity);
 
         // When
-        byte[] result = adapter.listenAudio(audioBean);
+        AudioPayload result = adapter.listenAudio(audioBean);
 
         // Then
         assertNotNull(result);
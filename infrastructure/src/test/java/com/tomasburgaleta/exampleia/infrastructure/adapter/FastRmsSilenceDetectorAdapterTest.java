@@ -0,0 +1,121 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastRmsSilenceDetectorAdapterTest {
+
+    private final FastRmsSilenceDetectorAdapter detector = new FastRmsSilenceDetectorAdapter();
+    private final RmsSilenceDetectorAdapter reference = new RmsSilenceDetectorAdapter();
+
+    @Test
+    void shouldMatchReferenceOnRandomAudio() {
+        // Given - noise at levels around the threshold, in every supported format
+        Random random = new Random(42);
+        for (short bits : new short[]{8, 16, 24}) {
+            for (short channels = 1; channels <= 3; channels++) {
+                for (int round = 0; round < 50; round++) {
+                    byte[] pcm = new byte[random.nextInt(4000) + 1];
+                    int quietLevel = random.nextInt(3) == 0 ? 0xFF : 0x01;
+                    for (int i = 0; i < pcm.length; i++) {
+                        // Mostly quiet low bytes with occasional loud samples
+                        pcm[i] = (byte) (random.nextInt(20) == 0 ? random.nextInt() : random.nextInt() & quietLevel);
+                    }
+
+                    // When & Then
+                    assertEquals(reference.detectSilence(pcm, 16000, bits, channels),
+                        detector.detectSilence(pcm, 16000, bits, channels),
+                        "bits=" + bits + ", channels=" + channels + ", round=" + round);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldReadCompositePayloadsInPlaceLikeArrays() {
+        // Given - payloads cut at random points, splitting frames and samples between buffers
+        Random random = new Random(7);
+        for (short bits : new short[]{8, 16, 24}) {
+            for (short channels = 1; channels <= 3; channels++) {
+                for (int round = 0; round < 20; round++) {
+                    byte[] pcm = new byte[random.nextInt(4000) + 1];
+                    for (int i = 0; i < pcm.length; i++) {
+                        pcm[i] = (byte) (random.nextInt(10) == 0 ? random.nextInt() : random.nextInt() & 0x01);
+                    }
+                    int first = random.nextInt(pcm.length);
+                    int second = first + random.nextInt(pcm.length - first + 1);
+                    AudioPayload payload = AudioPayload.concat(
+                        AudioPayload.wrap(pcm, 0, first),
+                        AudioPayload.directCopyOf(ByteBuffer.wrap(pcm, first, second - first)),
+                        AudioPayload.wrap(pcm, second, pcm.length - second));
+
+                    // When & Then
+                    assertEquals(detector.detectSilence(pcm, 16000, bits, channels),
+                        detector.detectSilence(payload, 16000, bits, channels),
+                        "bits=" + bits + ", channels=" + channels + ", round=" + round);
+                }
+            }
+        }
+        assertTrue(detector.detectSilence(AudioPayload.empty(), 16000, (short) 16, (short) 1));
+    }
+
+    @Test
+    void shouldMatchReferenceAtThresholds() {
+        for (short channels = 1; channels <= 6; channels++) {
+            // Given - frames just below and at the limit, around the 95% silent share
+            int limit = FastRmsSilenceDetectorAdapter.silenceLimit(1 << 15, channels);
+            byte[] silent = stereoish16(channels, limit, 95, 5);
+            byte[] loud = stereoish16(channels, limit, 94, 6);
+
+            // When & Then
+            assertTrue(reference.detectSilence(silent, 16000, (short) 16, channels));
+            assertTrue(detector.detectSilence(silent, 16000, (short) 16, channels));
+            assertFalse(reference.detectSilence(loud, 16000, (short) 16, channels));
+            assertFalse(detector.detectSilence(loud, 16000, (short) 16, channels));
+        }
+    }
+
+    @Test
+    void shouldComputeLimitFromReferenceArithmetic() {
+        // 1% of 32768 is 327.68, so 327 is silent and 328 is not
+        assertEquals(328, FastRmsSilenceDetectorAdapter.silenceLimit(1 << 15, 1));
+        assertEquals(2, FastRmsSilenceDetectorAdapter.silenceLimit(1 << 7, 1));
+        assertEquals(83887, FastRmsSilenceDetectorAdapter.silenceLimit(1 << 23, 1));
+    }
+
+    @Test
+    void shouldHandleEdgeCasesLikeReference() {
+        byte[] loud = {(byte) 0xFF, 0x7F, (byte) 0xFF, 0x7F};
+
+        assertTrue(detector.detectSilence((byte[]) null, 16000, (short) 16, (short) 1));
+        assertTrue(detector.detectSilence(new byte[0], 16000, (short) 16, (short) 1));
+        assertTrue(detector.detectSilence(new byte[]{0x7F}, 16000, (short) 16, (short) 1));
+        assertEquals(reference.detectSilence(loud, 16000, (short) 32, (short) 1),
+            detector.detectSilence(loud, 16000, (short) 32, (short) 1));
+        assertThrows(ArithmeticException.class, () -> detector.detectSilence(loud, 16000, (short) 16, (short) 0));
+    }
+
+    /**
+     * Builds 16-bit frames whose absolute sample sums are one below the limit, then at the limit
+     */
+    private static byte[] stereoish16(int channels, int limit, int quietFrames, int loudFrames) {
+        byte[] pcm = new byte[(quietFrames + loudFrames) * channels * 2];
+        for (int frame = 0; frame < quietFrames + loudFrames; frame++) {
+            int sum = frame < quietFrames ? limit - 1 : limit;
+            for (int ch = 0; ch < channels; ch++) {
+                int sample = sum / channels + (ch < sum % channels ? 1 : 0);
+                // Alternate signs, since only magnitudes count
+                sample = ch % 2 == 0 ? sample : -sample;
+                int index = (frame * channels + ch) * 2;
+                pcm[index] = (byte) sample;
+                pcm[index + 1] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+}
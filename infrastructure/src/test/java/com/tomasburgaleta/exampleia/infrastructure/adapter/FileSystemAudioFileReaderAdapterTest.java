@@ -1,13 +1,21 @@
 package com.tomasburgaleta.exampleia.infrastructure.adapter;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,11 +42,207 @@ class FileSystemAudioFileReaderAdapterTest {
         Files.write(wavFile, validWav);
         
         // Act
-        byte[] result = adapter.readWavFile(wavFile.toString());
+        AudioPayload result = adapter.readWavFile(wavFile.toString());
         
         // Assert - result should be the PCM data only (8 bytes in our test case)
         assertNotNull(result);
-        assertEquals(8, result.length);
+        assertEquals(8, result.length());
+    }
+    
+    @Test
+    void readWavFile_shouldReturnMappedSlice_whenMemoryMapped() throws IOException, AudioFileException {
+        // Arrange
+        adapter = new FileSystemAudioFileReaderAdapter(true);
+        byte[] validWav = createValidWavHeader();
+        Path wavFile = tempDir.resolve("test.wav");
+        Files.write(wavFile, validWav);
+        
+        // Act
+        AudioPayload result = adapter.readWavFile(wavFile.toString());
+        
+        // Assert - the PCM region is read in place from the mapping
+        assertTrue(result.isDirect());
+        assertArrayEquals(Arrays.copyOfRange(validWav, validWav.length - 8, validWav.length), result.toByteArray());
+    }
+    
+    @Test
+    void readWavFile_shouldCutTruncatedDataChunk_whenMemoryMapped() throws IOException, AudioFileException {
+        // Arrange
+        adapter = new FileSystemAudioFileReaderAdapter(true);
+        byte[] validWav = createValidWavHeader();
+        Path wavFile = tempDir.resolve("truncated.wav");
+        Files.write(wavFile, Arrays.copyOf(validWav, validWav.length - 3));
+        
+        // Act
+        AudioPayload result = adapter.readWavFile(wavFile.toString());
+        
+        // Assert
+        assertEquals(5, result.length());
+    }
+    
+    @Test
+    void readWavFile_shouldMapDataInSegments_whenLongerThanOneMapping() throws IOException, AudioFileException {
+        // Arrange - 44-byte mappings, so the head ends where the data starts
+        adapter = new FileSystemAudioFileReaderAdapter(true, 44);
+        byte[] pcmData = new byte[100];
+        for (int i = 0; i < pcmData.length; i++) {
+            pcmData[i] = (byte) i;
+        }
+        Path wavFile = tempDir.resolve("segmented.wav");
+        Files.write(wavFile, WavFramer.frame(AudioPayload.wrap(pcmData), 16000, (short) 16, (short) 1).toByteArray());
+        
+        // Act
+        AudioPayload result = adapter.readWavFile(wavFile.toString());
+        
+        // Assert
+        assertTrue(result.isComposite());
+        assertEquals(3, result.asReadOnlyBuffers().length);
+        assertArrayEquals(pcmData, result.toByteArray());
+    }
+    
+    @Test
+    void readWavFile_shouldValidateHeader_whenMemoryMapped() throws IOException {
+        // Arrange
+        adapter = new FileSystemAudioFileReaderAdapter(true);
+        Path smallFile = tempDir.resolve("small.wav");
+        Files.write(smallFile, new byte[5]);
+        
+        // Act & Assert
+        AudioFileException exception = assertThrows(AudioFileException.class,
+            () -> adapter.readWavFile(smallFile.toString()));
+        
+        assertTrue(exception.getMessage().contains("File is too small"));
+    }
+    
+    @Test
+    void readWavFileAsync_shouldReturnPcmData_whenValidWavFile() throws IOException {
+        // Arrange
+        byte[] validWav = createValidWavHeader();
+        Path wavFile = tempDir.resolve("test.wav");
+        Files.write(wavFile, validWav);
+        
+        // Act
+        AudioPayload result = adapter.readWavFileAsync(wavFile.toString()).join();
+        
+        // Assert - the PCM is read through the pooled direct buffer onto the heap
+        assertFalse(result.isDirect());
+        assertArrayEquals(Arrays.copyOfRange(validWav, validWav.length - 8, validWav.length), result.toByteArray());
+    }
+    
+    @Test
+    void readWavFileAsync_shouldReadDataBeyondHeadBuffer() throws IOException {
+        // Arrange - more PCM than the pooled head buffer holds, read twice to reuse the buffer
+        byte[] pcmData = new byte[200_000];
+        for (int i = 0; i < pcmData.length; i++) {
+            pcmData[i] = (byte) (i * 31);
+        }
+        Path wavFile = tempDir.resolve("long.wav");
+        Files.write(wavFile, WavFramer.frame(AudioPayload.wrap(pcmData), 16000, (short) 16, (short) 1).toByteArray());
+        
+        // Act
+        AudioPayload first = adapter.readWavFileAsync(wavFile.toString()).join();
+        AudioPayload second = adapter.readWavFileAsync(wavFile.toString()).join();
+        
+        // Assert
+        assertArrayEquals(pcmData, first.toByteArray());
+        assertEquals(first, second);
+    }
+    
+    @Test
+    void readWavFileAsync_shouldFindDataChunkBehindMetadataLargerThanHeadBuffer() throws IOException {
+        // Arrange - a 100 KB LIST chunk between fmt and data
+        byte[] pcmData = {1, 2, 3, 4, 5, 6};
+        byte[] wav = WavFramer.frame(AudioPayload.wrap(pcmData), 16000, (short) 16, (short) 1).toByteArray();
+        int dataHeader = WavFramer.HEADER_SIZE - 8;
+        ByteBuffer file = ByteBuffer.allocate(wav.length + 8 + 100_000).order(ByteOrder.LITTLE_ENDIAN);
+        file.put(wav, 0, dataHeader);
+        file.put("LIST".getBytes(StandardCharsets.US_ASCII)).putInt(100_000).put(new byte[100_000]);
+        file.put(wav, dataHeader, wav.length - dataHeader);
+        Path wavFile = tempDir.resolve("metadata.wav");
+        Files.write(wavFile, file.array());
+        
+        // Act
+        AudioPayload result = adapter.readWavFileAsync(wavFile.toString()).join();
+        
+        // Assert
+        assertArrayEquals(pcmData, result.toByteArray());
+        assertEquals(adapter.readWavFile(wavFile.toString()), result);
+    }
+    
+    @Test
+    void readWavFileAsync_shouldCompleteExceptionally_whenFileIsInvalid() throws IOException {
+        // Arrange
+        Path smallFile = tempDir.resolve("small.wav");
+        Files.write(smallFile, new byte[5]);
+        String nonExistentPath = tempDir.resolve("nonexistent.wav").toString();
+        
+        // Act
+        CompletableFuture<AudioPayload> tooSmall = adapter.readWavFileAsync(smallFile.toString());
+        CompletableFuture<AudioPayload> missing = adapter.readWavFileAsync(nonExistentPath);
+        
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, tooSmall::join);
+        assertInstanceOf(AudioFileException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("File is too small"));
+        exception = assertThrows(CompletionException.class, missing::join);
+        assertTrue(exception.getCause().getMessage().contains("File not found"));
+    }
+    
+    @Test
+    void readWavFileAsync_shouldFailTheFuture_whenPathIsDirectory() throws IOException {
+        // Arrange
+        Path directory = tempDir.resolve("directory");
+        Files.createDirectory(directory);
+        
+        // Act - the checks run within the read, never on the caller
+        CompletableFuture<AudioPayload> result = assertDoesNotThrow(() -> adapter.readWavFileAsync(directory.toString()));
+        
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(AudioFileException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("Path points to a directory"));
+    }
+    
+    @Test
+    void readWavFileAsync_shouldReturnMappedSlice_whenMemoryMapped() throws IOException {
+        // Arrange
+        adapter = new FileSystemAudioFileReaderAdapter(true);
+        byte[] validWav = createValidWavHeader();
+        Path wavFile = tempDir.resolve("test.wav");
+        Files.write(wavFile, validWav);
+        
+        // Act
+        AudioPayload result = adapter.readWavFileAsync(wavFile.toString()).join();
+        
+        // Assert
+        assertTrue(result.isDirect());
+        assertEquals(adapter.readWavFile(wavFile.toString()), result);
+    }
+    
+    @Test
+    void readWavFile_shouldDecodeG711LikeUploads() throws IOException {
+        // Arrange - 8-bit A-law and mu-law files
+        byte[] samples = {(byte) 0xD5, 0x55, 0x2A, (byte) 0xAA, (byte) 0xFF, 0x00};
+        byte[] alaw = createEncodedWav((short) 6, samples);
+        byte[] mulaw = createEncodedWav((short) 7, new byte[]{(byte) 0xFF, 0x00});
+        Path alawFile = tempDir.resolve("alaw.wav");
+        Path mulawFile = tempDir.resolve("mulaw.wav");
+        Files.write(alawFile, alaw);
+        Files.write(mulawFile, mulaw);
+        AudioPayload uploaded = new WavByteReaderAdapter().processWavBytes(alaw, "alaw-id").getAudioPayload();
+        
+        // Act
+        AudioPayload fromHeap = adapter.readWavFile(alawFile.toString());
+        AudioPayload fromAsync = adapter.readWavFileAsync(alawFile.toString()).join();
+        AudioPayload fromMapping = new FileSystemAudioFileReaderAdapter(true).readWavFile(alawFile.toString());
+        
+        // Assert - the same 16-bit PCM as the upload of the same file
+        assertEquals(2 * samples.length, fromHeap.length());
+        assertEquals(uploaded, fromHeap);
+        assertEquals(uploaded, fromAsync);
+        assertEquals(uploaded, fromMapping);
+        assertArrayEquals(new byte[]{0x00, 0x00, (byte) 0x84, (byte) 0x82},
+            adapter.readWavFile(mulawFile.toString()).toByteArray());
     }
     
     @Test
@@ -132,6 +336,15 @@ class FileSystemAudioFileReaderAdapterTest {
     /**
      * Creates a minimal valid WAV header with PCM data for testing
      */
+    private static byte[] createEncodedWav(short formatTag, byte[] data) {
+        ByteBuffer wav = ByteBuffer.allocate(44 + data.length).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(wav.capacity() - 8).put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16)
+            .putShort(formatTag).putShort((short) 1).putInt(8000).putInt(8000).putShort((short) 1).putShort((short) 8);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(data.length).put(data);
+        return wav.array();
+    }
+    
     private byte[] createValidWavHeader() {
         byte[] pcmData = {0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08}; // 8 bytes of PCM data
         byte[] wav = new byte[44 + pcmData.length]; // Header + PCM data
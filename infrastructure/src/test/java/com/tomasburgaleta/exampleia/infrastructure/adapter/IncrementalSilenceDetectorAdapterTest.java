@@ -0,0 +1,239 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.port.SilenceTracker;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSilenceDetectorAdapterTest {
+
+    private static final int RATE = 16000;
+    private static final int FRAME_SAMPLES = 320; // 20 ms at 16 kHz
+
+    private final IncrementalSilenceDetectorAdapter detector = new IncrementalSilenceDetectorAdapter();
+
+    @Test
+    void shouldReportDigitalSilenceAsSilent() {
+        // Given
+        SilenceTracker tracker = detector.openTracker(RATE, (short) 16, (short) 1);
+
+        // When
+        SpeechActivity activity = tracker.accept(new byte[RATE / 4 * 2]);
+
+        // Then - 250 ms make 12 complete frames
+        assertEquals(12, activity.getFrameCount());
+        assertTrue(activity.isSilent());
+        assertFalse(activity.isSpeaking());
+        assertEquals(240, activity.getTrailingSilenceMillis());
+    }
+
+    @Test
+    void shouldReportToneAsSpeech() {
+        // Given
+        SilenceTracker tracker = detector.openTracker(RATE, (short) 16, (short) 1);
+
+        // When
+        SpeechActivity activity = tracker.accept(tone16(RATE / 4, 1, 0.3));
+
+        // Then
+        assertFalse(activity.isSilent());
+        assertTrue(activity.isSpeaking());
+        for (int frame = 0; frame < activity.getFrameCount(); frame++) {
+            assertTrue(activity.isSpeech(frame), "frame " + frame);
+        }
+    }
+
+    @Test
+    void shouldMakeTheSameDecisionsWhateverTheChunkBoundaries() {
+        // Given - speech bursts with pauses, cut into chunks splitting frames and samples
+        byte[] stream = concat(tone16(4000, 1, 0.2), new byte[8000 * 2], tone16(2000, 1, 0.05),
+            new byte[12000 * 2], tone16(6000, 1, 0.4), new byte[4000 * 2]);
+        boolean[] whole = decisions(detector.openTracker(RATE, (short) 16, (short) 1), List.of(stream));
+
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            List<byte[]> chunks = new ArrayList<>();
+            for (int offset = 0; offset < stream.length; ) {
+                int length = Math.min(stream.length - offset, random.nextInt(999) + 1);
+                chunks.add(Arrays.copyOfRange(stream, offset, offset + length));
+                offset += length;
+            }
+
+            // When
+            boolean[] chunked = decisions(detector.openTracker(RATE, (short) 16, (short) 1), chunks);
+
+            // Then
+            assertArrayEquals(whole, chunked, "round " + round);
+        }
+    }
+
+    @Test
+    void shouldReadBuffersInPlace() {
+        // Given - the stream inside a direct buffer, after a header the tracker must skip
+        byte[] stream = concat(tone16(4000, 1, 0.2), new byte[8000 * 2]);
+        boolean[] whole = decisions(detector.openTracker(RATE, (short) 16, (short) 1), List.of(stream));
+        ByteBuffer frame = ByteBuffer.allocateDirect(3 + stream.length);
+        frame.put(new byte[]{9, 9, 9}).put(stream).position(3);
+
+        // When
+        SpeechActivity activity = detector.openTracker(RATE, (short) 16, (short) 1).accept(frame);
+
+        // Then
+        assertEquals(3, frame.position());
+        assertEquals(whole.length, activity.getFrameCount());
+        for (int i = 0; i < whole.length; i++) {
+            assertEquals(whole[i], activity.isSpeech(i), "frame " + i);
+        }
+    }
+
+    @Test
+    void shouldNumberFramesAcrossChunks() {
+        // Given
+        SilenceTracker tracker = detector.openTracker(RATE, (short) 16, (short) 1);
+
+        // When - the first chunk ends in the middle of a frame and of a sample
+        SpeechActivity first = tracker.accept(new byte[FRAME_SAMPLES * 2 * 3 + 101]);
+        SpeechActivity second = tracker.accept(new byte[FRAME_SAMPLES * 2 - 101]);
+
+        // Then
+        assertEquals(0, first.getFirstFrame());
+        assertEquals(3, first.getFrameCount());
+        assertEquals(3, second.getFirstFrame());
+        assertEquals(1, second.getFrameCount());
+        assertEquals(60, second.getFrameStartMillis(0));
+    }
+
+    @Test
+    void shouldHoldSpeechDuringHangover() {
+        // Given
+        SilenceTracker tracker = detector.openTracker(RATE, (short) 16, (short) 1);
+        tracker.accept(tone16(FRAME_SAMPLES * 10, 1, 0.3));
+
+        // When - 500 ms of silence after the speech
+        SpeechActivity activity = tracker.accept(new byte[FRAME_SAMPLES * 25 * 2]);
+
+        // Then - the first 300 ms stay in speech
+        for (int frame = 0; frame < 15; frame++) {
+            assertTrue(activity.isSpeech(frame), "frame " + frame);
+        }
+        for (int frame = 15; frame < 25; frame++) {
+            assertFalse(activity.isSpeech(frame), "frame " + frame);
+        }
+        assertFalse(activity.isSilent());
+        assertFalse(activity.isSpeaking());
+        assertEquals(200, activity.getTrailingSilenceMillis());
+    }
+
+    @Test
+    void shouldKeepStateForChunksCompletingNoFrame() {
+        // Given
+        SilenceTracker tracker = detector.openTracker(RATE, (short) 16, (short) 1);
+        tracker.accept(tone16(FRAME_SAMPLES * 5, 1, 0.3));
+
+        // When
+        SpeechActivity activity = tracker.accept(new byte[10]);
+
+        // Then
+        assertEquals(0, activity.getFrameCount());
+        assertTrue(activity.isSpeaking());
+        assertFalse(activity.isSilent());
+    }
+
+    @Test
+    void shouldLearnSteadyBackgroundNoise() {
+        // Given - noise well above 1% of full scale
+        SilenceTracker tracker = detector.openTracker(RATE, (short) 16, (short) 1);
+        Random random = new Random(3);
+
+        // When - ten seconds of it
+        SpeechActivity noise = null;
+        for (int second = 0; second < 10; second++) {
+            noise = tracker.accept(noise16(RATE, 0.05, random));
+        }
+
+        // Then - it is no longer speech, but speech over it is
+        assertTrue(noise.isSilent());
+        assertFalse(tracker.accept(tone16(FRAME_SAMPLES * 5, 1, 0.5)).isSilent());
+    }
+
+    @Test
+    void shouldSupportOtherFormats() {
+        // 8-bit unsigned silence is centred on 128
+        byte[] silent8 = new byte[FRAME_SAMPLES * 5];
+        Arrays.fill(silent8, (byte) 128);
+        assertTrue(detector.openTracker(RATE, (short) 8, (short) 1).accept(silent8).isSilent());
+
+        // A 24-bit stereo tone
+        byte[] tone24 = new byte[FRAME_SAMPLES * 5 * 2 * 3];
+        for (int i = 0; i < tone24.length / 3; i++) {
+            int value = (int) (Math.sin(i / 4.0) * 0.3 * (1 << 23));
+            tone24[i * 3] = (byte) value;
+            tone24[i * 3 + 1] = (byte) (value >> 8);
+            tone24[i * 3 + 2] = (byte) (value >> 16);
+        }
+        SpeechActivity activity = detector.openTracker(RATE, (short) 24, (short) 2).accept(tone24);
+        assertEquals(5, activity.getFrameCount());
+        assertTrue(activity.isSpeaking());
+    }
+
+    @Test
+    void shouldRejectUnsupportedFormats() {
+        assertThrows(IllegalArgumentException.class, () -> detector.openTracker(RATE, (short) 12, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> detector.openTracker(RATE, (short) 16, (short) 0));
+        assertThrows(IllegalArgumentException.class, () -> detector.openTracker(0, (short) 16, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalSilenceDetectorAdapter(0, 300));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalSilenceDetectorAdapter(20, -1));
+    }
+
+    private static boolean[] decisions(SilenceTracker tracker, List<byte[]> chunks) {
+        List<Boolean> decisions = new ArrayList<>();
+        for (byte[] chunk : chunks) {
+            SpeechActivity activity = tracker.accept(chunk);
+            assertEquals(decisions.size(), activity.getFirstFrame());
+            for (int frame = 0; frame < activity.getFrameCount(); frame++) {
+                decisions.add(activity.isSpeech(frame));
+            }
+        }
+        boolean[] result = new boolean[decisions.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = decisions.get(i);
+        }
+        return result;
+    }
+
+    private static byte[] tone16(int frames, int channels, double amplitude) {
+        byte[] pcm = new byte[frames * channels * 2];
+        for (int i = 0; i < frames * channels; i++) {
+            short value = (short) (Math.sin(2 * Math.PI * 440 * (i / channels) / RATE) * amplitude * Short.MAX_VALUE);
+            pcm[i * 2] = (byte) value;
+            pcm[i * 2 + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private static byte[] noise16(int frames, double amplitude, Random random) {
+        byte[] pcm = new byte[frames * 2];
+        for (int i = 0; i < frames; i++) {
+            short value = (short) (random.nextGaussian() * amplitude * Short.MAX_VALUE);
+            pcm[i * 2] = (byte) value;
+            pcm[i * 2 + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,250 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileAudioRecordingAdapterTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedFileAudioRecordingAdapter adapter;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (adapter != null) {
+            adapter.close();
+        }
+    }
+
+    @Test
+    void testStoreAndGet_ServesMappedSlice() {
+        // Arrange
+        adapter = open(1024);
+        AudioBean audioBean = recording("test-id", 100);
+        audioBean.setSamplesPerSecond(16000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 2);
+
+        // Act
+        adapter.storeRecording(audioBean);
+        AudioBean retrieved = adapter.getRecording("test-id");
+
+        // Assert
+        assertTrue(retrieved.getAudioPayload().isDirect());
+        assertArrayEquals(audioBean.getAudioData(), retrieved.getAudioData());
+        assertEquals(16000, retrieved.getSamplesPerSecond());
+        assertEquals(16, retrieved.getBitsPerSample());
+        assertEquals(2, retrieved.getChannels());
+        assertNull(adapter.getRecording("missing"));
+    }
+
+    @Test
+    void testReopen_RecoversIndexFromSegments() throws IOException {
+        // Arrange - small segments so recordings span several files
+        adapter = open(300);
+        adapter.storeRecording(recording("a", 200));
+        adapter.storeRecording(recording("b", 200));
+        adapter.storeRecording(recording("c", 200));
+        adapter.clearRecording("b");
+        adapter.close();
+
+        // Act
+        adapter = open(300);
+
+        // Assert
+        assertEquals(2, adapter.getRecordingCount());
+        assertArrayEquals(recording("a", 200).getAudioData(), adapter.getRecording("a").getAudioData());
+        assertNull(adapter.getRecording("b"));
+        assertArrayEquals(recording("c", 200).getAudioData(), adapter.getRecording("c").getAudioData());
+    }
+
+    @Test
+    void testReopen_DiscardsIncompleteAppend() throws IOException {
+        // Arrange
+        adapter = open(1024);
+        adapter.storeRecording(recording("a", 50));
+        adapter.close();
+        Path segment = onlySegment();
+        long validSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x52, 0x45, 0x43}));
+        }
+
+        // Act
+        adapter = open(1024);
+        adapter.storeRecording(recording("b", 10));
+
+        // Assert
+        assertArrayEquals(recording("a", 50).getAudioData(), adapter.getRecording("a").getAudioData());
+        assertArrayEquals(recording("b", 10).getAudioData(), adapter.getRecording("b").getAudioData());
+        assertTrue(Files.size(segment) > validSize);
+    }
+
+    @Test
+    void testReopen_StopsAtRecordWithBadChecksum() throws IOException {
+        // Arrange - flip one audio byte of the second record
+        adapter = open(1024);
+        adapter.storeRecording(recording("a", 50));
+        long firstRecordEnd = adapter.getDiskBytes();
+        adapter.storeRecording(recording("b", 50));
+        adapter.close();
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long lastByte = channel.size() - 1;
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, lastByte);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) (value.get(0) ^ 1)}), lastByte);
+        }
+
+        // Act
+        adapter = open(1024);
+
+        // Assert
+        assertArrayEquals(recording("a", 50).getAudioData(), adapter.getRecording("a").getAudioData());
+        assertNull(adapter.getRecording("b"));
+        assertEquals(firstRecordEnd, Files.size(segment));
+    }
+
+    @Test
+    void testGetRecording_ServesRecordAcrossMappingWindows() {
+        // Arrange - the second recording starts in the first window and ends in the second
+        int length = MappedFileAudioRecordingAdapter.MAPPING_WINDOW_SIZE * 3 / 4;
+        adapter = open(4L * MappedFileAudioRecordingAdapter.MAPPING_WINDOW_SIZE);
+        adapter.storeRecording(recording("a", length));
+        AudioBean first = adapter.getRecording("a");
+
+        // Act
+        adapter.storeRecording(recording("b", length));
+        AudioBean second = adapter.getRecording("b");
+
+        // Assert
+        assertTrue(second.getAudioPayload().isComposite());
+        assertArrayEquals(recording("b", length).getAudioData(), second.getAudioData());
+        assertArrayEquals(recording("a", length).getAudioData(), first.getAudioData());
+    }
+
+    @Test
+    void testCompact_RemovesDeadSegments() throws IOException {
+        // Arrange
+        adapter = open(300);
+        adapter.storeRecording(recording("a", 200));
+        adapter.storeRecording(recording("b", 200));
+        adapter.storeRecording(recording("c", 200));
+        adapter.clearRecording("a");
+        adapter.storeRecording(recording("b", 100));
+        int segmentsBefore = adapter.getSegmentCount();
+
+        // Act
+        int removed = adapter.compact();
+
+        // Assert
+        assertTrue(removed >= 2);
+        assertTrue(adapter.getSegmentCount() < segmentsBefore);
+        assertNull(adapter.getRecording("a"));
+        assertArrayEquals(recording("b", 100).getAudioData(), adapter.getRecording("b").getAudioData());
+        assertArrayEquals(recording("c", 200).getAudioData(), adapter.getRecording("c").getAudioData());
+
+        // And the compacted layout recovers the same index
+        adapter.close();
+        adapter = open(300);
+        assertNull(adapter.getRecording("a"));
+        assertEquals(100, adapter.getRecording("b").getAudioDataSize());
+        assertEquals(200, adapter.getRecording("c").getAudioDataSize());
+    }
+
+    @Test
+    void testReopen_KeepsEncodedFlag() throws IOException {
+        // Arrange
+        adapter = open(1024);
+        adapter.storeRecording(new EncodedRecording("a", recording("a", 100).getAudioPayload()));
+        adapter.storeRecording(recording("b", 100));
+
+        // Act
+        adapter.close();
+        adapter = open(1024);
+
+        // Assert
+        assertInstanceOf(EncodedRecording.class, adapter.getRecording("a"));
+        assertFalse(EncodedRecording.isEncoded(adapter.getRecording("b")));
+    }
+
+    @Test
+    void testStoreRecording_RejectsRecordsThatDoNotFitOneMapping() {
+        // Arrange - audio just under 2 GB, shared 16 MB blocks so nothing is allocated
+        adapter = open(1024);
+        AudioPayload[] blocks = new AudioPayload[128];
+        Arrays.fill(blocks, AudioPayload.wrap(new byte[16 * 1024 * 1024]));
+        AudioPayload audio = AudioPayload.concat(blocks).slice(0L, Integer.MAX_VALUE - 10);
+
+        // Act & Assert - the audio fits, the record with its header does not
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> adapter.storeRecording(new AudioBean("big", audio)));
+        assertTrue(exception.getMessage().contains("2 GB"));
+        assertEquals(0, adapter.getRecordingCount());
+        assertEquals(0, adapter.getDiskBytes());
+    }
+
+    @Test
+    void testReopen_WithoutSyncWritesRecoversClosedStore() throws IOException {
+        // Arrange
+        adapter = new MappedFileAudioRecordingAdapter(directory, 1024, Duration.ZERO, false);
+        adapter.storeRecording(recording("a", 100));
+        adapter.close();
+
+        // Act
+        adapter = open(1024);
+
+        // Assert
+        assertArrayEquals(recording("a", 100).getAudioData(), adapter.getRecording("a").getAudioData());
+    }
+
+    @Test
+    void testClearRecording_UnknownId() {
+        adapter = open(1024);
+
+        assertFalse(adapter.clearRecording("missing"));
+    }
+
+    @Test
+    void testStoreRecording_NullBean() {
+        adapter = open(1024);
+
+        assertThrows(IllegalArgumentException.class, () -> adapter.storeRecording(null));
+    }
+
+    private MappedFileAudioRecordingAdapter open(long segmentSize) {
+        return new MappedFileAudioRecordingAdapter(directory, segmentSize, Duration.ZERO);
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(MappedFileAudioRecordingAdapter.SEGMENT_SUFFIX))
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private static AudioBean recording(String id, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i + id.charAt(0));
+        }
+        return new AudioBean(id, data);
+    }
+}
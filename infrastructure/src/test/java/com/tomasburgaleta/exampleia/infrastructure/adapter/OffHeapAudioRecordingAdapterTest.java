@@ -0,0 +1,241 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+import com.tomasburgaleta.exampleia.domain.port.RecordingLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapAudioRecordingAdapterTest {
+
+    private OffHeapAudioRecordingAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        // 16-byte blocks, 64-byte slabs, at most 4 slabs
+        adapter = new OffHeapAudioRecordingAdapter(16, 64, 256);
+    }
+
+    @Test
+    void testStoreRecording_MovesAudioOffHeap() {
+        // Arrange
+        byte[] pcmData = sequence(40);
+        AudioBean audioBean = new AudioBean("test-id", pcmData);
+        audioBean.setSamplesPerSecond(16000);
+        audioBean.setBitsPerSample((short) 16);
+        audioBean.setChannels((short) 1);
+        audioBean.setTranscribedOffsetMap(SampleOffsetMap.identity(20));
+
+        // Act
+        adapter.storeRecording(audioBean);
+        AudioBean stored = adapter.getRecording("test-id");
+
+        // Assert - lookups read onto the heap, leases read the blocks in place
+        assertFalse(stored.getAudioPayload().isDirect());
+        assertArrayEquals(pcmData, stored.getAudioData());
+        try (RecordingLease lease = adapter.openRecording("test-id")) {
+            assertTrue(lease.getRecording().getAudioPayload().asReadOnlyBuffers()[0].isDirect());
+            assertArrayEquals(pcmData, lease.getRecording().getAudioData());
+        }
+        assertEquals(16000, stored.getSamplesPerSecond());
+        assertEquals(1, stored.getChannels());
+        assertSame(audioBean.getTranscribedOffsetMap(), stored.getTranscribedOffsetMap());
+        assertEquals(48, adapter.getUsedBytes());
+        assertEquals(64, adapter.getReservedBytes());
+    }
+
+    @Test
+    void testStoreRecording_KeepsEncodedRecordingsEncoded() {
+        // Arrange
+        adapter.storeRecording(new EncodedRecording("a", new AudioBean("a", sequence(40)).getAudioPayload()));
+        adapter.storeRecording(new AudioBean("b", sequence(40)));
+
+        // Act & Assert
+        assertInstanceOf(EncodedRecording.class, adapter.getRecording("a"));
+        assertFalse(EncodedRecording.isEncoded(adapter.getRecording("b")));
+        try (RecordingLease lease = adapter.openRecording("a")) {
+            assertInstanceOf(EncodedRecording.class, lease.getRecording());
+        }
+    }
+
+    @Test
+    void testClearRecording_ReleasesBlocks() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(40)));
+
+        // Act
+        boolean cleared = adapter.clearRecording("a");
+
+        // Assert
+        assertTrue(cleared);
+        assertNull(adapter.getRecording("a"));
+        assertEquals(0, adapter.getUsedBytes());
+        assertFalse(adapter.clearRecording("a"));
+    }
+
+    @Test
+    void testClearRecording_DropsEmptySlabs() {
+        // Arrange - the second recording spans into a second and third slab
+        adapter.storeRecording(new AudioBean("a", sequence(64)));
+        adapter.storeRecording(new AudioBean("b", sequence(100)));
+        assertEquals(192, adapter.getReservedBytes());
+
+        // Act
+        adapter.clearRecording("b");
+
+        // Assert - only the first slab is kept
+        assertEquals(64, adapter.getReservedBytes());
+        assertArrayEquals(sequence(64), adapter.getRecording("a").getAudioData());
+    }
+
+    @Test
+    void testStoreRecording_ReplacingReleasesPreviousBlocks() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(64)));
+
+        // Act
+        adapter.storeRecording(new AudioBean("a", sequence(10)));
+
+        // Assert
+        assertEquals(16, adapter.getUsedBytes());
+        assertArrayEquals(sequence(10), adapter.getRecording("a").getAudioData());
+    }
+
+    @Test
+    void testGetRecording_FailsToReadBlocksReleasedMeanwhile() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(40)));
+        AudioBean retrieved = adapter.getRecording("a");
+
+        // Act - clear, then overwrite the freed blocks with other audio
+        adapter.clearRecording("a");
+        adapter.storeRecording(new AudioBean("b", new byte[48]));
+
+        // Assert - the metadata is still there, the audio is not read from reused blocks
+        assertEquals(40, retrieved.getAudioDataSize());
+        assertThrows(IllegalStateException.class, retrieved::getAudioData);
+        assertNotSame(adapter.getRecording("b"), adapter.getRecording("b"));
+    }
+
+    @Test
+    void testGetRecording_AllocatesNoMemoryOutsideTheStore() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(200)));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            assertArrayEquals(sequence(200), adapter.getRecording("a").getAudioData());
+        }
+
+        // Assert
+        assertEquals(208, adapter.getUsedBytes());
+        assertEquals(256, adapter.getReservedBytes());
+    }
+
+    @Test
+    void testOpenRecording_KeepsBlocksUntilTheLeaseIsClosed() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(40)));
+        RecordingLease lease = adapter.openRecording("a");
+
+        // Act - clear, then try to take the blocks with other audio
+        adapter.clearRecording("a");
+        adapter.storeRecording(new AudioBean("b", new byte[200]));
+
+        // Assert - the leased blocks still count, and still hold the leased audio
+        assertNull(adapter.getRecording("a"));
+        assertNull(adapter.openRecording("a"));
+        assertEquals(256, adapter.getUsedBytes());
+        assertArrayEquals(sequence(40), lease.getRecording().getAudioData());
+
+        lease.close();
+        lease.close();
+        assertEquals(208, adapter.getUsedBytes());
+        assertThrows(IllegalStateException.class, () -> lease.getRecording().getAudioData());
+    }
+
+    @Test
+    void testUpdateTranscription_StoresResultsSetOnLookups() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(40)));
+        AudioBean retrieved = adapter.getRecording("a");
+        retrieved.setTranscribedText("hello");
+        retrieved.setAiResponse("hi");
+        retrieved.setTranscribedOffsetMap(SampleOffsetMap.identity(20));
+
+        // Act
+        boolean updated = adapter.updateTranscription(retrieved);
+
+        // Assert
+        assertTrue(updated);
+        AudioBean stored = adapter.getRecording("a");
+        assertEquals("hello", stored.getTranscribedText());
+        assertEquals("hi", stored.getAiResponse());
+        assertSame(retrieved.getTranscribedOffsetMap(), stored.getTranscribedOffsetMap());
+        assertFalse(adapter.updateTranscription(new AudioBean("missing", new byte[1])));
+    }
+
+    @Test
+    void testClearRecording_CompactsUnleasedRecordingsIntoLowerSlabs() {
+        // Arrange - "c" lives in the second slab, behind the blocks "b" frees
+        adapter.storeRecording(new AudioBean("a", sequence(16)));
+        adapter.storeRecording(new AudioBean("b", sequence(48)));
+        adapter.storeRecording(new AudioBean("c", sequence(20)));
+        adapter.storeRecording(new AudioBean("d", sequence(48)));
+        assertEquals(192, adapter.getReservedBytes());
+
+        // Act
+        adapter.clearRecording("b");
+        adapter.clearRecording("d");
+
+        // Assert - "c" moved into the first slab, and the second slab was dropped
+        assertEquals(64, adapter.getReservedBytes());
+        assertArrayEquals(sequence(20), adapter.getRecording("c").getAudioData());
+        assertArrayEquals(sequence(16), adapter.getRecording("a").getAudioData());
+    }
+
+    @Test
+    void testCompact_LeavesLeasedRecordingsInPlace() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(64)));
+        adapter.storeRecording(new AudioBean("b", sequence(20)));
+
+        // Act - the first slab empties out while "b" is leased
+        try (RecordingLease lease = adapter.openRecording("b")) {
+            adapter.clearRecording("a");
+            adapter.compact();
+
+            // Assert
+            assertEquals(128, adapter.getReservedBytes());
+            assertArrayEquals(sequence(20), lease.getRecording().getAudioData());
+        }
+        adapter.compact();
+        assertEquals(64, adapter.getReservedBytes());
+        assertArrayEquals(sequence(20), adapter.getRecording("b").getAudioData());
+    }
+
+    @Test
+    void testStoreRecording_FailsWhenOffHeapMemoryIsExhausted() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", sequence(200)));
+
+        // Act & Assert - nothing is allocated by the failed store
+        assertThrows(IllegalStateException.class, () -> adapter.storeRecording(new AudioBean("b", sequence(100))));
+        assertEquals(208, adapter.getUsedBytes());
+    }
+
+    @Test
+    void testStoreRecording_NullBean() {
+        assertThrows(IllegalArgumentException.class, () -> adapter.storeRecording(null));
+    }
+
+    private static byte[] sequence(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
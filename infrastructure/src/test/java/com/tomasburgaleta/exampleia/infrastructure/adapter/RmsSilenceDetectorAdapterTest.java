@@ -19,7 +19,7 @@ class RmsSilenceDetectorAdapterTest {
     
     @Test
     void testDetectSilence_NullData() {
-        boolean result = silenceDetector.detectSilence(null, 44100, (short) 16, (short) 1);
+        boolean result = silenceDetector.detectSilence((byte[]) null, 44100, (short) 16, (short) 1);
         assertTrue(result, "Null data should be considered silent");
     }
     
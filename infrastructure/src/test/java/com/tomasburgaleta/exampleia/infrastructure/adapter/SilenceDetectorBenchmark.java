@@ -0,0 +1,78 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.tomasburgaleta.exampleia.domain.port.SilenceDetectorPort;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Compares the throughput of the reference and the integer silence detectors.
+ * Debug logging is turned off so that only the sample loops are measured. Not a test: run it from the IDE, or with
+ * {@code mvn -pl infrastructure test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.tomasburgaleta.exampleia.infrastructure.adapter.SilenceDetectorBenchmark}
+ */
+public final class SilenceDetectorBenchmark {
+
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURED_NANOS = 3_000_000_000L;
+
+    private SilenceDetectorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        ((Logger) LoggerFactory.getLogger("com.tomasburgaleta.exampleia")).setLevel(Level.INFO);
+        Random random = new Random(1);
+        // One second of quiet noise, as in a streaming chunk, and a 30 s stereo recording
+        byte[] chunk = noise(random, 16000 * 2);
+        byte[] recording = noise(random, 48000 * 2 * 2 * 30);
+
+        for (Object[] input : new Object[][]{{"16 kHz mono chunk", chunk, (short) 1}, {"48 kHz stereo 30 s", recording, (short) 2}}) {
+            String name = (String) input[0];
+            byte[] pcm = (byte[]) input[1];
+            short channels = (short) input[2];
+            double referenceNanos = measure(new RmsSilenceDetectorAdapter(), pcm, channels);
+            double fastNanos = measure(new FastRmsSilenceDetectorAdapter(), pcm, channels);
+            System.out.printf("%s: reference %.1f us, fast %.1f us, speed-up %.1fx%n",
+                name, referenceNanos / 1e3, fastNanos / 1e3, referenceNanos / fastNanos);
+        }
+    }
+
+    /**
+     * @return The mean time of a call in nanoseconds, after running long enough for the JIT to settle
+     */
+    private static double measure(SilenceDetectorPort detector, byte[] pcm, short channels) {
+        int silent = run(detector, pcm, channels, WARMUP_NANOS)[0];
+        int[] measured = run(detector, pcm, channels, MEASURED_NANOS);
+        if (silent + measured[0] < 0) {
+            // Keeps the results alive so the calls are not optimized away
+            System.out.println(silent);
+        }
+        return (double) MEASURED_NANOS / measured[1];
+    }
+    
+    /**
+     * @return The number of silent results and the number of calls made in the given time
+     */
+    private static int[] run(SilenceDetectorPort detector, byte[] pcm, short channels, long nanos) {
+        int silent = 0;
+        int calls = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            silent += detector.detectSilence(pcm, 16000, (short) 16, channels) ? 1 : 0;
+            calls++;
+        }
+        return new int[]{silent, calls};
+    }
+
+    private static byte[] noise(Random random, int length) {
+        byte[] pcm = new byte[length];
+        for (int i = 0; i < length; i += 2) {
+            int sample = (int) (random.nextGaussian() * 200);
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+}
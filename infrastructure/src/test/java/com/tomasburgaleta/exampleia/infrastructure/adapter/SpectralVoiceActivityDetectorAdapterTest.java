@@ -0,0 +1,240 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpectralVoiceActivityDetectorAdapterTest {
+
+    private static final int RATE = 16000;
+
+    private final SpectralVoiceActivityDetectorAdapter detector = new SpectralVoiceActivityDetectorAdapter();
+    private final Random random = new Random(11);
+
+    @Test
+    void shouldFindNoSpeechInSilence() {
+        // Given
+        double[] audio = new double[RATE * 3];
+
+        // When & Then
+        assertTrue(detect(audio).isEmpty());
+    }
+
+    @Test
+    void shouldFindNoSpeechInSteadyNoise() {
+        // Given
+        double[] audio = new double[RATE * 5];
+        addNoise(audio, 0, audio.length, 0.03);
+
+        // When & Then
+        assertTrue(detect(audio).isEmpty());
+    }
+
+    @Test
+    void shouldLocateVoicedSpeech() {
+        // Given - one second of a vowel between two seconds of silence
+        double[] audio = new double[RATE * 3];
+        addVowel(audio, RATE, 2 * RATE, 0.3);
+
+        // When
+        List<SpeechSegment> segments = detect(audio);
+
+        // Then - the segment is padded by a few frames on each side
+        assertEquals(1, segments.size());
+        SpeechSegment segment = segments.get(0);
+        assertTrue(segment.startMillis(RATE) >= 900 && segment.startMillis(RATE) <= 1000, segment.toString());
+        assertTrue(segment.endMillis(RATE) >= 2000 && segment.endMillis(RATE) <= 2100, segment.toString());
+        assertTrue(segment.confidence() > 0.8, segment.toString());
+    }
+
+    @Test
+    void shouldLocateSpeechOverBackgroundNoise() {
+        // Given
+        double[] audio = new double[RATE * 4];
+        addNoise(audio, 0, audio.length, 0.01);
+        addVowel(audio, 2 * RATE, 3 * RATE, 0.3);
+
+        // When
+        List<SpeechSegment> segments = detect(audio);
+
+        // Then
+        assertEquals(1, segments.size());
+        assertTrue(Math.abs(segments.get(0).startMillis(RATE) - 2000) <= 100, segments.toString());
+        assertTrue(Math.abs(segments.get(0).endMillis(RATE) - 3000) <= 100, segments.toString());
+    }
+
+    @Test
+    void shouldKeepLongUninterruptedSpeech() {
+        // Given - four seconds of a vowel, longer than the noise window
+        double[] audio = new double[RATE * 6];
+        addVowel(audio, RATE, 5 * RATE, 0.3);
+
+        // When
+        List<SpeechSegment> segments = detect(audio);
+
+        // Then
+        assertEquals(1, segments.size());
+        assertTrue(segments.get(0).length() >= 4 * RATE, segments.toString());
+    }
+
+    @Test
+    void shouldDetectFricatives() {
+        // Given - a hiss between silences, which has no harmonic structure
+        double[] audio = new double[RATE * 2];
+        addNoise(audio, RATE / 2, RATE / 2 + RATE * 3 / 10, 0.2);
+
+        // When
+        List<SpeechSegment> segments = detect(audio);
+
+        // Then
+        assertEquals(1, segments.size());
+    }
+
+    @Test
+    void shouldSplitOnLongPausesAndBridgeShortOnes() {
+        // Given - two words 500 ms apart, the second with a 100 ms gap inside
+        double[] audio = new double[RATE * 3];
+        addVowel(audio, RATE / 2, RATE, 0.3);
+        addVowel(audio, 3 * RATE / 2, 17 * RATE / 10, 0.3);
+        addVowel(audio, 18 * RATE / 10, 2 * RATE, 0.3);
+
+        // When
+        List<SpeechSegment> segments = detect(audio);
+
+        // Then
+        assertEquals(2, segments.size(), segments.toString());
+        assertTrue(segments.get(0).endSample() <= segments.get(1).startSample());
+        assertTrue(segments.get(1).endMillis(RATE) >= 2000, segments.toString());
+    }
+
+    @Test
+    void shouldDropShortBursts() {
+        // Given - a 40 ms click of voiced sound
+        double[] audio = new double[RATE * 2];
+        addVowel(audio, RATE, RATE + RATE / 25, 0.3);
+
+        // When & Then
+        assertTrue(detect(audio).isEmpty());
+    }
+
+    @Test
+    void shouldReadSamplesSplitBetweenPayloadBuffers() {
+        // Given - stereo audio cut in the middle of a sample
+        double[] audio = new double[RATE * 3];
+        addNoise(audio, 0, audio.length, 0.005);
+        addVowel(audio, RATE, 2 * RATE, 0.3);
+        byte[] pcm = stereo16(audio);
+        AudioPayload split = AudioPayload.concat(AudioPayload.wrap(pcm, 0, 10001),
+            AudioPayload.wrap(pcm, 10001, 30000), AudioPayload.wrap(pcm, 40001, pcm.length - 40001));
+
+        // When
+        List<SpeechSegment> whole = detector.detectSpeech(AudioPayload.wrap(pcm), RATE, (short) 16, (short) 2);
+        List<SpeechSegment> parts = detector.detectSpeech(split, RATE, (short) 16, (short) 2);
+
+        // Then
+        assertEquals(1, whole.size());
+        assertEquals(whole, parts);
+    }
+
+    @Test
+    void shouldAgreeAcrossBitDepths() {
+        // Given
+        double[] audio = new double[RATE * 3];
+        addVowel(audio, RATE, 2 * RATE, 0.3);
+        byte[] pcm8 = new byte[audio.length];
+        byte[] pcm24 = new byte[audio.length * 3];
+        for (int i = 0; i < audio.length; i++) {
+            pcm8[i] = (byte) (Math.round(audio[i] * 127) + 128);
+            int value = (int) Math.round(audio[i] * ((1 << 23) - 1));
+            pcm24[i * 3] = (byte) value;
+            pcm24[i * 3 + 1] = (byte) (value >> 8);
+            pcm24[i * 3 + 2] = (byte) (value >> 16);
+        }
+
+        // When
+        List<SpeechSegment> expected = detect(audio);
+        List<SpeechSegment> from8 = detector.detectSpeech(AudioPayload.wrap(pcm8), RATE, (short) 8, (short) 1);
+        List<SpeechSegment> from24 = detector.detectSpeech(AudioPayload.wrap(pcm24), RATE, (short) 24, (short) 1);
+
+        // Then
+        assertEquals(1, expected.size());
+        assertEquals(expected.get(0).startSample(), from8.get(0).startSample());
+        assertEquals(expected.get(0).endSample(), from8.get(0).endSample());
+        assertEquals(expected.get(0).startSample(), from24.get(0).startSample());
+        assertEquals(expected.get(0).endSample(), from24.get(0).endSample());
+    }
+
+    @Test
+    void shouldReturnNoSegmentsForAudioShorterThanAFrame() {
+        assertTrue(detector.detectSpeech(AudioPayload.wrap(new byte[100]), RATE, (short) 16, (short) 1).isEmpty());
+        assertTrue(detector.detectSpeech(AudioPayload.empty(), RATE, (short) 16, (short) 1).isEmpty());
+    }
+
+    @Test
+    void shouldRejectUnsupportedFormats() {
+        AudioPayload pcm = AudioPayload.wrap(new byte[RATE]);
+        assertThrows(IllegalArgumentException.class, () -> detector.detectSpeech(pcm, RATE, (short) 12, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> detector.detectSpeech(pcm, RATE, (short) 16, (short) 0));
+        assertThrows(IllegalArgumentException.class, () -> detector.detectSpeech(pcm, 0, (short) 16, (short) 1));
+        assertThrows(NullPointerException.class, () -> detector.detectSpeech(null, RATE, (short) 16, (short) 1));
+        assertThrows(IllegalArgumentException.class, () -> new SpectralVoiceActivityDetectorAdapter(0, 100, 200, 50));
+    }
+
+    private List<SpeechSegment> detect(double[] audio) {
+        return detector.detectSpeech(AudioPayload.wrap(mono16(audio)), RATE, (short) 16, (short) 1);
+    }
+
+    /**
+     * Adds a vowel-like sound: harmonics of 140 Hz up to 4 kHz, falling off with frequency
+     */
+    private static void addVowel(double[] audio, int from, int to, double amplitude) {
+        double norm = 0;
+        for (int k = 1; k * 140 < 4000; k++) {
+            norm += 1.0 / k;
+        }
+        for (int i = from; i < to; i++) {
+            double value = 0;
+            for (int k = 1; k * 140 < 4000; k++) {
+                value += Math.sin(2 * Math.PI * 140 * k * i / RATE) / k;
+            }
+            audio[i] += amplitude * value / norm;
+        }
+    }
+
+    private void addNoise(double[] audio, int from, int to, double amplitude) {
+        for (int i = from; i < to; i++) {
+            audio[i] += amplitude * random.nextGaussian();
+        }
+    }
+
+    private static byte[] mono16(double[] audio) {
+        byte[] pcm = new byte[audio.length * 2];
+        for (int i = 0; i < audio.length; i++) {
+            short value = toShort(audio[i]);
+            pcm[i * 2] = (byte) value;
+            pcm[i * 2 + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private static byte[] stereo16(double[] audio) {
+        byte[] pcm = new byte[audio.length * 4];
+        for (int i = 0; i < audio.length; i++) {
+            short value = toShort(audio[i]);
+            for (int c = 0; c < 2; c++) {
+                pcm[i * 4 + c * 2] = (byte) value;
+                pcm[i * 4 + c * 2 + 1] = (byte) (value >> 8);
+            }
+        }
+        return pcm;
+    }
+
+    private static short toShort(double sample) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample * Short.MAX_VALUE)));
+    }
+}
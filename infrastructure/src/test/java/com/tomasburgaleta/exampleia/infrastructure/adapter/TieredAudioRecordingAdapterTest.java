@@ -0,0 +1,118 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredAudioRecordingAdapterTest {
+
+    private BoundedAudioRecordingAdapter hotTier;
+    private InMemoryAudioRecordingAdapter coldStore;
+    private TieredAudioRecordingAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        // Room for a single 100-byte recording in the hot tier
+        hotTier = new BoundedAudioRecordingAdapter(100 + BoundedAudioRecordingAdapter.ENTRY_OVERHEAD, Duration.ZERO, Duration.ZERO);
+        coldStore = new InMemoryAudioRecordingAdapter();
+        adapter = new TieredAudioRecordingAdapter(hotTier, coldStore);
+    }
+
+    @Test
+    void testGetRecording_ServesHotTierFirst() {
+        // Arrange
+        AudioBean audioBean = new AudioBean("a", new byte[100]);
+
+        // Act
+        adapter.storeRecording(audioBean);
+
+        // Assert
+        assertSame(audioBean, adapter.getRecording("a"));
+        assertNotNull(coldStore.getRecording("a"));
+        assertEquals(1, hotTier.getStats().getHits());
+    }
+
+    @Test
+    void testGetRecording_PromotesFromColdStore() {
+        // Arrange - storing "b" evicts "a" from the hot tier
+        AudioBean first = new AudioBean("a", new byte[]{1, 2, 3});
+        first.setSamplesPerSecond(16000);
+        adapter.storeRecording(first);
+        adapter.storeRecording(new AudioBean("b", new byte[100]));
+
+        // Act
+        AudioBean promoted = adapter.getRecording("a");
+
+        // Assert
+        assertArrayEquals(new byte[]{1, 2, 3}, promoted.getAudioData());
+        assertEquals(16000, promoted.getSamplesPerSecond());
+        assertSame(promoted, hotTier.getRecording("a"));
+    }
+
+    @Test
+    void testStoreRecording_LargeRecordingSkipsHotTier() {
+        // Act
+        adapter.storeRecording(new AudioBean("big", new byte[1000]));
+
+        // Assert
+        assertEquals(0, hotTier.getStats().getRecordingCount());
+        assertEquals(1000, adapter.getRecording("big").getAudioDataSize());
+    }
+
+    @Test
+    void testGetRecording_LargeRecordingIsServedFromColdStoreWithoutCopy() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("big", new byte[1000]));
+        AudioBean cold = coldStore.getRecording("big");
+
+        // Act
+        AudioBean retrieved = adapter.getRecording("big");
+
+        // Assert
+        assertSame(cold, retrieved);
+        assertSame(cold.getAudioPayload(), retrieved.getAudioPayload());
+        assertEquals(0, hotTier.getStats().getRecordingCount());
+    }
+
+    @Test
+    void testClearRecording_ClearsBothTiers() {
+        // Arrange
+        adapter.storeRecording(new AudioBean("a", new byte[10]));
+
+        // Act
+        boolean cleared = adapter.clearRecording("a");
+
+        // Assert
+        assertTrue(cleared);
+        assertNull(adapter.getRecording("a"));
+        assertFalse(adapter.clearRecording("a"));
+    }
+
+    @Test
+    void testGetRecording_ClearDuringPromotionIsNotUndone() {
+        // Arrange - a cold store whose read of "a" races with a clear of it
+        TieredAudioRecordingAdapter[] racing = new TieredAudioRecordingAdapter[1];
+        InMemoryAudioRecordingAdapter racingColdStore = new InMemoryAudioRecordingAdapter() {
+            @Override
+            public AudioBean getRecording(String id) {
+                AudioBean recording = super.getRecording(id);
+                racing[0].clearRecording(id);
+                return recording;
+            }
+        };
+        racing[0] = new TieredAudioRecordingAdapter(hotTier, racingColdStore);
+        racing[0].storeRecording(new AudioBean("a", new byte[10]));
+        racing[0].storeRecording(new AudioBean("b", new byte[100]));
+
+        // Act
+        racing[0].getRecording("a");
+
+        // Assert
+        assertNull(hotTier.getRecording("a"));
+        assertNull(racing[0].getRecording("a"));
+    }
+}
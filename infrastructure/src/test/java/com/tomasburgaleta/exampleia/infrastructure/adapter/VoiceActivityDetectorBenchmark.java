@@ -0,0 +1,80 @@
+package com.tomasburgaleta.exampleia.infrastructure.adapter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Measures how many times faster than real time the voice activity detector runs on one thread.
+ * Not a test: run it from the IDE, or with
+ * {@code mvn -pl infrastructure test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.tomasburgaleta.exampleia.infrastructure.adapter.VoiceActivityDetectorBenchmark}
+ */
+public final class VoiceActivityDetectorBenchmark {
+
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURED_NANOS = 3_000_000_000L;
+    private static final int SECONDS = 60;
+
+    private VoiceActivityDetectorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        ((Logger) LoggerFactory.getLogger("com.tomasburgaleta.exampleia")).setLevel(Level.INFO);
+        SpectralVoiceActivityDetectorAdapter detector = new SpectralVoiceActivityDetectorAdapter();
+        Random random = new Random(1);
+
+        for (int[] format : new int[][]{{16000, 1}, {48000, 2}}) {
+            int rate = format[0];
+            short channels = (short) format[1];
+            AudioPayload pcm = AudioPayload.wrap(speechLike(random, rate, channels));
+            int segments = detector.detectSpeech(pcm, rate, (short) 16, channels).size();
+            run(detector, pcm, rate, channels, WARMUP_NANOS);
+            int[] measured = run(detector, pcm, rate, channels, MEASURED_NANOS);
+            double secondsPerCall = MEASURED_NANOS / 1e9 / measured[1];
+            System.out.printf("%d Hz, %d channel(s), %d s: %.1f ms per call, %.0fx real time (%d segments)%n",
+                rate, channels, SECONDS, secondsPerCall * 1e3, SECONDS / secondsPerCall, segments);
+        }
+    }
+
+    /**
+     * @return The number of segments found, which keeps the calls from being optimized away,
+     *     and the number of calls made in the given time
+     */
+    private static int[] run(SpectralVoiceActivityDetectorAdapter detector, AudioPayload pcm, int rate, short channels, long nanos) {
+        int segments = 0;
+        int calls = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            segments += detector.detectSpeech(pcm, rate, (short) 16, channels).size();
+            calls++;
+        }
+        return new int[]{segments, calls};
+    }
+
+    /**
+     * Alternates one second of a harmonic tone with half a second of quiet noise
+     */
+    private static byte[] speechLike(Random random, int rate, short channels) {
+        byte[] pcm = new byte[rate * SECONDS * channels * 2];
+        for (int i = 0; i < rate * SECONDS; i++) {
+            boolean voiced = i % (rate * 3 / 2) < rate;
+            double value = random.nextGaussian() * 0.003;
+            if (voiced) {
+                for (int k = 1; k <= 10; k++) {
+                    value += 0.05 * Math.sin(2 * Math.PI * 140 * k * i / rate) / k;
+                }
+            }
+            short sample = (short) (value * Short.MAX_VALUE);
+            for (int c = 0; c < channels; c++) {
+                int offset = (i * channels + c) * 2;
+                pcm[offset] = (byte) sample;
+                pcm[offset + 1] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+}
@@ -1,9 +1,26 @@
 package com.tomasburgaleta.exampleia.infrastructure.adapter;
 
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.WavFramer;
+import com.tomasburgaleta.exampleia.domain.model.WavProbe;
+import com.tomasburgaleta.exampleia.domain.model.WavStream;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -172,6 +189,319 @@ class WavByteReaderAdapterTest {
         assertTrue(exception.getMessage().contains("data chunk not found"));
     }
     
+    @Test
+    void shouldStreamPcmDataAfterParsingHeader() throws IOException {
+        // Given
+        byte[] testPcmData = {0x01, 0x02, 0x03, 0x04, 0x05, 0x06};
+        ReadableByteChannel channel = channelOf(createValidWavBytesWithData(testPcmData));
+        
+        // When
+        try (WavStream wav = adapter.openWavStream(channel)) {
+            // Then
+            assertEquals(44100L, wav.getSamplesPerSecond());
+            assertEquals(16, wav.getBitsPerSample());
+            assertEquals(2, wav.getChannels());
+            assertEquals(testPcmData.length, wav.getDataLength());
+            assertArrayEquals(testPcmData, wav.getDataStream().readAllBytes());
+        }
+    }
+    
+    @Test
+    void shouldSkipUnknownChunksWhileStreaming() throws IOException {
+        // Given - a LIST chunk between fmt and data
+        byte[] testPcmData = {0x0A, 0x0B, 0x0C, 0x0D};
+        byte[] wav = createValidWavBytesWithData(testPcmData);
+        byte[] list = {'L', 'I', 'S', 'T', 0x04, 0x00, 0x00, 0x00, 'I', 'N', 'F', 'O'};
+        byte[] withList = new byte[wav.length + list.length];
+        System.arraycopy(wav, 0, withList, 0, 36);
+        System.arraycopy(list, 0, withList, 36, list.length);
+        System.arraycopy(wav, 36, withList, 36 + list.length, wav.length - 36);
+        
+        // When
+        try (WavStream stream = adapter.openWavStream(channelOf(withList))) {
+            // Then
+            assertArrayEquals(testPcmData, stream.getDataStream().readAllBytes());
+        }
+    }
+    
+    @Test
+    void shouldStreamUntilEndWhenDataLengthIsUnknown() throws IOException {
+        // Given - a header written before the length was known
+        byte[] testPcmData = {0x01, 0x02, 0x03, 0x04};
+        byte[] wav = WavFramer.frame(AudioPayload.wrap(testPcmData),
+            16000, (short) 16, (short) 1).toByteArray();
+        byte[] header = WavFramer.streamingHeader(16000, (short) 16, (short) 1).toByteArray();
+        System.arraycopy(header, 0, wav, 0, header.length);
+        
+        // When
+        try (WavStream stream = adapter.openWavStream(channelOf(wav))) {
+            // Then
+            assertEquals(WavStream.UNKNOWN_LENGTH, stream.getDataLength());
+            assertArrayEquals(testPcmData, stream.readData(1024).toByteArray());
+        }
+    }
+    
+    @Test
+    void shouldFailWhenStreamedDataChunkIsTruncated() throws IOException {
+        // Given
+        byte[] wav = createValidWavBytes();
+        byte[] truncated = Arrays.copyOf(wav, wav.length - 3);
+        
+        // When & Then
+        try (WavStream stream = adapter.openWavStream(channelOf(truncated))) {
+            assertThrows(EOFException.class, () -> stream.readData(1024));
+        }
+    }
+    
+    @Test
+    void shouldRejectInvalidStreamedHeaders() {
+        // Given - data before fmt, and a stream too short for a RIFF header
+        byte[] dataFirst = {
+            'R', 'I', 'F', 'F', 0x0C, 0x00, 0x00, 0x00, 'W', 'A', 'V', 'E',
+            'd', 'a', 't', 'a', 0x04, 0x00, 0x00, 0x00, 0x01, 0x02, 0x03, 0x04
+        };
+        
+        // When & Then
+        AudioFileException exception = assertThrows(AudioFileException.class,
+            () -> adapter.openWavStream(channelOf(dataFirst)));
+        assertTrue(exception.getMessage().contains("fmt chunk not found"));
+        assertThrows(AudioFileException.class, () -> adapter.openWavStream(channelOf(new byte[]{'R', 'I', 'F', 'F'})));
+        assertThrows(IllegalArgumentException.class, () -> adapter.openWavStream(null));
+    }
+    
+    @Test
+    void shouldSkipPaddingOfOddSizedChunks() throws IOException {
+        // Given - a 3-byte LIST chunk followed by its pad byte
+        byte[] testPcmData = {0x0A, 0x0B, 0x0C, 0x0D};
+        byte[] wav = createValidWavBytesWithData(testPcmData);
+        byte[] list = {'L', 'I', 'S', 'T', 0x03, 0x00, 0x00, 0x00, 'a', 'b', 'c', 0x00};
+        byte[] withList = new byte[wav.length + list.length];
+        System.arraycopy(wav, 0, withList, 0, 36);
+        System.arraycopy(list, 0, withList, 36, list.length);
+        System.arraycopy(wav, 36, withList, 36 + list.length, wav.length - 36);
+        
+        // When
+        AudioBean result = adapter.processWavBytes(withList, "test-id");
+        byte[] streamed;
+        try (WavStream stream = adapter.openWavStream(channelOf(withList))) {
+            streamed = stream.getDataStream().readAllBytes();
+        }
+        
+        // Then
+        assertArrayEquals(testPcmData, result.getAudioData());
+        assertArrayEquals(testPcmData, streamed);
+    }
+    
+    @Test
+    void shouldReadRf64FromBytesAndStream() throws IOException {
+        // Given
+        byte[] testPcmData = {0x01, 0x02, 0x03, 0x04, 0x05, 0x06};
+        byte[] rf64 = createRf64WavBytes(testPcmData);
+        
+        // When
+        AudioBean result = adapter.processWavBytes(rf64, "test-id");
+        byte[] streamed;
+        long streamedLength;
+        try (WavStream stream = adapter.openWavStream(channelOf(rf64))) {
+            streamedLength = stream.getDataLength();
+            streamed = stream.getDataStream().readAllBytes();
+        }
+        
+        // Then - the data size comes from ds64, not the placeholder
+        assertEquals(16000L, result.getSamplesPerSecond());
+        assertArrayEquals(testPcmData, result.getAudioData());
+        assertEquals(testPcmData.length, streamedLength);
+        assertArrayEquals(testPcmData, streamed);
+    }
+    
+    @Test
+    void shouldAcceptExtensiblePcmAndRejectOtherSubFormats() {
+        // Given
+        byte[] extensiblePcm = createExtensibleWavBytes((short) 1);
+        byte[] extensibleAdpcm = createExtensibleWavBytes((short) 2);
+        
+        // When
+        AudioBean result = adapter.processWavBytes(extensiblePcm, "test-id");
+        
+        // Then
+        assertEquals(48000L, result.getSamplesPerSecond());
+        assertEquals(16, result.getBitsPerSample());
+        assertEquals(2, result.getChannels());
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, result.getAudioData());
+        AudioFileException exception = assertThrows(AudioFileException.class,
+            () -> adapter.processWavBytes(extensibleAdpcm, "test-id"));
+        assertTrue(exception.getMessage().contains("Unsupported WAV encoding"));
+    }
+    
+    @Test
+    void shouldDecodeFloatAndMulawToPcm16() throws IOException {
+        // Given - 32-bit float stereo and 8-bit mu-law mono
+        ByteBuffer floats = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN)
+            .putFloat(0.5f).putFloat(-0.5f).putFloat(1f).putFloat(0f);
+        byte[] floatWav = createWavBytes((short) 3, (short) 2, (short) 32, floats.array());
+        byte[] mulawWav = createWavBytes((short) 7, (short) 1, (short) 8, new byte[]{(byte) 0xFF, 0x00});
+        
+        // When
+        AudioBean floatBean = adapter.processWavBytes(floatWav, "float-id");
+        AudioBean mulawBean = adapter.processWavBytes(mulawWav, "mulaw-id");
+        byte[] streamed;
+        long streamedLength;
+        short streamedBits;
+        try (WavStream stream = adapter.openWavStream(channelOf(floatWav))) {
+            streamedLength = stream.getDataLength();
+            streamedBits = stream.getBitsPerSample();
+            streamed = stream.getDataStream().readAllBytes();
+        }
+        
+        // Then
+        byte[] expectedFloatPcm = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+            .putShort((short) 16384).putShort((short) -16383).putShort((short) 32767).putShort((short) 0).array();
+        assertEquals(16, floatBean.getBitsPerSample());
+        assertEquals(2, floatBean.getChannels());
+        assertArrayEquals(expectedFloatPcm, floatBean.getAudioData());
+        assertEquals(16, streamedBits);
+        assertEquals(8, streamedLength);
+        assertArrayEquals(expectedFloatPcm, streamed);
+        assertEquals(16, mulawBean.getBitsPerSample());
+        assertArrayEquals(new byte[]{0x00, 0x00, (byte) 0x84, (byte) 0x82}, mulawBean.getAudioData());
+    }
+    
+    @Test
+    void shouldProbeHeaderAndMetadataChunks(@TempDir Path tempDir) throws IOException {
+        // Given - a LIST/INFO chunk before 100 ms of 44.1 kHz stereo and a cue chunk after it
+        byte[] wavBytes = createTaggedWavBytes(17640);
+        Path wavFile = Files.write(tempDir.resolve("tagged.wav"), wavBytes);
+        WavProbe.MetadataChunk list = new WavProbe.MetadataChunk("LIST", "INFO", 44, 16);
+        WavProbe.MetadataChunk cue = new WavProbe.MetadataChunk("cue ", null, 68 + 17640 + 8, 4);
+        
+        // When
+        WavProbe fromBytes = adapter.probeWav(wavBytes);
+        WavProbe fromFile = adapter.probeWav(wavFile);
+        WavProbe fromPrefix = adapter.probeWav(Arrays.copyOf(wavBytes, 80));
+        WavProbe fromStream = adapter.probeWav(channelOf(wavBytes));
+        
+        // Then
+        for (WavProbe probe : List.of(fromBytes, fromFile, fromPrefix, fromStream)) {
+            assertEquals(1, probe.getEncoding());
+            assertEquals(44100, probe.getSamplesPerSecond());
+            assertEquals(16, probe.getBitsPerSample());
+            assertEquals(2, probe.getChannels());
+            assertEquals(68, probe.getDataOffset());
+            assertEquals(17640, probe.getDataLength());
+            assertEquals(4410, probe.getSampleFrames());
+            assertEquals(100, probe.getDurationMillis());
+            assertFalse(probe.isRf64());
+        }
+        assertEquals(List.of(list, cue), fromBytes.getMetadataChunks());
+        assertEquals(List.of(list, cue), fromFile.getMetadataChunks());
+        // Chunks after the samples are beyond a prefix and behind the samples of a stream
+        assertEquals(List.of(list), fromPrefix.getMetadataChunks());
+        assertEquals(List.of(list), fromStream.getMetadataChunks());
+    }
+    
+    @Test
+    void shouldProbeEncodedAndRf64Files() throws IOException {
+        // Given
+        byte[] mulaw = createWavBytes((short) 7, (short) 1, (short) 8, new byte[800]);
+        byte[] rf64 = createRf64WavBytes(new byte[3200]);
+        
+        // When
+        WavProbe mulawProbe = adapter.probeWav(mulaw);
+        WavProbe rf64Probe = adapter.probeWav(channelOf(rf64));
+        
+        // Then - the format is reported as stored, not as decoded
+        assertEquals(7, mulawProbe.getEncoding());
+        assertEquals(8, mulawProbe.getBitsPerSample());
+        assertEquals(100, mulawProbe.getDurationMillis());
+        assertTrue(rf64Probe.isRf64());
+        assertEquals(3200, rf64Probe.getDataLength());
+        assertEquals(100, rf64Probe.getDurationMillis());
+        assertTrue(rf64Probe.getMetadataChunks().isEmpty());
+    }
+    
+    @Test
+    void shouldProbeDataOfUnknownLength(@TempDir Path tempDir) throws IOException {
+        // Given - a streaming writer left the data size unset
+        byte[] wavBytes = createValidWavBytesWithData(new byte[1764]);
+        ByteBuffer.wrap(wavBytes).order(ByteOrder.LITTLE_ENDIAN).putInt(40, -1);
+        Path wavFile = Files.write(tempDir.resolve("streamed.wav"), wavBytes);
+        
+        // When
+        WavProbe fromStream = adapter.probeWav(channelOf(wavBytes));
+        WavProbe fromFile = adapter.probeWav(wavFile);
+        
+        // Then - only the file tells where the samples end
+        assertEquals(WavProbe.UNKNOWN, fromStream.getDataLength());
+        assertEquals(WavProbe.UNKNOWN, fromStream.getDurationMillis());
+        assertEquals(1764, fromFile.getDataLength());
+        assertEquals(10, fromFile.getDurationMillis());
+    }
+    
+    @Test
+    void shouldRejectInvalidProbes() {
+        byte[] noData = Arrays.copyOf(createValidWavBytes(), 36);
+        
+        assertThrows(IllegalArgumentException.class, () -> adapter.probeWav((byte[]) null));
+        assertThrows(IllegalArgumentException.class, () -> adapter.probeWav((ReadableByteChannel) null));
+        assertThrows(AudioFileException.class, () -> adapter.probeWav(new byte[]{'R', 'I', 'F', 'F'}));
+        AudioFileException fromBytes = assertThrows(AudioFileException.class, () -> adapter.probeWav(noData));
+        AudioFileException fromStream = assertThrows(AudioFileException.class, () -> adapter.probeWav(channelOf(noData)));
+        assertEquals("data chunk not found in WAV file", fromBytes.getMessage());
+        assertEquals("data chunk not found in WAV file", fromStream.getMessage());
+    }
+    
+    private byte[] createWavBytes(short formatTag, short channels, short bitsPerSample, byte[] data) {
+        int blockAlign = channels * bitsPerSample / 8;
+        ByteBuffer wav = ByteBuffer.allocate(44 + data.length).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(new byte[]{'R', 'I', 'F', 'F'}).putInt(wav.capacity() - 8).put(new byte[]{'W', 'A', 'V', 'E'});
+        wav.put(new byte[]{'f', 'm', 't', ' '}).putInt(16)
+            .putShort(formatTag).putShort(channels).putInt(8000).putInt(8000 * blockAlign)
+            .putShort((short) blockAlign).putShort(bitsPerSample);
+        wav.put(new byte[]{'d', 'a', 't', 'a'}).putInt(data.length).put(data);
+        return wav.array();
+    }
+    
+    private byte[] createExtensibleWavBytes(short subFormat) {
+        ByteBuffer wav = ByteBuffer.allocate(12 + 8 + 40 + 8 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(new byte[]{'R', 'I', 'F', 'F'}).putInt(wav.capacity() - 8).put(new byte[]{'W', 'A', 'V', 'E'});
+        wav.put(new byte[]{'f', 'm', 't', ' '}).putInt(40)
+            .putShort((short) 0xFFFE).putShort((short) 2).putInt(48000).putInt(192000).putShort((short) 4).putShort((short) 16)
+            .putShort((short) 22).putShort((short) 16).putInt(0x3).putShort(subFormat).put(new byte[14]);
+        wav.put(new byte[]{'d', 'a', 't', 'a'}).putInt(4).put(new byte[]{1, 2, 3, 4});
+        return wav.array();
+    }
+    
+    /**
+     * Frames PCM data as an RF64 file, as written for recordings over 4 GB
+     */
+    private byte[] createRf64WavBytes(byte[] pcmData) {
+        ByteBuffer header = WavFramer.header(5_000_000_000L, 16000, (short) 16, (short) 1).asReadOnlyBuffer();
+        ByteBuffer wav = ByteBuffer.allocate(header.remaining() + pcmData.length).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(header).put(pcmData);
+        // ds64 riff size, data size and sample count
+        wav.putLong(20, wav.capacity() - 8L).putLong(28, pcmData.length).putLong(36, pcmData.length / 2);
+        return wav.array();
+    }
+    
+    /**
+     * Frames 44.1 kHz stereo silence between a LIST/INFO chunk and a cue chunk
+     */
+    private byte[] createTaggedWavBytes(int dataLength) {
+        ByteBuffer wav = ByteBuffer.allocate(68 + dataLength + 12).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put(new byte[]{'R', 'I', 'F', 'F'}).putInt(wav.capacity() - 8).put(new byte[]{'W', 'A', 'V', 'E'});
+        wav.put(new byte[]{'f', 'm', 't', ' '}).putInt(16)
+            .putShort((short) 1).putShort((short) 2).putInt(44100).putInt(176400).putShort((short) 4).putShort((short) 16);
+        wav.put(new byte[]{'L', 'I', 'S', 'T'}).putInt(16).put(new byte[]{'I', 'N', 'F', 'O'})
+            .put(new byte[]{'I', 'N', 'A', 'M'}).putInt(4).put(new byte[]{'t', 'e', 's', 't'});
+        wav.put(new byte[]{'d', 'a', 't', 'a'}).putInt(dataLength).put(new byte[dataLength]);
+        wav.put(new byte[]{'c', 'u', 'e', ' '}).putInt(4).putInt(0);
+        return wav.array();
+    }
+    
+    private ReadableByteChannel channelOf(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+    
     /**
      * Creates a valid WAV byte array for testing
      */
@@ -0,0 +1,109 @@
+package com.tomasburgaleta.exampleia.infrastructure.codec;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LosslessPcmCodecTest {
+
+    @Test
+    void shouldRoundTripSpeechLikeAudioAndShrinkIt() {
+        // Given - two seconds of a tone with light noise, 16 kHz mono
+        byte[] pcm = tone(32000, 1, 0.02);
+
+        // When
+        AudioPayload encoded = LosslessPcmCodec.encode(AudioPayload.wrap(pcm), (short) 16, (short) 1);
+
+        // Then
+        assertTrue(LosslessPcmCodec.isEncoded(encoded));
+        assertTrue(encoded.length() < pcm.length * 0.7, "Encoded " + encoded.length() + " of " + pcm.length + " bytes");
+        assertEquals(pcm.length, LosslessPcmCodec.decodedLength(encoded));
+        assertArrayEquals(pcm, LosslessPcmCodec.decode(encoded).toByteArray());
+    }
+
+    @Test
+    void shouldRoundTripStereoWithTrailingByte() {
+        // Given - a partial last frame and a byte that does not fill a sample frame
+        byte[] pcm = Arrays.copyOf(tone(5000, 2, 0.1), 5000 * 4 + 3);
+        pcm[pcm.length - 1] = 7;
+
+        // When
+        AudioPayload encoded = LosslessPcmCodec.encode(AudioPayload.wrap(pcm), (short) 16, (short) 2);
+
+        // Then
+        assertArrayEquals(pcm, LosslessPcmCodec.decode(encoded).toByteArray());
+    }
+
+    @Test
+    void shouldStoreNoiseVerbatimAndStillRoundTrip() {
+        // Given
+        byte[] pcm = new byte[20000];
+        new Random(42).nextBytes(pcm);
+
+        // When
+        AudioPayload encoded = LosslessPcmCodec.encode(AudioPayload.wrap(pcm), (short) 16, (short) 1);
+
+        // Then - at most one marker byte per frame plus the header
+        assertTrue(encoded.length() < pcm.length + 100);
+        assertArrayEquals(pcm, LosslessPcmCodec.decode(encoded).toByteArray());
+    }
+
+    @Test
+    void shouldDecodeRangeAcrossFrames() {
+        // Given
+        byte[] pcm = tone(3 * LosslessPcmCodec.FRAME_SAMPLES, 1, 0.05);
+        AudioPayload encoded = LosslessPcmCodec.encode(AudioPayload.wrap(pcm), (short) 16, (short) 1);
+        int offset = LosslessPcmCodec.FRAME_SAMPLES * 2 - 10;
+
+        // When
+        AudioPayload range = LosslessPcmCodec.decodeRange(encoded, offset, 100);
+
+        // Then
+        assertArrayEquals(Arrays.copyOfRange(pcm, offset, offset + 100), range.toByteArray());
+    }
+
+    @Test
+    void shouldDecodeAsStream() throws IOException {
+        // Given
+        byte[] pcm = tone(10000, 1, 0.05);
+        AudioPayload encoded = LosslessPcmCodec.encode(AudioPayload.wrap(pcm), (short) 16, (short) 1);
+
+        // When
+        byte[] decoded;
+        try (InputStream in = LosslessPcmCodec.decodingStream(encoded)) {
+            decoded = in.readAllBytes();
+        }
+
+        // Then
+        assertArrayEquals(pcm, decoded);
+    }
+
+    @Test
+    void shouldRejectUnsupportedFormatAndForeignPayloads() {
+        assertThrows(IllegalArgumentException.class, () ->
+                LosslessPcmCodec.encode(AudioPayload.wrap(new byte[10]), (short) 8, (short) 1));
+        assertFalse(LosslessPcmCodec.isEncoded(AudioPayload.wrap(new byte[100])));
+        assertThrows(IllegalArgumentException.class, () -> LosslessPcmCodec.decode(AudioPayload.wrap(new byte[100])));
+    }
+
+    private static byte[] tone(int sampleFrames, int channels, double noise) {
+        Random random = new Random(7);
+        byte[] pcm = new byte[sampleFrames * channels * 2];
+        int index = 0;
+        for (int n = 0; n < sampleFrames; n++) {
+            double value = 8000 * Math.sin(2 * Math.PI * 220 * n / 16000.0) + noise * 32767 * random.nextGaussian() * 0.1;
+            for (int c = 0; c < channels; c++) {
+                short sample = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value * (c + 1) / channels));
+                pcm[index++] = (byte) sample;
+                pcm[index++] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,118 @@
+package com.tomasburgaleta.exampleia.infrastructure.codec;
+
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+import com.tomasburgaleta.exampleia.infrastructure.wav.WavFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcmDecoderTest {
+
+    @Test
+    void shouldExpandG711Samples() {
+        // Given - silence, full scale negative and full scale positive of each law
+        PcmDecoder mulaw = PcmDecoder.forFormat(format(WavFormat.FORMAT_MULAW, 8));
+        PcmDecoder alaw = PcmDecoder.forFormat(format(WavFormat.FORMAT_ALAW, 8));
+
+        // When
+        short[] mulawSamples = samples(mulaw.decode(AudioPayload.wrap(new byte[]{(byte) 0xFF, 0x00, (byte) 0x80})));
+        short[] alawSamples = samples(alaw.decode(AudioPayload.wrap(new byte[]{(byte) 0xD5, 0x2A, (byte) 0xAA})));
+
+        // Then
+        assertArrayEquals(new short[]{0, -32124, 32124}, mulawSamples);
+        assertArrayEquals(new short[]{8, -32256, 32256}, alawSamples);
+    }
+
+    @Test
+    void shouldScaleAndClampFloatSamples() {
+        // Given
+        ByteBuffer floats = ByteBuffer.allocate(5 * 4).order(ByteOrder.LITTLE_ENDIAN)
+            .putFloat(0f).putFloat(0.5f).putFloat(-1f).putFloat(1.5f).putFloat(-2f);
+        ByteBuffer doubles = ByteBuffer.allocate(2 * 8).order(ByteOrder.LITTLE_ENDIAN).putDouble(0.25).putDouble(-0.25);
+
+        // When
+        short[] fromFloats = samples(PcmDecoder.forFormat(format(WavFormat.FORMAT_IEEE_FLOAT, 32)).decode(AudioPayload.wrap(floats.array())));
+        short[] fromDoubles = samples(PcmDecoder.forFormat(format(WavFormat.FORMAT_IEEE_FLOAT, 64)).decode(AudioPayload.wrap(doubles.array())));
+
+        // Then
+        assertArrayEquals(new short[]{0, 16384, -32767, 32767, -32767}, fromFloats);
+        assertArrayEquals(new short[]{8192, -8192}, fromDoubles);
+    }
+
+    @Test
+    void shouldKeepMostSignificantBitsOf32BitSamplesAcrossParts() {
+        // Given - samples split between the parts of a composite payload, and a trailing partial sample
+        ByteBuffer ints = ByteBuffer.allocate(3 * 4 + 1).order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(0x7FFF_FFFF).putInt(0x8000_0000).putInt(0x0001_0000);
+        byte[] bytes = ints.array();
+        AudioPayload encoded = AudioPayload.concat(AudioPayload.wrap(bytes, 0, 3), AudioPayload.wrap(bytes, 3, 6),
+            AudioPayload.wrap(bytes, 9, 4));
+        PcmDecoder decoder = PcmDecoder.forFormat(format(WavFormat.FORMAT_PCM, 32));
+
+        // When
+        AudioPayload decoded = decoder.decode(encoded);
+
+        // Then
+        assertEquals(6, decoder.decodedLength(encoded.size()));
+        assertArrayEquals(new short[]{32767, -32768, 1}, samples(decoded));
+    }
+
+    @Test
+    void shouldDecodeChannelWithSmallReads() throws IOException {
+        // Given - more mu-law samples than one decoding block
+        byte[] mulaw = new byte[20_000];
+        for (int i = 0; i < mulaw.length; i++) {
+            mulaw[i] = (byte) (i * 7);
+        }
+        PcmDecoder decoder = PcmDecoder.forFormat(format(WavFormat.FORMAT_MULAW, 8));
+
+        // When
+        ReadableByteChannel channel = decoder.decodingChannel(Channels.newChannel(new ByteArrayInputStream(mulaw)));
+        ByteBuffer streamed = ByteBuffer.allocate(mulaw.length * 2);
+        ByteBuffer chunk = ByteBuffer.allocate(333);
+        while (channel.read(chunk.clear()) >= 0) {
+            streamed.put(chunk.flip());
+        }
+
+        // Then
+        assertFalse(streamed.hasRemaining());
+        assertArrayEquals(decoder.decode(AudioPayload.wrap(mulaw)).toByteArray(), streamed.array());
+    }
+
+    @Test
+    void shouldTellWhichFormatsNeedDecoding() {
+        assertFalse(PcmDecoder.needsDecoding(format(WavFormat.FORMAT_PCM, 16)));
+        assertFalse(PcmDecoder.needsDecoding(format(WavFormat.FORMAT_PCM, 24)));
+        assertTrue(PcmDecoder.needsDecoding(format(WavFormat.FORMAT_PCM, 32)));
+        assertTrue(PcmDecoder.needsDecoding(format(WavFormat.FORMAT_ALAW, 8)));
+    }
+
+    @Test
+    void shouldRejectUnsupportedEncodings() {
+        AudioFileException adpcm = assertThrows(AudioFileException.class, () -> PcmDecoder.forFormat(format(0x0002, 4)));
+        assertTrue(adpcm.getMessage().contains("Unsupported WAV encoding 0x0002"));
+        assertThrows(AudioFileException.class, () -> PcmDecoder.forFormat(format(WavFormat.FORMAT_IEEE_FLOAT, 16)));
+        assertThrows(AudioFileException.class, () -> PcmDecoder.forFormat(format(WavFormat.FORMAT_MULAW, 16)));
+    }
+
+    private static WavFormat format(int formatTag, int bits) {
+        ByteBuffer fmt = ByteBuffer.allocate(WavFormat.BASIC_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        fmt.putShort((short) formatTag).putShort((short) 1).putInt(8000).putInt(8000 * bits / 8)
+            .putShort((short) (bits / 8)).putShort((short) bits);
+        return WavFormat.parse(fmt, 0, WavFormat.BASIC_SIZE);
+    }
+
+    private static short[] samples(AudioPayload pcm) {
+        short[] samples = new short[pcm.length() / 2];
+        pcm.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+        return samples;
+    }
+}
@@ -0,0 +1,167 @@
+package com.tomasburgaleta.exampleia.infrastructure.wav;
+
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiffChunkIndexTest {
+
+    @Test
+    void shouldIndexAllChunksInOnePass() {
+        // Given - fmt, an odd-sized LIST chunk with its pad byte, fact, cue and data
+        ByteBuffer wav = new WavBuilder()
+                .chunk("fmt ", pcmFormat(16000, 1, 16))
+                .chunk("LIST", new byte[]{'I', 'N', 'F', 'O', 'x'})
+                .chunk("fact", new byte[]{0x10, 0x00, 0x00, 0x00})
+                .chunk("cue ", new byte[4])
+                .chunk("data", new byte[]{1, 2, 3, 4})
+                .build();
+
+        // When
+        RiffChunkIndex index = RiffChunkIndex.of(wav);
+
+        // Then
+        List<RiffChunkIndex.Chunk> chunks = index.getChunks();
+        assertEquals(5, chunks.size());
+        assertEquals(List.of("fmt ", "LIST", "fact", "cue ", "data"), chunks.stream().map(RiffChunkIndex.Chunk::name).toList());
+
+        RiffChunkIndex.Chunk list = index.find(RiffChunkIndex.LIST);
+        assertEquals(5, list.size());
+        assertEquals(list.offset() + 6, index.find(RiffChunkIndex.FACT).offset() - 8);
+        assertEquals(RiffChunkIndex.fourCc("INFO"), index.getListType(list));
+        assertEquals(16, index.getFactSampleLength());
+
+        RiffChunkIndex.Chunk data = index.find(RiffChunkIndex.DATA);
+        assertEquals(wav.limit() - 4, data.offset());
+        assertEquals(4, index.available(data));
+    }
+
+    @Test
+    void shouldParseFormatAndFindRepeatedChunks() {
+        // Given
+        ByteBuffer wav = new WavBuilder()
+                .chunk("fmt ", pcmFormat(44100, 2, 16))
+                .chunk("LIST", new byte[]{'I', 'N', 'F', 'O'})
+                .chunk("LIST", new byte[]{'a', 'd', 't', 'l'})
+                .chunk("data", new byte[0])
+                .build();
+        RiffChunkIndex index = RiffChunkIndex.of(wav);
+
+        // When
+        WavFormat format = index.getFormat();
+
+        // Then
+        assertTrue(format.isPcm());
+        assertEquals(44100, format.getSampleRate());
+        assertEquals(2, format.getChannels());
+        assertEquals(16, format.getBitsPerSample());
+        assertEquals(2, index.findAll(RiffChunkIndex.LIST).size());
+        assertEquals(-1, index.getFactSampleLength());
+        assertNull(index.find(RiffChunkIndex.CUE));
+    }
+
+    @Test
+    void shouldReportTruncatedChunksAndStopAtUnknownDataSize() {
+        // Given - a data chunk announcing more bytes than present, and one of unknown size
+        ByteBuffer truncated = new WavBuilder().chunk("fmt ", pcmFormat(8000, 1, 8)).rawChunk("data", 100, new byte[10]).build();
+        ByteBuffer streamed = new WavBuilder().rawChunk("data", RiffChunkIndex.UNKNOWN_SIZE, new byte[20]).build();
+
+        // When
+        RiffChunkIndex truncatedIndex = RiffChunkIndex.of(truncated);
+        RiffChunkIndex streamedIndex = RiffChunkIndex.of(streamed);
+
+        // Then
+        assertEquals(10, truncatedIndex.available(truncatedIndex.find(RiffChunkIndex.DATA)));
+        assertEquals(1, streamedIndex.getChunks().size());
+        assertTrue(streamedIndex.find(RiffChunkIndex.DATA).hasUnknownSize());
+        assertEquals(20, streamedIndex.available(streamedIndex.find(RiffChunkIndex.DATA)));
+    }
+
+    @Test
+    void shouldResolveRf64SizesFromDs64() {
+        // Given - ds64 announcing a 6 GB data chunk and a 5 GB LIST chunk, of which only the head is buffered
+        long dataSize = 6_000_000_000L;
+        ByteBuffer ds64 = ByteBuffer.allocate(RiffChunkIndex.Ds64.BASE_SIZE + 12).order(ByteOrder.LITTLE_ENDIAN);
+        ds64.putLong(dataSize + 100).putLong(dataSize).putLong(dataSize / 4).putInt(1)
+                .putInt(RiffChunkIndex.LIST).putLong(5_000_000_000L);
+        ByteBuffer head = new WavBuilder()
+                .chunk("ds64", ds64.array())
+                .chunk("fmt ", pcmFormat(48000, 2, 16))
+                .rawChunk("data", RiffChunkIndex.UNKNOWN_SIZE, new byte[16])
+                .build();
+        head.putInt(0, RiffChunkIndex.RF64);
+        long fileLength = head.limit() - 16 + dataSize;
+
+        // When
+        RiffChunkIndex index = RiffChunkIndex.of(head, fileLength);
+
+        // Then
+        assertTrue(index.isRf64());
+        RiffChunkIndex.Chunk data = index.find(RiffChunkIndex.DATA);
+        assertEquals(dataSize, data.size());
+        assertFalse(data.hasUnknownSize());
+        assertEquals(dataSize, index.available(data));
+        assertEquals(dataSize - 1, RiffChunkIndex.of(head, fileLength - 1).available(data));
+        assertEquals(48000, index.getFormat().getSampleRate());
+        assertEquals(5_000_000_000L, RiffChunkIndex.Ds64.parse(ds64, 0, ds64.limit()).table().get(RiffChunkIndex.LIST));
+        assertTrue(RiffChunkIndex.isRiffId(RiffChunkIndex.BW64));
+    }
+
+    @Test
+    void shouldRejectTruncatedFmtChunk() {
+        // Given
+        ByteBuffer wav = new WavBuilder().rawChunk("fmt ", 16, new byte[6]).build();
+
+        // When & Then
+        assertThrows(AudioFileException.class, () -> RiffChunkIndex.of(wav).getFormat());
+    }
+
+    @Test
+    void shouldEncodeFourCcAsLittleEndianInt() {
+        assertEquals(ByteBuffer.wrap(new byte[]{'d', 'a', 't', 'a'}).order(ByteOrder.LITTLE_ENDIAN).getInt(), RiffChunkIndex.DATA);
+        assertThrows(IllegalArgumentException.class, () -> RiffChunkIndex.fourCc("dat"));
+    }
+
+    static byte[] pcmFormat(int sampleRate, int channels, int bits) {
+        ByteBuffer fmt = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        fmt.putShort((short) WavFormat.FORMAT_PCM).putShort((short) channels).putInt(sampleRate)
+                .putInt(sampleRate * channels * bits / 8).putShort((short) (channels * bits / 8)).putShort((short) bits);
+        return fmt.array();
+    }
+
+    /**
+     * Assembles RIFF/WAVE files chunk by chunk
+     */
+    static class WavBuilder {
+        private final ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+
+        WavBuilder chunk(String id, byte[] body) {
+            rawChunk(id, body.length, body);
+            if ((body.length & 1) == 1) {
+                chunks.write(0);
+            }
+            return this;
+        }
+
+        WavBuilder rawChunk(String id, long declaredSize, byte[] body) {
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(RiffChunkIndex.fourCc(id)).putInt((int) declaredSize);
+            chunks.writeBytes(header.array());
+            chunks.writeBytes(body);
+            return this;
+        }
+
+        ByteBuffer build() {
+            byte[] body = chunks.toByteArray();
+            ByteBuffer wav = ByteBuffer.allocate(12 + body.length).order(ByteOrder.LITTLE_ENDIAN);
+            wav.putInt(RiffChunkIndex.RIFF).putInt(4 + body.length).putInt(RiffChunkIndex.WAVE).put(body);
+            return wav.flip();
+        }
+    }
+}
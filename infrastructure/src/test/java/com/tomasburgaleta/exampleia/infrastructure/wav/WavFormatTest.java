@@ -0,0 +1,64 @@
+package com.tomasburgaleta.exampleia.infrastructure.wav;
+
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WavFormatTest {
+
+    @Test
+    void shouldTakeEncodingFromExtensibleSubFormat() {
+        // Given - 24-bit samples in 32-bit containers, stereo front left/right, PCM sub-format
+        ByteBuffer fmt = extensibleFormat(WavFormat.FORMAT_PCM, 32, 24);
+
+        // When
+        WavFormat format = WavFormat.parse(fmt, 0, fmt.limit());
+
+        // Then
+        assertTrue(format.isExtensible());
+        assertTrue(format.isPcm());
+        assertEquals(WavFormat.FORMAT_EXTENSIBLE, format.getFormatTag());
+        assertEquals(48000, format.getSampleRate());
+        assertEquals(2, format.getChannels());
+        assertEquals(32, format.getBitsPerSample());
+        assertEquals(24, format.getValidBitsPerSample());
+        assertEquals(0x3, format.getChannelMask());
+        assertEquals(8, format.getBlockAlign());
+    }
+
+    @Test
+    void shouldReportNonPcmSubFormat() {
+        // Given
+        ByteBuffer fmt = extensibleFormat(WavFormat.FORMAT_IEEE_FLOAT, 32, 32);
+
+        // When
+        WavFormat format = WavFormat.parse(fmt, 0, fmt.limit());
+
+        // Then
+        assertFalse(format.isPcm());
+        assertEquals(WavFormat.FORMAT_IEEE_FLOAT, format.getEncoding());
+    }
+
+    @Test
+    void shouldRejectChunksTooSmallForTheirFormat() {
+        ByteBuffer extensible = extensibleFormat(WavFormat.FORMAT_PCM, 16, 16);
+
+        assertThrows(AudioFileException.class, () -> WavFormat.parse(extensible, 0, 12));
+        assertThrows(AudioFileException.class, () -> WavFormat.parse(extensible, 0, 18));
+    }
+
+    private static ByteBuffer extensibleFormat(int subFormat, int bits, int validBits) {
+        ByteBuffer fmt = ByteBuffer.allocate(WavFormat.EXTENSIBLE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        fmt.putShort((short) WavFormat.FORMAT_EXTENSIBLE).putShort((short) 2).putInt(48000)
+                .putInt(48000 * 2 * bits / 8).putShort((short) (2 * bits / 8)).putShort((short) bits)
+                .putShort((short) 22).putShort((short) validBits).putInt(0x3)
+                // KSDATAFORMAT_SUBTYPE GUID: the format tag followed by the fixed base
+                .putShort((short) subFormat).put(new byte[]{0x00, 0x00, 0x00, 0x00, 0x10, 0x00, (byte) 0x80, 0x00,
+                        0x00, (byte) 0xAA, 0x00, 0x38, (byte) 0x9B, 0x71});
+        return fmt.flip();
+    }
+}
@@ -1,5 +1,6 @@
 package com.tomasburgaleta.exampleia.integration;
 
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.application.service.AudioFileReaderService;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.infrastructure.adapter.FileSystemAudioFileReaderAdapter;
@@ -36,15 +37,15 @@ class AudioFileReaderIntegrationTest {
         Path wavFile = createValidWavFile(tempDir.resolve("integration-test.wav"));
         
         // Act
-        byte[] result = audioFileReaderService.readWavFile(wavFile.toString());
+        AudioPayload result = audioFileReaderService.readWavFile(wavFile.toString());
         
         // Assert
         assertNotNull(result);
-        assertTrue(result.length >= 8); // Should have at least the PCM data (8 bytes)
+        assertTrue(result.length() >= 8); // Should have at least the PCM data (8 bytes)
         
         // The result should be the PCM data without the WAV header
         // With our test data, it should be exactly 8 bytes of PCM data
-        assertEquals(8, result.length);
+        assertEquals(8, result.length());
     }
     
     @Test
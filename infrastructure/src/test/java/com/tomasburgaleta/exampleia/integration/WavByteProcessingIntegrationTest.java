@@ -76,14 +76,14 @@ class WavByteProcessingIntegrationTest {
     
     @Test
     void shouldRejectNonPcmFormat() {
-        // Given - WAV with non-PCM format (μ-law = 7)
+        // Given - WAV with a format that cannot be decoded to PCM (MS ADPCM = 2)
         byte[] nonPcmWav = {
             'R', 'I', 'F', 'F',
             0x2C, 0x00, 0x00, 0x00,
             'W', 'A', 'V', 'E',
             'f', 'm', 't', ' ',
             0x10, 0x00, 0x00, 0x00,
-            0x07, 0x00, // μ-law format (not PCM)
+            0x02, 0x00, // MS ADPCM format (not PCM)
             0x01, 0x00, // 1 channel
             0x44, (byte) 0xAC, 0x00, 0x00, // 44100 Hz
             0x44, (byte) 0xAC, 0x00, 0x00, // byte rate
@@ -99,7 +99,7 @@ class WavByteProcessingIntegrationTest {
         AudioFileException exception = assertThrows(AudioFileException.class,
             () -> service.processWavBytes(nonPcmWav, id));
         
-        assertTrue(exception.getMessage().contains("Only PCM format is supported"));
+        assertTrue(exception.getMessage().contains("only PCM, IEEE float, A-law and mu-law formats are supported"));
     }
     
     /**
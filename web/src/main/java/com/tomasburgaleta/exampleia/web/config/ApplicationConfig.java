@@ -1,21 +1,37 @@
 package com.tomasburgaleta.exampleia.web.config;
 
+import com.tomasburgaleta.exampleia.application.service.AudioDeduplicationService;
 import com.tomasburgaleta.exampleia.application.service.AudioFileReaderService;
 import com.tomasburgaleta.exampleia.application.service.AudioListenerService;
 import com.tomasburgaleta.exampleia.application.service.AudioRecordingService;
-import com.tomasburgaleta.exampleia.application.service.AudioStreamingService;
+import com.tomasburgaleta.exampleia.application.service.BatchIngestionService;
+import com.tomasburgaleta.exampleia.application.service.SilenceCompactor;
 import com.tomasburgaleta.exampleia.application.service.SilenceDetectionService;
+import com.tomasburgaleta.exampleia.application.service.SpeechAudioPreprocessor;
+import com.tomasburgaleta.exampleia.application.service.StreamingEndpointingService;
+import com.tomasburgaleta.exampleia.application.service.StreamingSessionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingTranscriptionService;
 import com.tomasburgaleta.exampleia.application.service.TextToSpeechService;
+import com.tomasburgaleta.exampleia.application.service.VoiceActivityDetectionService;
 import com.tomasburgaleta.exampleia.application.service.WavByteProcessingService;
 import com.tomasburgaleta.exampleia.domain.port.AiServicePort;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileReaderPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioListenerPort;
 import com.tomasburgaleta.exampleia.domain.port.AudioRecordingPort;
 import com.tomasburgaleta.exampleia.domain.port.SilenceDetectorPort;
+import com.tomasburgaleta.exampleia.domain.port.StreamingSilenceDetectorPort;
 import com.tomasburgaleta.exampleia.domain.port.TextToSpeechPort;
+import com.tomasburgaleta.exampleia.domain.port.VoiceActivityDetectorPort;
 import com.tomasburgaleta.exampleia.domain.port.WavByteReaderPort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
 
 /**
  * Configuration for dependency injection following Clean Architecture
@@ -23,9 +39,54 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ApplicationConfig {
     
+    /**
+     * Audio format sent to the configured speech provider, from
+     * speech.preprocessing.&lt;provider&gt;.sample-rate and .channels (0 keeps the original)
+     */
+    @Bean
+    public SpeechAudioPreprocessor speechAudioPreprocessor(Environment environment,
+                                                           @Value("${speech.provider:azure}") String provider) {
+        String prefix = "speech.preprocessing." + provider.toLowerCase() + ".";
+        return new SpeechAudioPreprocessor(
+            environment.getProperty(prefix + "sample-rate", Long.class, 16000L),
+            environment.getProperty(prefix + "channels", Integer.class, 1));
+    }
+    
+    @Bean
+    public AudioDeduplicationService audioDeduplicationService(@Value("${audio.dedup.max-entries:10000}") int maxEntries) {
+        return new AudioDeduplicationService(maxEntries);
+    }
+    
+    /**
+     * Publishes the deduplication hit rates as audio.dedup.* metrics
+     */
     @Bean
-    public AudioListenerService audioListenerService(AudioListenerPort audioListenerPort) {
-        return new AudioListenerService(audioListenerPort);
+    public MeterBinder audioDeduplicationMetrics(AudioDeduplicationService audioDeduplicationService) {
+        return registry -> {
+            FunctionCounter.builder("audio.dedup.lookups", audioDeduplicationService, service -> service.getStats().getRecordingHits())
+                .tag("kind", "recording").tag("result", "hit").register(registry);
+            FunctionCounter.builder("audio.dedup.lookups", audioDeduplicationService, service -> service.getStats().getRecordingMisses())
+                .tag("kind", "recording").tag("result", "miss").register(registry);
+            FunctionCounter.builder("audio.dedup.lookups", audioDeduplicationService, service -> service.getStats().getTranscriptionHits())
+                .tag("kind", "transcription").tag("result", "hit").register(registry);
+            FunctionCounter.builder("audio.dedup.lookups", audioDeduplicationService, service -> service.getStats().getTranscriptionMisses())
+                .tag("kind", "transcription").tag("result", "miss").register(registry);
+            Gauge.builder("audio.dedup.hit.rate", audioDeduplicationService, service -> service.getStats().getRecordingHitRate())
+                .tag("kind", "recording").register(registry);
+            Gauge.builder("audio.dedup.hit.rate", audioDeduplicationService, service -> service.getStats().getTranscriptionHitRate())
+                .tag("kind", "transcription").register(registry);
+            FunctionCounter.builder("audio.dedup.bytes", audioDeduplicationService, service -> service.getStats().getDeduplicatedBytes())
+                .baseUnit("bytes").register(registry);
+        };
+    }
+    
+    @Bean
+    public AudioListenerService audioListenerService(AudioListenerPort audioListenerPort,
+                                                     SpeechAudioPreprocessor speechAudioPreprocessor,
+                                                     AudioDeduplicationService audioDeduplicationService,
+                                                     @Value("${audio.dedup.enabled:true}") boolean deduplicate) {
+        return new AudioListenerService(audioListenerPort, speechAudioPreprocessor,
+            deduplicate ? audioDeduplicationService : null);
     }
     
     @Bean
@@ -39,21 +100,75 @@ public class ApplicationConfig {
     }
     
     @Bean
-    public SilenceDetectionService silenceDetectionService(SilenceDetectorPort silenceDetectorPort) {
-        return new SilenceDetectionService(silenceDetectorPort);
+    public BatchIngestionService batchIngestionService(WavByteProcessingService wavByteProcessingService,
+                                                       AudioListenerService audioListenerService,
+                                                       @Value("${audio.batch.concurrency:4}") int concurrency,
+                                                       @Value("${audio.batch.base-directory:}") String baseDirectory) {
+        return new BatchIngestionService(wavByteProcessingService, audioListenerService, concurrency,
+            baseDirectory.isBlank() ? null : Path.of(baseDirectory));
+    }
+    
+    @Bean
+    public SilenceDetectionService silenceDetectionService(SilenceDetectorPort silenceDetectorPort,
+                                                           StreamingSilenceDetectorPort streamingSilenceDetectorPort) {
+        return new SilenceDetectionService(silenceDetectorPort, streamingSilenceDetectorPort);
+    }
+    
+    @Bean
+    public VoiceActivityDetectionService voiceActivityDetectionService(VoiceActivityDetectorPort voiceActivityDetectorPort) {
+        return new VoiceActivityDetectionService(voiceActivityDetectorPort);
+    }
+    
+    /**
+     * Shortens pauses longer than audio.compaction.max-pause-millis in the audio sent for transcription
+     */
+    @Bean
+    public SilenceCompactor silenceCompactor(VoiceActivityDetectorPort voiceActivityDetectorPort,
+                                             @Value("${audio.compaction.max-pause-millis:500}") long maxPauseMillis) {
+        return new SilenceCompactor(voiceActivityDetectorPort, maxPauseMillis);
     }
     
     @Bean
     public AudioRecordingService audioRecordingService(AudioRecordingPort audioRecordingPort, 
                                                        AudioListenerPort audioListenerPort,
                                                        SilenceDetectionService silenceDetectionService,
-                                                       AiServicePort aiServicePort) {
-        return new AudioRecordingService(audioRecordingPort, audioListenerPort, silenceDetectionService, aiServicePort);
+                                                       AiServicePort aiServicePort,
+                                                       SpeechAudioPreprocessor speechAudioPreprocessor,
+                                                       AudioDeduplicationService audioDeduplicationService,
+                                                       @Value("${audio.dedup.enabled:true}") boolean deduplicate,
+                                                       SilenceCompactor silenceCompactor,
+                                                       @Value("${audio.compaction.enabled:true}") boolean compact) {
+        return new AudioRecordingService(audioRecordingPort, audioListenerPort, silenceDetectionService, aiServicePort,
+            speechAudioPreprocessor, deduplicate ? audioDeduplicationService : null, compact ? silenceCompactor : null);
+    }
+    
+    /**
+     * Evicts streaming sessions idle for audio.streaming.max-idle-millis, sweeping every
+     * audio.streaming.sweep-interval-millis; the sweep stops with the context
+     */
+    @Bean
+    public StreamingSessionService streamingSessionService(@Value("${audio.streaming.max-idle-millis:300000}") long maxIdleMillis,
+                                                           @Value("${audio.streaming.sweep-interval-millis:30000}") long sweepIntervalMillis) {
+        return new StreamingSessionService(maxIdleMillis, sweepIntervalMillis);
+    }
+    
+    /**
+     * Ends streaming utterances after audio.endpointing.silence-millis of silence following speech
+     * (0 leaves them open until the session stops); the dispatcher pool stops with the context
+     */
+    @Bean
+    public StreamingEndpointingService streamingEndpointingService(AudioListenerService audioListenerService,
+                                                                   @Value("${audio.endpointing.silence-millis:500}") long endSilenceMillis,
+                                                                   @Value("${audio.endpointing.concurrency:4}") int concurrency,
+                                                                   @Value("${audio.endpointing.await-timeout-millis:60000}") long awaitTimeoutMillis) {
+        return new StreamingEndpointingService(audioListenerService, endSilenceMillis, concurrency, awaitTimeoutMillis);
     }
     
     @Bean
-    public AudioStreamingService audioStreamingService() {
-        return new AudioStreamingService();
+    public StreamingTranscriptionService streamingTranscriptionService(StreamingSessionService streamingSessionService,
+                                                                       AudioListenerService audioListenerService,
+                                                                       StreamingEndpointingService streamingEndpointingService) {
+        return new StreamingTranscriptionService(streamingSessionService, audioListenerService, streamingEndpointingService);
     }
     
     @Bean
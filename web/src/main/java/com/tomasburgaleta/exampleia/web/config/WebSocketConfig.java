@@ -0,0 +1,39 @@
+package com.tomasburgaleta.exampleia.web.config;
+
+import com.tomasburgaleta.exampleia.web.controller.AudioStreamingWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * Configuration for the binary WebSocket streaming endpoint
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private static final int MAX_BINARY_MESSAGE_SIZE = 512 * 1024; // 512 KB per PCM frame
+    private static final int MAX_TEXT_MESSAGE_SIZE = 8 * 1024;
+
+    private final AudioStreamingWebSocketHandler audioStreamingWebSocketHandler;
+
+    public WebSocketConfig(AudioStreamingWebSocketHandler audioStreamingWebSocketHandler) {
+        this.audioStreamingWebSocketHandler = audioStreamingWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(audioStreamingWebSocketHandler, "/ws/stream");
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(MAX_BINARY_MESSAGE_SIZE);
+        container.setMaxTextMessageBufferSize(MAX_TEXT_MESSAGE_SIZE);
+        return container;
+    }
+}
@@ -1,8 +1,15 @@
 package com.tomasburgaleta.exampleia.web.controller;
 
 import com.tomasburgaleta.exampleia.application.service.AudioListenerService;
+import com.tomasburgaleta.exampleia.application.service.BatchIngestionJob;
+import com.tomasburgaleta.exampleia.application.service.BatchIngestionReport;
+import com.tomasburgaleta.exampleia.application.service.BatchIngestionService;
+import com.tomasburgaleta.exampleia.application.service.VoiceActivityDetectionService;
 import com.tomasburgaleta.exampleia.application.service.WavByteProcessingService;
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SpeechSegment;
+import com.tomasburgaleta.exampleia.domain.model.WavProbe;
 import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import org.springframework.http.HttpStatus;
@@ -12,7 +19,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -25,10 +35,16 @@ public class AudioController {
     
     private final AudioListenerService audioListenerService;
     private final WavByteProcessingService wavByteProcessingService;
+    private final BatchIngestionService batchIngestionService;
+    private final VoiceActivityDetectionService voiceActivityDetectionService;
     
-    public AudioController(AudioListenerService audioListenerService, WavByteProcessingService wavByteProcessingService) {
+    public AudioController(AudioListenerService audioListenerService, WavByteProcessingService wavByteProcessingService,
+                           BatchIngestionService batchIngestionService,
+                           VoiceActivityDetectionService voiceActivityDetectionService) {
         this.audioListenerService = audioListenerService;
         this.wavByteProcessingService = wavByteProcessingService;
+        this.batchIngestionService = batchIngestionService;
+        this.voiceActivityDetectionService = voiceActivityDetectionService;
     }
     
     @PostMapping(value = "/transcribe", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -50,19 +66,21 @@ public class AudioController {
             }
             
             // Process WAV file and extract metadata
-            byte[] audioData = file.getBytes();
             String objectId = UUID.randomUUID().toString();
             
-            // Use WavByteProcessingService to extract WAV metadata and create AudioBean
-            AudioBean audioBean = wavByteProcessingService.processWavBytes(audioData, objectId);
+            // Parse the header as the upload is read and keep only the PCM data
+            AudioBean audioBean;
+            try (InputStream wavStream = file.getInputStream()) {
+                audioBean = wavByteProcessingService.processWavStream(wavStream, objectId);
+            }
             
             // Process audio for transcription
-            byte[] processedAudio = audioListenerService.listenAudio(audioBean);
+            AudioPayload processedAudio = audioListenerService.listenAudio(audioBean);
             
             // Build response with WAV metadata
             response.put("id", audioBean.getId());
             response.put("transcribedText", audioBean.getTranscribedText());
-            response.put("audioSize", processedAudio.length);
+            response.put("audioSize", processedAudio.size());
             response.put("hasTranscription", audioBean.hasTranscribedText());
             response.put("detectedLanguage", audioBean.getDetectedLanguage());
             
@@ -88,6 +106,178 @@ public class AudioController {
         }
     }
     
+    /**
+     * Describes an uploaded WAV file from its header, without reading or transcribing its samples
+     */
+    @PostMapping(value = "/probe", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> probeAudio(@RequestParam("file") MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (file.isEmpty()) {
+                response.put("error", "File is empty");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            WavProbe probe;
+            try (InputStream wavStream = file.getInputStream()) {
+                probe = wavByteProcessingService.probeWavStream(wavStream);
+            }
+            
+            List<Map<String, Object>> chunks = probe.getMetadataChunks().stream()
+                .map(chunk -> {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("id", chunk.id());
+                    entry.put("listType", chunk.listType());
+                    entry.put("offset", chunk.offset());
+                    entry.put("size", chunk.size());
+                    return entry;
+                })
+                .toList();
+            response.put("encoding", probe.getEncoding());
+            response.put("samplesPerSecond", probe.getSamplesPerSecond());
+            response.put("bitsPerSample", probe.getBitsPerSample());
+            response.put("channels", probe.getChannels());
+            response.put("dataOffset", probe.getDataOffset());
+            response.put("dataLength", probe.getDataLength());
+            response.put("durationMillis", probe.getDurationMillis());
+            response.put("metadataChunks", chunks);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (AudioFileException e) {
+            response.put("error", "Invalid WAV format: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            response.put("error", "Failed to read audio file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * Locates the speech in an uploaded WAV file, without transcribing it
+     */
+    @PostMapping(value = "/speech-segments", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> detectSpeechSegments(@RequestParam("file") MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (file.isEmpty()) {
+                response.put("error", "File is empty");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            AudioBean audioBean;
+            try (InputStream wavStream = file.getInputStream()) {
+                audioBean = wavByteProcessingService.processWavStream(wavStream, UUID.randomUUID().toString());
+            }
+            
+            long samplesPerSecond = audioBean.getSamplesPerSecond();
+            List<SpeechSegment> segments = voiceActivityDetectionService.detectSpeech(audioBean);
+            List<Map<String, Object>> entries = segments.stream()
+                .map(segment -> {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("startSample", segment.startSample());
+                    entry.put("endSample", segment.endSample());
+                    entry.put("startMillis", segment.startMillis(samplesPerSecond));
+                    entry.put("endMillis", segment.endMillis(samplesPerSecond));
+                    entry.put("confidence", segment.confidence());
+                    return entry;
+                })
+                .toList();
+            response.put("samplesPerSecond", samplesPerSecond);
+            response.put("durationMillis", audioBean.getAudioPayload().durationMillis(samplesPerSecond,
+                audioBean.getBitsPerSample(), audioBean.getChannels()));
+            response.put("speechMillis", segments.stream().mapToLong(SpeechSegment::length).sum() * 1000 / samplesPerSecond);
+            response.put("segments", entries);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (AudioFileException e) {
+            response.put("error", "Invalid WAV format: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            response.put("error", "Failed to read audio file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * Starts transcribing the WAV files of a directory tree or manifest under the configured batch base directory.
+     * The request body holds either "directory" or "manifest"; the call returns the ID of the job running the batch.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestBatch(@RequestBody Map<String, String> request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (!batchIngestionService.isEnabled()) {
+                response.put("error", "Batch ingestion is disabled");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
+            
+            String directory = request.get("directory");
+            String manifest = request.get("manifest");
+            if ((directory == null) == (manifest == null)) {
+                response.put("error", "Either directory or manifest must be provided");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            BatchIngestionJob job = directory != null
+                ? batchIngestionService.submitDirectory(Path.of(directory))
+                : batchIngestionService.submitManifest(Path.of(manifest));
+            
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus().name());
+            return ResponseEntity.accepted().body(response);
+            
+        } catch (IllegalStateException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * Reports the status of a batch job and, once it has completed, its report
+     */
+    @GetMapping("/batch/{jobId}")
+    public ResponseEntity<Map<String, Object>> getBatch(@PathVariable String jobId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        BatchIngestionJob job = batchIngestionService.getJob(jobId);
+        if (job == null) {
+            response.put("error", "Batch job not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        
+        response.put("jobId", job.getId());
+        response.put("status", job.getStatus().name());
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        BatchIngestionReport report = job.getReport();
+        if (report != null) {
+            List<Map<String, Object>> errors = report.getFailures().stream()
+                .map(failure -> Map.<String, Object>of("file", failure.file().toString(), "error", failure.error()))
+                .toList();
+            response.put("files", report.getFileCount());
+            response.put("succeeded", report.getSucceededCount());
+            response.put("failed", report.getFailedCount());
+            response.put("elapsedMillis", report.getElapsedMillis());
+            response.put("audioSeconds", report.getAudioSeconds());
+            response.put("filesPerSecond", report.getFilesPerSecond());
+            response.put("audioSecondsPerSecond", report.getAudioSecondsPerSecond());
+            response.put("errors", errors);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> response = new HashMap<>();
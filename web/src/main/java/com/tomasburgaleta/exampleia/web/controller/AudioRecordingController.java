@@ -1,9 +1,15 @@
 package com.tomasburgaleta.exampleia.web.controller;
 
 import com.tomasburgaleta.exampleia.application.service.AudioRecordingService;
+import com.tomasburgaleta.exampleia.application.service.WavByteProcessingService;
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
+import com.tomasburgaleta.exampleia.domain.model.SampleOffsetMap;
+import com.tomasburgaleta.exampleia.domain.port.AudioFileException;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,10 +23,16 @@ import java.util.Map;
 @RequestMapping("/api/recording")
 public class AudioRecordingController {
     
+    private static final int MAX_UPLOAD_SIZE = 200 * 1024 * 1024; // 200 MB of raw audio
+    private static final String UPLOAD_ID = "upload";
+    
     private final AudioRecordingService audioRecordingService;
+    private final WavByteProcessingService wavByteProcessingService;
     
-    public AudioRecordingController(AudioRecordingService audioRecordingService) {
+    public AudioRecordingController(AudioRecordingService audioRecordingService,
+                                    WavByteProcessingService wavByteProcessingService) {
         this.audioRecordingService = audioRecordingService;
+        this.wavByteProcessingService = wavByteProcessingService;
     }
     
     /**
@@ -61,7 +73,7 @@ public class AudioRecordingController {
             response.put("samplesPerSecond", audioBean.getSamplesPerSecond());
             response.put("bitsPerSample", audioBean.getBitsPerSample());
             response.put("channels", audioBean.getChannels());
-            response.put("dataSize", audioBean.getAudioData().length);
+            response.put("dataSize", audioBean.getAudioDataSize());
             response.put("isSilent", isSilent);
             response.put("success", true);
             
@@ -78,6 +90,76 @@ public class AudioRecordingController {
         }
     }
     
+    /**
+     * Stores a recording sent as a raw request body instead of JSON.
+     * The body is read once into the array that backs the stored recording.
+     * For application/octet-stream the body is raw PCM and the format comes from the
+     * samplesPerSecond, bitsPerSample and channels query parameters, or from the
+     * X-Audio-Sample-Rate, X-Audio-Bits-Per-Sample and X-Audio-Channels headers.
+     * For audio/wav the format is taken from the WAV header.
+     * 
+     * @param request The HTTP request carrying the audio body
+     * @return Response with recording ID and metadata
+     */
+    @PostMapping(value = "/upload", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "audio/wav", "audio/x-wav", "audio/wave"})
+    public ResponseEntity<Map<String, Object>> uploadRecording(HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            AudioPayload body = AudioPayload.readFrom(request.getInputStream(), request.getContentLengthLong(), MAX_UPLOAD_SIZE);
+            if (body.isEmpty()) {
+                response.put("error", "Audio data cannot be empty");
+                response.put("success", false);
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            AudioBean audioBean;
+            if (MediaType.APPLICATION_OCTET_STREAM.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))) {
+                audioBean = audioRecordingService.startRecording(
+                    body,
+                    Long.parseLong(formatValue(request, "samplesPerSecond", "X-Audio-Sample-Rate")),
+                    Short.parseShort(formatValue(request, "bitsPerSample", "X-Audio-Bits-Per-Sample")),
+                    Short.parseShort(formatValue(request, "channels", "X-Audio-Channels"))
+                );
+            } else {
+                // The PCM region of the parsed WAV shares the request body array
+                AudioBean wav = wavByteProcessingService.processWavPayload(body, UPLOAD_ID);
+                audioBean = audioRecordingService.startRecording(
+                    wav.getAudioPayload(),
+                    wav.getSamplesPerSecond(),
+                    wav.getBitsPerSample(),
+                    wav.getChannels()
+                );
+            }
+            
+            boolean isSilent = audioRecordingService.detectSilence(
+                audioBean.getAudioPayload(),
+                audioBean.getSamplesPerSecond(),
+                audioBean.getBitsPerSample(),
+                audioBean.getChannels()
+            );
+            
+            response.put("id", audioBean.getId());
+            response.put("samplesPerSecond", audioBean.getSamplesPerSecond());
+            response.put("bitsPerSample", audioBean.getBitsPerSample());
+            response.put("channels", audioBean.getChannels());
+            response.put("dataSize", audioBean.getAudioDataSize());
+            response.put("isSilent", isSilent);
+            response.put("success", true);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException | AudioFileException e) {
+            response.put("error", e.getMessage());
+            response.put("success", false);
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("error", "Internal server error: " + e.getMessage());
+            response.put("success", false);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
     /**
      * Retrieves a stored recording by ID
      * 
@@ -101,7 +183,7 @@ public class AudioRecordingController {
             response.put("samplesPerSecond", audioBean.getSamplesPerSecond());
             response.put("bitsPerSample", audioBean.getBitsPerSample());
             response.put("channels", audioBean.getChannels());
-            response.put("dataSize", audioBean.getAudioData().length);
+            response.put("dataSize", audioBean.getAudioDataSize());
             response.put("success", true);
             
             return ResponseEntity.ok(response);
@@ -173,10 +255,18 @@ public class AudioRecordingController {
             response.put("hasTranscription", audioBean.hasTranscribedText());
             response.put("hasAiResponse", audioBean.hasAiResponse());
             response.put("detectedLanguage", audioBean.getDetectedLanguage());
-            response.put("audioSize", audioBean.getAudioData().length);
+            response.put("audioSize", audioBean.getAudioDataSize());
             response.put("samplesPerSecond", audioBean.getSamplesPerSecond());
             response.put("bitsPerSample", audioBean.getBitsPerSample());
             response.put("channels", audioBean.getChannels());
+            response.put("durationMillis", audioBean.getDurationMillis());
+            
+            // Silence cut before transcription, with the length actually sent
+            SampleOffsetMap offsetMap = audioBean.getTranscribedOffsetMap();
+            response.put("compacted", offsetMap != null);
+            if (offsetMap != null && audioBean.getSamplesPerSecond() > 0) {
+                response.put("transcribedMillis", offsetMap.getCompactedLength() * 1000 / audioBean.getSamplesPerSecond());
+            }
             response.put("success", true);
             
             return ResponseEntity.ok(response);
@@ -196,6 +286,22 @@ public class AudioRecordingController {
         }
     }
     
+    /**
+     * Reads an audio format value from the query string, falling back to a request header
+     */
+    private static String formatValue(HttpServletRequest request, String parameterName, String headerName) {
+        String value = request.getParameter(parameterName);
+        if (value == null || value.isBlank()) {
+            value = request.getHeader(headerName);
+        }
+        
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + parameterName + " parameter or " + headerName + " header");
+        }
+        
+        return value.trim();
+    }
+    
     /**
      * Request DTO for starting a recording
      */
@@ -1,44 +1,44 @@
 package com.tomasburgaleta.exampleia.web.controller;
 
-import com.tomasburgaleta.exampleia.application.service.AudioListenerService;
-import com.tomasburgaleta.exampleia.application.service.AudioStreamingService;
+import com.tomasburgaleta.exampleia.application.service.SessionTranscript;
 import com.tomasburgaleta.exampleia.application.service.SilenceDetectionService;
-import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.application.service.StreamingEndpointingService;
+import com.tomasburgaleta.exampleia.application.service.StreamingSession;
+import com.tomasburgaleta.exampleia.application.service.StreamingSessionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingTranscriptionService;
+import com.tomasburgaleta.exampleia.application.service.Utterance;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
- * REST controller for real-time audio streaming and transcription
+ * REST controller for real-time audio streaming and transcription.
+ * Each session keeps its own buffer and audio format, so many clients can stream concurrently.
+ * Utterances ended by server-side endpointing are transcribed while the session goes on; their
+ * text is available from the transcription endpoint and is included in the stop response.
  */
 @RestController
 @RequestMapping("/api/stream")
 public class AudioStreamingController {
     
-    private final AudioStreamingService audioStreamingService;
-    private final AudioListenerService audioListenerService;
+    private final StreamingSessionService streamingSessionService;
+    private final StreamingTranscriptionService streamingTranscriptionService;
     private final SilenceDetectionService silenceDetectionService;
+    private final StreamingEndpointingService streamingEndpointingService;
     
-    private String currentSessionId = null;
-    private long sessionSampleRate = 0;
-    private short sessionBitDepth = 0;
-    private short sessionChannels = 0;
-    private long lastChunkTimestamp = 0;
-    private String latestTranscription = "";
-    
-    public AudioStreamingController(AudioStreamingService audioStreamingService,
-                                   AudioListenerService audioListenerService,
-                                   SilenceDetectionService silenceDetectionService) {
-        this.audioStreamingService = audioStreamingService;
-        this.audioListenerService = audioListenerService;
+    public AudioStreamingController(StreamingSessionService streamingSessionService,
+                                   StreamingTranscriptionService streamingTranscriptionService,
+                                   SilenceDetectionService silenceDetectionService,
+                                   StreamingEndpointingService streamingEndpointingService) {
+        this.streamingSessionService = streamingSessionService;
+        this.streamingTranscriptionService = streamingTranscriptionService;
         this.silenceDetectionService = silenceDetectionService;
+        this.streamingEndpointingService = streamingEndpointingService;
     }
     
     /**
@@ -49,24 +49,22 @@ public class AudioStreamingController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // Clear any previous session
-            if (currentSessionId != null) {
-                audioStreamingService.clear();
-            }
-            
-            // Create new session
-            currentSessionId = UUID.randomUUID().toString();
-            sessionSampleRate = request.getSamplesPerSecond();
-            sessionBitDepth = request.getBitsPerSample();
-            sessionChannels = request.getChannels();
-            lastChunkTimestamp = System.currentTimeMillis();
-            latestTranscription = "";
-            
-            response.put("sessionId", currentSessionId);
+            // Create new session with its own buffer
+            StreamingSession session = streamingSessionService.startSession(
+                request.getSamplesPerSecond(),
+                request.getBitsPerSample(),
+                request.getChannels()
+            );
+            
+            response.put("sessionId", session.getId());
             response.put("success", true);
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            response.put("success", false);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             response.put("error", "Failed to start session: " + e.getMessage());
             response.put("success", false);
@@ -82,7 +80,8 @@ public class AudioStreamingController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (currentSessionId == null || !currentSessionId.equals(request.getSessionId())) {
+            StreamingSession session = streamingSessionService.getSession(request.getSessionId());
+            if (session == null) {
                 response.put("error", "Invalid or expired session");
                 response.put("success", false);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
@@ -94,24 +93,32 @@ public class AudioStreamingController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // Add chunk to buffer
-            audioStreamingService.addAudioBytes(request.getPcmData());
-            lastChunkTimestamp = System.currentTimeMillis();
+            // Add chunk to the session buffer
+            session.addAudioChunk(request.getPcmData());
             
-            // Check for silence in the chunk
-            boolean isSilent = false;
+            // Check for silence, carrying the detection state over from the previous chunks
+            SpeechActivity activity = null;
             if (silenceDetectionService != null) {
-                isSilent = silenceDetectionService.isSilent(
-                    request.getPcmData(),
-                    sessionSampleRate,
-                    sessionBitDepth,
-                    sessionChannels
-                );
+                activity = silenceDetectionService.trackChunk(session, request.getPcmData());
+            }
+            
+            // End the utterance and dispatch it for transcription once the speech is followed by enough silence
+            Utterance utterance = null;
+            if (streamingEndpointingService != null && activity != null) {
+                utterance = streamingEndpointingService.endpoint(session, activity);
             }
             
             response.put("success", true);
-            response.put("bufferSize", audioStreamingService.getBufferSize());
-            response.put("isSilent", isSilent);
+            response.put("bufferSize", session.getBufferSize());
+            response.put("isSilent", activity != null && activity.isSilent());
+            if (activity != null) {
+                response.put("isSpeaking", activity.isSpeaking());
+                response.put("silenceMillis", activity.getTrailingSilenceMillis());
+            }
+            response.put("utteranceEnded", utterance != null);
+            if (utterance != null) {
+                response.put("utteranceIndex", utterance.getIndex());
+            }
             
             return ResponseEntity.ok(response);
             
@@ -123,54 +130,29 @@ public class AudioStreamingController {
     }
     
     /**
-     * Stops the streaming session, extracts audio, and sends to Azure for transcription
+     * Stops the streaming session, extracts audio, and sends to Azure for transcription.
+     * Audio left after the last utterance ended by endpointing is only transcribed if it holds speech.
      */
     @PostMapping("/stop")
     public ResponseEntity<Map<String, Object>> stopSession(@RequestBody SessionStopRequest request) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (currentSessionId == null || !currentSessionId.equals(request.getSessionId())) {
-                response.put("error", "Invalid or expired session");
-                response.put("success", false);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-            }
-            
-            // Extract all accumulated audio
-            byte[] pcmData = audioStreamingService.extractAndClearAudioBytes();
-            
-            if (pcmData.length == 0) {
-                response.put("error", "No audio data recorded");
-                response.put("success", false);
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-            // Convert PCM to WAV
-            byte[] wavData = convertPcmToWav(pcmData, sessionSampleRate, sessionBitDepth, sessionChannels);
-            
-            // Create AudioBean for transcription
-            AudioBean audioBean = new AudioBean(currentSessionId, wavData);
-            audioBean.setSamplesPerSecond(sessionSampleRate);
-            audioBean.setBitsPerSample(sessionBitDepth);
-            audioBean.setChannels(sessionChannels);
-            
-            // Transcribe with Azure
-            audioListenerService.listenAudio(audioBean);
-            
-            // Store the transcription
-            latestTranscription = audioBean.getTranscribedText() != null ? audioBean.getTranscribedText() : "";
+            SessionTranscript transcript = streamingTranscriptionService.stopSession(request.getSessionId());
             
             response.put("success", true);
-            response.put("sessionId", currentSessionId);
-            response.put("transcribedText", latestTranscription);
-            response.put("hasTranscription", audioBean.hasTranscribedText());
-            response.put("audioSize", pcmData.length);
-            
-            // Clean up session
-            currentSessionId = null;
+            response.put("sessionId", transcript.sessionId());
+            response.put("transcribedText", transcript.transcribedText());
+            response.put("hasTranscription", transcript.hasTranscription());
+            response.put("audioSize", transcript.audioSize());
+            response.put("utterances", transcript.utterances());
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            response.put("success", false);
+            return ResponseEntity.badRequest().body(response);
         } catch (AudioProcessingException e) {
             response.put("error", "Transcription failed: " + e.getMessage());
             response.put("success", false);
@@ -190,9 +172,12 @@ public class AudioStreamingController {
         Map<String, Object> response = new HashMap<>();
         
         try {
+            StreamingSession session = streamingSessionService.getSession(sessionId);
+            String transcription = session != null ? session.getLatestTranscription() : "";
+            
             response.put("sessionId", sessionId);
-            response.put("transcribedText", latestTranscription);
-            response.put("hasTranscription", !latestTranscription.isEmpty());
+            response.put("transcribedText", transcription);
+            response.put("hasTranscription", !transcription.isEmpty());
             response.put("success", true);
             
             return ResponseEntity.ok(response);
@@ -204,39 +189,6 @@ public class AudioStreamingController {
         }
     }
     
-    /**
-     * Converts raw PCM audio data to WAV format by adding WAV header
-     */
-    private byte[] convertPcmToWav(byte[] pcmData, long sampleRate, short bitsPerSample, short channels) {
-        int pcmDataSize = pcmData.length;
-        int wavHeaderSize = 44;
-        
-        ByteBuffer buffer = ByteBuffer.allocate(wavHeaderSize + pcmDataSize);
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
-        
-        // RIFF header
-        buffer.put("RIFF".getBytes());
-        buffer.putInt(36 + pcmDataSize);
-        buffer.put("WAVE".getBytes());
-        
-        // fmt chunk
-        buffer.put("fmt ".getBytes());
-        buffer.putInt(16);
-        buffer.putShort((short) 1); // PCM format
-        buffer.putShort(channels);
-        buffer.putInt((int) sampleRate);
-        buffer.putInt((int) (sampleRate * channels * bitsPerSample / 8));
-        buffer.putShort((short) (channels * bitsPerSample / 8));
-        buffer.putShort(bitsPerSample);
-        
-        // data chunk
-        buffer.put("data".getBytes());
-        buffer.putInt(pcmDataSize);
-        buffer.put(pcmData);
-        
-        return buffer.array();
-    }
-    
     // Request DTOs
     public static class SessionStartRequest {
         private long samplesPerSecond;
@@ -0,0 +1,268 @@
+package com.tomasburgaleta.exampleia.web.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tomasburgaleta.exampleia.application.service.SessionTranscript;
+import com.tomasburgaleta.exampleia.application.service.SilenceDetectionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingEndpointingService;
+import com.tomasburgaleta.exampleia.application.service.StreamingSession;
+import com.tomasburgaleta.exampleia.application.service.StreamingSessionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingTranscriptionService;
+import com.tomasburgaleta.exampleia.application.service.Utterance;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * WebSocket endpoint for real-time audio streaming.
+ * The audio format is negotiated once through the query string of the handshake
+ * ({@code /ws/stream?samplesPerSecond=16000&bitsPerSample=16&channels=1}).
+ * Every binary frame carries raw PCM that is appended to the session buffer, and the buffer and
+ * silence status is pushed back as a JSON text frame. Silence is tracked across frames, so the
+ * status does not depend on how the client cuts the stream. When the silence after speech is long
+ * enough, the server ends the utterance, transcribes it while the stream goes on and pushes a
+ * {@code {"type":"utterance"}} frame with its text. A {@code {"type":"stop"}} text frame ends
+ * the session and returns the whole transcription on the same socket.
+ */
+@Component
+public class AudioStreamingWebSocketHandler extends AbstractWebSocketHandler {
+
+    static final String STREAMING_SESSION_ID = "streamingSessionId";
+
+    private final StreamingSessionService streamingSessionService;
+    private final StreamingTranscriptionService streamingTranscriptionService;
+    private final SilenceDetectionService silenceDetectionService;
+    private final StreamingEndpointingService streamingEndpointingService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AudioStreamingWebSocketHandler(StreamingSessionService streamingSessionService,
+                                          StreamingTranscriptionService streamingTranscriptionService,
+                                          SilenceDetectionService silenceDetectionService,
+                                          StreamingEndpointingService streamingEndpointingService) {
+        this.streamingSessionService = streamingSessionService;
+        this.streamingTranscriptionService = streamingTranscriptionService;
+        this.silenceDetectionService = silenceDetectionService;
+        this.streamingEndpointingService = streamingEndpointingService;
+    }
+
+    /**
+     * Starts a streaming session with the format given in the handshake query string
+     */
+    @Override
+    public void afterConnectionEstablished(WebSocketSession webSocketSession) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(webSocketSession.getUri()).build().getQueryParams();
+            StreamingSession session = streamingSessionService.startSession(
+                Long.parseLong(requiredParam(params, "samplesPerSecond")),
+                Short.parseShort(requiredParam(params, "bitsPerSample")),
+                Short.parseShort(requiredParam(params, "channels"))
+            );
+            webSocketSession.getAttributes().put(STREAMING_SESSION_ID, session.getId());
+
+            response.put("type", "started");
+            response.put("sessionId", session.getId());
+            response.put("success", true);
+            send(webSocketSession, response);
+
+        } catch (IllegalArgumentException | NullPointerException e) {
+            response.put("type", "error");
+            response.put("error", "Invalid audio format: " + e.getMessage());
+            response.put("success", false);
+            send(webSocketSession, response);
+            webSocketSession.close(CloseStatus.BAD_DATA);
+        }
+    }
+
+    /**
+     * Appends a PCM frame to the session buffer and pushes back the buffer and silence status
+     */
+    @Override
+    protected void handleBinaryMessage(WebSocketSession webSocketSession, BinaryMessage message) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+
+        StreamingSession session = streamingSessionService.getSession(streamingSessionId(webSocketSession));
+        if (session == null) {
+            response.put("type", "error");
+            response.put("error", "Invalid or expired session");
+            response.put("success", false);
+            send(webSocketSession, response);
+            return;
+        }
+
+        ByteBuffer payload = message.getPayload();
+        if (!payload.hasRemaining()) {
+            response.put("type", "error");
+            response.put("error", "PCM data cannot be empty");
+            response.put("success", false);
+            send(webSocketSession, response);
+            return;
+        }
+
+        // The frame is copied once, straight into the session buffer, and analyzed in place
+        session.addAudioChunk(payload);
+
+        SpeechActivity activity = null;
+        if (silenceDetectionService != null) {
+            activity = silenceDetectionService.trackChunk(session, payload);
+        }
+
+        Utterance utterance = null;
+        if (streamingEndpointingService != null && activity != null) {
+            utterance = streamingEndpointingService.endpoint(session, activity);
+        }
+
+        response.put("type", "chunk");
+        response.put("success", true);
+        response.put("bufferSize", session.getBufferSize());
+        response.put("isSilent", activity != null && activity.isSilent());
+        if (activity != null) {
+            response.put("isSpeaking", activity.isSpeaking());
+            response.put("silenceMillis", activity.getTrailingSilenceMillis());
+        }
+        response.put("utteranceEnded", utterance != null);
+        if (utterance != null) {
+            response.put("utteranceIndex", utterance.getIndex());
+        }
+        send(webSocketSession, response);
+
+        if (utterance != null) {
+            pushWhenTranscribed(webSocketSession, session, utterance);
+        }
+    }
+
+    /**
+     * Pushes the text of an utterance as soon as the provider returns it
+     */
+    private void pushWhenTranscribed(WebSocketSession webSocketSession, StreamingSession session, Utterance utterance) {
+        utterance.getTranscription().whenComplete((audioBean, error) -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("type", "utterance");
+            response.put("sessionId", session.getId());
+            response.put("utteranceIndex", utterance.getIndex());
+            response.put("durationMillis", utterance.getDurationMillis());
+            if (error == null) {
+                response.put("success", true);
+                response.put("transcribedText", audioBean.getTranscribedText() != null ? audioBean.getTranscribedText() : "");
+                response.put("hasTranscription", audioBean.hasTranscribedText());
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                response.put("success", false);
+                response.put("error", "Transcription failed: " + cause.getMessage());
+            }
+
+            try {
+                send(webSocketSession, response);
+            } catch (IOException e) {
+                // The client went away; the text is still part of the session's transcription
+            }
+        });
+    }
+
+    /**
+     * Handles control messages; only {@code {"type":"stop"}} is supported
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession webSocketSession, TextMessage message) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("type", "error");
+        response.put("success", false);
+
+        JsonNode control;
+        try {
+            control = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            // A malformed frame must not close the socket and drop the buffered audio
+            response.put("error", "Invalid control message: " + e.getOriginalMessage());
+            send(webSocketSession, response);
+            return;
+        }
+
+        if ("stop".equals(control.path("type").asText())) {
+            stopSession(webSocketSession);
+            webSocketSession.close(CloseStatus.NORMAL);
+            return;
+        }
+
+        response.put("error", "Unsupported message type: " + control.path("type").asText());
+        send(webSocketSession, response);
+    }
+
+    /**
+     * Drops the buffered audio of sessions whose socket closed without a stop message
+     */
+    @Override
+    public void afterConnectionClosed(WebSocketSession webSocketSession, CloseStatus status) {
+        StreamingSession session = streamingSessionService.endSession(streamingSessionId(webSocketSession));
+        if (session != null) {
+            session.extractAudioChunks().close();
+        }
+    }
+
+    private void stopSession(WebSocketSession webSocketSession) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            SessionTranscript transcript = streamingTranscriptionService.stopSession(streamingSessionId(webSocketSession));
+
+            response.put("type", "transcription");
+            response.put("success", true);
+            response.put("sessionId", transcript.sessionId());
+            response.put("transcribedText", transcript.transcribedText());
+            response.put("hasTranscription", transcript.hasTranscription());
+            response.put("audioSize", transcript.audioSize());
+            response.put("utterances", transcript.utterances());
+            send(webSocketSession, response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("type", "error");
+            response.put("error", e.getMessage());
+            response.put("success", false);
+            send(webSocketSession, response);
+        } catch (AudioProcessingException e) {
+            response.put("type", "error");
+            response.put("error", "Transcription failed: " + e.getMessage());
+            response.put("success", false);
+            send(webSocketSession, response);
+        }
+    }
+
+    private static String requiredParam(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return value;
+    }
+
+    private static String streamingSessionId(WebSocketSession webSocketSession) {
+        return (String) webSocketSession.getAttributes().get(STREAMING_SESSION_ID);
+    }
+
+    /**
+     * Sends a JSON frame; utterance results are pushed from the dispatcher threads, so sends are
+     * serialized per socket
+     */
+    private void send(WebSocketSession webSocketSession, Map<String, Object> response) throws IOException {
+        synchronized (webSocketSession) {
+            if (webSocketSession.isOpen()) {
+                webSocketSession.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+            }
+        }
+    }
+}
@@ -53,10 +53,9 @@ document.addEventListener('DOMContentLoaded', function() {
     
     // Streaming variables
     let streamingSessionId = null;
+    let streamingSocket = null;
+    let streamingStopResolver = null;
     let streamingInterval = null;
-    let silenceDetectionInterval = null;
-    let lastAudioTime = Date.now();
-    let silenceThreshold = 1000; // 1 second of silence
 
     // Initialize audio recording
     initializeAudioRecording();
@@ -81,7 +80,7 @@ document.addEventListener('DOMContentLoaded', function() {
                 audioChunks.push(event.data);
                 
                 // Send chunk to backend for streaming
-                if (streamingSessionId && event.data.size > 0) {
+                if (streamingSessionId && streamingSocket && event.data.size > 0) {
                     try {
                         const arrayBuffer = await event.data.arrayBuffer();
                         const audioContext = new (window.AudioContext || window.webkitAudioContext)();
@@ -90,26 +89,9 @@ document.addEventListener('DOMContentLoaded', function() {
                         // Convert to PCM
                         const pcmData = extractPCMFromAudioBuffer(audioBuffer);
                         
-                        // Send to backend
-                        const chunkResponse = await fetch('/api/stream/chunk', {
-                            method: 'POST',
-                            headers: {
-                                'Content-Type': 'application/json'
-                            },
-                            body: JSON.stringify({
-                                sessionId: streamingSessionId,
-                                pcmData: Array.from(pcmData)
-                            })
-                        });
-                        
-                        const chunkData = await chunkResponse.json();
-                        if (chunkData.success) {
-                            // Update status
-                            if (chunkData.isSilent) {
-                                transcriptionStatus.textContent = 'Detectando silencio...';
-                            } else {
-                                transcriptionStatus.textContent = 'Grabando... (' + Math.floor(chunkData.bufferSize / 1024) + ' KB)';
-                            }
+                        // Send raw PCM as a binary frame; the status comes back on the socket
+                        if (streamingSocket.readyState === WebSocket.OPEN) {
+                            streamingSocket.send(pcmData.buffer);
                         }
                     } catch (error) {
                         console.error('Error sending audio chunk:', error);
@@ -577,24 +559,11 @@ document.addEventListener('DOMContentLoaded', function() {
         transcriptionStatus.textContent = 'Esperando audio...';
         transcriptionStatus.className = 'transcription-status';
         
-        // Start streaming session
+        // Start streaming session over WebSocket; the audio format is negotiated at open
         try {
-            const sessionResponse = await fetch('/api/stream/start', {
-                method: 'POST',
-                headers: {
-                    'Content-Type': 'application/json'
-                },
-                body: JSON.stringify({
-                    samplesPerSecond: parseInt(sampleRateSelect.value),
-                    bitsPerSample: parseInt(bitDepthSelect.value),
-                    channels: parseInt(channelsSelect.value)
-                })
-            });
-            
-            const sessionData = await sessionResponse.json();
+            const sessionData = await openStreamingSocket();
             if (sessionData.success) {
                 streamingSessionId = sessionData.sessionId;
-                lastAudioTime = Date.now();
             } else {
                 showError('No se pudo iniciar la sesión de streaming');
                 return;
@@ -627,9 +596,6 @@ document.addEventListener('DOMContentLoaded', function() {
                 volumeBar.style.width = '0%';
             }
         }, 100);
-        
-        // Start silence detection
-        silenceDetectionInterval = setInterval(checkForSilence, 100);
     }
 
     async function stopRecording() {
@@ -643,7 +609,6 @@ document.addEventListener('DOMContentLoaded', function() {
         stopBtn.disabled = true;
         
         clearInterval(recordingTimer);
-        clearInterval(silenceDetectionInterval);
         
         // Stop streaming and get transcription
         if (streamingSessionId) {
@@ -651,17 +616,11 @@ document.addEventListener('DOMContentLoaded', function() {
                 transcriptionStatus.textContent = 'Procesando transcripción...';
                 transcriptionStatus.className = 'transcription-status processing';
                 
-                const stopResponse = await fetch('/api/stream/stop', {
-                    method: 'POST',
-                    headers: {
-                        'Content-Type': 'application/json'
-                    },
-                    body: JSON.stringify({
-                        sessionId: streamingSessionId
-                    })
+                const stopData = await new Promise(function(resolve) {
+                    streamingStopResolver = resolve;
+                    streamingSocket.send(JSON.stringify({ type: 'stop' }));
                 });
                 
-                const stopData = await stopResponse.json();
                 if (stopData.success && stopData.hasTranscription) {
                     realtimeTranscriptionText.value = stopData.transcribedText;
                     transcriptionStatus.textContent = 'Transcripción completada';
@@ -679,30 +638,66 @@ document.addEventListener('DOMContentLoaded', function() {
                 transcriptionStatus.className = 'transcription-status error';
             } finally {
                 streamingSessionId = null;
+                streamingSocket = null;
             }
         }
     }
     
-    async function checkForSilence() {
-        if (!analyser || !streamingSessionId) return;
-        
-        analyser.getByteFrequencyData(dataArray);
-        const average = dataArray.reduce((sum, value) => sum + value, 0) / dataArray.length;
-        
-        // If volume is above threshold, update last audio time
-        if (average > 10) { // Threshold for "sound detected"
-            lastAudioTime = Date.now();
-        }
-        
-        // Check if silence duration exceeds threshold
-        const silenceDuration = Date.now() - lastAudioTime;
-        if (silenceDuration >= silenceThreshold && mediaRecorder.state === 'recording') {
-            console.log('Silencio detectado por 1 segundo, deteniendo grabación...');
-            transcriptionStatus.textContent = 'Silencio detectado, finalizando...';
-            await stopRecording();
-        }
+    function openStreamingSocket() {
+        return new Promise(function(resolve, reject) {
+            const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+            const params = new URLSearchParams({
+                samplesPerSecond: sampleRateSelect.value,
+                bitsPerSample: bitDepthSelect.value,
+                channels: channelsSelect.value
+            });
+            const socket = new WebSocket(protocol + '//' + window.location.host + '/ws/stream?' + params);
+            socket.binaryType = 'arraybuffer';
+            
+            socket.onmessage = function(event) {
+                const message = JSON.parse(event.data);
+                if (message.type === 'started') {
+                    streamingSocket = socket;
+                    resolve(message);
+                } else if (message.type === 'chunk') {
+                    if (message.utteranceEnded) {
+                        transcriptionStatus.textContent = 'Fin de frase detectado, transcribiendo...';
+                    } else if (message.isSilent) {
+                        transcriptionStatus.textContent = 'Detectando silencio...';
+                    } else {
+                        transcriptionStatus.textContent = 'Grabando... (' + Math.floor(message.bufferSize / 1024) + ' KB)';
+                    }
+                } else if (message.type === 'utterance') {
+                    // The server ended an utterance on its own silence detection and pushed its text
+                    if (message.success && message.hasTranscription) {
+                        const text = realtimeTranscriptionText.value;
+                        realtimeTranscriptionText.value = text ? text + ' ' + message.transcribedText : message.transcribedText;
+                    } else if (!message.success) {
+                        console.error('Utterance transcription failed:', message.error);
+                    }
+                } else if (streamingStopResolver) {
+                    // Transcription result, or an error while stopping
+                    streamingStopResolver(message);
+                    streamingStopResolver = null;
+                } else if (message.type === 'error') {
+                    console.error('Streaming error:', message.error);
+                    resolve(message);
+                }
+            };
+            
+            socket.onerror = function() {
+                reject(new Error('No se pudo conectar con el servidor de streaming'));
+            };
+            
+            socket.onclose = function() {
+                if (streamingStopResolver) {
+                    streamingStopResolver({ success: false, error: 'Conexión cerrada' });
+                    streamingStopResolver = null;
+                }
+            };
+        });
     }
-
+    
     function updateRecordingTime() {
         const elapsed = Date.now() - startTime;
         const minutes = Math.floor(elapsed / 60000);
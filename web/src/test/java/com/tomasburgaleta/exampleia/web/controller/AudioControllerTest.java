@@ -0,0 +1,109 @@
+package com.tomasburgaleta.exampleia.web.controller;
+
+import com.tomasburgaleta.exampleia.application.service.AudioListenerService;
+import com.tomasburgaleta.exampleia.application.service.BatchIngestionJob;
+import com.tomasburgaleta.exampleia.application.service.BatchIngestionService;
+import com.tomasburgaleta.exampleia.application.service.VoiceActivityDetectionService;
+import com.tomasburgaleta.exampleia.application.service.WavByteProcessingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AudioControllerTest {
+
+    @Mock
+    private AudioListenerService audioListenerService;
+
+    @Mock
+    private WavByteProcessingService wavByteProcessingService;
+
+    @Mock
+    private BatchIngestionService batchIngestionService;
+
+    @Mock
+    private VoiceActivityDetectionService voiceActivityDetectionService;
+
+    @InjectMocks
+    private AudioController audioController;
+
+    @Test
+    void testIngestBatch_ReturnsJobWithoutWaitingForBatch() {
+        // Arrange
+        BatchIngestionJob job = mock(BatchIngestionJob.class);
+        when(job.getId()).thenReturn("job-1");
+        when(job.getStatus()).thenReturn(BatchIngestionJob.Status.RUNNING);
+        when(batchIngestionService.isEnabled()).thenReturn(true);
+        when(batchIngestionService.submitDirectory(Path.of("recordings"))).thenReturn(job);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioController.ingestBatch(Map.of("directory", "recordings"));
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("job-1", response.getBody().get("jobId"));
+        assertEquals("RUNNING", response.getBody().get("status"));
+    }
+
+    @Test
+    void testIngestBatch_DisabledWithoutBaseDirectory() {
+        // Arrange
+        when(batchIngestionService.isEnabled()).thenReturn(false);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioController.ingestBatch(Map.of("directory", "/etc"));
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(batchIngestionService, never()).submitDirectory(any(Path.class));
+    }
+
+    @Test
+    void testIngestBatch_PathOutsideBaseDirectory() {
+        // Arrange
+        when(batchIngestionService.isEnabled()).thenReturn(true);
+        when(batchIngestionService.submitManifest(Path.of("../manifest.txt")))
+            .thenThrow(new IllegalArgumentException("Path is outside the batch base directory: ../manifest.txt"));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioController.ingestBatch(Map.of("manifest", "../manifest.txt"));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Path is outside the batch base directory: ../manifest.txt", response.getBody().get("error"));
+    }
+
+    @Test
+    void testIngestBatch_AnotherBatchRunning() {
+        // Arrange
+        when(batchIngestionService.isEnabled()).thenReturn(true);
+        when(batchIngestionService.submitDirectory(Path.of("recordings")))
+            .thenThrow(new IllegalStateException("Another batch is already running"));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioController.ingestBatch(Map.of("directory", "recordings"));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void testGetBatch_UnknownJob() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioController.getBatch("missing");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -1,7 +1,9 @@
 package com.tomasburgaleta.exampleia.web.controller;
 
 import com.tomasburgaleta.exampleia.application.service.AudioRecordingService;
+import com.tomasburgaleta.exampleia.application.service.WavByteProcessingService;
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.AudioPayload;
 import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +13,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +28,9 @@ class AudioRecordingControllerTest {
     @Mock
     private AudioRecordingService audioRecordingService;
     
+    @Mock
+    private WavByteProcessingService wavByteProcessingService;
+    
     @InjectMocks
     private AudioRecordingController audioRecordingController;
     
@@ -123,4 +130,73 @@ class AudioRecordingControllerTest {
         
         verify(audioRecordingService, times(1)).transcribeRecording(null);
     }
+    
+    @Test
+    void testUploadRecording_RawPcmWithQueryParameters() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recording/upload");
+        request.setContentType("application/octet-stream");
+        request.setContent(new byte[]{1, 2, 3, 4});
+        request.setParameter("samplesPerSecond", "16000");
+        request.setParameter("bitsPerSample", "16");
+        request.addHeader("X-Audio-Channels", "1");
+        
+        AudioBean stored = new AudioBean("recording-id", new byte[]{1, 2, 3, 4});
+        stored.setSamplesPerSecond(16000);
+        stored.setBitsPerSample((short) 16);
+        stored.setChannels((short) 1);
+        when(audioRecordingService.startRecording(any(AudioPayload.class), eq(16000L), eq((short) 16), eq((short) 1)))
+            .thenReturn(stored);
+        
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioRecordingController.uploadRecording(request);
+        
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("success"));
+        assertEquals("recording-id", response.getBody().get("id"));
+        assertEquals(4L, response.getBody().get("dataSize"));
+        verify(wavByteProcessingService, never()).processWavPayload(any(), anyString());
+    }
+    
+    @Test
+    void testUploadRecording_WavUsesHeaderFormat() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recording/upload");
+        request.setContentType("audio/wav");
+        request.setContent(new byte[]{1, 2, 3, 4, 5, 6});
+        
+        AudioBean parsed = new AudioBean("upload", AudioPayload.wrap(new byte[]{5, 6}));
+        parsed.setSamplesPerSecond(44100);
+        parsed.setBitsPerSample((short) 16);
+        parsed.setChannels((short) 2);
+        when(wavByteProcessingService.processWavPayload(any(AudioPayload.class), anyString())).thenReturn(parsed);
+        when(audioRecordingService.startRecording(same(parsed.getAudioPayload()), eq(44100L), eq((short) 16), eq((short) 2)))
+            .thenReturn(parsed);
+        
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioRecordingController.uploadRecording(request);
+        
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue((Boolean) response.getBody().get("success"));
+        assertEquals(44100L, response.getBody().get("samplesPerSecond"));
+    }
+    
+    @Test
+    void testUploadRecording_MissingFormat() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recording/upload");
+        request.setContentType("application/octet-stream");
+        request.setContent(new byte[]{1, 2, 3, 4});
+        
+        // Act
+        ResponseEntity<Map<String, Object>> response = audioRecordingController.uploadRecording(request);
+        
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertFalse((Boolean) response.getBody().get("success"));
+        assertTrue(response.getBody().get("error").toString().contains("samplesPerSecond"));
+        verify(audioRecordingService, never()).startRecording(any(AudioPayload.class), anyLong(), anyShort(), anyShort());
+    }
 }
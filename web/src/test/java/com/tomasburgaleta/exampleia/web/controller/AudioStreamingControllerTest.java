@@ -1,9 +1,12 @@
 package com.tomasburgaleta.exampleia.web.controller;
 
 import com.tomasburgaleta.exampleia.application.service.AudioListenerService;
-import com.tomasburgaleta.exampleia.application.service.AudioStreamingService;
 import com.tomasburgaleta.exampleia.application.service.SilenceDetectionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingEndpointingService;
+import com.tomasburgaleta.exampleia.application.service.StreamingSessionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingTranscriptionService;
 import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -21,8 +24,7 @@ class AudioStreamingControllerTest {
     
     private AudioStreamingController controller;
     
-    @Mock
-    private AudioStreamingService audioStreamingService;
+    private StreamingSessionService streamingSessionService;
     
     @Mock
     private AudioListenerService audioListenerService;
@@ -33,10 +35,13 @@ class AudioStreamingControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        streamingSessionService = new StreamingSessionService();
+        StreamingEndpointingService streamingEndpointingService = new StreamingEndpointingService(audioListenerService, 500, Runnable::run);
         controller = new AudioStreamingController(
-            audioStreamingService,
-            audioListenerService,
-            silenceDetectionService
+            streamingSessionService,
+            new StreamingTranscriptionService(streamingSessionService, audioListenerService, streamingEndpointingService),
+            silenceDetectionService,
+            streamingEndpointingService
         );
     }
     
@@ -72,8 +77,8 @@ class AudioStreamingControllerTest {
         chunkRequest.setSessionId(sessionId);
         chunkRequest.setPcmData(new byte[]{1, 2, 3, 4, 5});
         
-        when(silenceDetectionService.isSilent(any(), anyLong(), anyShort(), anyShort())).thenReturn(false);
-        when(audioStreamingService.getBufferSize()).thenReturn(5);
+        when(silenceDetectionService.trackChunk(any(), any(byte[].class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0));
         
         // When
         ResponseEntity<Map<String, Object>> response = controller.sendChunk(chunkRequest);
@@ -84,7 +89,8 @@ class AudioStreamingControllerTest {
         assertTrue((Boolean) response.getBody().get("success"));
         assertEquals(5, response.getBody().get("bufferSize"));
         assertFalse((Boolean) response.getBody().get("isSilent"));
-        verify(audioStreamingService).addAudioBytes(any());
+        assertTrue((Boolean) response.getBody().get("isSpeaking"));
+        assertEquals(5, streamingSessionService.getSession(sessionId).getBufferSize());
     }
     
     @Test
@@ -102,7 +108,7 @@ class AudioStreamingControllerTest {
         assertNotNull(response.getBody());
         assertFalse((Boolean) response.getBody().get("success"));
         assertTrue(response.getBody().get("error").toString().contains("Invalid or expired session"));
-        verify(audioStreamingService, never()).addAudioBytes(any());
+        verify(silenceDetectionService, never()).trackChunk(any(), any(byte[].class));
     }
     
     @Test
@@ -139,19 +145,21 @@ class AudioStreamingControllerTest {
         ResponseEntity<Map<String, Object>> startResponse = controller.startSession(startRequest);
         String sessionId = (String) startResponse.getBody().get("sessionId");
         
+        AudioStreamingController.ChunkRequest chunkRequest = new AudioStreamingController.ChunkRequest();
+        chunkRequest.setSessionId(sessionId);
+        chunkRequest.setPcmData(new byte[]{1, 2, 3, 4, 5});
+        controller.sendChunk(chunkRequest);
+        
         AudioStreamingController.SessionStopRequest stopRequest = new AudioStreamingController.SessionStopRequest();
         stopRequest.setSessionId(sessionId);
         
-        byte[] testPcmData = new byte[]{1, 2, 3, 4, 5};
-        when(audioStreamingService.extractAndClearAudioBytes()).thenReturn(testPcmData);
-        
         AudioBean mockAudioBean = new AudioBean(sessionId, new byte[]{1, 2, 3});
         mockAudioBean.setTranscribedText("Test transcription");
         doAnswer(invocation -> {
             AudioBean bean = invocation.getArgument(0);
             bean.setTranscribedText("Test transcription");
             return null;
-        }).when(audioListenerService).listenAudio(any());
+        }).when(audioListenerService).listenPcm(any());
         
         // When
         ResponseEntity<Map<String, Object>> response = controller.stopSession(stopRequest);
@@ -162,8 +170,9 @@ class AudioStreamingControllerTest {
         assertTrue((Boolean) response.getBody().get("success"));
         assertEquals("Test transcription", response.getBody().get("transcribedText"));
         assertTrue((Boolean) response.getBody().get("hasTranscription"));
-        verify(audioStreamingService).extractAndClearAudioBytes();
-        verify(audioListenerService).listenAudio(any());
+        assertEquals(5L, response.getBody().get("audioSize"));
+        assertNull(streamingSessionService.getSession(sessionId));
+        verify(audioListenerService).listenPcm(any());
     }
     
     @Test
@@ -179,8 +188,6 @@ class AudioStreamingControllerTest {
         AudioStreamingController.SessionStopRequest stopRequest = new AudioStreamingController.SessionStopRequest();
         stopRequest.setSessionId(sessionId);
         
-        when(audioStreamingService.extractAndClearAudioBytes()).thenReturn(new byte[]{});
-        
         // When
         ResponseEntity<Map<String, Object>> response = controller.stopSession(stopRequest);
         
@@ -189,7 +196,132 @@ class AudioStreamingControllerTest {
         assertNotNull(response.getBody());
         assertFalse((Boolean) response.getBody().get("success"));
         assertTrue(response.getBody().get("error").toString().contains("No audio data recorded"));
-        verify(audioListenerService, never()).listenAudio(any());
+        verify(audioListenerService, never()).listenPcm(any());
+    }
+    
+    @Test
+    void testSendChunk_EndsUtteranceAfterSilence() throws Exception {
+        // Given - speech, then 500 ms of silence after the hangover
+        String sessionId = startSession();
+        when(silenceDetectionService.trackChunk(any(), any(byte[].class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0))
+            .thenReturn(new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25));
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText("First utterance");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+        
+        // When
+        ResponseEntity<Map<String, Object>> speech = controller.sendChunk(chunk(sessionId, new byte[]{1, 2, 3, 4}));
+        ResponseEntity<Map<String, Object>> silence = controller.sendChunk(chunk(sessionId, new byte[]{5, 6, 7, 8}));
+        
+        // Then - the utterance is transcribed while the session stays open
+        assertFalse((Boolean) speech.getBody().get("utteranceEnded"));
+        assertTrue((Boolean) silence.getBody().get("utteranceEnded"));
+        assertEquals(1, silence.getBody().get("utteranceIndex"));
+        assertEquals(0, silence.getBody().get("bufferSize"));
+        assertNotNull(streamingSessionService.getSession(sessionId));
+        assertEquals("First utterance", controller.getTranscription(sessionId).getBody().get("transcribedText"));
+        verify(audioListenerService).listenPcm(argThat(bean -> bean.getAudioDataSize() == 8));
+    }
+    
+    @Test
+    void testStopSession_AfterUtterance_SkipsTrailingSilence() throws Exception {
+        // Given - an utterance already ended, followed by silence only
+        String sessionId = startSession();
+        when(silenceDetectionService.trackChunk(any(), any(byte[].class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0))
+            .thenReturn(new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25))
+            .thenReturn(new SpeechActivity(2, new boolean[]{false}, 320, 16000, false, 26));
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText("First utterance");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+        controller.sendChunk(chunk(sessionId, new byte[]{1, 2, 3, 4}));
+        controller.sendChunk(chunk(sessionId, new byte[]{5, 6, 7, 8}));
+        controller.sendChunk(chunk(sessionId, new byte[]{9, 10}));
+        
+        AudioStreamingController.SessionStopRequest stopRequest = new AudioStreamingController.SessionStopRequest();
+        stopRequest.setSessionId(sessionId);
+        
+        // When
+        ResponseEntity<Map<String, Object>> response = controller.stopSession(stopRequest);
+        
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("First utterance", response.getBody().get("transcribedText"));
+        assertTrue((Boolean) response.getBody().get("hasTranscription"));
+        assertEquals(1, response.getBody().get("utterances"));
+        assertEquals(0L, response.getBody().get("audioSize"));
+        verify(audioListenerService, times(1)).listenPcm(any());
+    }
+    
+    @Test
+    void testStopSession_AfterUtterance_AppendsRemainingSpeech() throws Exception {
+        // Given - an utterance already ended, then more speech when the client stops
+        String sessionId = startSession();
+        when(silenceDetectionService.trackChunk(any(), any(byte[].class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0))
+            .thenReturn(new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25))
+            .thenReturn(new SpeechActivity(2, new boolean[]{true}, 320, 16000, true, 0));
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText(bean.getId().equals(sessionId) ? "second" : "first");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+        controller.sendChunk(chunk(sessionId, new byte[]{1, 2, 3, 4}));
+        controller.sendChunk(chunk(sessionId, new byte[]{5, 6, 7, 8}));
+        controller.sendChunk(chunk(sessionId, new byte[]{9, 10}));
+        
+        AudioStreamingController.SessionStopRequest stopRequest = new AudioStreamingController.SessionStopRequest();
+        stopRequest.setSessionId(sessionId);
+        
+        // When
+        ResponseEntity<Map<String, Object>> response = controller.stopSession(stopRequest);
+        
+        // Then
+        assertEquals("first second", response.getBody().get("transcribedText"));
+        assertEquals(2L, response.getBody().get("audioSize"));
+        verify(audioListenerService, times(2)).listenPcm(any());
+    }
+    
+    @Test
+    void testConcurrentSessions_KeepSeparateBuffersAndFormats() {
+        // Given - two sessions with different formats
+        AudioStreamingController.SessionStartRequest firstRequest = new AudioStreamingController.SessionStartRequest();
+        firstRequest.setSamplesPerSecond(16000);
+        firstRequest.setBitsPerSample((short) 16);
+        firstRequest.setChannels((short) 1);
+        String firstSessionId = (String) controller.startSession(firstRequest).getBody().get("sessionId");
+        
+        AudioStreamingController.SessionStartRequest secondRequest = new AudioStreamingController.SessionStartRequest();
+        secondRequest.setSamplesPerSecond(44100);
+        secondRequest.setBitsPerSample((short) 16);
+        secondRequest.setChannels((short) 2);
+        String secondSessionId = (String) controller.startSession(secondRequest).getBody().get("sessionId");
+        
+        AudioStreamingController.ChunkRequest firstChunk = new AudioStreamingController.ChunkRequest();
+        firstChunk.setSessionId(firstSessionId);
+        firstChunk.setPcmData(new byte[]{1, 2, 3, 4});
+        
+        AudioStreamingController.ChunkRequest secondChunk = new AudioStreamingController.ChunkRequest();
+        secondChunk.setSessionId(secondSessionId);
+        secondChunk.setPcmData(new byte[]{5, 6});
+        
+        // When
+        ResponseEntity<Map<String, Object>> firstResponse = controller.sendChunk(firstChunk);
+        ResponseEntity<Map<String, Object>> secondResponse = controller.sendChunk(secondChunk);
+        
+        // Then - starting the second session did not wipe the first one
+        assertNotEquals(firstSessionId, secondSessionId);
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, secondResponse.getStatusCode());
+        assertEquals(4, firstResponse.getBody().get("bufferSize"));
+        assertEquals(2, secondResponse.getBody().get("bufferSize"));
+        verify(silenceDetectionService).trackChunk(eq(streamingSessionService.getSession(firstSessionId)), any(byte[].class));
+        verify(silenceDetectionService).trackChunk(eq(streamingSessionService.getSession(secondSessionId)), any(byte[].class));
     }
     
     @Test
@@ -206,4 +338,19 @@ class AudioStreamingControllerTest {
         assertTrue((Boolean) response.getBody().get("success"));
         assertEquals(sessionId, response.getBody().get("sessionId"));
     }
-}
+    
+    private String startSession() {
+        AudioStreamingController.SessionStartRequest startRequest = new AudioStreamingController.SessionStartRequest();
+        startRequest.setSamplesPerSecond(16000);
+        startRequest.setBitsPerSample((short) 16);
+        startRequest.setChannels((short) 1);
+        return (String) controller.startSession(startRequest).getBody().get("sessionId");
+    }
+    
+    private static AudioStreamingController.ChunkRequest chunk(String sessionId, byte[] pcmData) {
+        AudioStreamingController.ChunkRequest chunkRequest = new AudioStreamingController.ChunkRequest();
+        chunkRequest.setSessionId(sessionId);
+        chunkRequest.setPcmData(pcmData);
+        return chunkRequest;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,237 @@
+package com.tomasburgaleta.exampleia.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tomasburgaleta.exampleia.application.service.AudioListenerService;
+import com.tomasburgaleta.exampleia.application.service.SilenceDetectionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingEndpointingService;
+import com.tomasburgaleta.exampleia.application.service.StreamingSessionService;
+import com.tomasburgaleta.exampleia.application.service.StreamingTranscriptionService;
+import com.tomasburgaleta.exampleia.domain.model.AudioBean;
+import com.tomasburgaleta.exampleia.domain.model.SpeechActivity;
+import com.tomasburgaleta.exampleia.domain.port.AudioProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AudioStreamingWebSocketHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AudioStreamingWebSocketHandler handler;
+
+    private StreamingSessionService streamingSessionService;
+
+    @Mock
+    private AudioListenerService audioListenerService;
+
+    @Mock
+    private SilenceDetectionService silenceDetectionService;
+
+    @Mock
+    private WebSocketSession webSocketSession;
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        streamingSessionService = new StreamingSessionService();
+        StreamingEndpointingService streamingEndpointingService = new StreamingEndpointingService(audioListenerService, 500, Runnable::run);
+        handler = new AudioStreamingWebSocketHandler(streamingSessionService,
+            new StreamingTranscriptionService(streamingSessionService, audioListenerService, streamingEndpointingService),
+            silenceDetectionService, streamingEndpointingService);
+
+        when(webSocketSession.getAttributes()).thenReturn(attributes);
+        when(webSocketSession.isOpen()).thenReturn(true);
+    }
+
+    @Test
+    void testConnect_NegotiatesFormat() throws Exception {
+        // Given
+        when(webSocketSession.getUri()).thenReturn(URI.create("ws://localhost/ws/stream?samplesPerSecond=48000&bitsPerSample=16&channels=2"));
+
+        // When
+        handler.afterConnectionEstablished(webSocketSession);
+
+        // Then
+        JsonNode started = sentMessages().get(0);
+        assertEquals("started", started.get("type").asText());
+        assertTrue(started.get("success").asBoolean());
+
+        String sessionId = started.get("sessionId").asText();
+        assertEquals(sessionId, attributes.get(AudioStreamingWebSocketHandler.STREAMING_SESSION_ID));
+        assertEquals(48000, streamingSessionService.getSession(sessionId).getSamplesPerSecond());
+        assertEquals(2, streamingSessionService.getSession(sessionId).getChannels());
+    }
+
+    @Test
+    void testConnect_InvalidFormatClosesSocket() throws Exception {
+        // Given
+        when(webSocketSession.getUri()).thenReturn(URI.create("ws://localhost/ws/stream?samplesPerSecond=16000&channels=1"));
+
+        // When
+        handler.afterConnectionEstablished(webSocketSession);
+
+        // Then
+        JsonNode error = sentMessages().get(0);
+        assertEquals("error", error.get("type").asText());
+        assertFalse(error.get("success").asBoolean());
+        verify(webSocketSession).close(CloseStatus.BAD_DATA);
+        assertEquals(0, streamingSessionService.getActiveSessionCount());
+    }
+
+    @Test
+    void testBinaryFrame_AppendsPcmAndPushesStatus() throws Exception {
+        // Given
+        String sessionId = connect();
+        when(silenceDetectionService.trackChunk(any(), any(ByteBuffer.class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{false}, 320, 16000, false, 25));
+
+        // When
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{1, 2, 3, 4}));
+
+        // Then
+        JsonNode status = sentMessages().get(1);
+        assertEquals("chunk", status.get("type").asText());
+        assertEquals(4, status.get("bufferSize").asInt());
+        assertTrue(status.get("isSilent").asBoolean());
+        assertEquals(500, status.get("silenceMillis").asLong());
+        assertEquals(4, streamingSessionService.getSession(sessionId).getBufferSize());
+    }
+
+    @Test
+    void testStopMessage_TranscribesAndCloses() throws Exception {
+        // Given
+        String sessionId = connect();
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{1, 2, 3, 4, 5}));
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText("Test transcription");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+
+        // When
+        handler.handleMessage(webSocketSession, new TextMessage("{\"type\":\"stop\"}"));
+
+        // Then
+        JsonNode transcription = sentMessages().get(2);
+        assertEquals("transcription", transcription.get("type").asText());
+        assertEquals("Test transcription", transcription.get("transcribedText").asText());
+        assertEquals(5, transcription.get("audioSize").asInt());
+        assertNull(streamingSessionService.getSession(sessionId));
+        verify(webSocketSession).close(CloseStatus.NORMAL);
+    }
+
+    @Test
+    void testBinaryFrame_PushesUtteranceTranscription() throws Exception {
+        // Given - speech, then enough silence to end the utterance
+        String sessionId = connect();
+        when(silenceDetectionService.trackChunk(any(), any(ByteBuffer.class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0))
+            .thenReturn(new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25));
+        doAnswer(invocation -> {
+            AudioBean bean = invocation.getArgument(0);
+            bean.setTranscribedText("Hello");
+            return null;
+        }).when(audioListenerService).listenPcm(any());
+
+        // When
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{1, 2, 3, 4}));
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{5, 6, 7, 8}));
+
+        // Then - the chunk status announces the utterance and its text follows on the socket
+        List<JsonNode> messages = sentMessages();
+        assertFalse(messages.get(1).get("utteranceEnded").asBoolean());
+        assertTrue(messages.get(2).get("utteranceEnded").asBoolean());
+        JsonNode utterance = messages.get(3);
+        assertEquals("utterance", utterance.get("type").asText());
+        assertEquals(1, utterance.get("utteranceIndex").asInt());
+        assertEquals("Hello", utterance.get("transcribedText").asText());
+        assertNotNull(streamingSessionService.getSession(sessionId));
+    }
+
+    @Test
+    void testBinaryFrame_PushesUtteranceFailure() throws Exception {
+        // Given
+        connect();
+        when(silenceDetectionService.trackChunk(any(), any(ByteBuffer.class)))
+            .thenReturn(new SpeechActivity(0, new boolean[]{true}, 320, 16000, true, 0))
+            .thenReturn(new SpeechActivity(1, new boolean[]{false}, 320, 16000, false, 25));
+        when(audioListenerService.listenPcm(any())).thenThrow(new AudioProcessingException("provider down"));
+
+        // When
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{1, 2, 3, 4}));
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{5, 6, 7, 8}));
+
+        // Then
+        JsonNode utterance = sentMessages().get(3);
+        assertEquals("utterance", utterance.get("type").asText());
+        assertFalse(utterance.get("success").asBoolean());
+        assertTrue(utterance.get("error").asText().contains("provider down"));
+    }
+
+    @Test
+    void testMalformedControlMessage_KeepsSessionOpen() throws Exception {
+        // Given
+        String sessionId = connect();
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{1, 2, 3}));
+
+        // When
+        handler.handleMessage(webSocketSession, new TextMessage("{\"type\":"));
+
+        // Then
+        JsonNode error = sentMessages().get(2);
+        assertEquals("error", error.get("type").asText());
+        assertFalse(error.get("success").asBoolean());
+        verify(webSocketSession, never()).close(any());
+        assertEquals(3, streamingSessionService.getSession(sessionId).getBufferSize());
+    }
+
+    @Test
+    void testConnectionClosed_EndsSession() throws Exception {
+        // Given
+        String sessionId = connect();
+        handler.handleMessage(webSocketSession, new BinaryMessage(new byte[]{1, 2, 3}));
+
+        // When
+        handler.afterConnectionClosed(webSocketSession, CloseStatus.GOING_AWAY);
+
+        // Then
+        assertNull(streamingSessionService.getSession(sessionId));
+        verify(audioListenerService, never()).listenPcm(any());
+    }
+
+    private String connect() throws Exception {
+        when(webSocketSession.getUri()).thenReturn(URI.create("ws://localhost/ws/stream?samplesPerSecond=16000&bitsPerSample=16&channels=1"));
+        handler.afterConnectionEstablished(webSocketSession);
+        return (String) attributes.get(AudioStreamingWebSocketHandler.STREAMING_SESSION_ID);
+    }
+
+    private List<JsonNode> sentMessages() throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(webSocketSession, atLeastOnce()).sendMessage(captor.capture());
+        List<JsonNode> messages = new ArrayList<>();
+        for (TextMessage message : captor.getAllValues()) {
+            messages.add(objectMapper.readTree(message.getPayload()));
+        }
+        return messages;
+    }
+}